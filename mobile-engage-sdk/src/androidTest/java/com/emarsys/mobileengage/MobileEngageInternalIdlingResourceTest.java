@@ -16,9 +16,12 @@ import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.response.ResponseModel;
 import com.emarsys.core.timestamp.TimestampProvider;
 import com.emarsys.mobileengage.config.MobileEngageConfig;
+import com.emarsys.mobileengage.event.CustomEventQueue;
+import com.emarsys.mobileengage.event.EventBuffer;
 import com.emarsys.mobileengage.event.applogin.AppLoginParameters;
 import com.emarsys.mobileengage.responsehandler.AbstractResponseHandler;
 import com.emarsys.mobileengage.storage.AppLoginStorage;
+import com.emarsys.mobileengage.storage.LastMobileActivityStorage;
 import com.emarsys.mobileengage.storage.MeIdSignatureStorage;
 import com.emarsys.mobileengage.storage.MeIdStorage;
 import com.emarsys.mobileengage.testUtil.DatabaseTestUtils;
@@ -93,7 +96,10 @@ public class MobileEngageInternalIdlingResourceTest {
                         meIdStorage,
                         meIdSignatureStorage,
                         mock(TimestampProvider.class),
-                        requestIdProvider));
+                        requestIdProvider),
+                mock(EventBuffer.class),
+                mock(CustomEventQueue.class),
+                mock(LastMobileActivityStorage.class));
 
         MobileEngageUtils.setup(config);
         idlingResource = mock(MobileEngageIdlingResource.class);
@@ -14,11 +14,14 @@ import com.emarsys.core.request.RequestManager;
 import com.emarsys.core.response.ResponseModel;
 import com.emarsys.core.timestamp.TimestampProvider;
 import com.emarsys.mobileengage.config.MobileEngageConfig;
+import com.emarsys.mobileengage.event.CustomEventQueue;
+import com.emarsys.mobileengage.event.EventBuffer;
 import com.emarsys.mobileengage.event.applogin.AppLoginParameters;
 import com.emarsys.mobileengage.fake.FakeRequestManager;
 import com.emarsys.mobileengage.fake.FakeStatusListener;
 import com.emarsys.mobileengage.responsehandler.AbstractResponseHandler;
 import com.emarsys.mobileengage.storage.AppLoginStorage;
+import com.emarsys.mobileengage.storage.LastMobileActivityStorage;
 import com.emarsys.mobileengage.storage.MeIdSignatureStorage;
 import com.emarsys.mobileengage.storage.MeIdStorage;
 import com.emarsys.mobileengage.testUtil.TimeoutUtils;
@@ -146,7 +149,10 @@ public class MobileEngageInternalStatusListenerTest {
                 requestManager,
                 coreSdkHandler,
                 completionHandler,
-                requestContext);
+                requestContext,
+                mock(EventBuffer.class),
+                mock(CustomEventQueue.class),
+                mock(LastMobileActivityStorage.class));
     }
 
     @Test
@@ -15,11 +15,16 @@ import com.emarsys.core.request.model.RequestMethod;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.timestamp.TimestampProvider;
 import com.emarsys.core.util.TimestampUtils;
+import com.emarsys.mobileengage.config.EventRateLimitRule;
 import com.emarsys.mobileengage.config.MobileEngageConfig;
+import com.emarsys.mobileengage.event.Event;
+import com.emarsys.mobileengage.event.CustomEventQueue;
+import com.emarsys.mobileengage.event.EventBuffer;
 import com.emarsys.mobileengage.event.applogin.AppLoginParameters;
 import com.emarsys.mobileengage.experimental.MobileEngageExperimental;
 import com.emarsys.mobileengage.experimental.MobileEngageFeature;
 import com.emarsys.mobileengage.storage.AppLoginStorage;
+import com.emarsys.mobileengage.storage.LastMobileActivityStorage;
 import com.emarsys.mobileengage.storage.MeIdSignatureStorage;
 import com.emarsys.mobileengage.storage.MeIdStorage;
 import com.emarsys.mobileengage.testUtil.ExperimentalTestUtils;
@@ -37,8 +42,10 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.emarsys.mobileengage.MobileEngageInternal.MOBILEENGAGE_SDK_VERSION;
@@ -48,9 +55,11 @@ import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 @RunWith(AndroidJUnit4.class)
@@ -87,6 +96,9 @@ public class MobileEngageInternalTest {
     private RequestContext requestContext;
     private TimestampProvider timestampProvider;
     private RequestIdProvider requestIdProvider;
+    private EventBuffer eventBuffer;
+    private CustomEventQueue customEventQueue;
+    private LastMobileActivityStorage lastMobileActivityStorage;
 
     @Rule
     public TestRule timeout = TimeoutUtils.getTimeoutRule();
@@ -117,6 +129,10 @@ public class MobileEngageInternalTest {
         requestIdProvider = mock(RequestIdProvider.class);
         when(requestIdProvider.provideId()).thenReturn(REQUEST_ID);
 
+        eventBuffer = mock(EventBuffer.class);
+        customEventQueue = mock(CustomEventQueue.class);
+        lastMobileActivityStorage = mock(LastMobileActivityStorage.class);
+
         meIdStorage = new MeIdStorage(application);
         meIdSignatureStorage = new MeIdSignatureStorage(application);
         requestContext = new RequestContext(
@@ -133,7 +149,10 @@ public class MobileEngageInternalTest {
                 manager,
                 mock(Handler.class),
                 coreCompletionHandler,
-                requestContext);
+                requestContext,
+                eventBuffer,
+                customEventQueue,
+                lastMobileActivityStorage);
 
         meIdStorage.set(ME_ID);
         meIdSignatureStorage.set(ME_ID_SIGNATURE);
@@ -156,7 +175,10 @@ public class MobileEngageInternalTest {
                 manager,
                 mock(Handler.class),
                 coreCompletionHandler,
-                mock(RequestContext.class));
+                mock(RequestContext.class),
+                eventBuffer,
+                customEventQueue,
+                lastMobileActivityStorage);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -166,7 +188,10 @@ public class MobileEngageInternalTest {
                 null,
                 mock(Handler.class),
                 coreCompletionHandler,
-                mock(RequestContext.class));
+                mock(RequestContext.class),
+                eventBuffer,
+                customEventQueue,
+                lastMobileActivityStorage);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -176,7 +201,10 @@ public class MobileEngageInternalTest {
                 manager,
                 mock(Handler.class),
                 coreCompletionHandler,
-                null);
+                null,
+                eventBuffer,
+                customEventQueue,
+                lastMobileActivityStorage);
     }
 
     @Test
@@ -251,7 +279,10 @@ public class MobileEngageInternalTest {
                 manager,
                 mock(Handler.class),
                 coreCompletionHandler,
-                requestContext);
+                requestContext,
+                eventBuffer,
+                customEventQueue,
+                lastMobileActivityStorage);
 
         final int contactFieldId = 3;
         final String contactFieldValue = "email@address.com";
@@ -316,6 +347,73 @@ public class MobileEngageInternalTest {
         assertRequestModels(createLoginRequestModel(appLoginParameters), requestModel);
     }
 
+    @Test
+    public void testAppLogin_shouldThrottleLastMobileActivity_whenEnabled() {
+        ExperimentalTestUtils.resetExperimentalFeatures();
+        LastMobileActivityStorage lastMobileActivityStorage = new LastMobileActivityStorage(application);
+        lastMobileActivityStorage.remove();
+
+        MobileEngageConfig config = new MobileEngageConfig.Builder()
+                .from(baseConfig)
+                .throttleLastMobileActivity(60_000)
+                .build();
+        mobileEngage = new MobileEngageInternal(
+                config,
+                manager,
+                mock(Handler.class),
+                coreCompletionHandler,
+                requestContext,
+                eventBuffer,
+                customEventQueue,
+                lastMobileActivityStorage);
+
+        mobileEngage.appLogin(appLoginParameters.getContactFieldId(), appLoginParameters.getContactFieldValue());
+        mobileEngage.appLogin(appLoginParameters.getContactFieldId(), appLoginParameters.getContactFieldValue());
+        mobileEngage.appLogin(appLoginParameters.getContactFieldId(), appLoginParameters.getContactFieldValue());
+        mobileEngage.appLogin(appLoginParameters.getContactFieldId(), appLoginParameters.getContactFieldValue());
+
+        verify(manager, times(2)).submit(any(RequestModel.class));
+        assertEquals(1, mobileEngage.getLastMobileActivityThrottler().getSuppressedCount());
+
+        lastMobileActivityStorage.remove();
+    }
+
+    @Test
+    public void testAppLogout_shouldSubmitPendingLastMobileActivity_beforeLogout() {
+        ExperimentalTestUtils.resetExperimentalFeatures();
+        LastMobileActivityStorage lastMobileActivityStorage = new LastMobileActivityStorage(application);
+        lastMobileActivityStorage.remove();
+
+        MobileEngageConfig config = new MobileEngageConfig.Builder()
+                .from(baseConfig)
+                .throttleLastMobileActivity(60_000)
+                .build();
+        mobileEngage = new MobileEngageInternal(
+                config,
+                manager,
+                mock(Handler.class),
+                coreCompletionHandler,
+                requestContext,
+                eventBuffer,
+                customEventQueue,
+                lastMobileActivityStorage);
+
+        mobileEngage.appLogin(appLoginParameters.getContactFieldId(), appLoginParameters.getContactFieldValue());
+        mobileEngage.appLogin(appLoginParameters.getContactFieldId(), appLoginParameters.getContactFieldValue());
+        String pendingId = mobileEngage.appLogin(appLoginParameters.getContactFieldId(), appLoginParameters.getContactFieldValue());
+
+        ArgumentCaptor<RequestModel> captor = ArgumentCaptor.forClass(RequestModel.class);
+
+        mobileEngage.appLogout();
+
+        verify(manager, times(4)).submit(captor.capture());
+        List<RequestModel> submitted = captor.getAllValues();
+        assertEquals(pendingId, submitted.get(2).getId());
+        assertEquals(ENDPOINT_LOGOUT, submitted.get(3).getUrl().toString());
+
+        lastMobileActivityStorage.remove();
+    }
+
     @Test
     public void testAppLogin_shouldNotResult_inMultipleAppLoginRequests_ifPayloadIsTheSame_evenIfMobileEngageIsReInitialized() throws Exception {
         ExperimentalTestUtils.resetExperimentalFeatures();
@@ -489,6 +587,257 @@ public class MobileEngageInternalTest {
         assertEquals(captor.getValue().getId(), result);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_eventBufferShouldNotBeNull() {
+        new MobileEngageInternal(
+                baseConfig,
+                manager,
+                mock(Handler.class),
+                coreCompletionHandler,
+                requestContext,
+                null,
+                customEventQueue,
+                lastMobileActivityStorage);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_customEventQueueShouldNotBeNull() {
+        new MobileEngageInternal(
+                baseConfig,
+                manager,
+                mock(Handler.class),
+                coreCompletionHandler,
+                requestContext,
+                eventBuffer,
+                null,
+                lastMobileActivityStorage);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_lastMobileActivityStorageShouldNotBeNull() {
+        new MobileEngageInternal(
+                baseConfig,
+                manager,
+                mock(Handler.class),
+                coreCompletionHandler,
+                requestContext,
+                eventBuffer,
+                customEventQueue,
+                null);
+    }
+
+    @Test
+    public void testTrackCustomEvent_V3_shouldOfferEventToQueue_whenAsyncTrackingIsEnabled() {
+        when(customEventQueue.isEnabled()).thenReturn(true);
+        when(customEventQueue.offer("event", null)).thenReturn("QUEUED_ID");
+
+        String result = mobileEngage.trackCustomEvent("event", null);
+
+        assertEquals("QUEUED_ID", result);
+        verify(customEventQueue).offer("event", null);
+        verifyZeroInteractions(manager);
+    }
+
+    @Test
+    public void testTrackCustomEvent_V3_shouldNotOfferEventToQueue_whenBatchingIsEnabled() {
+        when(customEventQueue.isEnabled()).thenReturn(true);
+        when(eventBuffer.isEnabled()).thenReturn(true);
+
+        mobileEngage.trackCustomEvent("event", null);
+
+        verify(customEventQueue, never()).offer(any(String.class), any(Map.class));
+        verify(eventBuffer).add(any(Map.class));
+    }
+
+    @Test
+    public void testTrackCustomEvent_V2_shouldNotOfferEventToQueue() {
+        ExperimentalTestUtils.resetExperimentalFeatures();
+        when(customEventQueue.isEnabled()).thenReturn(true);
+
+        mobileEngage.trackCustomEvent("event", null);
+
+        verify(customEventQueue, never()).offer(any(String.class), any(Map.class));
+        verify(manager).submit(any(RequestModel.class));
+    }
+
+    @Test
+    public void testTrackCustomEvent_V3_shouldAddEventToBuffer_whenBatchingIsEnabled() {
+        when(eventBuffer.isEnabled()).thenReturn(true);
+        when(eventBuffer.add(any(Map.class))).thenReturn("BATCH_ID");
+
+        String eventName = "cartoon";
+        Map<String, String> eventAttributes = new HashMap<>();
+        eventAttributes.put("tom", "jerry");
+
+        Map<String, Object> expectedEvent = new HashMap<>();
+        expectedEvent.put("type", CUSTOM);
+        expectedEvent.put("name", eventName);
+        expectedEvent.put("timestamp", TimestampUtils.formatTimestampWithUTC(TIMESTAMP));
+        expectedEvent.put("attributes", eventAttributes);
+
+        String result = mobileEngage.trackCustomEvent(eventName, eventAttributes);
+
+        verify(eventBuffer).add(expectedEvent);
+        verifyZeroInteractions(manager);
+        assertEquals("BATCH_ID", result);
+    }
+
+    @Test
+    public void testTrackCustomEvent_requestManagerNotCalled_whenEventIsDroppedByRateLimitRule() {
+        MobileEngageConfig config = new MobileEngageConfig.Builder()
+                .from(baseConfig)
+                .addEventRateLimitRule(new EventRateLimitRule("dropped", 0))
+                .build();
+        MobileEngageInternal internal = new MobileEngageInternal(
+                config,
+                manager,
+                mock(Handler.class),
+                coreCompletionHandler,
+                requestContext,
+                eventBuffer,
+                customEventQueue,
+                lastMobileActivityStorage);
+
+        String result = internal.trackCustomEvent("dropped", null);
+
+        verifyZeroInteractions(manager);
+        assertEquals(REQUEST_ID, result);
+        assertEquals(1, internal.getEventRateLimiter().getSampledOutCount("dropped"));
+    }
+
+    @Test
+    public void testTrackCustomEvent_duplicateWithinWindow_isSuppressed() {
+        MobileEngageConfig config = new MobileEngageConfig.Builder()
+                .from(baseConfig)
+                .enableEventDeduplication(500)
+                .build();
+        MobileEngageInternal internal = new MobileEngageInternal(
+                config,
+                manager,
+                mock(Handler.class),
+                coreCompletionHandler,
+                requestContext,
+                eventBuffer,
+                customEventQueue,
+                lastMobileActivityStorage);
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key", "value");
+
+        String first = internal.trackCustomEvent("event", attributes);
+        String second = internal.trackCustomEvent("event", new HashMap<>(attributes));
+
+        verify(manager, times(1)).submit(any(RequestModel.class));
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testTrackCustomEvent_differentAttributes_areNotSuppressed() {
+        MobileEngageConfig config = new MobileEngageConfig.Builder()
+                .from(baseConfig)
+                .enableEventDeduplication(500)
+                .build();
+        MobileEngageInternal internal = new MobileEngageInternal(
+                config,
+                manager,
+                mock(Handler.class),
+                coreCompletionHandler,
+                requestContext,
+                eventBuffer,
+                customEventQueue,
+                lastMobileActivityStorage);
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key", "value");
+
+        internal.trackCustomEvent("event", null);
+        internal.trackCustomEvent("event", attributes);
+
+        verify(manager, times(2)).submit(any(RequestModel.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTrackCustomEvents_V3_requestManagerNotCalled_withDroppedEventsOnly() {
+        MobileEngageConfig config = new MobileEngageConfig.Builder()
+                .from(baseConfig)
+                .addEventRateLimitRule(new EventRateLimitRule("dropped", 0))
+                .build();
+        MobileEngageInternal internal = new MobileEngageInternal(
+                config,
+                manager,
+                mock(Handler.class),
+                coreCompletionHandler,
+                requestContext,
+                eventBuffer,
+                customEventQueue,
+                lastMobileActivityStorage);
+
+        internal.trackCustomEvents(Arrays.asList(
+                new Event("dropped", null, 100),
+                new Event("dropped", null, 200)));
+
+        verifyZeroInteractions(manager);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTrackCustomEvents_V3_requestManagerCalledOnce_withAllEvents() {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("tom", "jerry");
+
+        List<Event> events = Arrays.asList(
+                new Event("event1", null, 100),
+                new Event("event2", attributes, 200));
+
+        ArgumentCaptor<RequestModel> captor = ArgumentCaptor.forClass(RequestModel.class);
+
+        String result = mobileEngage.trackCustomEvents(events);
+
+        verify(manager).submit(captor.capture());
+
+        Map<String, Object> event1 = new HashMap<>();
+        event1.put("type", CUSTOM);
+        event1.put("name", "event1");
+        event1.put("timestamp", TimestampUtils.formatTimestampWithUTC(100));
+
+        Map<String, Object> event2 = new HashMap<>();
+        event2.put("type", CUSTOM);
+        event2.put("name", "event2");
+        event2.put("timestamp", TimestampUtils.formatTimestampWithUTC(200));
+        event2.put("attributes", attributes);
+
+        RequestModel requestModel = captor.getValue();
+        assertEquals(ENDPOINT_BASE_V3 + ME_ID + "/events", requestModel.getUrl().toString());
+        assertEquals(Arrays.asList(event1, event2), (List<Object>) requestModel.getPayload().get("events"));
+        assertEquals(requestModel.getId(), result);
+    }
+
+    @Test
+    public void testTrackCustomEvents_V3_requestManagerNotCalled_withEmptyList() {
+        String result = mobileEngage.trackCustomEvents(new ArrayList<Event>());
+
+        verifyZeroInteractions(manager);
+        assertEquals(REQUEST_ID, result);
+    }
+
+    @Test
+    public void testTrackCustomEvents_V2_requestManagerCalledForEachEvent() {
+        ExperimentalTestUtils.resetExperimentalFeatures();
+
+        List<Event> events = Arrays.asList(
+                new Event("event1", null, 100),
+                new Event("event2", null, 200));
+
+        ArgumentCaptor<RequestModel> captor = ArgumentCaptor.forClass(RequestModel.class);
+
+        String result = mobileEngage.trackCustomEvents(events);
+
+        verify(manager, times(2)).submit(captor.capture());
+
+        assertEquals(ENDPOINT_BASE_V2 + "events/event1", captor.getAllValues().get(0).getUrl().toString());
+        assertEquals(ENDPOINT_BASE_V2 + "events/event2", captor.getAllValues().get(1).getUrl().toString());
+        assertEquals(captor.getAllValues().get(1).getId(), result);
+    }
+
     @Test
     public void testTrackCustomEvent_V2_requestManagerCalledWithCorrectRequestModel() throws Exception {
         ExperimentalTestUtils.resetExperimentalFeatures();
@@ -837,7 +1186,10 @@ public class MobileEngageInternalTest {
                     manager,
                     mock(Handler.class),
                     coreCompletionHandler,
-                    requestContext);
+                    requestContext,
+                    eventBuffer,
+                    customEventQueue,
+                    lastMobileActivityStorage);
         }
 
         captor = ArgumentCaptor.forClass(RequestModel.class);
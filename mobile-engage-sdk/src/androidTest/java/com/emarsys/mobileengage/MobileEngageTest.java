@@ -21,6 +21,9 @@ import com.emarsys.mobileengage.deeplink.DeepLinkInternal;
 import com.emarsys.mobileengage.di.DefaultDependencyContainer;
 import com.emarsys.mobileengage.di.DependencyContainer;
 import com.emarsys.mobileengage.di.DependencyInjection;
+import com.emarsys.mobileengage.event.Event;
+import com.emarsys.mobileengage.event.CustomEventQueue;
+import com.emarsys.mobileengage.event.EventBuffer;
 import com.emarsys.mobileengage.event.applogin.AppLoginParameters;
 import com.emarsys.mobileengage.experimental.FlipperFeature;
 import com.emarsys.mobileengage.experimental.MobileEngageFeature;
@@ -38,7 +41,9 @@ import com.emarsys.mobileengage.responsehandler.AbstractResponseHandler;
 import com.emarsys.mobileengage.responsehandler.InAppCleanUpResponseHandler;
 import com.emarsys.mobileengage.responsehandler.InAppMessageResponseHandler;
 import com.emarsys.mobileengage.responsehandler.MeIdResponseHandler;
+import com.emarsys.mobileengage.startup.StartupReport;
 import com.emarsys.mobileengage.storage.AppLoginStorage;
+import com.emarsys.mobileengage.storage.LastMobileActivityStorage;
 import com.emarsys.mobileengage.storage.MeIdSignatureStorage;
 import com.emarsys.mobileengage.storage.MeIdStorage;
 import com.emarsys.mobileengage.testUtil.CollectionTestUtils;
@@ -62,8 +67,10 @@ import org.mockito.ArgumentCaptor;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 
@@ -160,7 +167,7 @@ public class MobileEngageTest {
         MobileEngage.instance = null;
         MobileEngage.setup(baseConfig);
 
-        assertNotNull(MobileEngage.instance);
+        assertNotNull(MobileEngage.getInstance());
     }
 
     @Test
@@ -169,6 +176,9 @@ public class MobileEngageTest {
         MobileEngage.completionHandler = null;
         MobileEngage.setup(inAppConfig);
 
+        MobileEngage.getInstance();
+        waitForCoreSdkHandler();
+
         MobileEngageCoreCompletionHandler coreCompletionHandler = MobileEngage.completionHandler;
         assertNotNull(coreCompletionHandler);
         assertEquals(1, CollectionTestUtils.numberOfElementsIn(coreCompletionHandler.responseHandlers, MeIdResponseHandler.class));
@@ -180,6 +190,9 @@ public class MobileEngageTest {
         MobileEngage.completionHandler = null;
         MobileEngage.setup(userCentricConfig);
 
+        MobileEngage.getInstance();
+        waitForCoreSdkHandler();
+
         MobileEngageCoreCompletionHandler coreCompletionHandler = MobileEngage.completionHandler;
         assertNotNull(coreCompletionHandler);
         assertEquals(1, CollectionTestUtils.numberOfElementsIn(coreCompletionHandler.responseHandlers, MeIdResponseHandler.class));
@@ -193,6 +206,9 @@ public class MobileEngageTest {
         MobileEngage.completionHandler = null;
         MobileEngage.setup(fullConfig);
 
+        MobileEngage.getInstance();
+        waitForCoreSdkHandler();
+
         MobileEngageCoreCompletionHandler coreCompletionHandler = MobileEngage.completionHandler;
         assertNotNull(coreCompletionHandler);
         assertEquals(1, CollectionTestUtils.numberOfElementsIn(coreCompletionHandler.responseHandlers, MeIdResponseHandler.class));
@@ -214,16 +230,22 @@ public class MobileEngageTest {
         MobileEngage.completionHandler = null;
         MobileEngage.setup(baseConfig);
 
+        MobileEngage.getInstance();
+        waitForCoreSdkHandler();
+
         MobileEngageCoreCompletionHandler coreCompletionHandler = MobileEngage.completionHandler;
         assertNotNull(coreCompletionHandler);
         assertEquals(0, CollectionTestUtils.numberOfElementsIn(coreCompletionHandler.responseHandlers, MeIdResponseHandler.class));
     }
 
     @Test
-    public void testSetup_initializesCoreCompletionHandler_withInAppMessageResponseHandler() {
+    public void testSetup_initializesCoreCompletionHandler_withInAppMessageResponseHandler() throws InterruptedException {
         MobileEngage.completionHandler = null;
         MobileEngage.setup(inAppConfig);
 
+        MobileEngage.getInstance();
+        waitForCoreSdkHandler();
+
         MobileEngageCoreCompletionHandler coreCompletionHandler = MobileEngage.completionHandler;
         assertNotNull(coreCompletionHandler);
         assertEquals(1, CollectionTestUtils.numberOfElementsIn(coreCompletionHandler.responseHandlers, InAppMessageResponseHandler.class));
@@ -236,16 +258,22 @@ public class MobileEngageTest {
         MobileEngage.completionHandler = null;
         MobileEngage.setup(baseConfig);
 
+        MobileEngage.getInstance();
+        waitForCoreSdkHandler();
+
         MobileEngageCoreCompletionHandler coreCompletionHandler = MobileEngage.completionHandler;
         assertNotNull(coreCompletionHandler);
         assertEquals(0, CollectionTestUtils.numberOfElementsIn(coreCompletionHandler.responseHandlers, InAppMessageResponseHandler.class));
     }
 
     @Test
-    public void testSetup_initializesCoreCompletionHandler_withInAppCleanUpResponseHandler() {
+    public void testSetup_initializesCoreCompletionHandler_withInAppCleanUpResponseHandler() throws InterruptedException {
         MobileEngage.completionHandler = null;
         MobileEngage.setup(inAppConfig);
 
+        MobileEngage.getInstance();
+        waitForCoreSdkHandler();
+
         MobileEngageCoreCompletionHandler coreCompletionHandler = MobileEngage.completionHandler;
         assertNotNull(coreCompletionHandler);
         assertEquals(1, CollectionTestUtils.numberOfElementsIn(coreCompletionHandler.responseHandlers, InAppCleanUpResponseHandler.class));
@@ -258,6 +286,9 @@ public class MobileEngageTest {
         MobileEngage.completionHandler = null;
         MobileEngage.setup(baseConfig);
 
+        MobileEngage.getInstance();
+        waitForCoreSdkHandler();
+
         MobileEngageCoreCompletionHandler coreCompletionHandler = MobileEngage.completionHandler;
         assertNotNull(coreCompletionHandler);
         assertEquals(0, CollectionTestUtils.numberOfElementsIn(coreCompletionHandler.responseHandlers, InAppCleanUpResponseHandler.class));
@@ -269,7 +300,7 @@ public class MobileEngageTest {
 
         Field repositoryField = RequestManager.class.getDeclaredField("requestRepository");
         repositoryField.setAccessible(true);
-        Object repository = repositoryField.get(MobileEngage.instance.manager);
+        Object repository = repositoryField.get(MobileEngage.getInstance().manager);
         assertEquals(RequestRepositoryProxy.class, repository.getClass());
     }
 
@@ -279,7 +310,7 @@ public class MobileEngageTest {
 
         Field repositoryField = RequestManager.class.getDeclaredField("requestRepository");
         repositoryField.setAccessible(true);
-        Object repository = repositoryField.get(MobileEngage.instance.manager);
+        Object repository = repositoryField.get(MobileEngage.getInstance().manager);
         assertEquals(RequestRepositoryProxy.class, repository.getClass());
     }
 
@@ -290,7 +321,7 @@ public class MobileEngageTest {
 
         Field repositoryField = RequestManager.class.getDeclaredField("requestRepository");
         repositoryField.setAccessible(true);
-        Object repository = repositoryField.get(MobileEngage.instance.manager);
+        Object repository = repositoryField.get(MobileEngage.getInstance().manager);
         assertEquals(RequestModelRepository.class, repository.getClass());
     }
 
@@ -299,8 +330,8 @@ public class MobileEngageTest {
         MobileEngage.inboxInstance = null;
         MobileEngage.setup(baseConfig);
 
-        assertNotNull(MobileEngage.inboxInstance);
-        assertEquals(InboxInternal_V1.class, MobileEngage.inboxInstance.getClass());
+        assertNotNull(MobileEngage.getInboxInstance());
+        assertEquals(InboxInternal_V1.class, MobileEngage.getInboxInstance().getClass());
     }
 
     @Test
@@ -308,8 +339,8 @@ public class MobileEngageTest {
         MobileEngage.inboxInstance = null;
         MobileEngage.setup(userCentricConfig);
 
-        assertNotNull(MobileEngage.inboxInstance);
-        assertEquals(InboxInternal_V2.class, MobileEngage.inboxInstance.getClass());
+        assertNotNull(MobileEngage.getInboxInstance());
+        assertEquals(InboxInternal_V2.class, MobileEngage.getInboxInstance().getClass());
     }
 
     @Test
@@ -317,7 +348,7 @@ public class MobileEngageTest {
         MobileEngage.deepLinkInstance = null;
         MobileEngage.setup(baseConfig);
 
-        assertNotNull(MobileEngage.deepLinkInstance);
+        assertNotNull(MobileEngage.getDeepLinkInstance());
     }
 
     @Test
@@ -404,9 +435,9 @@ public class MobileEngageTest {
     public void testSetup_initializesInstances_withTheSame_requestContext() {
         MobileEngage.setup(baseConfig);
 
-        assertThat(MobileEngage.requestContext, Matchers.allOf(
-                Matchers.is(MobileEngage.instance.getRequestContext()),
-                Matchers.is(((InboxInternal_V1) MobileEngage.inboxInstance).getRequestContext())
+        assertThat(MobileEngage.getRequestContext(), Matchers.allOf(
+                Matchers.is(MobileEngage.getInstance().getRequestContext()),
+                Matchers.is(((InboxInternal_V1) MobileEngage.getInboxInstance()).getRequestContext())
         ));
     }
 
@@ -414,12 +445,40 @@ public class MobileEngageTest {
     public void testSetup_initializesInstances_withTheSame_requestContext_withUserCentricFlipper() {
         MobileEngage.setup(userCentricConfig);
 
-        assertThat(MobileEngage.requestContext, Matchers.allOf(
-                Matchers.is(MobileEngage.instance.getRequestContext()),
-                Matchers.is(((InboxInternal_V2) MobileEngage.inboxInstance).getRequestContext())
+        assertThat(MobileEngage.getRequestContext(), Matchers.allOf(
+                Matchers.is(MobileEngage.getInstance().getRequestContext()),
+                Matchers.is(((InboxInternal_V2) MobileEngage.getInboxInstance()).getRequestContext())
         ));
     }
 
+    @Test
+    public void testGetStartupReport_containsSetupSpans() {
+        MobileEngage.setup(baseConfig);
+
+        StartupReport report = MobileEngage.getStartupReport();
+
+        assertNotNull(report.getSpan("setup"));
+        assertNotNull(report.getSpan("registerWatchdogs"));
+    }
+
+    @Test
+    public void testGetStartupReport_containsComponentSpans_afterFirstUse() throws InterruptedException {
+        MobileEngage.setup(inAppConfig);
+        MobileEngage.getInstance();
+        waitForCoreSdkHandler();
+
+        StartupReport report = MobileEngage.getStartupReport();
+
+        assertNotNull(report.getSpan("RequestManager"));
+        assertNotNull(report.getSpan("MobileEngageInternal"));
+        assertNotNull(report.getSpan("initializeResponseHandlers"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testGetStartupReport_beforeSetup() {
+        MobileEngage.getStartupReport();
+    }
+
     @Test
     public void testSetPushToken_callsInternal() {
         String pushtoken = "pushtoken";
@@ -462,7 +521,10 @@ public class MobileEngageTest {
                         mock(MeIdSignatureStorage.class),
                         mock(TimestampProvider.class),
                         requestIdProvider
-                ));
+                ),
+                mock(EventBuffer.class),
+                mock(CustomEventQueue.class),
+                mock(LastMobileActivityStorage.class));
 
         MobileEngage.completionHandler = completionHandler;
         MobileEngage.instance = internal;
@@ -489,7 +551,7 @@ public class MobileEngageTest {
         MobileEngage.setup(baseConfig);
         MobileEngage.appLogin();
 
-        assertEquals(new AppLoginParameters(), MobileEngage.requestContext.getAppLoginParameters());
+        assertEquals(new AppLoginParameters(), MobileEngage.getRequestContext().getAppLoginParameters());
     }
 
     @Test
@@ -506,7 +568,7 @@ public class MobileEngageTest {
         String contactFieldValue = "CONTACT_FIELD_VALUE";
         MobileEngage.appLogin(contactFieldId, contactFieldValue);
 
-        assertEquals(new AppLoginParameters(contactFieldId, contactFieldValue), MobileEngage.requestContext.getAppLoginParameters());
+        assertEquals(new AppLoginParameters(contactFieldId, contactFieldValue), MobileEngage.getRequestContext().getAppLoginParameters());
     }
 
     @Test
@@ -521,7 +583,7 @@ public class MobileEngageTest {
         MobileEngage.appLogin();
         MobileEngage.appLogout();
 
-        assertNull(MobileEngage.requestContext.getAppLoginParameters());
+        assertNull(MobileEngage.getRequestContext().getAppLoginParameters());
     }
 
     @Test
@@ -531,6 +593,15 @@ public class MobileEngageTest {
         verify(mobileEngageInternal).trackCustomEvent("event", attributes);
     }
 
+    @Test
+    public void testTrackCustomEvents_callsInternal() throws Exception {
+        List<Event> events = Arrays.asList(
+                new Event("event1", null, 100),
+                new Event("event2", null, 200));
+        MobileEngage.trackCustomEvents(events);
+        verify(mobileEngageInternal).trackCustomEvents(events);
+    }
+
     @Test
     public void testTrackMessageOpen_intent_callsInternal() {
         Intent intent = mock(Intent.class);
@@ -585,6 +656,21 @@ public class MobileEngageTest {
         MobileEngage.trackCustomEvent(null, new HashMap<String, String>());
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testTrackCustomEvents_whenEventsIsNull() {
+        MobileEngage.trackCustomEvents(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTrackCustomEvents_whenEventsContainsNull() {
+        MobileEngage.trackCustomEvents(Arrays.asList(new Event("event", null, 100), null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTrackCustomEvents_whenEventsIsEmpty() {
+        MobileEngage.trackCustomEvents(new ArrayList<Event>());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testTrackMessageOpen_intent_whenIntentIsNull() {
         MobileEngage.trackMessageOpen(null);
@@ -602,6 +688,30 @@ public class MobileEngageTest {
         verify(inboxInternal).fetchNotifications(inboxListenerMock);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testFetchNotifications_paged_whenListenerIsNull() {
+        MobileEngage.Inbox.fetchNotifications(0, 20, null);
+    }
+
+    @Test
+    public void testFetchNotifications_paged_callsInternal() {
+        InboxResultListener inboxListenerMock = mock(InboxResultListener.class);
+        MobileEngage.Inbox.fetchNotifications(20, 10, inboxListenerMock);
+        verify(inboxInternal).fetchNotifications(20, 10, inboxListenerMock);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFetchNotificationsSince_whenListenerIsNull() {
+        MobileEngage.Inbox.fetchNotificationsSince(100, null);
+    }
+
+    @Test
+    public void testFetchNotificationsSince_callsInternal() {
+        InboxResultListener inboxListenerMock = mock(InboxResultListener.class);
+        MobileEngage.Inbox.fetchNotificationsSince(100, inboxListenerMock);
+        verify(inboxInternal).fetchNotificationsSince(100, inboxListenerMock);
+    }
+
     @Test
     public void testResetBadgeCount_callsInternal() {
         ResetBadgeCountResultListener listener = mock(ResetBadgeCountResultListener.class);
@@ -615,6 +725,17 @@ public class MobileEngageTest {
         verify(inboxInternal).resetBadgeCount(null);
     }
 
+    private void waitForCoreSdkHandler() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        MobileEngage.coreSdkHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        latch.await();
+    }
+
     private MobileEngageConfig createConfigWithFlippers(FlipperFeature... experimentalFeatures) {
         return new MobileEngageConfig.Builder()
                 .application(spy(application))
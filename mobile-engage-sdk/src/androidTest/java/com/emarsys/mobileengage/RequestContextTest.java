@@ -1,12 +1,21 @@
 package com.emarsys.mobileengage;
 
+import android.content.Context;
+import android.os.Debug;
+import android.support.test.InstrumentationRegistry;
+import android.util.Log;
+
 import com.emarsys.core.DeviceInfo;
 import com.emarsys.core.request.RequestIdProvider;
 import com.emarsys.core.timestamp.TimestampProvider;
+import com.emarsys.core.util.HeaderUtils;
 import com.emarsys.mobileengage.config.MobileEngageConfig;
+import com.emarsys.mobileengage.event.applogin.AppLoginParameters;
 import com.emarsys.mobileengage.storage.AppLoginStorage;
 import com.emarsys.mobileengage.storage.MeIdSignatureStorage;
 import com.emarsys.mobileengage.storage.MeIdStorage;
+import com.emarsys.mobileengage.storage.StorageEditor;
+import com.emarsys.mobileengage.testUtil.SharedPrefsUtils;
 import com.emarsys.mobileengage.testUtil.TimeoutUtils;
 
 import org.junit.Assert;
@@ -14,11 +23,20 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestRule;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class RequestContextTest {
 
+    private static final String TAG = "RequestContextBenchmark";
+    private static final int BENCHMARK_ITERATIONS = 10_000;
+
     @Rule
     public TestRule timeout = TimeoutUtils.getTimeoutRule();
 
@@ -121,4 +139,245 @@ public class RequestContextTest {
 
         Assert.assertEquals(applicationCode, underTest.getApplicationCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetBasePayload_shouldBeCached_untilAppLoginParametersChange() {
+        MobileEngageConfig mockConfig = mock(MobileEngageConfig.class);
+        when(mockConfig.getApplicationCode()).thenReturn("applicationCode");
+        DeviceInfo deviceInfo = mock(DeviceInfo.class);
+        when(deviceInfo.getHwid()).thenReturn("hwid");
+        RequestContext underTest = new RequestContext(mockConfig,
+                deviceInfo,
+                mock(AppLoginStorage.class),
+                mock(MeIdStorage.class),
+                mock(MeIdSignatureStorage.class),
+                mock(TimestampProvider.class),
+                mock(RequestIdProvider.class));
+
+        Map<String, Object> first = underTest.getBasePayload();
+        Assert.assertSame(first, underTest.getBasePayload());
+        Assert.assertEquals("applicationCode", first.get("application_id"));
+        Assert.assertEquals("hwid", first.get("hardware_id"));
+        Assert.assertFalse(first.containsKey("contact_field_id"));
+
+        underTest.setAppLoginParameters(new AppLoginParameters(3, "test@test.com"));
+
+        Map<String, Object> second = underTest.getBasePayload();
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(3, second.get("contact_field_id"));
+        Assert.assertEquals("test@test.com", second.get("contact_field_value"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetBasePayload_shouldBeImmutable() {
+        RequestContext underTest = new RequestContext(mock(MobileEngageConfig.class),
+                mock(DeviceInfo.class),
+                mock(AppLoginStorage.class),
+                mock(MeIdStorage.class),
+                mock(MeIdSignatureStorage.class),
+                mock(TimestampProvider.class),
+                mock(RequestIdProvider.class));
+
+        underTest.getBasePayload().put("key", "value");
+    }
+
+    @Test
+    public void testGetBaseHeaders_V2_shouldBeCached() {
+        MobileEngageConfig mockConfig = mock(MobileEngageConfig.class);
+        when(mockConfig.getApplicationCode()).thenReturn("applicationCode");
+        when(mockConfig.getApplicationPassword()).thenReturn("applicationPassword");
+        RequestContext underTest = new RequestContext(mockConfig,
+                mock(DeviceInfo.class),
+                mock(AppLoginStorage.class),
+                mock(MeIdStorage.class),
+                mock(MeIdSignatureStorage.class),
+                mock(TimestampProvider.class),
+                mock(RequestIdProvider.class));
+
+        Map<String, String> first = underTest.getBaseHeaders_V2();
+
+        Assert.assertSame(first, underTest.getBaseHeaders_V2());
+        Assert.assertEquals(HeaderUtils.createBasicAuth("applicationCode", "applicationPassword"), first.get("Authorization"));
+    }
+
+    @Test
+    public void testGetBaseHeaders_V3_shouldNotReadStorages_untilSessionIsInvalidated() {
+        MobileEngageConfig mockConfig = mock(MobileEngageConfig.class);
+        when(mockConfig.getApplicationCode()).thenReturn("applicationCode");
+        MeIdStorage meIdStorage = mock(MeIdStorage.class);
+        when(meIdStorage.get()).thenReturn("meId1", "meId2");
+        MeIdSignatureStorage meIdSignatureStorage = mock(MeIdSignatureStorage.class);
+        when(meIdSignatureStorage.get()).thenReturn("signature1", "signature2");
+        RequestContext underTest = new RequestContext(mockConfig,
+                mock(DeviceInfo.class),
+                mock(AppLoginStorage.class),
+                meIdStorage,
+                meIdSignatureStorage,
+                mock(TimestampProvider.class),
+                mock(RequestIdProvider.class));
+
+        Map<String, String> first = underTest.getBaseHeaders_V3();
+        Assert.assertSame(first, underTest.getBaseHeaders_V3());
+        Assert.assertEquals("meId1", first.get("X-ME-ID"));
+        Assert.assertEquals("signature1", first.get("X-ME-ID-SIGNATURE"));
+        Assert.assertEquals("applicationCode", first.get("X-ME-APPLICATIONCODE"));
+        verify(meIdStorage, times(1)).get();
+
+        underTest.invalidateSession();
+
+        Map<String, String> second = underTest.getBaseHeaders_V3();
+        Assert.assertEquals("meId2", second.get("X-ME-ID"));
+        Assert.assertEquals("signature2", second.get("X-ME-ID-SIGNATURE"));
+    }
+
+    @Test
+    public void testGetSession_shouldReadStoragesOnce() {
+        MeIdStorage meIdStorage = mock(MeIdStorage.class);
+        when(meIdStorage.get()).thenReturn("meId");
+        MeIdSignatureStorage meIdSignatureStorage = mock(MeIdSignatureStorage.class);
+        when(meIdSignatureStorage.get()).thenReturn("signature");
+        AppLoginStorage appLoginStorage = mock(AppLoginStorage.class);
+        when(appLoginStorage.get()).thenReturn(42);
+        RequestContext underTest = new RequestContext(mock(MobileEngageConfig.class),
+                mock(DeviceInfo.class),
+                appLoginStorage,
+                meIdStorage,
+                meIdSignatureStorage,
+                mock(TimestampProvider.class),
+                mock(RequestIdProvider.class));
+        underTest.setAppLoginParameters(new AppLoginParameters(3, "test@test.com"));
+
+        Session session = underTest.getSession();
+
+        Assert.assertSame(session, underTest.getSession());
+        Assert.assertEquals(new Session("meId", "signature", new AppLoginParameters(3, "test@test.com"), 42), session);
+        verify(meIdStorage, times(1)).get();
+        verify(meIdSignatureStorage, times(1)).get();
+        verify(appLoginStorage, times(1)).get();
+    }
+
+    @Test
+    public void testGetSession_shouldBeReplaced_whenAppLoginParametersChange() {
+        RequestContext underTest = new RequestContext(mock(MobileEngageConfig.class),
+                mock(DeviceInfo.class),
+                mock(AppLoginStorage.class),
+                mock(MeIdStorage.class),
+                mock(MeIdSignatureStorage.class),
+                mock(TimestampProvider.class),
+                mock(RequestIdProvider.class));
+        Session first = underTest.getSession();
+
+        underTest.setAppLoginParameters(new AppLoginParameters());
+
+        Assert.assertNull(first.getAppLoginParameters());
+        Assert.assertEquals(new AppLoginParameters(), underTest.getSession().getAppLoginParameters());
+    }
+
+    @Test
+    public void testUpdateSession_shouldPublishNewSession_withMeIdAndSignatureTogether() {
+        SharedPrefsUtils.deleteMobileEngageSharedPrefs();
+        Context context = InstrumentationRegistry.getTargetContext().getApplicationContext();
+        MeIdStorage meIdStorage = new MeIdStorage(context);
+        MeIdSignatureStorage meIdSignatureStorage = new MeIdSignatureStorage(context);
+        RequestContext underTest = new RequestContext(mock(MobileEngageConfig.class),
+                mock(DeviceInfo.class),
+                new AppLoginStorage(context),
+                meIdStorage,
+                meIdSignatureStorage,
+                mock(TimestampProvider.class),
+                mock(RequestIdProvider.class));
+        Session first = underTest.getSession();
+
+        underTest.updateSession(new StorageEditor()
+                .set(meIdStorage, "meId")
+                .set(meIdSignatureStorage, "signature"));
+
+        Session second = underTest.getSession();
+        Assert.assertNull(first.getMeId());
+        Assert.assertEquals("meId", second.getMeId());
+        Assert.assertEquals("signature", second.getMeIdSignature());
+        Assert.assertEquals("meId", underTest.getBaseHeaders_V3(second).get("X-ME-ID"));
+    }
+
+    @Test
+    public void testGetSession_shouldReflectDirectStorageWrites() {
+        SharedPrefsUtils.deleteMobileEngageSharedPrefs();
+        Context context = InstrumentationRegistry.getTargetContext().getApplicationContext();
+        MeIdStorage meIdStorage = new MeIdStorage(context);
+        RequestContext underTest = new RequestContext(mock(MobileEngageConfig.class),
+                mock(DeviceInfo.class),
+                new AppLoginStorage(context),
+                meIdStorage,
+                new MeIdSignatureStorage(context),
+                mock(TimestampProvider.class),
+                mock(RequestIdProvider.class));
+        Assert.assertNull(underTest.getSession().getMeId());
+
+        meIdStorage.set("meId");
+
+        Assert.assertEquals("meId", underTest.getSession().getMeId());
+    }
+
+    @Test
+    public void testBaseTemplatesBenchmark_tightEventLoop() {
+        final MobileEngageConfig mockConfig = mock(MobileEngageConfig.class);
+        when(mockConfig.getApplicationCode()).thenReturn("applicationCode");
+        when(mockConfig.getApplicationPassword()).thenReturn("applicationPassword");
+        final DeviceInfo deviceInfo = mock(DeviceInfo.class);
+        when(deviceInfo.getHwid()).thenReturn("hwid");
+        final AppLoginParameters appLoginParameters = new AppLoginParameters(3, "test@test.com");
+        final RequestContext underTest = new RequestContext(mockConfig,
+                deviceInfo,
+                mock(AppLoginStorage.class),
+                mock(MeIdStorage.class),
+                mock(MeIdSignatureStorage.class),
+                mock(TimestampProvider.class),
+                mock(RequestIdProvider.class));
+        underTest.setAppLoginParameters(appLoginParameters);
+
+        Runnable rebuilt = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                    Map<String, Object> payload = new HashMap<>();
+                    payload.put("application_id", mockConfig.getApplicationCode());
+                    payload.put("hardware_id", deviceInfo.getHwid());
+                    payload.put("contact_field_id", appLoginParameters.getContactFieldId());
+                    payload.put("contact_field_value", appLoginParameters.getContactFieldValue());
+                    Collections.singletonMap("Authorization", HeaderUtils.createBasicAuth(mockConfig.getApplicationCode(), mockConfig.getApplicationPassword()));
+                }
+            }
+        };
+        Runnable cached = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                    underTest.getBasePayload();
+                    underTest.getBaseHeaders_V2();
+                }
+            }
+        };
+        rebuilt.run();
+        cached.run();
+
+        long[] rebuiltResult = measure(rebuilt);
+        long[] cachedResult = measure(cached);
+
+        Log.i(TAG, String.format("Rebuilt base payload and V2 headers for %d events: %d KB allocated, %.3f ms", BENCHMARK_ITERATIONS, rebuiltResult[0] / 1024, rebuiltResult[1] / 1_000_000.0));
+        Log.i(TAG, String.format("Cached base payload and V2 headers for %d events: %d KB allocated, %.3f ms", BENCHMARK_ITERATIONS, cachedResult[0] / 1024, cachedResult[1] / 1_000_000.0));
+        Assert.assertTrue(cachedResult[0] <= rebuiltResult[0]);
+        Assert.assertTrue(cachedResult[1] < rebuiltResult[1]);
+    }
+
+    @SuppressWarnings("deprecation")
+    private long[] measure(Runnable runnable) {
+        Debug.resetThreadAllocSize();
+        Debug.startAllocCounting();
+        long start = System.nanoTime();
+        runnable.run();
+        long nanos = System.nanoTime() - start;
+        Debug.stopAllocCounting();
+        return new long[]{Debug.getThreadAllocSize(), nanos};
+    }
+}
+
@@ -17,6 +17,9 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TestRule;
 
+import java.util.ArrayList;
+import java.util.Collections;
+
 import static junit.framework.Assert.assertFalse;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -68,7 +71,15 @@ public class MobileEngageConfigTest {
                 mockOreoConfig,
                 null,
                 null,
-                features);
+                features,
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(),
+                false);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -83,7 +94,15 @@ public class MobileEngageConfigTest {
                 mockOreoConfig,
                 null,
                 null,
-                features);
+                features,
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(),
+                false);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -98,7 +117,15 @@ public class MobileEngageConfigTest {
                 mockOreoConfig,
                 null,
                 null,
-                features);
+                features,
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(),
+                false);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -113,7 +140,15 @@ public class MobileEngageConfigTest {
                 null,
                 null,
                 null,
-                features);
+                features,
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(),
+                false);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -128,9 +163,246 @@ public class MobileEngageConfigTest {
                 mockOreoConfig,
                 null,
                 null,
+                null,
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(),
+                false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_eventBatchConfigShouldNotBeNull() {
+        new MobileEngageConfig(
+                application,
+                APP_ID,
+                SECRET,
+                statusListenerMock,
+                true,
+                false,
+                mockOreoConfig,
+                null,
+                null,
+                features,
+                null,
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(),
+                false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_eventRateLimitRulesShouldNotBeNull() {
+        new MobileEngageConfig(
+                application,
+                APP_ID,
+                SECRET,
+                statusListenerMock,
+                true,
+                false,
+                mockOreoConfig,
+                null,
+                null,
+                features,
+                new EventBatchConfig(false),
+                null,
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(),
+                false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_eventDeduplicationWindowMillisShouldNotBeNegative() {
+        new MobileEngageConfig(
+                application,
+                APP_ID,
+                SECRET,
+                statusListenerMock,
+                true,
+                false,
+                mockOreoConfig,
+                null,
+                null,
+                features,
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                -1,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(),
+                false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_lastMobileActivityIntervalMillisShouldNotBeNegative() {
+        new MobileEngageConfig(
+                application,
+                APP_ID,
+                SECRET,
+                statusListenerMock,
+                true,
+                false,
+                mockOreoConfig,
+                null,
+                null,
+                features,
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                -1,
+                0,
+                new CompositeRequestConfig(),
+                false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_requestCompressionMinSizeBytesShouldNotBeNegative() {
+        new MobileEngageConfig(
+                application,
+                APP_ID,
+                SECRET,
+                statusListenerMock,
+                true,
+                false,
+                mockOreoConfig,
+                null,
+                null,
+                features,
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                -1,
+                new CompositeRequestConfig(),
+                false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_compositeRequestConfigShouldNotBeNull() {
+        new MobileEngageConfig(
+                application,
+                APP_ID,
+                SECRET,
+                statusListenerMock,
+                true,
+                false,
+                mockOreoConfig,
+                null,
+                null,
+                features,
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
                 null);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_compositeRequestConfigParameter_maxEventCountShouldBePositive() {
+        new MobileEngageConfig(
+                application,
+                APP_ID,
+                SECRET,
+                statusListenerMock,
+                true,
+                false,
+                mockOreoConfig,
+                null,
+                null,
+                features,
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(0, 1024),
+                false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_compositeRequestConfigParameter_maxPayloadBytesShouldBePositive() {
+        new MobileEngageConfig(
+                application,
+                APP_ID,
+                SECRET,
+                statusListenerMock,
+                true,
+                false,
+                mockOreoConfig,
+                null,
+                null,
+                features,
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(10, 0),
+                false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_eventBatchConfigParameter_maxBatchSizeShouldBePositive_whenEnabled() {
+        new MobileEngageConfig(
+                application,
+                APP_ID,
+                SECRET,
+                statusListenerMock,
+                true,
+                false,
+                mockOreoConfig,
+                null,
+                null,
+                features,
+                new EventBatchConfig(true, 0, 1000),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(),
+                false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_eventBatchConfigParameter_maxDelayShouldBePositive_whenEnabled() {
+        new MobileEngageConfig(
+                application,
+                APP_ID,
+                SECRET,
+                statusListenerMock,
+                true,
+                false,
+                mockOreoConfig,
+                null,
+                null,
+                features,
+                new EventBatchConfig(true, 10, 0),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(),
+                false);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_oreoConfigParameter_channelNameShouldNotBeNull_whenEnabled() {
         new MobileEngageConfig(
@@ -142,7 +414,15 @@ public class MobileEngageConfigTest {
                 new OreoConfig(true, null, "description"),
                 null,
                 null,
-                features);
+                features,
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(),
+                false);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -157,7 +437,15 @@ public class MobileEngageConfigTest {
                 new OreoConfig(true, "name", null),
                 null,
                 null,
-                features);
+                features,
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(),
+                false);
     }
 
     @Test
@@ -172,7 +460,15 @@ public class MobileEngageConfigTest {
                 new OreoConfig(false),
                 null,
                 null,
-                new FlipperFeature[]{});
+                new FlipperFeature[]{},
+                new EventBatchConfig(false),
+                new ArrayList<EventRateLimitRule>(),
+                0,
+                false,
+                0,
+                0,
+                new CompositeRequestConfig(),
+                false);
 
         MobileEngageConfig result = new MobileEngageConfig.Builder()
                 .application(applicationDebug)
@@ -217,7 +513,15 @@ public class MobileEngageConfigTest {
                 new OreoConfig(true, "defaultChannelName", "defaultChannelDescription"),
                 defaultInAppEventHandler,
                 defaultNotificationEventHandler,
-                features
+                features,
+                new EventBatchConfig(true, 50, 5000),
+                Collections.singletonList(new EventRateLimitRule("scroll", 0.5, 10, 1000, 5)),
+                300,
+                true,
+                60_000,
+                1024,
+                new CompositeRequestConfig(100, 65_536),
+                true
         );
 
         MobileEngageConfig result = new MobileEngageConfig.Builder()
@@ -229,6 +533,14 @@ public class MobileEngageConfigTest {
                 .enableExperimentalFeatures(features)
                 .setDefaultInAppEventHandler(defaultInAppEventHandler)
                 .setNotificationEventHandler(defaultNotificationEventHandler)
+                .enableEventBatching(50, 5000)
+                .addEventRateLimitRule(new EventRateLimitRule("scroll", 0.5, 10, 1000, 5))
+                .enableEventDeduplication(300)
+                .enableAsyncEventTracking(true)
+                .throttleLastMobileActivity(60_000)
+                .enableRequestCompression(1024)
+                .limitCompositeRequests(100, 65_536)
+                .enableEventJournal(true)
                 .build();
 
         assertEquals(expected, result);
@@ -251,7 +563,15 @@ public class MobileEngageConfigTest {
                 new OreoConfig(false),
                 defaultInAppEventHandler,
                 defaultNotificationEventHandler,
-                features);
+                features,
+                new EventBatchConfig(true, 50, 5000),
+                Collections.singletonList(new EventRateLimitRule("scroll", 0.5, 10, 1000, 5)),
+                300,
+                true,
+                60_000,
+                1024,
+                new CompositeRequestConfig(100, 65_536),
+                true);
 
         MobileEngageConfig result = new MobileEngageConfig.Builder()
                 .from(expected)
@@ -0,0 +1,74 @@
+package com.emarsys.mobileengage.connection;
+
+import com.emarsys.core.connection.ConnectionProvider;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+import javax.net.ssl.HttpsURLConnection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EmptyErrorStreamConnectionProviderTest {
+
+    private static final String URL = "https://me-inbox.eservice.emarsys.net/api/v1/notifications/12345";
+
+    private HttpsURLConnection connection;
+    private RequestModel requestModel;
+    private EmptyErrorStreamConnectionProvider provider;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() throws IOException {
+        connection = mock(HttpsURLConnection.class);
+        when(connection.getURL()).thenReturn(new URL(URL));
+        requestModel = mock(RequestModel.class);
+
+        ConnectionProvider connectionProvider = mock(ConnectionProvider.class);
+        when(connectionProvider.provideConnection(requestModel)).thenReturn(connection);
+        provider = new EmptyErrorStreamConnectionProvider(connectionProvider);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_connectionProvider_mustNotBeNull() {
+        new EmptyErrorStreamConnectionProvider(null);
+    }
+
+    @Test
+    public void testProvideConnection_shouldReturnEmptyErrorStream_whenResponseHasNoBody() throws IOException {
+        when(connection.getErrorStream()).thenReturn(null);
+
+        InputStream errorStream = provider.provideConnection(requestModel).getErrorStream();
+
+        assertEquals(-1, errorStream.read());
+    }
+
+    @Test
+    public void testProvideConnection_shouldReturnErrorStream_ofConnection() throws IOException {
+        InputStream expected = new ByteArrayInputStream(new byte[]{1});
+        when(connection.getErrorStream()).thenReturn(expected);
+
+        assertSame(expected, provider.provideConnection(requestModel).getErrorStream());
+    }
+
+    @Test
+    public void testProvideConnection_shouldDelegateResponse() throws IOException {
+        when(connection.getResponseCode()).thenReturn(304);
+
+        assertEquals(304, provider.provideConnection(requestModel).getResponseCode());
+    }
+}
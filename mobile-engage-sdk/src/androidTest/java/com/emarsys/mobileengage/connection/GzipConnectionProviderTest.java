@@ -0,0 +1,80 @@
+package com.emarsys.mobileengage.connection;
+
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GzipConnectionProviderTest {
+
+    private static final String CUSTOM_EVENT_V3_URL = "https://mobile-events.eservice.emarsys.net/v3/devices/12345/events";
+    private static final String NOT_CUSTOM_EVENT_V3_URL = "https://push.eservice.emarsys.net/api/mobileengage/v2/users/login";
+
+    private Repository<Map<String, Object>, SqlSpecification> logRepository;
+    private GzipConnectionProvider provider;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void init() {
+        logRepository = mock(Repository.class);
+        provider = new GzipConnectionProvider(1024, logRepository);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_minSizeBytes_mustBePositive() {
+        new GzipConnectionProvider(0, logRepository);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_logRepository_mustNotBeNull() {
+        new GzipConnectionProvider(1024, null);
+    }
+
+    @Test
+    public void testProvideConnection_shouldWrapConnection_forCustomEvents() throws IOException {
+        assertTrue(provider.provideConnection(createRequestModel(CUSTOM_EVENT_V3_URL)) instanceof GzipHttpsURLConnection);
+    }
+
+    @Test
+    public void testProvideConnection_shouldNotWrapConnection_forOtherRequests() throws IOException {
+        assertFalse(provider.provideConnection(createRequestModel(NOT_CUSTOM_EVENT_V3_URL)) instanceof GzipHttpsURLConnection);
+    }
+
+    @Test
+    public void testLogCompression_shouldAddMetricToLogRepository() throws IOException {
+        provider.logCompression(createRequestModel(CUSTOM_EVENT_V3_URL), 5000, 700);
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("request_id", "requestId");
+        expected.put("url", CUSTOM_EVENT_V3_URL);
+        expected.put("uncompressed_size", 5000);
+        expected.put("compressed_size", 700);
+        verify(logRepository).add(expected);
+    }
+
+    private RequestModel createRequestModel(String url) throws IOException {
+        RequestModel requestModel = mock(RequestModel.class);
+        when(requestModel.getId()).thenReturn("requestId");
+        when(requestModel.getUrl()).thenReturn(new URL(url));
+        return requestModel;
+    }
+}
@@ -0,0 +1,272 @@
+package com.emarsys.mobileengage.connection;
+
+import android.os.Debug;
+import android.util.Log;
+
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.net.ssl.HttpsURLConnection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GzipHttpsURLConnectionTest {
+
+    private static final String TAG = "GzipBenchmark";
+    private static final int MIN_SIZE = 100;
+    private static final int BENCHMARK_EVENTS = 1_000;
+    private static final int CHUNK_SIZE = 1024;
+
+    private HttpsURLConnection delegate;
+    private ByteArrayOutputStream sentBody;
+    private GzipHttpsURLConnection.CompressionListener listener;
+    private GzipHttpsURLConnection connection;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() throws IOException {
+        sentBody = new ByteArrayOutputStream();
+        delegate = mock(HttpsURLConnection.class);
+        when(delegate.getURL()).thenReturn(new URL("https://mobile-events.eservice.emarsys.net/v3/devices/12345/events"));
+        when(delegate.getOutputStream()).thenReturn(sentBody);
+        when(delegate.getDoOutput()).thenReturn(true);
+        listener = mock(GzipHttpsURLConnection.CompressionListener.class);
+
+        connection = new GzipHttpsURLConnection(delegate, MIN_SIZE, listener);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_listener_mustNotBeNull() {
+        new GzipHttpsURLConnection(delegate, MIN_SIZE, null);
+    }
+
+    @Test
+    public void testOutputStream_shouldSendGzipEncodedBody_aboveThreshold() throws IOException {
+        byte[] body = createBody(2_000);
+
+        writeBody(body);
+
+        assertArrayEquals(body, decompress(sentBody.toByteArray()));
+        verify(delegate).setRequestProperty("Content-Encoding", "gzip");
+        verify(listener).onBodySent(body.length, sentBody.size());
+    }
+
+    @Test
+    public void testOutputStream_shouldSendBodyAsIs_belowThreshold() throws IOException {
+        byte[] body = createBody(MIN_SIZE - 1);
+
+        writeBody(body);
+
+        assertArrayEquals(body, sentBody.toByteArray());
+        verify(delegate, never()).setRequestProperty(eq("Content-Encoding"), anyString());
+        verify(listener).onBodySent(body.length, body.length);
+    }
+
+    @Test
+    public void testOutputStream_compressedBody_shouldBeSmaller_forRepetitivePayload() throws IOException {
+        byte[] body = createBody(10_000);
+
+        writeBody(body);
+
+        assertTrue(sentBody.size() * 5 < body.length);
+    }
+
+    @Test
+    public void testOutputStream_shouldStreamCompressedBody_onceThresholdIsReached() throws IOException {
+        OutputStream outputStream = connection.getOutputStream();
+        outputStream.write(createBody(MIN_SIZE - 1));
+
+        verify(delegate, never()).getOutputStream();
+
+        outputStream.write(createBody(1));
+
+        verify(delegate).setRequestProperty("Content-Encoding", "gzip");
+        verify(delegate).getOutputStream();
+    }
+
+    @Test
+    public void testOutputStream_shouldSendGzipEncodedBody_writtenInChunks() throws IOException {
+        byte[] body = createBody(5_000);
+        OutputStream outputStream = connection.getOutputStream();
+        for (int i = 0; i < body.length; i += 64) {
+            outputStream.write(body, i, Math.min(64, body.length - i));
+        }
+        outputStream.close();
+
+        assertArrayEquals(body, decompress(sentBody.toByteArray()));
+        verify(listener).onBodySent(body.length, sentBody.size());
+    }
+
+    @Test
+    public void testConnect_shouldBeDeferred_untilBodyIsWritten() throws IOException {
+        connection.connect();
+
+        verify(delegate, never()).connect();
+    }
+
+    @Test
+    public void testConnect_shouldConnect_whenThereIsNoBody() throws IOException {
+        when(delegate.getDoOutput()).thenReturn(false);
+
+        connection.connect();
+
+        verify(delegate).connect();
+    }
+
+    @Test
+    public void testGetResponseCode_shouldSendUnclosedBody() throws IOException {
+        byte[] body = createBody(10);
+        connection.getOutputStream().write(body);
+
+        connection.getResponseCode();
+
+        assertArrayEquals(body, sentBody.toByteArray());
+        verify(delegate).getResponseCode();
+    }
+
+    @Test
+    public void testClose_shouldSendBodyOnlyOnce() throws IOException {
+        OutputStream outputStream = connection.getOutputStream();
+        outputStream.write(createBody(10));
+        outputStream.close();
+        outputStream.close();
+
+        connection.getResponseCode();
+
+        verify(listener).onBodySent(10, 10);
+    }
+
+    @Test
+    public void testSetFixedLengthStreamingMode_shouldNotBeForwarded() {
+        connection.setFixedLengthStreamingMode(10);
+        connection.setFixedLengthStreamingMode(10L);
+
+        verify(delegate, never()).setFixedLengthStreamingMode(anyInt());
+        verify(delegate, never()).setFixedLengthStreamingMode(anyLong());
+    }
+
+    @Test
+    public void testSetRequestProperty_shouldBeForwarded() {
+        connection.setRequestProperty("Content-Type", "application/json");
+
+        verify(delegate).setRequestProperty("Content-Type", "application/json");
+    }
+
+    private void writeBody(byte[] body) throws IOException {
+        OutputStream outputStream = connection.getOutputStream();
+        outputStream.write(body);
+        outputStream.close();
+    }
+
+    @Test
+    public void testOutputStreamBenchmark_1000Events_comparedToBufferedCompression() throws IOException {
+        final byte[] body = createEventsBody(BENCHMARK_EVENTS);
+        final ByteArrayOutputStream bufferedSentBody = new ByteArrayOutputStream();
+
+        long[] bufferedResult = measure(new BodyWriter() {
+            @Override
+            public void write() throws IOException {
+                ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                writeInChunks(body, raw);
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed);
+                raw.writeTo(gzipOutputStream);
+                gzipOutputStream.close();
+                compressed.writeTo(bufferedSentBody);
+            }
+        });
+
+        long[] streamedResult = measure(new BodyWriter() {
+            @Override
+            public void write() throws IOException {
+                OutputStream connectionOutputStream = connection.getOutputStream();
+                writeInChunks(body, connectionOutputStream);
+                connectionOutputStream.close();
+            }
+        });
+
+        Log.i(TAG, String.format("Buffered compression of %d events (%d KB): %d KB allocated, %.3f ms", BENCHMARK_EVENTS, body.length / 1024, bufferedResult[0] / 1024, bufferedResult[1] / 1_000_000.0));
+        Log.i(TAG, String.format("Streamed compression of %d events (%d KB): %d KB allocated, %.3f ms", BENCHMARK_EVENTS, body.length / 1024, streamedResult[0] / 1024, streamedResult[1] / 1_000_000.0));
+
+        assertArrayEquals(decompress(bufferedSentBody.toByteArray()), decompress(sentBody.toByteArray()));
+        assertTrue(streamedResult[0] < bufferedResult[0]);
+    }
+
+    private interface BodyWriter {
+        void write() throws IOException;
+    }
+
+    private long[] measure(BodyWriter writer) throws IOException {
+        Debug.resetThreadAllocSize();
+        Debug.startAllocCounting();
+        long start = System.nanoTime();
+        writer.write();
+        long nanos = System.nanoTime() - start;
+        Debug.stopAllocCounting();
+        return new long[]{Debug.getThreadAllocSize(), nanos};
+    }
+
+    private void writeInChunks(byte[] body, OutputStream outputStream) throws IOException {
+        for (int i = 0; i < body.length; i += CHUNK_SIZE) {
+            outputStream.write(body, i, Math.min(CHUNK_SIZE, body.length - i));
+        }
+    }
+
+    private byte[] createEventsBody(int eventCount) {
+        StringBuilder builder = new StringBuilder("{\"clicks\":[],\"viewed_messages\":[],\"events\":[");
+        for (int i = 0; i < eventCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"type\":\"custom\",\"name\":\"event").append(i)
+                    .append("\",\"timestamp\":\"2018-01-01T00:00:").append(i % 60)
+                    .append(".000Z\",\"attributes\":{\"key\":\"value").append(i).append("\"}}");
+        }
+        return builder.append("]}").toString().getBytes();
+    }
+
+    private byte[] createBody(int size) {
+        byte[] pattern = "{\"type\":\"custom\",\"name\":\"event\"},".getBytes();
+        byte[] result = new byte[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = pattern[i % pattern.length];
+        }
+        return result;
+    }
+
+    private byte[] decompress(byte[] compressed) throws IOException {
+        InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed));
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            result.write(buffer, 0, read);
+        }
+        inputStream.close();
+        return result.toByteArray();
+    }
+}
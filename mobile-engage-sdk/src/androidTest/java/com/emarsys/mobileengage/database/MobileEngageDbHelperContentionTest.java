@@ -0,0 +1,117 @@
+package com.emarsys.mobileengage.database;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.util.Log;
+
+import com.emarsys.core.database.repository.specification.QueryAll;
+import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClicked;
+import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClickedContract;
+import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClickedRepository;
+import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIam;
+import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIamContract;
+import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIamRepository;
+import com.emarsys.mobileengage.testUtil.DatabaseTestUtils;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+
+public class MobileEngageDbHelperContentionTest {
+
+    private static final String TAG = "DbContentionBenchmark";
+    private static final int WRITER_COUNT = 4;
+    private static final int READER_COUNT = 4;
+    private static final int OPERATION_COUNT = 100;
+
+    private DisplayedIamRepository displayedIamRepository;
+    private ButtonClickedRepository buttonClickedRepository;
+    private List<Throwable> errors;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        DatabaseTestUtils.deleteMobileEngageDatabase();
+
+        Context context = InstrumentationRegistry.getTargetContext();
+        MobileEngageDbHelper dbHelper = new MobileEngageDbHelper(context);
+        displayedIamRepository = new DisplayedIamRepository(dbHelper);
+        buttonClickedRepository = new ButtonClickedRepository(dbHelper);
+        errors = Collections.synchronizedList(new ArrayList<Throwable>());
+    }
+
+    @Test
+    public void testConcurrentReadsAndWrites_onSharedDbHelper() throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < WRITER_COUNT; i++) {
+            threads.add(writer(start, i));
+        }
+        for (int i = 0; i < READER_COUNT; i++) {
+            threads.add(reader(start));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        Log.i(TAG, String.format("%d writers and %d readers, %d operations each: %.3f ms",
+                WRITER_COUNT, READER_COUNT, OPERATION_COUNT, elapsedNanos / 1_000_000.0));
+
+        assertEquals(Collections.<Throwable>emptyList(), errors);
+        assertEquals(WRITER_COUNT * OPERATION_COUNT, displayedIamRepository.query(new QueryAll(DisplayedIamContract.TABLE_NAME)).size());
+        assertEquals(WRITER_COUNT * OPERATION_COUNT, buttonClickedRepository.query(new QueryAll(ButtonClickedContract.TABLE_NAME)).size());
+    }
+
+    private Thread writer(final CountDownLatch start, final int writerIndex) {
+        return new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    start.await();
+                    for (int i = 0; i < OPERATION_COUNT; i++) {
+                        String campaignId = "campaign" + writerIndex + "_" + i;
+                        displayedIamRepository.add(new DisplayedIam(campaignId, i));
+                        buttonClickedRepository.add(new ButtonClicked(campaignId, "button", i));
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }
+        });
+    }
+
+    private Thread reader(final CountDownLatch start) {
+        return new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    start.await();
+                    for (int i = 0; i < OPERATION_COUNT; i++) {
+                        displayedIamRepository.query(new QueryAll(DisplayedIamContract.TABLE_NAME));
+                        buttonClickedRepository.query(new QueryAll(ButtonClickedContract.TABLE_NAME));
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }
+        });
+    }
+}
@@ -20,6 +20,9 @@ public class MobileEngageDbHelperTest {
     public static final String TABLE_EXISTS = "SELECT * FROM sqlite_master WHERE type='table' AND name='%s';";
     public static final String DISPLAYED_IAM_EXISTS = String.format(TABLE_EXISTS, "displayed_iam");
     public static final String BUTTON_CLICKED_EXISTS = String.format(TABLE_EXISTS, "button_clicked");
+    public static final String EVENT_EXISTS = String.format(TABLE_EXISTS, "event");
+    public static final String INBOX_CACHE_EXISTS = String.format(TABLE_EXISTS, "inbox_cache");
+    public static final String EVENT_REQUEST_ID_INDEX_EXISTS = "SELECT * FROM sqlite_master WHERE type='index' AND name='event_request_id_index';";
     public static final String COLUMN_NAME_SQL = "sql";
 
     private MobileEngageDbHelper dbHelper;
@@ -70,4 +73,105 @@ public class MobileEngageDbHelperTest {
         cursor.close();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void onCreate_createsEventTable() throws Exception {
+        SQLiteDatabase db = dbHelper.getReadableCoreDatabase().getBackingDatabase();
+
+        Cursor cursor = db.rawQuery(EVENT_EXISTS, null);
+
+        assertEquals(1, cursor.getCount());
+
+        cursor.moveToFirst();
+        String actual = cursor.getString(cursor.getColumnIndex(COLUMN_NAME_SQL));
+
+        String expected = "CREATE TABLE event (id INTEGER PRIMARY KEY AUTOINCREMENT,request_id TEXT NOT NULL,type TEXT NOT NULL,name TEXT NOT NULL,timestamp INTEGER,attributes TEXT)";
+        assertEquals(expected, actual);
+
+        cursor.close();
+    }
+
+    @Test
+    public void onCreate_createsEventRequestIdIndex() throws Exception {
+        SQLiteDatabase db = dbHelper.getReadableCoreDatabase().getBackingDatabase();
+
+        Cursor cursor = db.rawQuery(EVENT_REQUEST_ID_INDEX_EXISTS, null);
+
+        assertEquals(1, cursor.getCount());
+
+        cursor.close();
+    }
+
+    @Test
+    public void onCreate_createsInboxCacheTable() throws Exception {
+        SQLiteDatabase db = dbHelper.getReadableCoreDatabase().getBackingDatabase();
+
+        Cursor cursor = db.rawQuery(INBOX_CACHE_EXISTS, null);
+
+        assertEquals(1, cursor.getCount());
+
+        cursor.moveToFirst();
+        String actual = cursor.getString(cursor.getColumnIndex(COLUMN_NAME_SQL));
+
+        String expected = "CREATE TABLE inbox_cache (me_id TEXT PRIMARY KEY,body TEXT NOT NULL,timestamp INTEGER,etag TEXT,last_modified TEXT)";
+        assertEquals(expected, actual);
+
+        cursor.close();
+    }
+
+    @Test
+    public void onOpen_enablesWriteAheadLogging() throws Exception {
+        SQLiteDatabase db = dbHelper.getWritableCoreDatabase().getBackingDatabase();
+
+        Cursor cursor = db.rawQuery("PRAGMA journal_mode", null);
+        cursor.moveToFirst();
+
+        assertEquals("wal", cursor.getString(0).toLowerCase());
+
+        cursor.close();
+    }
+
+    @Test
+    public void onUpgrade_fromVersion1_createsEventTable() throws Exception {
+        SQLiteDatabase db = dbHelper.getWritableCoreDatabase().getBackingDatabase();
+        db.execSQL("DROP TABLE event;");
+
+        dbHelper.onUpgrade(db, 1, 2);
+
+        Cursor cursor = db.rawQuery(EVENT_EXISTS, null);
+
+        assertEquals(1, cursor.getCount());
+
+        cursor.close();
+    }
+
+    @Test
+    public void onUpgrade_fromVersion2_createsInboxCacheTable() throws Exception {
+        SQLiteDatabase db = dbHelper.getWritableCoreDatabase().getBackingDatabase();
+        db.execSQL("DROP TABLE inbox_cache;");
+
+        dbHelper.onUpgrade(db, 2, 3);
+
+        Cursor cursor = db.rawQuery(INBOX_CACHE_EXISTS, null);
+
+        assertEquals(1, cursor.getCount());
+
+        cursor.close();
+    }
+
+    @Test
+    public void onUpgrade_fromVersion3_addsValidatorColumnsToInboxCacheTable() throws Exception {
+        SQLiteDatabase db = dbHelper.getWritableCoreDatabase().getBackingDatabase();
+        db.execSQL("DROP TABLE inbox_cache;");
+        db.execSQL("CREATE TABLE inbox_cache (me_id TEXT PRIMARY KEY,body TEXT NOT NULL,timestamp INTEGER);");
+
+        dbHelper.onUpgrade(db, 3, 4);
+
+        Cursor cursor = db.rawQuery("SELECT * FROM inbox_cache", null);
+
+        assertEquals(3, cursor.getColumnIndex("etag"));
+        assertEquals(4, cursor.getColumnIndex("last_modified"));
+
+        cursor.close();
+    }
+
+}
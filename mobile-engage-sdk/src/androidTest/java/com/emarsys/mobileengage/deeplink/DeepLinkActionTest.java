@@ -3,6 +3,7 @@ package com.emarsys.mobileengage.deeplink;
 import android.app.Activity;
 import android.content.Intent;
 
+import com.emarsys.mobileengage.di.Lazy;
 import com.emarsys.mobileengage.testUtil.TimeoutUtils;
 
 import org.junit.Before;
@@ -37,7 +38,12 @@ public class DeepLinkActionTest {
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_mobileEngageInternalMustNotBeNull() {
-        new DeepLinkAction(null);
+        new DeepLinkAction((DeepLinkInternal) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_lazyDeepLinkInternalMustNotBeNull() {
+        new DeepLinkAction((Lazy<DeepLinkInternal>) null);
     }
 
     @Test
@@ -0,0 +1,220 @@
+package com.emarsys.mobileengage.di;
+
+import android.app.Application;
+import android.support.test.InstrumentationRegistry;
+import android.util.Log;
+
+import com.emarsys.mobileengage.EventHandler;
+import com.emarsys.mobileengage.config.MobileEngageConfig;
+import com.emarsys.mobileengage.connection.EmptyErrorStreamConnectionProvider;
+import com.emarsys.mobileengage.event.EventBuffer;
+import com.emarsys.mobileengage.experimental.MobileEngageExperimental;
+import com.emarsys.mobileengage.experimental.MobileEngageFeature;
+import com.emarsys.mobileengage.startup.StartupReport;
+import com.emarsys.mobileengage.startup.StartupTracer;
+import com.emarsys.mobileengage.testUtil.DatabaseTestUtils;
+import com.emarsys.mobileengage.testUtil.ExperimentalTestUtils;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class DefaultDependencyContainerTest {
+
+    private static final String TAG = "StartupBenchmark";
+    private static final long MAIN_THREAD_BUDGET_NANOS = 5_000_000;
+    private static final int RACE_ITERATIONS = 20;
+
+    private Application application;
+    private MobileEngageConfig config;
+    private DefaultDependencyContainer container;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        DatabaseTestUtils.deleteMobileEngageDatabase();
+        DatabaseTestUtils.deleteCoreDatabase();
+
+        application = spy((Application) InstrumentationRegistry.getTargetContext().getApplicationContext());
+        config = new MobileEngageConfig.Builder()
+                .application(application)
+                .credentials("56789876", "secret")
+                .disableDefaultChannel()
+                .enableExperimentalFeatures(MobileEngageFeature.IN_APP_MESSAGING)
+                .setDefaultInAppEventHandler(new EventHandler() {
+                    @Override
+                    public void handleEvent(String eventName, JSONObject payload) {
+
+                    }
+                })
+                .build();
+        MobileEngageExperimental.enableFeature(MobileEngageFeature.IN_APP_MESSAGING);
+    }
+
+    @After
+    public void tearDown() {
+        if (container != null) {
+            container.getCoreSdkHandler().getLooper().quit();
+        }
+        ExperimentalTestUtils.resetExperimentalFeatures();
+    }
+
+    @Test
+    public void testConstructor_shouldWarmUpDependencies_onCoreSdkHandler() throws InterruptedException {
+        container = new DefaultDependencyContainer(config);
+
+        waitForWarmUp();
+
+        Map<String, Long> constructionTimes = container.getConstructionTimes();
+        assertNotEquals(Lazy.NOT_CREATED, (long) constructionTimes.get("RequestManager"));
+        assertNotEquals(Lazy.NOT_CREATED, (long) constructionTimes.get("MobileEngageInternal"));
+        assertNotEquals(Lazy.NOT_CREATED, (long) constructionTimes.get("InboxInternal"));
+        assertNotEquals(Lazy.NOT_CREATED, (long) constructionTimes.get("DeepLinkInternal"));
+        assertNotEquals(Lazy.NOT_CREATED, (long) constructionTimes.get("InAppPresenter"));
+    }
+
+    @Test
+    public void testConstructor_shouldTraceWarmUpPhases() throws InterruptedException {
+        StartupTracer tracer = new StartupTracer();
+        container = new DefaultDependencyContainer(config, tracer);
+
+        waitForWarmUp();
+
+        StartupReport report = tracer.getReport();
+        assertSame(tracer, container.getStartupTracer());
+        assertNotNull(report.getSpan("initializeDependencies"));
+        assertNotNull(report.getSpan("initializeInstances"));
+        assertNotNull(report.getSpan("initializeInAppPresenter"));
+        assertNotNull(report.getSpan("initializeResponseHandlers"));
+        assertNotNull(report.getSpan("RequestManager"));
+        assertEquals(container.getCoreSdkHandler().getLooper().getThread().getName(), report.getSpan("initializeDependencies").getThreadName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_startupTracerMustNotBeNull() {
+        new DefaultDependencyContainer(config, null);
+    }
+
+    @Test
+    public void testGetters_shouldReturnTheSameInstances() {
+        container = new DefaultDependencyContainer(config);
+
+        assertSame(container.getMobileEngageInternal(), container.getMobileEngageInternal());
+        assertSame(container.getRequestContext(), container.getMobileEngageInternal().getRequestContext());
+        assertSame(container.getEventBuffer(), container.getEventBuffer());
+    }
+
+    @Test
+    public void testEventBuffer_shouldBeRegisteredAsComponentCallbacks_once() throws InterruptedException {
+        container = new DefaultDependencyContainer(config);
+
+        container.getEventBuffer();
+        waitForWarmUp();
+
+        verify(application, times(1)).registerComponentCallbacks(any(EventBuffer.class));
+    }
+
+    @Test
+    public void testCreateConnectionProvider_shouldNotTolerateMissingErrorStreams() {
+        container = new DefaultDependencyContainer(config);
+
+        assertFalse(container.createConnectionProvider(config) instanceof EmptyErrorStreamConnectionProvider);
+    }
+
+    @Test
+    public void testCreateInboxConnectionProvider_shouldTolerateMissingErrorStreams() {
+        container = new DefaultDependencyContainer(config);
+
+        assertTrue(container.createInboxConnectionProvider(config) instanceof EmptyErrorStreamConnectionProvider);
+    }
+
+    @Test
+    public void testGetInboxInternal_shouldUseSeparateRestClient() throws InterruptedException {
+        container = new DefaultDependencyContainer(config);
+
+        container.getInboxInternal();
+        waitForWarmUp();
+
+        Map<String, Long> constructionTimes = container.getConstructionTimes();
+        assertNotEquals(Lazy.NOT_CREATED, (long) constructionTimes.get("RestClient"));
+        assertNotEquals(Lazy.NOT_CREATED, (long) constructionTimes.get("InboxRestClient"));
+    }
+
+    @Test
+    public void testGetMobileEngageInternal_shouldNotDeadlock_whenRacingWarmUp() throws InterruptedException {
+        for (int i = 0; i < RACE_ITERATIONS; i++) {
+            container = new DefaultDependencyContainer(config);
+
+            assertNotNull(container.getMobileEngageInternal());
+            assertNotNull(container.getInAppPresenter());
+
+            waitForWarmUp();
+            container.getCoreSdkHandler().getLooper().quit();
+        }
+        container = null;
+    }
+
+    @Test
+    public void testRequestManager_shouldRegisterResponseHandlers_onCoreSdkHandler() throws InterruptedException {
+        StartupTracer tracer = new StartupTracer();
+        container = new DefaultDependencyContainer(config, tracer);
+
+        container.getMobileEngageInternal();
+        waitForWarmUp();
+
+        assertEquals(container.getCoreSdkHandler().getLooper().getThread().getName(), tracer.getReport().getSpan("initializeResponseHandlers").getThreadName());
+    }
+
+    @Test
+    public void testStartupBenchmark() throws InterruptedException {
+        long start = System.nanoTime();
+        container = new DefaultDependencyContainer(config);
+        long setupNanos = System.nanoTime() - start;
+
+        waitForWarmUp();
+
+        Log.i(TAG, String.format("DefaultDependencyContainer setup on calling thread: %.3f ms", setupNanos / 1_000_000.0));
+        for (Map.Entry<String, Long> entry : container.getConstructionTimes().entrySet()) {
+            if (entry.getValue() != Lazy.NOT_CREATED) {
+                Log.i(TAG, String.format("%s: %.3f ms", entry.getKey(), entry.getValue() / 1_000_000.0));
+            }
+        }
+        assertTrue(setupNanos < MAIN_THREAD_BUDGET_NANOS);
+    }
+
+    private void waitForWarmUp() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        container.getCoreSdkHandler().post(new Runnable() {
+            @Override
+            public void run() {
+                container.getCoreSdkHandler().post(new Runnable() {
+                    @Override
+                    public void run() {
+                        latch.countDown();
+                    }
+                });
+            }
+        });
+        latch.await();
+    }
+}
@@ -0,0 +1,185 @@
+package com.emarsys.mobileengage.di;
+
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LazyTest {
+
+    private AtomicInteger createCount;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        createCount = new AtomicInteger();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_nameMustNotBeNull() {
+        new Lazy<Object>(null) {
+            @Override
+            protected Object create() {
+                return new Object();
+            }
+        };
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOf_valueMustNotBeNull() {
+        Lazy.of(null);
+    }
+
+    @Test
+    public void testOf_shouldBeCreated() {
+        Object value = new Object();
+
+        Lazy<Object> lazy = Lazy.of(value);
+
+        assertTrue(lazy.isCreated());
+        assertSame(value, lazy.get());
+    }
+
+    @Test
+    public void testGet_shouldNotCreate_beforeFirstCall() {
+        Lazy<Object> lazy = countingLazy();
+
+        assertFalse(lazy.isCreated());
+        assertEquals(0, createCount.get());
+        assertEquals(Lazy.NOT_CREATED, lazy.getConstructionTimeNanos());
+    }
+
+    @Test
+    public void testGet_shouldCreateOnlyOnce() {
+        Lazy<Object> lazy = countingLazy();
+
+        Object first = lazy.get();
+        Object second = lazy.get();
+
+        assertSame(first, second);
+        assertEquals(1, createCount.get());
+        assertTrue(lazy.isCreated());
+        assertTrue(lazy.getConstructionTimeNanos() >= 0);
+    }
+
+    @Test
+    public void testGet_shouldCreateOnlyOnce_fromMultipleThreads() throws InterruptedException {
+        final Lazy<Object> lazy = countingLazy();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    lazy.get();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, createCount.get());
+    }
+
+    @Test
+    public void testGet_shouldNotWait_forCreationOfOtherProvider() throws InterruptedException {
+        final CountDownLatch creating = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Lazy<Object> slow = new Lazy<Object>("slow") {
+            @Override
+            protected Object create() {
+                creating.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+                return new Object();
+            }
+        };
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                slow.get();
+            }
+        });
+        thread.start();
+        creating.await();
+
+        Object result = countingLazy().get();
+
+        assertNotNull(result);
+        assertFalse(slow.isCreated());
+        release.countDown();
+        thread.join();
+    }
+
+    @Test
+    public void testGet_shouldReturnValue_whenCalledFromOnCreated() {
+        final Object[] resolvedInCallback = new Object[1];
+        final Lazy<Object>[] self = new Lazy[1];
+        self[0] = new Lazy<Object>("name") {
+            @Override
+            protected Object create() {
+                createCount.incrementAndGet();
+                return new Object();
+            }
+
+            @Override
+            protected void onCreated(Object value) {
+                resolvedInCallback[0] = self[0].get();
+            }
+        };
+
+        Object result = self[0].get();
+
+        assertSame(result, resolvedInCallback[0]);
+        assertEquals(1, createCount.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testGet_shouldThrowException_onCircularDependency() {
+        final Lazy<Object>[] self = new Lazy[1];
+        self[0] = new Lazy<Object>("name") {
+            @Override
+            protected Object create() {
+                return self[0].get();
+            }
+        };
+
+        self[0].get();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGet_shouldThrowException_whenCreatedValueIsNull() {
+        new Lazy<Object>("name") {
+            @Override
+            protected Object create() {
+                return null;
+            }
+        }.get();
+    }
+
+    private Lazy<Object> countingLazy() {
+        return new Lazy<Object>("name") {
+            @Override
+            protected Object create() {
+                createCount.incrementAndGet();
+                return new Object();
+            }
+        };
+    }
+}
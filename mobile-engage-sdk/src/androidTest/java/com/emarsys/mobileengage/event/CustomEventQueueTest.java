@@ -0,0 +1,240 @@
+package com.emarsys.mobileengage.event;
+
+import android.os.Handler;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import com.emarsys.core.request.RequestIdProvider;
+import com.emarsys.core.request.RequestManager;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.timestamp.TimestampProvider;
+import com.emarsys.core.util.TimestampUtils;
+import com.emarsys.mobileengage.RequestContext;
+import com.emarsys.mobileengage.Session;
+import com.emarsys.mobileengage.config.MobileEngageConfig;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+import com.emarsys.mobileengage.util.RequestModelUtils;
+import com.emarsys.mobileengage.util.RequestUrlUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(AndroidJUnit4.class)
+public class CustomEventQueueTest {
+
+    private static final String TAG = "CustomEventBenchmark";
+    private static final String ME_ID = "meId";
+    private static final long TIMESTAMP = 1000;
+
+    private Handler coreSdkHandler;
+    private RequestManager manager;
+    private MobileEngageConfig config;
+    private RequestIdProvider requestIdProvider;
+    private RequestContext requestContext;
+    private CustomEventQueue queue;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        coreSdkHandler = mock(Handler.class);
+        manager = mock(RequestManager.class);
+        config = mock(MobileEngageConfig.class);
+
+        requestIdProvider = mock(RequestIdProvider.class);
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2", "id3");
+
+        TimestampProvider timestampProvider = mock(TimestampProvider.class);
+        when(timestampProvider.provideTimestamp()).thenReturn(TIMESTAMP);
+
+        requestContext = mock(RequestContext.class);
+        when(requestContext.getConfig()).thenReturn(config);
+        when(requestContext.getRequestIdProvider()).thenReturn(requestIdProvider);
+        when(requestContext.getTimestampProvider()).thenReturn(timestampProvider);
+        when(requestContext.getSession()).thenReturn(new Session(ME_ID, null, null, null));
+        when(requestContext.getBaseHeaders_V3(any(Session.class))).thenReturn(new HashMap<String, String>());
+
+        queue = new CustomEventQueue(coreSdkHandler, manager, requestContext);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_coreSdkHandler_mustNotBeNull() {
+        new CustomEventQueue(null, manager, requestContext);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_manager_mustNotBeNull() {
+        new CustomEventQueue(coreSdkHandler, null, requestContext);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_requestContext_mustNotBeNull() {
+        new CustomEventQueue(coreSdkHandler, manager, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOffer_eventName_mustNotBeNull() {
+        queue.offer(null, null);
+    }
+
+    @Test
+    public void testIsEnabled() {
+        when(config.isAsyncEventTrackingEnabled()).thenReturn(true);
+        assertTrue(queue.isEnabled());
+
+        when(config.isAsyncEventTrackingEnabled()).thenReturn(false);
+        assertFalse(queue.isEnabled());
+    }
+
+    @Test
+    public void testOffer_returnsPreGeneratedIds() {
+        assertEquals("id1", queue.offer("event1", null));
+        assertEquals("id2", queue.offer("event2", null));
+    }
+
+    @Test
+    public void testOffer_doesNotTouchStorageOrRequestManager() {
+        queue.offer("event", null);
+
+        verify(requestContext, never()).getSession();
+        verifyZeroInteractions(manager);
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void testDrain_shouldRescheduleDrain_whenMeIdIsMissing() {
+        when(requestContext.getSession()).thenReturn(new Session(null, null, null, null));
+        queue.offer("event", null);
+
+        queue.drain();
+
+        verify(coreSdkHandler).postDelayed(any(Runnable.class), eq(CustomEventQueue.MISSING_ME_ID_RETRY_DELAY_MILLIS));
+    }
+
+    @Test
+    public void testDrain_shouldNotRescheduleDrain_whenMeIdIsMissing_andQueueIsEmpty() {
+        when(requestContext.getSession()).thenReturn(new Session(null, null, null, null));
+
+        queue.drain();
+
+        verify(coreSdkHandler, never()).postDelayed(any(Runnable.class), anyLong());
+    }
+
+    @Test
+    public void testOffer_postsDrainOnlyOnce_untilDrained() {
+        queue.offer("event1", null);
+        queue.offer("event2", null);
+        verify(coreSdkHandler, times(1)).post(any(Runnable.class));
+
+        queue.drain();
+        queue.offer("event3", null);
+        verify(coreSdkHandler, times(2)).post(any(Runnable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDrain_submitsRequestModelForEachEvent() {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key", "value");
+        queue.offer("event1", attributes);
+        queue.offer("event2", null);
+
+        queue.drain();
+
+        ArgumentCaptor<RequestModel> captor = ArgumentCaptor.forClass(RequestModel.class);
+        verify(manager, times(2)).submit(captor.capture());
+
+        RequestModel first = captor.getAllValues().get(0);
+        assertEquals("id1", first.getId());
+        assertEquals(RequestUrlUtils.createEventUrl_V3(ME_ID), first.getUrl().toString());
+        Map<String, Object> event = ((List<Map<String, Object>>) first.getPayload().get("events")).get(0);
+        assertEquals("custom", event.get("type"));
+        assertEquals("event1", event.get("name"));
+        assertEquals(TimestampUtils.formatTimestampWithUTC(TIMESTAMP), event.get("timestamp"));
+        assertEquals(attributes, event.get("attributes"));
+
+        assertEquals("id2", captor.getAllValues().get(1).getId());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testDrain_shouldKeepEvents_whenMeIdIsMissing() {
+        when(requestContext.getSession()).thenReturn(new Session(null, null, null, null));
+        queue.offer("event", null);
+
+        queue.drain();
+
+        verifyZeroInteractions(manager);
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testOffer_copiesAttributes() {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key", "value");
+        queue.offer("event", attributes);
+        attributes.put("key", "changed");
+
+        queue.drain();
+
+        ArgumentCaptor<RequestModel> captor = ArgumentCaptor.forClass(RequestModel.class);
+        verify(manager).submit(captor.capture());
+        Map<String, Object> event = ((List<Map<String, Object>>) captor.getValue().getPayload().get("events")).get(0);
+        assertEquals("value", ((Map<String, String>) event.get("attributes")).get("key"));
+    }
+
+    @Test
+    public void testOfferBenchmark_comparedToSynchronousRequestBuild() {
+        int iterations = 1000;
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key1", "value1");
+        attributes.put("key2", "value2");
+        when(requestIdProvider.provideId()).thenReturn("id");
+
+        for (int i = 0; i < iterations; i++) {
+            RequestModelUtils.createCustomEvent_V3("event", attributes, TIMESTAMP, "id", requestContext);
+            queue.offer("event", attributes);
+        }
+        queue = new CustomEventQueue(coreSdkHandler, manager, requestContext);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            RequestModelUtils.createCustomEvent_V3("event", attributes, TIMESTAMP, "id", requestContext);
+        }
+        long buildNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            queue.offer("event", attributes);
+        }
+        long offerNanos = System.nanoTime() - start;
+
+        Log.i(TAG, String.format("Synchronous V3 request build: %.3f us per event", buildNanos / 1000.0 / iterations));
+        Log.i(TAG, String.format("CustomEventQueue offer: %.3f us per event", offerNanos / 1000.0 / iterations));
+        assertEquals(iterations, queue.size());
+        assertTrue(offerNanos < buildNanos);
+    }
+}
@@ -0,0 +1,208 @@
+package com.emarsys.mobileengage.event;
+
+import android.content.ComponentCallbacks2;
+import android.os.Handler;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.emarsys.core.request.RequestIdProvider;
+import com.emarsys.core.request.RequestManager;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.timestamp.TimestampProvider;
+import com.emarsys.mobileengage.RequestContext;
+import com.emarsys.mobileengage.Session;
+import com.emarsys.mobileengage.config.EventBatchConfig;
+import com.emarsys.mobileengage.config.MobileEngageConfig;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+import com.emarsys.mobileengage.util.RequestUrlUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(AndroidJUnit4.class)
+public class EventBufferTest {
+
+    private static final String ME_ID = "meId";
+    private static final String BATCH_ID = "BATCH_ID";
+    private static final int MAX_BATCH_SIZE = 3;
+    private static final long MAX_DELAY = 5000;
+
+    private Handler coreSdkHandler;
+    private RequestManager manager;
+    private RequestContext requestContext;
+    private EventBuffer eventBuffer;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        coreSdkHandler = mock(Handler.class);
+        manager = mock(RequestManager.class);
+
+        MobileEngageConfig config = mock(MobileEngageConfig.class);
+        when(config.getEventBatchConfig()).thenReturn(new EventBatchConfig(true, MAX_BATCH_SIZE, MAX_DELAY));
+
+        RequestIdProvider requestIdProvider = mock(RequestIdProvider.class);
+        when(requestIdProvider.provideId()).thenReturn(BATCH_ID);
+
+        requestContext = mock(RequestContext.class);
+        when(requestContext.getConfig()).thenReturn(config);
+        when(requestContext.getRequestIdProvider()).thenReturn(requestIdProvider);
+        when(requestContext.getTimestampProvider()).thenReturn(mock(TimestampProvider.class));
+        when(requestContext.getSession()).thenReturn(new Session(ME_ID, null, null, null));
+        when(requestContext.getBaseHeaders_V3(any(Session.class))).thenReturn(new HashMap<String, String>());
+
+        eventBuffer = new EventBuffer(coreSdkHandler, manager, requestContext);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_coreSdkHandler_mustNotBeNull() {
+        new EventBuffer(null, manager, requestContext);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_manager_mustNotBeNull() {
+        new EventBuffer(coreSdkHandler, null, requestContext);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_requestContext_mustNotBeNull() {
+        new EventBuffer(coreSdkHandler, manager, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAdd_event_mustNotBeNull() {
+        eventBuffer.add(null);
+    }
+
+    @Test
+    public void testAdd_shouldReturnBatchId() {
+        assertEquals(BATCH_ID, eventBuffer.add(event("event1")));
+        assertEquals(BATCH_ID, eventBuffer.add(event("event2")));
+    }
+
+    @Test
+    public void testAdd_shouldScheduleDelayedFlush_forFirstEvent() {
+        eventBuffer.add(event("event1"));
+
+        verify(coreSdkHandler).postDelayed(any(Runnable.class), anyLong());
+    }
+
+    @Test
+    public void testAdd_shouldNotSubmit_belowMaxBatchSize() {
+        eventBuffer.add(event("event1"));
+        eventBuffer.add(event("event2"));
+
+        assertEquals(2, eventBuffer.size());
+        verify(coreSdkHandler, never()).post(any(Runnable.class));
+        verifyZeroInteractions(manager);
+    }
+
+    @Test
+    public void testAdd_shouldPostFlush_whenMaxBatchSizeIsReached() {
+        eventBuffer.add(event("event1"));
+        eventBuffer.add(event("event2"));
+        eventBuffer.add(event("event3"));
+
+        verify(coreSdkHandler).post(any(Runnable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlush_shouldSubmitSingleRequest_withAllBufferedEvents() {
+        Map<String, Object> event1 = event("event1");
+        Map<String, Object> event2 = event("event2");
+        eventBuffer.add(event1);
+        eventBuffer.add(event2);
+
+        eventBuffer.flush();
+
+        ArgumentCaptor<RequestModel> captor = ArgumentCaptor.forClass(RequestModel.class);
+        verify(manager).submit(captor.capture());
+
+        RequestModel result = captor.getValue();
+        assertEquals(BATCH_ID, result.getId());
+        assertEquals(RequestUrlUtils.createEventUrl_V3(ME_ID), result.getUrl().toString());
+        assertEquals(Arrays.asList(event1, event2), (List<Object>) result.getPayload().get("events"));
+        assertEquals(0, eventBuffer.size());
+    }
+
+    @Test
+    public void testFlush_shouldDoNothing_whenBufferIsEmpty() {
+        eventBuffer.flush();
+
+        verifyZeroInteractions(manager);
+    }
+
+    @Test
+    public void testFlush_shouldKeepEvents_whenMeIdIsMissing() {
+        when(requestContext.getSession()).thenReturn(new Session(null, null, null, null));
+        eventBuffer.add(event("event1"));
+
+        eventBuffer.flush();
+
+        verifyZeroInteractions(manager);
+        assertEquals(1, eventBuffer.size());
+    }
+
+    @Test
+    public void testFlush_shouldRescheduleFlush_whenMeIdIsMissing() {
+        when(requestContext.getSession()).thenReturn(new Session(null, null, null, null));
+        eventBuffer.add(event("event1"));
+
+        eventBuffer.flush();
+
+        verify(coreSdkHandler, times(2)).postDelayed(any(Runnable.class), eq(MAX_DELAY));
+    }
+
+    @Test
+    public void testFlush_shouldNotRescheduleFlush_whenMeIdIsMissing_andBufferIsEmpty() {
+        when(requestContext.getSession()).thenReturn(new Session(null, null, null, null));
+
+        eventBuffer.flush();
+
+        verify(coreSdkHandler, never()).postDelayed(any(Runnable.class), anyLong());
+    }
+
+    @Test
+    public void testOnTrimMemory_shouldPostFlush_whenUiIsHidden() {
+        eventBuffer.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+
+        verify(coreSdkHandler).post(any(Runnable.class));
+    }
+
+    @Test
+    public void testOnTrimMemory_shouldNotPostFlush_whileRunning() {
+        eventBuffer.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+
+        verify(coreSdkHandler, never()).post(any(Runnable.class));
+    }
+
+    private Map<String, Object> event(String name) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("type", "custom");
+        event.put("name", name);
+        event.put("timestamp", "2018-01-01T00:00:00.000Z");
+        return event;
+    }
+}
@@ -0,0 +1,234 @@
+package com.emarsys.mobileengage.event;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import com.emarsys.core.timestamp.TimestampProvider;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(AndroidJUnit4.class)
+public class EventDeduplicatorTest {
+
+    private static final long WINDOW = 500;
+
+    private TimestampProvider timestampProvider;
+    private EventDeduplicator deduplicator;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        timestampProvider = mock(TimestampProvider.class);
+        when(timestampProvider.provideTimestamp()).thenReturn(1000L);
+        deduplicator = new EventDeduplicator(WINDOW, timestampProvider);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_timestampProvider_mustNotBeNull() {
+        new EventDeduplicator(WINDOW, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_windowMillis_mustNotBeNegative() {
+        new EventDeduplicator(-1, timestampProvider);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_maxFingerprints_mustBePositive() {
+        new EventDeduplicator(WINDOW, 0, timestampProvider);
+    }
+
+    @Test
+    public void testIsEnabled() {
+        assertTrue(deduplicator.isEnabled());
+        assertFalse(new EventDeduplicator(0, timestampProvider).isEnabled());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindOrRegister_submission_mustNotBeNull() {
+        deduplicator.findOrRegister("event", null, null);
+    }
+
+    @Test
+    public void testFindOrRegister_alwaysSubmits_whenDisabled() {
+        EventDeduplicator disabled = new EventDeduplicator(0, timestampProvider);
+
+        assertEquals("id1", disabled.findOrRegister("event", null, submission("id1")));
+        assertEquals("id2", disabled.findOrRegister("event", null, submission("id2")));
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    public void testFindOrRegister_submits_forUnknownEvent() {
+        CountingSubmission submission = submission("id1");
+
+        assertEquals("id1", deduplicator.findOrRegister("event", null, submission));
+        assertEquals(1, submission.count);
+        assertEquals(1, deduplicator.size());
+    }
+
+    @Test
+    public void testFindOrRegister_returnsOriginalId_withinWindow() {
+        deduplicator.findOrRegister("event", attributes("key", "value"), submission("id1"));
+        when(timestampProvider.provideTimestamp()).thenReturn(1000L + WINDOW - 1);
+        CountingSubmission duplicate = submission("id2");
+
+        assertEquals("id1", deduplicator.findOrRegister("event", attributes("key", "value"), duplicate));
+        assertEquals(0, duplicate.count);
+    }
+
+    @Test
+    public void testFindOrRegister_submitsAgain_afterWindow() {
+        deduplicator.findOrRegister("event", null, submission("id1"));
+        when(timestampProvider.provideTimestamp()).thenReturn(1000L + WINDOW);
+
+        assertEquals("id2", deduplicator.findOrRegister("event", null, submission("id2")));
+        assertEquals(1, deduplicator.size());
+    }
+
+    @Test
+    public void testFindOrRegister_doesNotRegister_whenNothingWasSubmitted() {
+        assertNull(deduplicator.findOrRegister("event", null, submission(null)));
+
+        assertEquals(0, deduplicator.size());
+        assertEquals("id1", deduplicator.findOrRegister("event", null, submission("id1")));
+    }
+
+    @Test
+    public void testFindOrRegister_treatsNullAndEmptyAttributesAsEqual() {
+        deduplicator.findOrRegister("event", null, submission("id1"));
+
+        assertEquals("id1", deduplicator.findOrRegister("event", new HashMap<String, String>(), submission("id2")));
+    }
+
+    @Test
+    public void testFindOrRegister_distinguishesNamesAndAttributes() {
+        deduplicator.findOrRegister("event", attributes("key", "value"), submission("id1"));
+
+        assertEquals("id2", deduplicator.findOrRegister("other", attributes("key", "value"), submission("id2")));
+        assertEquals("id3", deduplicator.findOrRegister("event", attributes("key", "other"), submission("id3")));
+        assertEquals("id4", deduplicator.findOrRegister("event", null, submission("id4")));
+    }
+
+    @Test
+    public void testFindOrRegister_distinguishesAttributes_withCollidingHashCodes() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        deduplicator.findOrRegister("event", attributes("key", "Aa"), submission("id1"));
+
+        assertEquals("id2", deduplicator.findOrRegister("event", attributes("key", "BB"), submission("id2")));
+    }
+
+    @Test
+    public void testFindOrRegister_isNotAffected_byLaterAttributeChanges() {
+        Map<String, String> attributes = attributes("key", "value");
+        deduplicator.findOrRegister("event", attributes, submission("id1"));
+
+        attributes.put("key", "other");
+
+        assertEquals("id1", deduplicator.findOrRegister("event", attributes("key", "value"), submission("id2")));
+    }
+
+    @Test
+    public void testFindOrRegister_evictsEldestFingerprint_whenFull() {
+        EventDeduplicator bounded = new EventDeduplicator(WINDOW, 2, timestampProvider);
+        bounded.findOrRegister("event1", null, submission("id1"));
+        bounded.findOrRegister("event2", null, submission("id2"));
+        bounded.findOrRegister("event3", null, submission("id3"));
+
+        assertEquals(2, bounded.size());
+        assertEquals("id2", bounded.findOrRegister("event2", null, submission("other")));
+        assertEquals("id3", bounded.findOrRegister("event3", null, submission("other")));
+        assertEquals("id4", bounded.findOrRegister("event1", null, submission("id4")));
+    }
+
+    @Test
+    public void testFindOrRegister_submitsOutsideOfLock() {
+        final boolean[] heldLock = new boolean[1];
+
+        deduplicator.findOrRegister("event", null, new EventDeduplicator.Submission() {
+            @Override
+            public String submit() {
+                heldLock[0] = Thread.holdsLock(deduplicator);
+                return "id1";
+            }
+        });
+
+        assertFalse(heldLock[0]);
+    }
+
+    @Test
+    public void testFindOrRegister_submitsOutsideOfLock_whenDisabled() {
+        final EventDeduplicator disabled = new EventDeduplicator(0, timestampProvider);
+        final boolean[] heldLock = new boolean[1];
+
+        disabled.findOrRegister("event", null, new EventDeduplicator.Submission() {
+            @Override
+            public String submit() {
+                heldLock[0] = Thread.holdsLock(disabled);
+                return "id1";
+            }
+        });
+
+        assertFalse(heldLock[0]);
+    }
+
+    @Test
+    public void testFindOrRegister_suppressesDuplicate_whileSubmissionIsInProgress() {
+        final CountingSubmission duplicate = submission("id2");
+        final String[] duplicateId = new String[]{"unset"};
+
+        String requestId = deduplicator.findOrRegister("event", null, new EventDeduplicator.Submission() {
+            @Override
+            public String submit() {
+                duplicateId[0] = deduplicator.findOrRegister("event", null, duplicate);
+                return "id1";
+            }
+        });
+
+        assertEquals("id1", requestId);
+        assertNull(duplicateId[0]);
+        assertEquals(0, duplicate.count);
+        assertEquals("id1", deduplicator.findOrRegister("event", null, submission("id3")));
+    }
+
+    private Map<String, String> attributes(String key, String value) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(key, value);
+        return attributes;
+    }
+
+    private CountingSubmission submission(String requestId) {
+        return new CountingSubmission(requestId);
+    }
+
+    private static class CountingSubmission implements EventDeduplicator.Submission {
+        private final String requestId;
+        private int count;
+
+        CountingSubmission(String requestId) {
+            this.requestId = requestId;
+        }
+
+        @Override
+        public String submit() {
+            count++;
+            return requestId;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.emarsys.mobileengage.event;
+
+import com.emarsys.core.timestamp.TimestampProvider;
+import com.emarsys.mobileengage.config.EventRateLimitRule;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EventRateLimiterTest {
+
+    private TimestampProvider timestampProvider;
+    private Random random;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        timestampProvider = mock(TimestampProvider.class);
+        when(timestampProvider.provideTimestamp()).thenReturn(10_000L);
+        random = mock(Random.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_rules_mustNotBeNull() {
+        new EventRateLimiter(null, timestampProvider);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_ruleElements_mustNotBeNull() {
+        new EventRateLimiter(Arrays.asList(new EventRateLimitRule("event", 1), null), timestampProvider);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_timestampProvider_mustNotBeNull() {
+        new EventRateLimiter(new ArrayList<EventRateLimitRule>(), null);
+    }
+
+    @Test
+    public void testTryAcquire_shouldAllow_eventsWithoutRule() {
+        EventRateLimiter limiter = limiter(new EventRateLimitRule("other", 0));
+
+        for (int i = 0; i < 100; ++i) {
+            assertTrue(limiter.tryAcquire("event"));
+        }
+        assertEquals(0, limiter.getSampledOutCount("event"));
+    }
+
+    @Test
+    public void testTryAcquire_shouldDrop_whenSampleRateIsZero() {
+        EventRateLimiter limiter = limiter(new EventRateLimitRule("event", 0));
+
+        assertFalse(limiter.tryAcquire("event"));
+        assertFalse(limiter.tryAcquire("event"));
+        assertEquals(2, limiter.getSampledOutCount("event"));
+    }
+
+    @Test
+    public void testTryAcquire_shouldSample_accordingToRandom() {
+        EventRateLimiter limiter = limiter(new EventRateLimitRule("event", 0.25));
+
+        when(random.nextDouble()).thenReturn(0.1, 0.9);
+
+        assertTrue(limiter.tryAcquire("event"));
+        assertFalse(limiter.tryAcquire("event"));
+        assertEquals(1, limiter.getSampledOutCount("event"));
+    }
+
+    @Test
+    public void testTryAcquire_shouldAllowBurst_thenRateLimit() {
+        EventRateLimiter limiter = limiter(new EventRateLimitRule("event", 1, 2, 1000, 3));
+
+        assertTrue(limiter.tryAcquire("event"));
+        assertTrue(limiter.tryAcquire("event"));
+        assertTrue(limiter.tryAcquire("event"));
+        assertFalse(limiter.tryAcquire("event"));
+        assertEquals(1, limiter.getRateLimitedCount("event"));
+    }
+
+    @Test
+    public void testTryAcquire_shouldRefill_afterWindowPasses() {
+        EventRateLimiter limiter = limiter(new EventRateLimitRule("event", 1, 2, 1000, 1));
+
+        assertTrue(limiter.tryAcquire("event"));
+        assertFalse(limiter.tryAcquire("event"));
+
+        when(timestampProvider.provideTimestamp()).thenReturn(10_500L);
+
+        assertTrue(limiter.tryAcquire("event"));
+    }
+
+    @Test
+    public void testGetDroppedCounts() {
+        EventRateLimiter limiter = limiter(
+                new EventRateLimitRule("sampled", 0),
+                new EventRateLimitRule("limited", 1, 1, 1000, 1));
+
+        limiter.tryAcquire("sampled");
+        limiter.tryAcquire("limited");
+        limiter.tryAcquire("limited");
+        limiter.tryAcquire("limited");
+
+        assertEquals(Long.valueOf(1), limiter.getDroppedCounts().get("sampled"));
+        assertEquals(Long.valueOf(2), limiter.getDroppedCounts().get("limited"));
+    }
+
+    private EventRateLimiter limiter(EventRateLimitRule... rules) {
+        List<EventRateLimitRule> ruleList = new ArrayList<>();
+        Collections.addAll(ruleList, rules);
+        return new EventRateLimiter(ruleList, timestampProvider, random);
+    }
+}
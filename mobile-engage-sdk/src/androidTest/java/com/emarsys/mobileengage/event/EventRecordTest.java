@@ -0,0 +1,198 @@
+package com.emarsys.mobileengage.event;
+
+import android.support.test.InstrumentationRegistry;
+import android.util.Log;
+
+import com.emarsys.core.database.repository.specification.QueryAll;
+import com.emarsys.core.request.RequestIdProvider;
+import com.emarsys.core.request.model.RequestContract;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.request.model.RequestModelRepository;
+import com.emarsys.core.timestamp.TimestampProvider;
+import com.emarsys.core.util.TimestampUtils;
+import com.emarsys.mobileengage.testUtil.DatabaseTestUtils;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EventRecordTest {
+
+    private static final String TAG = "EventRecordBenchmark";
+    private static final long TIMESTAMP = 1_500_000_000_000L;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_type_mustNotBeNull() {
+        new EventRecord(null, "name", TIMESTAMP, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_name_mustNotBeNull() {
+        new EventRecord(EventRecord.TYPE_CUSTOM, null, TIMESTAMP, null);
+    }
+
+    @Test
+    public void testConstructor_shouldInternType() {
+        EventRecord record = new EventRecord(new String("custom"), "name", TIMESTAMP, null);
+
+        assertSame(EventRecord.TYPE_CUSTOM, record.getType());
+    }
+
+    @Test
+    public void testMap_shouldEqualHashMapRepresentation() {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key", "value");
+        EventRecord record = new EventRecord(EventRecord.TYPE_CUSTOM, "name", TIMESTAMP, attributes);
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("type", "custom");
+        expected.put("name", "name");
+        expected.put("timestamp", TimestampUtils.formatTimestampWithUTC(TIMESTAMP));
+        expected.put("attributes", attributes);
+
+        assertEquals(expected, record);
+        assertEquals(record, expected);
+        assertEquals(expected.hashCode(), record.hashCode());
+    }
+
+    @Test
+    public void testMap_shouldOmitAttributes_whenEmpty() {
+        EventRecord record = new EventRecord(EventRecord.TYPE_INTERNAL, "name", TIMESTAMP, new HashMap<String, String>());
+
+        assertEquals(3, record.size());
+        assertFalse(record.containsKey("attributes"));
+        assertNull(record.get("attributes"));
+        assertNull(record.getAttributes());
+    }
+
+    @Test
+    public void testEntrySet_shouldIterateAllFields() {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key", "value");
+        EventRecord record = new EventRecord(EventRecord.TYPE_CUSTOM, "name", TIMESTAMP, attributes);
+
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : record.entrySet()) {
+            keys.add(entry.getKey());
+        }
+
+        assertEquals(4, keys.size());
+        assertTrue(keys.containsAll(record.keySet()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPut_shouldNotBeSupported() {
+        new EventRecord(EventRecord.TYPE_CUSTOM, "name", TIMESTAMP, null).put("name", "other");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAttributes_shouldBeReadOnly() {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key", "value");
+
+        new EventRecord(EventRecord.TYPE_CUSTOM, "name", TIMESTAMP, attributes).getAttributes().put("key", "other");
+    }
+
+    @Test
+    public void testJson_shouldSerializeLikeHashMap() throws Exception {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key", "value");
+        EventRecord record = new EventRecord(EventRecord.TYPE_CUSTOM, "name", TIMESTAMP, attributes);
+
+        JSONObject json = new JSONObject(record);
+
+        assertEquals("custom", json.getString("type"));
+        assertEquals("name", json.getString("name"));
+        assertEquals(TimestampUtils.formatTimestampWithUTC(TIMESTAMP), json.getString("timestamp"));
+        assertEquals("value", json.getJSONObject("attributes").getString("key"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRequestModelRepository_shouldStoreRecordAsHashMap() {
+        DatabaseTestUtils.deleteCoreDatabase();
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key", "value");
+        EventRecord record = new EventRecord(EventRecord.TYPE_CUSTOM, "name", TIMESTAMP, attributes);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("events", Collections.singletonList(record));
+        RequestModel model = new RequestModel.Builder(new TimestampProvider(), new RequestIdProvider())
+                .url("https://emarsys.com")
+                .payload(payload)
+                .build();
+
+        RequestModelRepository repository = new RequestModelRepository(InstrumentationRegistry.getTargetContext());
+        repository.add(model);
+        List<RequestModel> result = repository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("type", "custom");
+        expected.put("name", "name");
+        expected.put("timestamp", TimestampUtils.formatTimestampWithUTC(TIMESTAMP));
+        expected.put("attributes", attributes);
+
+        assertEquals(1, result.size());
+        List<Object> events = (List<Object>) result.get(0).getPayload().get("events");
+        assertEquals(Collections.singletonList(expected), events);
+        assertEquals(HashMap.class, events.get(0).getClass());
+
+        DatabaseTestUtils.deleteCoreDatabase();
+    }
+
+    @Test
+    public void testMemoryBenchmark_10000Events() {
+        int count = 10_000;
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key1", "value1");
+        attributes.put("key2", "value2");
+        List<Map<String, Object>> events = new ArrayList<>(count);
+
+        long memoryBefore = usedMemory();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("type", "custom");
+            event.put("name", "name");
+            event.put("timestamp", TimestampUtils.formatTimestampWithUTC(TIMESTAMP + i));
+            event.put("attributes", new HashMap<>(attributes));
+            events.add(event);
+        }
+        long mapMemory = usedMemory() - memoryBefore;
+        events.clear();
+
+        memoryBefore = usedMemory();
+        for (int i = 0; i < count; i++) {
+            events.add(new EventRecord(EventRecord.TYPE_CUSTOM, "name", TIMESTAMP + i, attributes));
+        }
+        long recordMemory = usedMemory() - memoryBefore;
+
+        Log.i(TAG, String.format("%d HashMap events: %d KB retained", count, mapMemory / 1024));
+        Log.i(TAG, String.format("%d EventRecords: %d KB retained", count, recordMemory / 1024));
+        assertEquals(count, events.size());
+        assertTrue(recordMemory < mapMemory);
+    }
+
+    private long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
+
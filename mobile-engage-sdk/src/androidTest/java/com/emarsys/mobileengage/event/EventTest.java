@@ -0,0 +1,19 @@
+package com.emarsys.mobileengage.event;
+
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+public class EventTest {
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_name_mustNotBeNull() {
+        new Event(null, null, 0);
+    }
+
+}
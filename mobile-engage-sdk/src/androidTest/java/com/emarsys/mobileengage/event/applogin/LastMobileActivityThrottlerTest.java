@@ -0,0 +1,228 @@
+package com.emarsys.mobileengage.event.applogin;
+
+import android.content.ComponentCallbacks2;
+import android.os.Handler;
+
+import com.emarsys.core.request.RequestManager;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.timestamp.TimestampProvider;
+import com.emarsys.mobileengage.storage.LastMobileActivityStorage;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class LastMobileActivityThrottlerTest {
+
+    private static final long INTERVAL = 60_000;
+    private static final long NOW = 1_000_000;
+
+    private Handler handler;
+    private RequestManager manager;
+    private LastMobileActivityStorage storage;
+    private TimestampProvider timestampProvider;
+    private LastMobileActivityThrottler throttler;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        handler = mock(Handler.class);
+        manager = mock(RequestManager.class);
+        storage = mock(LastMobileActivityStorage.class);
+        timestampProvider = mock(TimestampProvider.class);
+        when(timestampProvider.provideTimestamp()).thenReturn(NOW);
+
+        throttler = new LastMobileActivityThrottler(handler, manager, storage, timestampProvider, INTERVAL);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_handler_mustNotBeNull() {
+        new LastMobileActivityThrottler(null, manager, storage, timestampProvider, INTERVAL);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_manager_mustNotBeNull() {
+        new LastMobileActivityThrottler(handler, null, storage, timestampProvider, INTERVAL);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_storage_mustNotBeNull() {
+        new LastMobileActivityThrottler(handler, manager, null, timestampProvider, INTERVAL);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_timestampProvider_mustNotBeNull() {
+        new LastMobileActivityThrottler(handler, manager, storage, null, INTERVAL);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_intervalMillis_mustNotBeNegative() {
+        new LastMobileActivityThrottler(handler, manager, storage, timestampProvider, -1);
+    }
+
+    @Test
+    public void testIsEnabled() {
+        assertTrue(throttler.isEnabled());
+        assertFalse(new LastMobileActivityThrottler(handler, manager, storage, timestampProvider, 0).isEnabled());
+    }
+
+    @Test
+    public void testSubmit_shouldSubmitImmediately_whenDisabled() {
+        throttler = new LastMobileActivityThrottler(handler, manager, storage, timestampProvider, 0);
+        RequestModel model = model("id1");
+
+        assertEquals("id1", throttler.submit(model));
+
+        verify(manager).submit(model);
+        verifyZeroInteractions(storage);
+    }
+
+    @Test
+    public void testSubmit_shouldSubmitImmediately_whenNothingWasSentBefore() {
+        RequestModel model = model("id1");
+
+        assertEquals("id1", throttler.submit(model));
+
+        verify(manager).submit(model);
+        verify(storage).set(NOW);
+    }
+
+    @Test
+    public void testSubmit_shouldSubmitImmediately_afterInterval() {
+        when(storage.get()).thenReturn(NOW - INTERVAL);
+        RequestModel model = model("id1");
+
+        throttler.submit(model);
+
+        verify(manager).submit(model);
+    }
+
+    @Test
+    public void testSubmit_shouldDeferRequest_withinInterval() {
+        when(storage.get()).thenReturn(NOW - 10_000);
+        RequestModel model = model("id1");
+
+        assertEquals("id1", throttler.submit(model));
+
+        verify(manager, never()).submit(any(RequestModel.class));
+        verify(handler).postDelayed(any(Runnable.class), anyLong());
+        assertSame(model, throttler.getPendingModel());
+    }
+
+    @Test
+    public void testSubmit_shouldCollapseIntoPendingRequest() {
+        when(storage.get()).thenReturn(NOW - 10_000);
+        throttler.submit(model("id1"));
+
+        assertEquals("id1", throttler.submit(model("id2")));
+        assertEquals("id1", throttler.submit(model("id3")));
+
+        verify(handler, times(1)).postDelayed(any(Runnable.class), anyLong());
+        assertEquals(2, throttler.getSuppressedCount());
+    }
+
+    @Test
+    public void testSubmitPending_shouldSubmitPendingRequest() {
+        when(storage.get()).thenReturn(NOW - 10_000);
+        RequestModel model = model("id1");
+        throttler.submit(model);
+
+        throttler.submitPending();
+
+        verify(manager).submit(model);
+        verify(storage).set(NOW);
+        assertNull(throttler.getPendingModel());
+    }
+
+    @Test
+    public void testReset_shouldDropPendingRequest_andClearStorage() {
+        when(storage.get()).thenReturn(NOW - 10_000);
+        throttler.submit(model("id1"));
+
+        throttler.reset();
+        throttler.submitPending();
+
+        verify(handler).removeCallbacks(any(Runnable.class));
+        verify(storage).remove();
+        verifyZeroInteractions(manager);
+    }
+
+    @Test
+    public void testFlush_shouldSubmitPendingRequest_andCancelDelayedSubmission() {
+        when(storage.get()).thenReturn(NOW - 10_000);
+        RequestModel model = model("id1");
+        throttler.submit(model);
+
+        throttler.flush();
+
+        verify(handler).removeCallbacks(any(Runnable.class));
+        verify(manager).submit(model);
+        assertNull(throttler.getPendingModel());
+    }
+
+    @Test
+    public void testFlush_shouldDoNothing_withoutPendingRequest() {
+        throttler.flush();
+
+        verifyZeroInteractions(manager);
+    }
+
+    @Test
+    public void testOnTrimMemory_shouldFlushPendingRequest_whenUiHidden() {
+        when(storage.get()).thenReturn(NOW - 10_000);
+        RequestModel model = model("id1");
+        throttler.submit(model);
+
+        throttler.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+
+        verify(manager).submit(model);
+        assertNull(throttler.getPendingModel());
+    }
+
+    @Test
+    public void testOnTrimMemory_shouldKeepPendingRequest_whenRunning() {
+        when(storage.get()).thenReturn(NOW - 10_000);
+        RequestModel model = model("id1");
+        throttler.submit(model);
+
+        throttler.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+
+        verify(manager, never()).submit(any(RequestModel.class));
+        assertSame(model, throttler.getPendingModel());
+    }
+
+    @Test
+    public void testOnLowMemory_shouldFlushPendingRequest() {
+        when(storage.get()).thenReturn(NOW - 10_000);
+        RequestModel model = model("id1");
+        throttler.submit(model);
+
+        throttler.onLowMemory();
+
+        verify(manager).submit(model);
+    }
+
+    private RequestModel model(String id) {
+        RequestModel model = mock(RequestModel.class);
+        when(model.getId()).thenReturn(id);
+        return model;
+    }
+}
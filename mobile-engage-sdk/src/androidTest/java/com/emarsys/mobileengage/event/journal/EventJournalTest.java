@@ -0,0 +1,343 @@
+package com.emarsys.mobileengage.event.journal;
+
+import android.support.test.InstrumentationRegistry;
+
+import com.emarsys.mobileengage.event.EventRecord;
+import com.emarsys.mobileengage.event.model.StoredEvent;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventJournalTest {
+
+    private static final int SEGMENT_SIZE = 256;
+
+    private File directory;
+    private EventJournal journal;
+    private StoredEvent event1;
+    private StoredEvent event2;
+    private StoredEvent event3;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        directory = new File(InstrumentationRegistry.getTargetContext().getFilesDir(), "event_journal_test");
+        deleteDirectory();
+
+        journal = new EventJournal(directory, SEGMENT_SIZE);
+
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key1", "value1");
+        attributes.put("key2", "value2");
+
+        event1 = new StoredEvent("id1", new EventRecord(EventRecord.TYPE_CUSTOM, "event1", 100, attributes));
+        event2 = new StoredEvent("id1", new EventRecord(EventRecord.TYPE_CUSTOM, "event2", 200, null));
+        event3 = new StoredEvent("id2", new EventRecord(EventRecord.TYPE_INTERNAL, "event3", 300, null));
+    }
+
+    @After
+    public void tearDown() {
+        deleteDirectory();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_directory_mustNotBeNull() {
+        new EventJournal(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_segmentSize_mustBeGreaterThanHeader() {
+        new EventJournal(directory, 8);
+    }
+
+    @Test
+    public void testQueryByRequestIds_shouldReturnAppendedEvents() {
+        journal.addAll(Arrays.asList(event1, event2, event3));
+
+        assertEquals(Arrays.asList(event1, event2), journal.queryByRequestIds("id1"));
+        assertEquals(Arrays.asList(event3, event1, event2), journal.queryByRequestIds("id2", "id1"));
+    }
+
+    @Test
+    public void testAddAll_shouldReturnTrue_whenEventsAreAppended() {
+        assertTrue(journal.addAll(Arrays.asList(event1, event2, event3)));
+    }
+
+    @Test
+    public void testAddAll_shouldReturnFalse_whenJournalCannotBeOpened() throws Exception {
+        File file = new File(directory.getParentFile(), "event_journal_test_file");
+        file.createNewFile();
+        try {
+            assertFalse(new EventJournal(file, SEGMENT_SIZE).addAll(Collections.singletonList(event1)));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testQueryRequestIds_shouldReturnRequestIds_ofLiveEvents() {
+        journal.addAll(Arrays.asList(event1, event2, event3));
+        journal.removeByRequestIds("id1");
+
+        assertEquals(Collections.singleton("id2"), journal.queryRequestIds());
+    }
+
+    @Test
+    public void testRemoveByRequestIds_shouldRemoveEvents() {
+        journal.addAll(Arrays.asList(event1, event2, event3));
+
+        journal.removeByRequestIds("id1");
+
+        assertEquals(Collections.emptyList(), journal.queryByRequestIds("id1"));
+        assertEquals(Collections.singletonList(event3), journal.queryByRequestIds("id2"));
+    }
+
+    @Test
+    public void testReopen_shouldRecoverEvents() {
+        journal.addAll(Arrays.asList(event1, event2, event3));
+
+        EventJournal reopened = new EventJournal(directory, SEGMENT_SIZE);
+
+        assertEquals(Arrays.asList(event1, event2, event3), reopened.queryByRequestIds("id1", "id2"));
+    }
+
+    @Test
+    public void testReopen_shouldNotRecoverRemovedEvents() {
+        journal.addAll(Arrays.asList(event1, event2, event3));
+        journal.removeByRequestIds("id2");
+
+        EventJournal reopened = new EventJournal(directory, SEGMENT_SIZE);
+
+        assertEquals(Arrays.asList(event1, event2), reopened.queryByRequestIds("id1", "id2"));
+    }
+
+    @Test
+    public void testReopen_shouldKeepAppending_afterRecoveredEvents() {
+        journal.addAll(Collections.singletonList(event1));
+
+        EventJournal reopened = new EventJournal(directory, SEGMENT_SIZE);
+        reopened.addAll(Collections.singletonList(event3));
+
+        assertEquals(Arrays.asList(event1, event3), new EventJournal(directory, SEGMENT_SIZE).queryByRequestIds("id1", "id2"));
+    }
+
+    @Test
+    public void testReopen_shouldDropRecord_truncatedMidRecord() throws Exception {
+        journal.addAll(Arrays.asList(event1, event3));
+        File segment = new File(directory, EventJournal.SEGMENT_PREFIX + 0 + EventJournal.SEGMENT_SUFFIX);
+        long validLength = recordEnd(segment, 1);
+
+        truncate(segment, validLength - 3);
+
+        EventJournal reopened = new EventJournal(directory, SEGMENT_SIZE);
+
+        assertEquals(Collections.singletonList(event1), reopened.queryByRequestIds("id1", "id2"));
+    }
+
+    @Test
+    public void testReopen_shouldDropRecord_withInvalidChecksum() throws Exception {
+        journal.addAll(Arrays.asList(event1, event3));
+        File segment = new File(directory, EventJournal.SEGMENT_PREFIX + 0 + EventJournal.SEGMENT_SUFFIX);
+        long secondRecordEnd = recordEnd(segment, 1);
+
+        RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        file.seek(secondRecordEnd - 1);
+        int lastByte = file.read();
+        file.seek(secondRecordEnd - 1);
+        file.write(lastByte ^ 0xFF);
+        file.close();
+
+        EventJournal reopened = new EventJournal(directory, SEGMENT_SIZE);
+
+        assertEquals(Collections.singletonList(event1), reopened.queryByRequestIds("id1", "id2"));
+    }
+
+    @Test
+    public void testReopen_shouldOverwriteTornRecord_withNextAppend() throws Exception {
+        journal.addAll(Arrays.asList(event1, event3));
+        File segment = new File(directory, EventJournal.SEGMENT_PREFIX + 0 + EventJournal.SEGMENT_SUFFIX);
+        truncate(segment, recordEnd(segment, 1) - 3);
+
+        EventJournal reopened = new EventJournal(directory, SEGMENT_SIZE);
+        reopened.addAll(Collections.singletonList(event3));
+
+        assertEquals(Arrays.asList(event1, event3), new EventJournal(directory, SEGMENT_SIZE).queryByRequestIds("id1", "id2"));
+    }
+
+    @Test
+    public void testAddAll_shouldRotateSegments() {
+        for (int i = 0; i < 10; i++) {
+            journal.addAll(Collections.singletonList(event("id" + i)));
+        }
+
+        assertTrue(journal.segmentCount() > 1);
+        assertEquals(Collections.singletonList(event("id9")), new EventJournal(directory, SEGMENT_SIZE).queryByRequestIds("id9"));
+    }
+
+    @Test
+    public void testAddAll_shouldStoreRecord_largerThanSegment() {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key", new String(new char[SEGMENT_SIZE * 2]).replace('\0', 'x'));
+        StoredEvent large = new StoredEvent("id1", new EventRecord(EventRecord.TYPE_CUSTOM, "large", 100, attributes));
+
+        journal.addAll(Collections.singletonList(large));
+
+        assertEquals(Collections.singletonList(large), new EventJournal(directory, SEGMENT_SIZE).queryByRequestIds("id1"));
+    }
+
+    @Test
+    public void testRemoveByRequestIds_shouldDeleteConsumedSegments() {
+        for (int i = 0; i < 10; i++) {
+            journal.addAll(Collections.singletonList(event("id" + i)));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            journal.removeByRequestIds("id" + i);
+        }
+
+        assertEquals(1, journal.segmentCount());
+        assertEquals(1, countSegmentFiles());
+    }
+
+    @Test
+    public void testAddAll_shouldCompact_whenOldestEventIsPinned() {
+        journal.addAll(Collections.singletonList(event("pinned")));
+        for (int i = 0; i < 20; i++) {
+            journal.addAll(Collections.singletonList(event("id" + i)));
+            journal.removeByRequestIds("id" + i);
+        }
+
+        assertTrue(journal.segmentCount() < 4);
+        assertEquals(Collections.singletonList(event("pinned")), new EventJournal(directory, SEGMENT_SIZE).queryByRequestIds("pinned"));
+    }
+
+    @Test
+    public void testReopen_withCorruptedCheckpoint_shouldScanAllSegments() throws Exception {
+        journal.addAll(Arrays.asList(event1, event3));
+        journal.removeByRequestIds("id2");
+
+        RandomAccessFile file = new RandomAccessFile(new File(directory, EventJournal.CHECKPOINT_FILE_NAME), "rw");
+        file.seek(0);
+        file.writeLong(Long.MAX_VALUE);
+        file.close();
+
+        EventJournal reopened = new EventJournal(directory, SEGMENT_SIZE);
+
+        assertEquals(Collections.singletonList(event1), reopened.queryByRequestIds("id1", "id2"));
+    }
+
+    @Test
+    public void testReopen_shouldDiscardCompaction_interruptedBeforeCheckpoint() throws Exception {
+        journal.addAll(Arrays.asList(event1, event2, event3));
+        copy(segmentFile(0), new File(directory, EventJournal.COMPACTION_PREFIX + 1 + EventJournal.SEGMENT_SUFFIX));
+
+        EventJournal reopened = new EventJournal(directory, SEGMENT_SIZE);
+
+        assertEquals(Arrays.asList(event1, event2, event3), reopened.queryByRequestIds("id1", "id2"));
+        assertFalse(new File(directory, EventJournal.COMPACTION_PREFIX + 1 + EventJournal.SEGMENT_SUFFIX).exists());
+    }
+
+    @Test
+    public void testReopen_shouldFinishCompaction_interruptedAfterCheckpoint() throws Exception {
+        journal.addAll(Arrays.asList(event1, event2, event3));
+        copy(segmentFile(0), new File(directory, EventJournal.COMPACTION_PREFIX + 1 + EventJournal.SEGMENT_SUFFIX));
+        writeCheckpoint(Long.MAX_VALUE, 1L << 32);
+
+        EventJournal reopened = new EventJournal(directory, SEGMENT_SIZE);
+
+        assertEquals(Arrays.asList(event1, event2, event3), reopened.queryByRequestIds("id1", "id2"));
+        assertFalse(segmentFile(0).exists());
+        assertTrue(segmentFile(1).exists());
+    }
+
+    private StoredEvent event(String requestId) {
+        return new StoredEvent(requestId, new EventRecord(EventRecord.TYPE_CUSTOM, "event_" + requestId, 100, null));
+    }
+
+    private long recordEnd(File segment, int recordIndex) throws Exception {
+        RandomAccessFile file = new RandomAccessFile(segment, "r");
+        long offset = 0;
+        for (int i = 0; i <= recordIndex; i++) {
+            file.seek(offset);
+            offset += 8 + file.readInt();
+        }
+        file.close();
+        return offset;
+    }
+
+    private File segmentFile(int segmentId) {
+        return new File(directory, EventJournal.SEGMENT_PREFIX + segmentId + EventJournal.SEGMENT_SUFFIX);
+    }
+
+    private void copy(File source, File target) throws Exception {
+        RandomAccessFile input = new RandomAccessFile(source, "r");
+        byte[] bytes = new byte[(int) input.length()];
+        input.readFully(bytes);
+        input.close();
+
+        RandomAccessFile output = new RandomAccessFile(target, "rw");
+        output.write(bytes);
+        output.close();
+    }
+
+    private void writeCheckpoint(long sequence, long cursor) throws Exception {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(16).putLong(0, sequence).putLong(8, cursor).array());
+
+        RandomAccessFile file = new RandomAccessFile(new File(directory, EventJournal.CHECKPOINT_FILE_NAME), "rw");
+        file.seek(0);
+        file.writeLong(sequence);
+        file.writeLong(cursor);
+        file.writeInt((int) crc.getValue());
+        file.close();
+    }
+
+    private void truncate(File segment, long length) throws Exception {
+        RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        file.setLength(length);
+        file.close();
+    }
+
+    private int countSegmentFiles() {
+        int result = 0;
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().startsWith(EventJournal.SEGMENT_PREFIX)) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void deleteDirectory() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+}
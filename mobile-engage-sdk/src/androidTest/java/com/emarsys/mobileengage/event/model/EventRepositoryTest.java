@@ -0,0 +1,135 @@
+package com.emarsys.mobileengage.event.model;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+
+import com.emarsys.core.database.repository.specification.QueryAll;
+import com.emarsys.mobileengage.database.MobileEngageDbHelper;
+import com.emarsys.mobileengage.event.EventRecord;
+import com.emarsys.mobileengage.iam.model.specification.FilterByRequestId;
+import com.emarsys.mobileengage.testUtil.DatabaseTestUtils;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.emarsys.mobileengage.event.model.EventContract.COLUMN_NAME_ATTRIBUTES;
+import static com.emarsys.mobileengage.event.model.EventContract.COLUMN_NAME_NAME;
+import static com.emarsys.mobileengage.event.model.EventContract.COLUMN_NAME_REQUEST_ID;
+import static com.emarsys.mobileengage.event.model.EventContract.COLUMN_NAME_TIMESTAMP;
+import static com.emarsys.mobileengage.event.model.EventContract.COLUMN_NAME_TYPE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EventRepositoryTest {
+
+    private EventRepository repository;
+    private StoredEvent event1;
+    private StoredEvent event2;
+    private StoredEvent event3;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        DatabaseTestUtils.deleteMobileEngageDatabase();
+
+        Context context = InstrumentationRegistry.getContext();
+        repository = new EventRepository(new MobileEngageDbHelper(context));
+
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key1", "value1");
+        attributes.put("key2", "value2");
+
+        event1 = new StoredEvent("id1", new EventRecord(EventRecord.TYPE_CUSTOM, "event1", 100, attributes));
+        event2 = new StoredEvent("id1", new EventRecord(EventRecord.TYPE_CUSTOM, "event2", 200, null));
+        event3 = new StoredEvent("id2", new EventRecord(EventRecord.TYPE_INTERNAL, "event3", 300, null));
+    }
+
+    @Test
+    public void testContentValuesFromItem() {
+        ContentValues expected = new ContentValues();
+        expected.put(COLUMN_NAME_REQUEST_ID, "id1");
+        expected.put(COLUMN_NAME_TYPE, EventRecord.TYPE_CUSTOM);
+        expected.put(COLUMN_NAME_NAME, "event2");
+        expected.put(COLUMN_NAME_TIMESTAMP, 200L);
+
+        ContentValues result = repository.contentValuesFromItem(event2);
+
+        assertEquals(expected, result);
+        assertNull(result.get(COLUMN_NAME_ATTRIBUTES));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddAll_itemsMustNotBeNull() {
+        repository.addAll(null);
+    }
+
+    @Test
+    public void testAddAll_shouldStoreItems_withAttributes() {
+        repository.addAll(Arrays.asList(event1, event2, event3));
+
+        List<StoredEvent> result = repository.query(new QueryAll(EventContract.TABLE_NAME));
+
+        assertEquals(Arrays.asList(event1, event2, event3), result);
+    }
+
+    @Test
+    public void testQuery_byRequestId() {
+        repository.addAll(Arrays.asList(event1, event2, event3));
+
+        List<StoredEvent> result = repository.query(new FilterByRequestId("id2"));
+
+        assertEquals(Collections.singletonList(event3), result);
+    }
+
+    @Test
+    public void testRemove_byRequestId() {
+        repository.addAll(Arrays.asList(event1, event2, event3));
+
+        repository.remove(new FilterByRequestId("id1"));
+
+        assertEquals(Collections.singletonList(event3), repository.query(new QueryAll(EventContract.TABLE_NAME)));
+    }
+
+    @Test
+    public void testQueryByRequestIds() {
+        repository.addAll(Arrays.asList(event1, event2, event3));
+
+        assertEquals(Arrays.asList(event1, event2), repository.queryByRequestIds("id1"));
+    }
+
+    @Test
+    public void testAddAll_shouldReturnTrue() {
+        assertTrue(repository.addAll(Arrays.asList(event1, event2, event3)));
+    }
+
+    @Test
+    public void testQueryRequestIds_shouldReturnDistinctRequestIds() {
+        repository.addAll(Arrays.asList(event1, event2, event3));
+
+        assertEquals(new HashSet<>(Arrays.asList("id1", "id2")), repository.queryRequestIds());
+    }
+
+    @Test
+    public void testRemoveByRequestIds() {
+        repository.addAll(Arrays.asList(event1, event2, event3));
+
+        repository.removeByRequestIds("id2");
+
+        assertEquals(Arrays.asList(event1, event2), repository.query(new QueryAll(EventContract.TABLE_NAME)));
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.emarsys.mobileengage.fake;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.emarsys.core.CoreCompletionHandler;
+import com.emarsys.core.connection.ConnectionProvider;
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.request.RestClient;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.response.ResponseModel;
+import com.emarsys.core.timestamp.TimestampProvider;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+
+public class FakeConditionalRestClient extends RestClient {
+
+    private final String body;
+    private final String etag;
+
+    public List<RequestModel> requests;
+    public int notModifiedCount;
+    public long bytesTransferred;
+
+    @SuppressWarnings("unchecked")
+    public FakeConditionalRestClient(String body, String etag) {
+        super(mock(Repository.class), mock(ConnectionProvider.class), mock(TimestampProvider.class));
+        this.body = body;
+        this.etag = etag;
+        this.requests = new ArrayList<>();
+    }
+
+    @Override
+    public void execute(final RequestModel model, final CoreCompletionHandler completionHandler) {
+        requests.add(model);
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                if (etag.equals(model.getHeaders().get("If-None-Match"))) {
+                    notModifiedCount++;
+                    completionHandler.onError(model.getId(), new ResponseModel.Builder()
+                            .statusCode(304)
+                            .message("Not Modified")
+                            .requestModel(model)
+                            .build());
+                } else {
+                    bytesTransferred += body.getBytes(Charset.forName("UTF-8")).length;
+                    Map<String, List<String>> headers = new HashMap<>();
+                    headers.put("ETag", Collections.singletonList(etag));
+                    completionHandler.onSuccess(model.getId(), new ResponseModel.Builder()
+                            .statusCode(200)
+                            .message("OK")
+                            .headers(headers)
+                            .body(body)
+                            .requestModel(model)
+                            .build());
+                }
+            }
+        });
+    }
+}
@@ -3,6 +3,7 @@ package com.emarsys.mobileengage.iam;
 import android.os.Handler;
 
 import com.emarsys.mobileengage.MobileEngageInternal;
+import com.emarsys.mobileengage.di.Lazy;
 import com.emarsys.mobileengage.testUtil.DatabaseTestUtils;
 import com.emarsys.mobileengage.testUtil.SharedPrefsUtils;
 import com.emarsys.mobileengage.testUtil.TimeoutUtils;
@@ -49,7 +50,12 @@ public class InAppStartActionTest {
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_mobileEngageInternalMustNotBeNull() {
-        new InAppStartAction(null);
+        new InAppStartAction((MobileEngageInternal) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_lazyMobileEngageInternalMustNotBeNull() {
+        new InAppStartAction((Lazy<MobileEngageInternal>) null);
     }
 
     @Test
@@ -59,4 +65,11 @@ public class InAppStartActionTest {
         verify(mobileEngageInternal).trackInternalCustomEvent("app:start", null);
     }
 
+    @Test
+    public void testExecute_resolvesLazyMobileEngageInternal() {
+        new InAppStartAction(Lazy.of(mobileEngageInternal)).execute(null);
+
+        verify(mobileEngageInternal).trackInternalCustomEvent("app:start", null);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.emarsys.mobileengage.iam.dialog;
+
+import android.support.test.filters.SdkSuppress;
+
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Map;
+
+import static android.os.Build.VERSION_CODES.KITKAT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+@SdkSuppress(minSdkVersion = KITKAT)
+public class IamDialogProviderTest {
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_logRepositoryMustNotBeNull() {
+        new IamDialogProvider(null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProvideDialog_shouldUseSharedLogRepository() {
+        Repository<Map<String, Object>, SqlSpecification> logRepository = mock(Repository.class);
+        IamDialogProvider provider = new IamDialogProvider(logRepository);
+
+        IamDialog dialog = provider.provideDialog("campaignId");
+
+        assertEquals("campaignId", dialog.getArguments().getString(IamDialog.CAMPAIGN_ID));
+        assertSame(logRepository, dialog.logRepository);
+    }
+}
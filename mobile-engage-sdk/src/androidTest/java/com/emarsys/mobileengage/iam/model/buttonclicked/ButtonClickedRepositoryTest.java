@@ -5,6 +5,7 @@ import android.content.Context;
 import android.database.Cursor;
 import android.support.test.InstrumentationRegistry;
 
+import com.emarsys.mobileengage.database.MobileEngageDbHelper;
 import com.emarsys.mobileengage.testUtil.DatabaseTestUtils;
 import com.emarsys.mobileengage.testUtil.TimeoutUtils;
 
@@ -39,7 +40,7 @@ public class ButtonClickedRepositoryTest {
         DatabaseTestUtils.deleteMobileEngageDatabase();
 
         Context context = InstrumentationRegistry.getContext();
-        repository = new ButtonClickedRepository(context);
+        repository = new ButtonClickedRepository(new MobileEngageDbHelper(context));
         buttonClicked1 = new ButtonClicked("campaign1", "button1", new Date().getTime());
     }
 
@@ -0,0 +1,63 @@
+package com.emarsys.mobileengage.iam.model.buttonclicked;
+
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.mobileengage.iam.model.IamConversionUtils;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachedButtonClickedRepositoryTest {
+
+    private Repository<ButtonClicked, SqlSpecification> mockRepository;
+    private CachedButtonClickedRepository repository;
+    private ButtonClicked buttonClicked1;
+    private ButtonClicked buttonClicked2;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void init() {
+        mockRepository = mock(Repository.class);
+        repository = new CachedButtonClickedRepository(mockRepository);
+
+        buttonClicked1 = new ButtonClicked("campaign1", "button1", 100);
+        buttonClicked2 = new ButtonClicked("campaign1", "button2", 200);
+
+        when(mockRepository.query(any(SqlSpecification.class))).thenReturn(Collections.singletonList(buttonClicked1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_repository_mustNotBeNull() {
+        new CachedButtonClickedRepository(null);
+    }
+
+    @Test
+    public void testQueryAllConverted_shouldConvertStoredItems_andAddedItems() {
+        repository.queryAllConverted();
+        repository.add(buttonClicked2);
+
+        List<Map<String, Object>> expected = IamConversionUtils.buttonClicksToArray(Arrays.asList(buttonClicked1, buttonClicked2));
+
+        assertEquals(expected, repository.queryAllConverted());
+        verify(mockRepository, times(1)).query(any(SqlSpecification.class));
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.emarsys.mobileengage.iam.model.displayediam;
+
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.mobileengage.iam.model.IamConversionUtils;
+import com.emarsys.mobileengage.iam.model.specification.FilterByCampaignId;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachedDisplayedIamRepositoryTest {
+
+    private Repository<DisplayedIam, SqlSpecification> mockRepository;
+    private CachedDisplayedIamRepository repository;
+    private DisplayedIam displayedIam1;
+    private DisplayedIam displayedIam2;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void init() {
+        mockRepository = mock(Repository.class);
+        repository = new CachedDisplayedIamRepository(mockRepository);
+
+        displayedIam1 = new DisplayedIam("campaign1", 100);
+        displayedIam2 = new DisplayedIam("campaign2", 200);
+
+        when(mockRepository.query(any(SqlSpecification.class))).thenReturn(Collections.singletonList(displayedIam1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_repository_mustNotBeNull() {
+        new CachedDisplayedIamRepository(null);
+    }
+
+    @Test
+    public void testQueryAllConverted_shouldConvertStoredItems() {
+        List<Map<String, Object>> expected = IamConversionUtils.displayedIamsToArray(Collections.singletonList(displayedIam1));
+
+        assertEquals(expected, repository.queryAllConverted());
+    }
+
+    @Test
+    public void testQueryAllConverted_shouldReadRepositoryOnlyOnce() {
+        repository.queryAllConverted();
+        repository.queryAllConverted();
+
+        verify(mockRepository, times(1)).query(any(SqlSpecification.class));
+    }
+
+    @Test
+    public void testAdd_shouldDelegate() {
+        repository.add(displayedIam2);
+
+        verify(mockRepository).add(displayedIam2);
+    }
+
+    @Test
+    public void testAdd_shouldAppendToCache_withoutReadingRepository() {
+        repository.queryAllConverted();
+        repository.add(displayedIam2);
+
+        List<Map<String, Object>> expected = IamConversionUtils.displayedIamsToArray(Arrays.asList(displayedIam1, displayedIam2));
+
+        assertEquals(expected, repository.queryAllConverted());
+        verify(mockRepository, times(1)).query(any(SqlSpecification.class));
+    }
+
+    @Test
+    public void testAdd_shouldNotChangePreviouslyReturnedList() {
+        List<Map<String, Object>> before = repository.queryAllConverted();
+        repository.add(displayedIam2);
+
+        assertEquals(1, before.size());
+    }
+
+    @Test
+    public void testRemove_shouldDelegate() {
+        FilterByCampaignId specification = new FilterByCampaignId("campaign1");
+
+        repository.remove(specification);
+
+        verify(mockRepository).remove(specification);
+    }
+
+    @Test
+    public void testRemove_shouldInvalidateCache() {
+        repository.queryAllConverted();
+        repository.remove(new FilterByCampaignId("campaign1"));
+        when(mockRepository.query(any(SqlSpecification.class))).thenReturn(Collections.<DisplayedIam>emptyList());
+
+        assertEquals(Collections.emptyList(), repository.queryAllConverted());
+        verify(mockRepository, times(2)).query(any(SqlSpecification.class));
+    }
+
+}
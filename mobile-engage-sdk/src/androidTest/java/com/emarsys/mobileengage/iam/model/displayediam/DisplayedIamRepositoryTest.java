@@ -6,6 +6,7 @@ import android.database.Cursor;
 import android.support.test.InstrumentationRegistry;
 import android.support.test.filters.SdkSuppress;
 
+import com.emarsys.mobileengage.database.MobileEngageDbHelper;
 import com.emarsys.mobileengage.testUtil.DatabaseTestUtils;
 import com.emarsys.mobileengage.testUtil.TimeoutUtils;
 
@@ -42,7 +43,7 @@ public class DisplayedIamRepositoryTest {
         DatabaseTestUtils.deleteMobileEngageDatabase();
 
         Context context = InstrumentationRegistry.getContext();
-        iamRepository = new DisplayedIamRepository(context);
+        iamRepository = new DisplayedIamRepository(new MobileEngageDbHelper(context));
         displayedIam1 = new DisplayedIam("campaign1", new Date().getTime());
     }
 
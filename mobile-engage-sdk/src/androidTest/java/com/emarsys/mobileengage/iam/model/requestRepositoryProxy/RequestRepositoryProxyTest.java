@@ -13,14 +13,26 @@ import com.emarsys.core.request.model.RequestContract;
 import com.emarsys.core.request.model.RequestMethod;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.request.model.RequestModelRepository;
+import com.emarsys.core.request.model.specification.FilterByUrlPattern;
 import com.emarsys.core.request.model.specification.QueryNewestRequestModel;
 import com.emarsys.core.timestamp.TimestampProvider;
 import com.emarsys.core.util.TimestampUtils;
+import com.emarsys.mobileengage.config.CompositeRequestConfig;
+import com.emarsys.mobileengage.database.MobileEngageDbHelper;
+import com.emarsys.mobileengage.event.EventRecord;
+import com.emarsys.mobileengage.event.journal.EventJournal;
+import com.emarsys.mobileengage.event.model.EventContract;
+import com.emarsys.mobileengage.event.model.EventRepository;
+import com.emarsys.mobileengage.event.model.EventStore;
+import com.emarsys.mobileengage.event.model.StoredEvent;
 import com.emarsys.mobileengage.iam.DoNotDisturbProvider;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClicked;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClickedRepository;
+import com.emarsys.mobileengage.iam.model.buttonclicked.CachedButtonClickedRepository;
 import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIam;
+import com.emarsys.mobileengage.iam.model.displayediam.CachedDisplayedIamRepository;
 import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIamRepository;
+import com.emarsys.mobileengage.iam.model.specification.FilterByRequestId;
 import com.emarsys.mobileengage.testUtil.DatabaseTestUtils;
 import com.emarsys.mobileengage.testUtil.RandomTestUtils;
 import com.emarsys.mobileengage.testUtil.TimeoutUtils;
@@ -32,6 +44,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestRule;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -43,7 +56,11 @@ import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -57,15 +74,18 @@ public class RequestRepositoryProxyTest {
     private DeviceInfo mockDeviceInfo;
 
     private Repository<RequestModel, SqlSpecification> mockRequestModelRepository;
-    private Repository<DisplayedIam, SqlSpecification> mockDisplayedIamRepository;
-    private Repository<ButtonClicked, SqlSpecification> mockButtonClickedRepository;
+    private CachedDisplayedIamRepository mockDisplayedIamRepository;
+    private CachedButtonClickedRepository mockButtonClickedRepository;
+    private EventStore mockEventStore;
 
     private Repository<RequestModel, SqlSpecification> requestModelRepository;
-    private Repository<DisplayedIam, SqlSpecification> displayedIamRepository;
-    private Repository<ButtonClicked, SqlSpecification> buttonClickedRepository;
+    private CachedDisplayedIamRepository displayedIamRepository;
+    private CachedButtonClickedRepository buttonClickedRepository;
+    private EventRepository eventRepository;
 
     private TimestampProvider timestampProvider;
     private DoNotDisturbProvider doNotDisturbProvider;
+    private CompositeRequestConfig compositeRequestConfig;
 
     private RequestRepositoryProxy compositeRepository;
     private RequestIdProvider requestIdProvider;
@@ -85,12 +105,15 @@ public class RequestRepositoryProxyTest {
         deviceInfo = new DeviceInfo(context);
 
         mockRequestModelRepository = mock(Repository.class);
-        mockDisplayedIamRepository = mock(Repository.class);
-        mockButtonClickedRepository = mock(Repository.class);
+        mockDisplayedIamRepository = mock(CachedDisplayedIamRepository.class);
+        mockButtonClickedRepository = mock(CachedButtonClickedRepository.class);
+        mockEventStore = mock(EventStore.class);
 
+        MobileEngageDbHelper dbHelper = new MobileEngageDbHelper(context);
         requestModelRepository = new RequestModelRepository(context);
-        displayedIamRepository = new DisplayedIamRepository(context);
-        buttonClickedRepository = new ButtonClickedRepository(context);
+        displayedIamRepository = new CachedDisplayedIamRepository(new DisplayedIamRepository(dbHelper));
+        buttonClickedRepository = new CachedButtonClickedRepository(new ButtonClickedRepository(dbHelper));
+        eventRepository = new EventRepository(dbHelper);
 
         timestampProvider = mock(TimestampProvider.class);
         when(timestampProvider.provideTimestamp()).thenReturn(TIMESTAMP);
@@ -99,44 +122,57 @@ public class RequestRepositoryProxyTest {
         when(requestIdProvider.provideId()).thenReturn("REQUEST_ID");
 
         doNotDisturbProvider = mock(DoNotDisturbProvider.class);
+        compositeRequestConfig = new CompositeRequestConfig();
 
         compositeRepository = new RequestRepositoryProxy(
                 mockDeviceInfo,
                 mockRequestModelRepository,
                 mockDisplayedIamRepository,
                 mockButtonClickedRepository,
+                mockEventStore,
                 timestampProvider,
-                doNotDisturbProvider);
+                doNotDisturbProvider,
+                compositeRequestConfig);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_compositeRequestConfig_mustNotBeNull() {
+        new RequestRepositoryProxy(mockDeviceInfo, mockRequestModelRepository, mockDisplayedIamRepository, buttonClickedRepository, mockEventStore, timestampProvider, doNotDisturbProvider, null);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_deviceInfo_mustNotBeNull() {
-        new RequestRepositoryProxy(null, mockRequestModelRepository, mockDisplayedIamRepository, mockButtonClickedRepository, timestampProvider, doNotDisturbProvider);
+        new RequestRepositoryProxy(null, mockRequestModelRepository, mockDisplayedIamRepository, mockButtonClickedRepository, mockEventStore, timestampProvider, doNotDisturbProvider, compositeRequestConfig);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_requestRepository_mustNotBeNull() {
-        new RequestRepositoryProxy(mockDeviceInfo, null, mockDisplayedIamRepository, mockButtonClickedRepository, timestampProvider, doNotDisturbProvider);
+        new RequestRepositoryProxy(mockDeviceInfo, null, mockDisplayedIamRepository, mockButtonClickedRepository, mockEventStore, timestampProvider, doNotDisturbProvider, compositeRequestConfig);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_displayedIamRepository_mustNotBeNull() {
-        new RequestRepositoryProxy(mockDeviceInfo, mockRequestModelRepository, null, mockButtonClickedRepository, timestampProvider, doNotDisturbProvider);
+        new RequestRepositoryProxy(mockDeviceInfo, mockRequestModelRepository, null, mockButtonClickedRepository, mockEventStore, timestampProvider, doNotDisturbProvider, compositeRequestConfig);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_buttonClickedRepository_mustNotBeNull() {
-        new RequestRepositoryProxy(mockDeviceInfo, mockRequestModelRepository, mockDisplayedIamRepository, null, timestampProvider, doNotDisturbProvider);
+        new RequestRepositoryProxy(mockDeviceInfo, mockRequestModelRepository, mockDisplayedIamRepository, null, mockEventStore, timestampProvider, doNotDisturbProvider, compositeRequestConfig);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_eventStore_mustNotBeNull() {
+        new RequestRepositoryProxy(mockDeviceInfo, mockRequestModelRepository, mockDisplayedIamRepository, mockButtonClickedRepository, null, timestampProvider, doNotDisturbProvider, compositeRequestConfig);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_timestampProvider_mustNotBeNull() {
-        new RequestRepositoryProxy(mockDeviceInfo, mockRequestModelRepository, mockDisplayedIamRepository, buttonClickedRepository, null, doNotDisturbProvider);
+        new RequestRepositoryProxy(mockDeviceInfo, mockRequestModelRepository, mockDisplayedIamRepository, buttonClickedRepository, mockEventStore, null, doNotDisturbProvider, compositeRequestConfig);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_doNotDisturbProvider_mustNotBeNull() {
-        new RequestRepositoryProxy(mockDeviceInfo, mockRequestModelRepository, mockDisplayedIamRepository, buttonClickedRepository, timestampProvider, null);
+        new RequestRepositoryProxy(mockDeviceInfo, mockRequestModelRepository, mockDisplayedIamRepository, buttonClickedRepository, mockEventStore, timestampProvider, null, compositeRequestConfig);
     }
 
     @Test
@@ -157,6 +193,66 @@ public class RequestRepositoryProxyTest {
         verifyZeroInteractions(mockRequestModelRepository);
     }
 
+    @Test
+    public void testAdd_shouldStoreEventRecords_inEventRepository() {
+        when(requestIdProvider.provideId()).thenReturn("id1");
+        RequestModel customEvent = customEventRecord_V3(900, "event1");
+
+        compositeRepository.add(customEvent);
+
+        EventRecord record = new EventRecord(EventRecord.TYPE_CUSTOM, "event1", 900, null);
+        verify(mockEventStore).addAll(Collections.singletonList(new StoredEvent("id1", record)));
+    }
+
+    @Test
+    public void testAdd_shouldNotStoreEvents_whenPayloadContainsPlainMaps() {
+        compositeRepository.add(customEvent_V3(900, "event1"));
+
+        verifyZeroInteractions(mockEventStore);
+    }
+
+    @Test
+    public void testAdd_shouldNotDuplicateEvents_inRequestPayload_whenEventsAreStored() {
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1");
+
+        compositeRepository.add(customEventRecord_V3(900, "event1"));
+
+        List<RequestModel> requests = requestModelRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+        assertEquals(1, requests.size());
+        assertEquals("id1", requests.get(0).getId());
+        assertFalse(requests.get(0).getPayload().containsKey("events"));
+        assertEquals(1, eventRepository.query(new QueryAll(EventContract.TABLE_NAME)).size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAdd_shouldKeepEvents_inRequestPayload_whenEventStoreFails() {
+        when(requestIdProvider.provideId()).thenReturn("id1");
+        RequestModel customEvent = customEventRecord_V3(900, "event1");
+        when(mockEventStore.addAll(any(List.class))).thenReturn(false);
+
+        compositeRepository.add(customEvent);
+
+        verify(mockRequestModelRepository).add(customEvent);
+    }
+
+    @Test
+    public void testQuery_shouldRemoveOrphanedStoredEvents_onFirstLoad() {
+        eventRepository.addAll(Collections.singletonList(
+                new StoredEvent("orphan", new EventRecord(EventRecord.TYPE_CUSTOM, "orphanEvent", 800, null))));
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1");
+
+        compositeRepository.add(customEventRecord_V3(900, "event1"));
+        List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        assertTrue(Arrays.equals(new String[]{"id1"}, ((CompositeRequestModel) result.get(0)).getOriginalRequestIds()));
+        List<StoredEvent> storedEvents = eventRepository.query(new QueryAll(EventContract.TABLE_NAME));
+        assertEquals(1, storedEvents.size());
+        assertEquals("id1", storedEvents.get(0).getRequestId());
+    }
+
     @Test
     public void testRemove_shouldDelegate_toRequestModelRepository() {
         SqlSpecification spec = mock(SqlSpecification.class);
@@ -166,6 +262,52 @@ public class RequestRepositoryProxyTest {
         verify(mockRequestModelRepository).remove(spec);
     }
 
+    @Test
+    public void testRemove_shouldRemoveStoredEvents_byRequestIds() {
+        compositeRepository.remove(new FilterByRequestId("id1", "id2"));
+
+        verify(mockEventStore).removeByRequestIds("id1", "id2");
+    }
+
+    @Test
+    public void testRemove_shouldRemoveStoredEvents_forAnyRequestIdSpecification() {
+        compositeRepository.remove(new SqlSpecification() {
+            @Override
+            public String getSql() {
+                return "request_id=?";
+            }
+
+            @Override
+            public String[] getArgs() {
+                return new String[]{"id1"};
+            }
+        });
+
+        verify(mockEventStore).removeByRequestIds("id1");
+    }
+
+    @Test
+    public void testRemove_shouldNotUseArgsAsRequestIds_forOtherSpecifications() {
+        compositeRepository.remove(new FilterByUrlPattern("https://emarsys.com%"));
+
+        verifyZeroInteractions(mockEventStore);
+    }
+
+    @Test
+    public void testRemove_shouldRemoveStoredEvents_ofMatchingRequests_forOtherSpecifications() {
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2");
+
+        compositeRepository.add(customEventRecord_V3(900, "event1"));
+        compositeRepository.add(requestModel());
+        compositeRepository.remove(new FilterByUrlPattern(RequestUrlUtils.createEventUrl_V3(MEID)));
+
+        assertTrue(eventRepository.query(new QueryAll(EventContract.TABLE_NAME)).isEmpty());
+        List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+        assertEquals(1, result.size());
+        assertFalse(result.get(0) instanceof CompositeRequestModel);
+    }
+
     @Test
     public void testIsEmpty_whenEmpty_shouldDelegate_toRequestModelRepository() {
         when(mockRequestModelRepository.isEmpty()).thenReturn(true);
@@ -452,14 +594,275 @@ public class RequestRepositoryProxyTest {
         assertNull(payload.get("dnd"));
     }
 
+    @Test
+    public void testQuery_shouldScanRequestTableByUrlPattern_onlyOnce() {
+        requestModelRepository = spy(requestModelRepository);
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2");
+
+        compositeRepository.add(customEvent_V3(900, "event1"));
+        compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+        compositeRepository.add(customEvent_V3(1000, "event2"));
+        compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        verify(requestModelRepository, times(1)).query(any(FilterByUrlPattern.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testQuery_compositeShouldContainEventsAddedAfterIndexWasLoaded() {
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2", "id3");
+
+        compositeRepository.add(customEvent_V3(900, "event1"));
+        compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+        compositeRepository.add(requestModel());
+        compositeRepository.add(customEvent_V3(1000, "event2"));
+
+        List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        CompositeRequestModel composite = (CompositeRequestModel) result.get(0);
+        assertTrue(Arrays.equals(new String[]{"id1", "id3"}, composite.getOriginalRequestIds()));
+        List<Map<String, Object>> events = (List<Map<String, Object>>) composite.getPayload().get("events");
+        assertEquals("event1", events.get(0).get("name"));
+        assertEquals("event2", events.get(1).get("name"));
+    }
+
+    @Test
+    public void testQuery_compositeShouldStartWithPersistedEvents_whenNewEventIsAddedBeforeFirstQuery() {
+        compositeRequestConfig = new CompositeRequestConfig(2, 100_000);
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2", "id3");
+        requestModelRepository.add(customEvent_V3(900, "event1"));
+        requestModelRepository.add(customEvent_V3(1000, "event2"));
+        compositeRepository = compositeRepositoryWithRealRepositories();
+
+        compositeRepository.add(customEvent_V3(1100, "event3"));
+
+        List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        assertTrue(Arrays.equals(new String[]{"id1", "id2"}, ((CompositeRequestModel) result.get(0)).getOriginalRequestIds()));
+    }
+
+    @Test
+    public void testRemove_shouldRemoveEventsFromComposite() {
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2");
+
+        compositeRepository.add(customEvent_V3(900, "event1"));
+        compositeRepository.add(customEvent_V3(1000, "event2"));
+        compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        compositeRepository.remove(new FilterByRequestId("id1"));
+
+        List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        assertEquals(1, result.size());
+        assertTrue(Arrays.equals(new String[]{"id2"}, ((CompositeRequestModel) result.get(0)).getOriginalRequestIds()));
+    }
+
+    @Test
+    public void testQuery_compositeShouldBeLimited_byMaxEventCount() {
+        compositeRequestConfig = new CompositeRequestConfig(2, 100_000);
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2", "id3");
+
+        compositeRepository.add(customEvent_V3(900, "event1"));
+        compositeRepository.add(customEvent_V3(1000, "event2"));
+        compositeRepository.add(customEvent_V3(1100, "event3"));
+
+        List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        assertEquals(1, result.size());
+        assertTrue(Arrays.equals(new String[]{"id1", "id2"}, ((CompositeRequestModel) result.get(0)).getOriginalRequestIds()));
+
+        compositeRepository.remove(new FilterByRequestId("id1", "id2"));
+        result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        assertEquals(1, result.size());
+        assertTrue(Arrays.equals(new String[]{"id3"}, ((CompositeRequestModel) result.get(0)).getOriginalRequestIds()));
+    }
+
+    @Test
+    public void testQuery_compositeShouldBeLimited_byMaxPayloadBytes() {
+        compositeRequestConfig = new CompositeRequestConfig(100, 160);
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2", "id3");
+
+        compositeRepository.add(customEvent_V3(900, "event1"));
+        compositeRepository.add(customEvent_V3(1000, "event2"));
+        compositeRepository.add(customEvent_V3(1100, "event3"));
+
+        List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        assertTrue(Arrays.equals(new String[]{"id1", "id2"}, ((CompositeRequestModel) result.get(0)).getOriginalRequestIds()));
+    }
+
+    @Test
+    public void testQuery_compositeShouldContainFirstRequest_evenIfItExceedsMaxPayloadBytes() {
+        compositeRequestConfig = new CompositeRequestConfig(100, 1);
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2");
+
+        compositeRepository.add(customEvent_V3(900, "event1"));
+        compositeRepository.add(customEvent_V3(1000, "event2"));
+
+        List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        assertEquals(1, result.size());
+        assertTrue(Arrays.equals(new String[]{"id1"}, ((CompositeRequestModel) result.get(0)).getOriginalRequestIds()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testQuery_shouldBuildComposite_fromStoredEvents_withoutReadingRequestPayloads() {
+        requestModelRepository = spy(requestModelRepository);
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2");
+
+        HashMap<String, String> attributes = new HashMap<>();
+        attributes.put("key1", "value1");
+        compositeRepository.add(customEventRecord_V3(900, "event1", attributes));
+        compositeRepository.add(customEventRecord_V3(1000, "event2"));
+
+        List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        CompositeRequestModel composite = (CompositeRequestModel) result.get(0);
+        assertTrue(Arrays.equals(new String[]{"id1", "id2"}, composite.getOriginalRequestIds()));
+        List<Map<String, Object>> events = (List<Map<String, Object>>) composite.getPayload().get("events");
+        assertEquals(Arrays.asList(
+                new EventRecord(EventRecord.TYPE_CUSTOM, "event1", 900, attributes),
+                new EventRecord(EventRecord.TYPE_CUSTOM, "event2", 1000, null)), events);
+        verify(requestModelRepository, never()).query(any(FilterByRequestId.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testQuery_shouldKeepOrder_ofStoredAndLegacyEvents() {
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2", "id3");
+
+        compositeRepository.add(customEventRecord_V3(900, "event1"));
+        compositeRepository.add(customEvent_V3(1000, "event2"));
+        compositeRepository.add(customEventRecord_V3(1100, "event3"));
+
+        List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        CompositeRequestModel composite = (CompositeRequestModel) result.get(0);
+        assertTrue(Arrays.equals(new String[]{"id1", "id2", "id3"}, composite.getOriginalRequestIds()));
+        List<Map<String, Object>> events = (List<Map<String, Object>>) composite.getPayload().get("events");
+        assertEquals("event1", events.get(0).get("name"));
+        assertEquals("event2", events.get(1).get("name"));
+        assertEquals("event3", events.get(2).get("name"));
+    }
+
+    @Test
+    public void testRemove_shouldRemoveStoredEvents_fromComposite() {
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2");
+
+        compositeRepository.add(customEventRecord_V3(900, "event1"));
+        compositeRepository.add(customEventRecord_V3(1000, "event2"));
+        compositeRepository.remove(new FilterByRequestId("id1"));
+
+        List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        assertTrue(Arrays.equals(new String[]{"id2"}, ((CompositeRequestModel) result.get(0)).getOriginalRequestIds()));
+        assertEquals(1, eventRepository.query(new QueryAll(EventContract.TABLE_NAME)).size());
+    }
+
+    @Test
+    public void testAdd_shouldWriteSingleRequestRow_forEventsKeptInEventStore() {
+        requestModelRepository = spy(requestModelRepository);
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2", "id3");
+
+        compositeRepository.add(customEventRecord_V3(900, "event1"));
+        compositeRepository.add(customEventRecord_V3(1000, "event2"));
+        compositeRepository.add(customEventRecord_V3(1100, "event3"));
+
+        verify(requestModelRepository, times(1)).add(any(RequestModel.class));
+        List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+        assertEquals(1, result.size());
+        assertTrue(Arrays.equals(new String[]{"id1", "id2", "id3"}, ((CompositeRequestModel) result.get(0)).getOriginalRequestIds()));
+    }
+
+    @Test
+    public void testRemove_shouldAnchorRemainingEvents_withNewRequestRow() {
+        compositeRequestConfig = new CompositeRequestConfig(2, 100_000);
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2", "id3");
+
+        compositeRepository.add(customEventRecord_V3(900, "event1"));
+        compositeRepository.add(customEventRecord_V3(1000, "event2"));
+        compositeRepository.add(customEventRecord_V3(1100, "event3"));
+        CompositeRequestModel first = (CompositeRequestModel) compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME)).get(0);
+        compositeRepository.remove(new FilterByRequestId(first.getOriginalRequestIds()));
+
+        List<RequestModel> requests = requestModelRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+        assertEquals(1, requests.size());
+        assertEquals("id3", requests.get(0).getId());
+        assertEquals(TIMESTAMP, requests.get(0).getTimestamp());
+        List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+        assertTrue(Arrays.equals(new String[]{"id3"}, ((CompositeRequestModel) result.get(0)).getOriginalRequestIds()));
+    }
+
+    @Test
+    public void testRemove_shouldNotAnchor_whenNoEventsRemain() {
+        compositeRepository = compositeRepositoryWithRealRepositories();
+        when(requestIdProvider.provideId()).thenReturn("id1", "id2");
+
+        compositeRepository.add(customEventRecord_V3(900, "event1"));
+        compositeRepository.add(customEventRecord_V3(1000, "event2"));
+        compositeRepository.remove(new FilterByRequestId("id1", "id2"));
+
+        assertTrue(compositeRepository.isEmpty());
+        assertTrue(eventRepository.query(new QueryAll(EventContract.TABLE_NAME)).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testQuery_shouldRecoverEvents_fromEventJournal_afterRestart() {
+        File directory = new File(InstrumentationRegistry.getTargetContext().getFilesDir(), "request_repository_proxy_test");
+        deleteDirectory(directory);
+        try {
+            compositeRepository = compositeRepositoryWithEventStore(new EventJournal(directory));
+            when(requestIdProvider.provideId()).thenReturn("id1", "id2", "id3");
+
+            compositeRepository.add(customEventRecord_V3(900, "event1"));
+            compositeRepository.add(customEventRecord_V3(1000, "event2"));
+            compositeRepository.add(customEventRecord_V3(1100, "event3"));
+
+            assertEquals(1, requestModelRepository.query(new QueryAll(RequestContract.TABLE_NAME)).size());
+
+            compositeRepository = compositeRepositoryWithEventStore(new EventJournal(directory));
+            List<RequestModel> result = compositeRepository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+            CompositeRequestModel composite = (CompositeRequestModel) result.get(0);
+            assertTrue(Arrays.equals(new String[]{"id1", "id2", "id3"}, composite.getOriginalRequestIds()));
+            List<EventRecord> events = (List<EventRecord>) composite.getPayload().get("events");
+            assertEquals(Arrays.asList("event1", "event2", "event3"), Arrays.asList(
+                    events.get(0).getName(),
+                    events.get(1).getName(),
+                    events.get(2).getName()));
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
     private RequestRepositoryProxy compositeRepositoryWithRealRepositories() {
+        return compositeRepositoryWithEventStore(eventRepository);
+    }
+
+    private RequestRepositoryProxy compositeRepositoryWithEventStore(EventStore eventStore) {
         return new RequestRepositoryProxy(
                 deviceInfo,
                 requestModelRepository,
                 displayedIamRepository,
                 buttonClickedRepository,
+                eventStore,
                 timestampProvider,
-                doNotDisturbProvider
+                doNotDisturbProvider,
+                compositeRequestConfig
         );
     }
 
@@ -496,6 +899,37 @@ public class RequestRepositoryProxyTest {
         );
     }
 
+    private RequestModel customEventRecord_V3(long timestamp, String eventName) {
+        return customEventRecord_V3(timestamp, eventName, null);
+    }
+
+    private RequestModel customEventRecord_V3(long timestamp, String eventName, Map<String, String> attributes) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("clicks", new ArrayList<>());
+        payload.put("viewed_messages", new ArrayList<>());
+        payload.put("events", Collections.singletonList(new EventRecord(EventRecord.TYPE_CUSTOM, eventName, timestamp, attributes)));
+
+        return new RequestModel(
+                RequestUrlUtils.createEventUrl_V3(MEID),
+                RequestMethod.POST,
+                payload,
+                new HashMap<String, String>(),
+                System.currentTimeMillis(),
+                999,
+                requestIdProvider.provideId()
+        );
+    }
+
+    private void deleteDirectory(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
     private RequestModel requestModel() {
         Map<String, Object> payload = new HashMap<>();
         payload.put("key", RandomTestUtils.randomString());
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.support.test.InstrumentationRegistry;
 
 import com.emarsys.core.database.repository.specification.QueryAll;
+import com.emarsys.mobileengage.database.MobileEngageDbHelper;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClicked;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClickedContract;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClickedRepository;
@@ -40,7 +41,7 @@ public class FilterByCampaignIdTest {
 
     @Test
     public void testExecution_displayedIam_shouldDeleteIam() {
-        DisplayedIamRepository repository = new DisplayedIamRepository(context);
+        DisplayedIamRepository repository = new DisplayedIamRepository(new MobileEngageDbHelper(context));
 
         DisplayedIam iam1 = new DisplayedIam("campaign1", 10L);
         DisplayedIam iam2 = new DisplayedIam("campaign2", 20L);
@@ -60,7 +61,7 @@ public class FilterByCampaignIdTest {
 
     @Test
     public void testExecution_displayedIam_shouldDelete_multipleIams() {
-        DisplayedIamRepository repository = new DisplayedIamRepository(context);
+        DisplayedIamRepository repository = new DisplayedIamRepository(new MobileEngageDbHelper(context));
 
         DisplayedIam iam1 = new DisplayedIam("campaign1", 10L);
         DisplayedIam iam2 = new DisplayedIam("campaign2", 20L);
@@ -82,7 +83,7 @@ public class FilterByCampaignIdTest {
 
     @Test
     public void testExecution_displayedIam_withEmptyIdArray() {
-        DisplayedIamRepository repository = new DisplayedIamRepository(context);
+        DisplayedIamRepository repository = new DisplayedIamRepository(new MobileEngageDbHelper(context));
 
         DisplayedIam iam1 = new DisplayedIam("campaign1", 10L);
         DisplayedIam iam2 = new DisplayedIam("campaign2", 20L);
@@ -104,7 +105,7 @@ public class FilterByCampaignIdTest {
 
     @Test
     public void testExecution_buttonClicked_shouldDeleteIam() {
-        ButtonClickedRepository repository = new ButtonClickedRepository(context);
+        ButtonClickedRepository repository = new ButtonClickedRepository(new MobileEngageDbHelper(context));
 
         ButtonClicked btn1 = new ButtonClicked("campaign1", "button1", 10L);
         ButtonClicked btn2 = new ButtonClicked("campaign1", "button3", 10L);
@@ -124,7 +125,7 @@ public class FilterByCampaignIdTest {
 
     @Test
     public void testExecution_buttonClicked_shouldDelete_multipleIams() {
-        ButtonClickedRepository repository = new ButtonClickedRepository(context);
+        ButtonClickedRepository repository = new ButtonClickedRepository(new MobileEngageDbHelper(context));
 
         ButtonClicked btn1 = new ButtonClicked("campaign1", "button1", 10L);
         ButtonClicked btn2 = new ButtonClicked("campaign1", "button3", 10L);
@@ -146,7 +147,7 @@ public class FilterByCampaignIdTest {
 
     @Test
     public void testExecution_buttonClicked_withEmptyIdArray() {
-        ButtonClickedRepository repository = new ButtonClickedRepository(context);
+        ButtonClickedRepository repository = new ButtonClickedRepository(new MobileEngageDbHelper(context));
 
         ButtonClicked btn1 = new ButtonClicked("campaign1", "button1", 10L);
         ButtonClicked btn2 = new ButtonClicked("campaign1", "button3", 10L);
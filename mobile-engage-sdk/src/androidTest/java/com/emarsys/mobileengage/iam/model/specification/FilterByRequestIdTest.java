@@ -0,0 +1,86 @@
+package com.emarsys.mobileengage.iam.model.specification;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+
+import com.emarsys.core.database.repository.specification.QueryAll;
+import com.emarsys.core.request.model.RequestContract;
+import com.emarsys.core.request.model.RequestMethod;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.request.model.RequestModelRepository;
+import com.emarsys.mobileengage.testUtil.DatabaseTestUtils;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class FilterByRequestIdTest {
+
+    private RequestModelRepository repository;
+    private RequestModel request1;
+    private RequestModel request2;
+    private RequestModel request3;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        DatabaseTestUtils.deleteCoreDatabase();
+
+        Context context = InstrumentationRegistry.getContext();
+        repository = new RequestModelRepository(context);
+
+        request1 = requestModel("id1");
+        request2 = requestModel("id2");
+        request3 = requestModel("id3");
+
+        repository.add(request1);
+        repository.add(request2);
+        repository.add(request3);
+    }
+
+    @Test
+    public void testQuery_shouldReturnRequestsWithGivenIds() {
+        List<RequestModel> result = repository.query(new FilterByRequestId("id1", "id3"));
+
+        assertEquals(Arrays.asList(request1, request3), result);
+    }
+
+    @Test
+    public void testRemove_shouldDeleteRequest() {
+        repository.remove(new FilterByRequestId("id2"));
+
+        List<RequestModel> result = repository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        assertEquals(Arrays.asList(request1, request3), result);
+    }
+
+    @Test
+    public void testRemove_withEmptyIdArray() {
+        repository.remove(new FilterByRequestId());
+
+        List<RequestModel> result = repository.query(new QueryAll(RequestContract.TABLE_NAME));
+
+        assertEquals(Arrays.asList(request1, request2, request3), result);
+    }
+
+    private RequestModel requestModel(String id) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("key", id);
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("header", "value");
+
+        return new RequestModel("https://emarsys.com", RequestMethod.POST, payload, headers, 100, Long.MAX_VALUE, id);
+    }
+}
@@ -1,8 +1,11 @@
 package com.emarsys.mobileengage.inbox;
 
+import android.os.Handler;
+
 import com.emarsys.core.request.RequestManager;
 import com.emarsys.core.request.RestClient;
 import com.emarsys.mobileengage.RequestContext;
+import com.emarsys.mobileengage.inbox.model.InboxCacheRepository;
 import com.emarsys.mobileengage.testUtil.TimeoutUtils;
 
 import junit.framework.Assert;
@@ -32,7 +35,9 @@ public class InboxInternalProviderTest {
                 false,
                 mock(RequestManager.class),
                 mock(RestClient.class),
-                mock(RequestContext.class)
+                mock(RequestContext.class),
+                mock(InboxCacheRepository.class),
+                mock(Handler.class)
         );
         Assert.assertEquals(InboxInternal_V1.class, inboxInternal.getClass());
     }
@@ -43,7 +48,9 @@ public class InboxInternalProviderTest {
                 true,
                 mock(RequestManager.class),
                 mock(RestClient.class),
-                mock(RequestContext.class)
+                mock(RequestContext.class),
+                mock(InboxCacheRepository.class),
+                mock(Handler.class)
         );
         Assert.assertEquals(InboxInternal_V2.class, inboxInternal.getClass());
     }
@@ -129,7 +129,7 @@ public class InboxInternal_V1Test {
 
         Field cacheField = NotificationCache.class.getDeclaredField("internalCache");
         cacheField.setAccessible(true);
-        ((List) cacheField.get(null)).clear();
+        ((Map) cacheField.get(null)).clear();
 
         cache = new NotificationCache();
     }
@@ -190,6 +190,44 @@ public class InboxInternal_V1Test {
         Assert.assertEquals(1, listener.successCount);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testFetchNotifications_paged_offsetShouldNotBeNegative() {
+        inbox.fetchNotifications(-1, 10, resultListenerMock);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFetchNotifications_paged_limitShouldBePositive() {
+        inbox.fetchNotifications(0, 0, resultListenerMock);
+    }
+
+    @Test
+    public void testFetchNotifications_paged_listener_success() throws InterruptedException {
+        requestContext.setAppLoginParameters(appLoginParameters_withCredentials);
+
+        inbox.client = new FakeRestClient(createSuccessResponse(), FakeRestClient.Mode.SUCCESS);
+
+        FakeInboxResultListener listener = new FakeInboxResultListener(latch);
+        inbox.fetchNotifications(1, 1, listener);
+
+        latch.await();
+
+        Assert.assertEquals(new NotificationInboxStatus(notificationList.subList(1, 2), 300), listener.resultStatus);
+    }
+
+    @Test
+    public void testFetchNotificationsSince_listener_success() throws InterruptedException {
+        requestContext.setAppLoginParameters(appLoginParameters_withCredentials);
+
+        inbox.client = new FakeRestClient(createSuccessResponse(), FakeRestClient.Mode.SUCCESS);
+
+        FakeInboxResultListener listener = new FakeInboxResultListener(latch);
+        inbox.fetchNotificationsSince(20000000, listener);
+
+        latch.await();
+
+        Assert.assertEquals(new NotificationInboxStatus(notificationList.subList(1, 3), 300), listener.resultStatus);
+    }
+
     @Test
     public void testFetchNotifications_listener_success_shouldBeCalledOnMainThread() throws InterruptedException {
         requestContext.setAppLoginParameters(appLoginParameters_withCredentials);
@@ -1,10 +1,15 @@
 package com.emarsys.mobileengage.inbox;
 
 import android.app.Application;
+import android.os.Handler;
 import android.support.test.InstrumentationRegistry;
+import android.util.Log;
 
 import com.emarsys.core.CoreCompletionHandler;
+import com.emarsys.core.connection.ConnectionProvider;
+import com.emarsys.core.database.repository.Repository;
 import com.emarsys.core.DeviceInfo;
+import com.emarsys.core.concurrency.CoreSdkHandlerProvider;
 import com.emarsys.core.request.RequestIdProvider;
 import com.emarsys.core.request.RequestManager;
 import com.emarsys.core.request.RestClient;
@@ -16,16 +21,23 @@ import com.emarsys.core.util.TimestampUtils;
 import com.emarsys.mobileengage.MobileEngageException;
 import com.emarsys.mobileengage.RequestContext;
 import com.emarsys.mobileengage.config.MobileEngageConfig;
+import com.emarsys.mobileengage.connection.EmptyErrorStreamConnectionProvider;
+import com.emarsys.mobileengage.database.MobileEngageDbHelper;
+import com.emarsys.mobileengage.endpoint.Endpoint;
+import com.emarsys.mobileengage.fake.FakeConditionalRestClient;
 import com.emarsys.mobileengage.fake.FakeInboxResultListener;
 import com.emarsys.mobileengage.fake.FakeResetBadgeCountResultListener;
 import com.emarsys.mobileengage.fake.FakeRestClient;
 import com.emarsys.mobileengage.fake.FakeStatusListener;
+import com.emarsys.mobileengage.inbox.model.InboxCacheEntry;
+import com.emarsys.mobileengage.inbox.model.InboxCacheRepository;
 import com.emarsys.mobileengage.inbox.model.Notification;
 import com.emarsys.mobileengage.inbox.model.NotificationCache;
 import com.emarsys.mobileengage.inbox.model.NotificationInboxStatus;
 import com.emarsys.mobileengage.storage.AppLoginStorage;
 import com.emarsys.mobileengage.storage.MeIdSignatureStorage;
 import com.emarsys.mobileengage.storage.MeIdStorage;
+import com.emarsys.mobileengage.testUtil.DatabaseTestUtils;
 import com.emarsys.mobileengage.testUtil.RequestModelTestUtils;
 import com.emarsys.mobileengage.testUtil.TimeoutUtils;
 import com.emarsys.mobileengage.util.RequestHeaderUtils;
@@ -41,7 +53,11 @@ import org.junit.Test;
 import org.junit.rules.TestRule;
 import org.mockito.ArgumentCaptor;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -50,16 +66,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 
+import javax.net.ssl.HttpsURLConnection;
+
 import static junit.framework.Assert.assertNull;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class InboxInternal_V2Test {
 
     public static final long TIMESTAMP = 100_000;
+    public static final String ETAG = "\"inbox-etag\"";
     public static final String APPLICATION_ID = "id";
     public static final String ME_ID = "12345";
     public static final String ME_ID_SIGNATURE = "1111signature";
@@ -83,6 +103,8 @@ public class InboxInternal_V2Test {
     private FakeStatusListener statusListener;
     private TimestampProvider timestampProvider;
     private RequestIdProvider requestIdProvider;
+    private InboxCacheRepository inboxCache;
+    private Handler coreSdkHandler;
 
     @Rule
     public TestRule timeout = TimeoutUtils.getTimeoutRule();
@@ -136,6 +158,7 @@ public class InboxInternal_V2Test {
     @SuppressWarnings("unchecked")
     public void init() throws Exception {
         clearNotificationCache();
+        DatabaseTestUtils.deleteMobileEngageDatabase();
 
         Application application = (Application) InstrumentationRegistry.getTargetContext().getApplicationContext();
 
@@ -173,7 +196,10 @@ public class InboxInternal_V2Test {
                 timestampProvider,
                 requestIdProvider);
 
-        inbox = new InboxInternal_V2(manager, restClient, requestContext);
+        inboxCache = new InboxCacheRepository(new MobileEngageDbHelper(application));
+        coreSdkHandler = new CoreSdkHandlerProvider().provideHandler();
+
+        inbox = new InboxInternal_V2(manager, restClient, requestContext, inboxCache, coreSdkHandler);
 
         resultListener = mock(InboxResultListener.class);
         resetListenerMock = mock(ResetBadgeCountResultListener.class);
@@ -193,21 +219,32 @@ public class InboxInternal_V2Test {
     @After
     public void tearDown() throws Exception {
         clearNotificationCache();
+        coreSdkHandler.getLooper().quit();
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_requestManager_shouldNotBeNull() {
-        inbox = new InboxInternal_V2(null, restClient, requestContext);
+        inbox = new InboxInternal_V2(null, restClient, requestContext, inboxCache, coreSdkHandler);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_restClient_shouldNotBeNull() {
-        inbox = new InboxInternal_V2(manager, null, requestContext);
+        inbox = new InboxInternal_V2(manager, null, requestContext, inboxCache, coreSdkHandler);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_requestContext_shouldNotBeNull() {
-        inbox = new InboxInternal_V2(manager, restClient, null);
+        inbox = new InboxInternal_V2(manager, restClient, null, inboxCache, coreSdkHandler);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_inboxCache_shouldNotBeNull() {
+        inbox = new InboxInternal_V2(manager, restClient, requestContext, null, coreSdkHandler);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_coreSdkHandler_shouldNotBeNull() {
+        inbox = new InboxInternal_V2(manager, restClient, requestContext, inboxCache, null);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -224,7 +261,7 @@ public class InboxInternal_V2Test {
         inbox.fetchNotifications(resultListener);
 
         ArgumentCaptor<RequestModel> requestCaptor = ArgumentCaptor.forClass(RequestModel.class);
-        verify(restClient).execute(requestCaptor.capture(), any(CoreCompletionHandler.class));
+        verify(restClient, timeout(1000)).execute(requestCaptor.capture(), any(CoreCompletionHandler.class));
 
         RequestModel requestModel = requestCaptor.getValue();
         Assert.assertNotNull(requestModel.getId());
@@ -239,7 +276,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(createSuccessResponse(), FakeRestClient.Mode.SUCCESS),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         FakeInboxResultListener listener = new FakeInboxResultListener(latch);
         inbox.fetchNotifications(listener);
@@ -255,7 +294,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(createSuccessResponse(), FakeRestClient.Mode.SUCCESS),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         FakeInboxResultListener listener = new FakeInboxResultListener(latch, FakeInboxResultListener.Mode.MAIN_THREAD);
         inbox.fetchNotifications(listener);
@@ -265,6 +306,334 @@ public class InboxInternal_V2Test {
         Assert.assertEquals(1, listener.successCount);
     }
 
+    @Test
+    public void testFetchNotifications_shouldDeliverPersistedStatusAsStale_thenFreshStatus() throws Exception {
+        ResponseModel persisted = createNotificationStatusResponse(Collections.singletonList(NOTIFICATION_STRING_1));
+        ResponseModel fresh = createNotificationStatusResponse(Arrays.asList(NOTIFICATION_STRING_1, NOTIFICATION_STRING_2));
+        inboxCache.put(new InboxCacheEntry(ME_ID, persisted.getBody(), TIMESTAMP));
+
+        inbox = new InboxInternal_V2(
+                manager,
+                new FakeRestClient(fresh, FakeRestClient.Mode.SUCCESS),
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
+
+        final List<NotificationInboxStatus> staleResults = new ArrayList<>();
+        final List<NotificationInboxStatus> results = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        inbox.fetchNotifications(new StaleInboxResultListener<NotificationInboxStatus>() {
+            @Override
+            public void onStaleResult(NotificationInboxStatus result) {
+                staleResults.add(result);
+            }
+
+            @Override
+            public void onSuccess(NotificationInboxStatus result) {
+                results.add(result);
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(Exception cause) {
+            }
+        });
+        latch.await();
+
+        assertEquals(Collections.singletonList(InboxParseUtils.parseNotificationInboxStatus(persisted.getBody())), staleResults);
+        assertEquals(Collections.singletonList(InboxParseUtils.parseNotificationInboxStatus(fresh.getBody())), results);
+    }
+
+    @Test
+    public void testFetchNotifications_shouldOnlyDeliverFreshStatus_toPlainListener() throws Exception {
+        ResponseModel persisted = createNotificationStatusResponse(Collections.singletonList(NOTIFICATION_STRING_1));
+        ResponseModel fresh = createNotificationStatusResponse(Arrays.asList(NOTIFICATION_STRING_1, NOTIFICATION_STRING_2));
+        inboxCache.put(new InboxCacheEntry(ME_ID, persisted.getBody(), TIMESTAMP));
+
+        inbox = new InboxInternal_V2(
+                manager,
+                new FakeRestClient(fresh, FakeRestClient.Mode.SUCCESS),
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
+
+        FakeInboxResultListener listener = new FakeInboxResultListener(latch);
+        inbox.fetchNotifications(listener);
+        latch.await();
+
+        assertEquals(1, listener.successCount);
+        assertEquals(InboxParseUtils.parseNotificationInboxStatus(fresh.getBody()), listener.resultStatus);
+    }
+
+    @Test
+    public void testFetchNotifications_shouldOnlyDeliverError_toPlainListener_whenRevalidationFails() throws Exception {
+        inboxCache.put(new InboxCacheEntry(ME_ID, createSuccessResponse().getBody(), TIMESTAMP));
+
+        inbox = new InboxInternal_V2(
+                manager,
+                new FakeRestClient(new Exception()),
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
+
+        FakeInboxResultListener listener = new FakeInboxResultListener(latch);
+        inbox.fetchNotifications(listener);
+        latch.await();
+
+        assertEquals(0, listener.successCount);
+        assertEquals(1, listener.errorCount);
+    }
+
+    @Test
+    public void testFetchNotifications_shouldPersistFetchedStatus() throws Exception {
+        ResponseModel response = createSuccessResponse();
+        inbox = new InboxInternal_V2(
+                manager,
+                new FakeRestClient(response, FakeRestClient.Mode.SUCCESS),
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
+
+        FakeInboxResultListener listener = new FakeInboxResultListener(latch);
+        inbox.fetchNotifications(listener);
+        latch.await();
+        waitForCoreSdkHandler();
+
+        assertEquals(new InboxCacheEntry(ME_ID, response.getBody(), TIMESTAMP), inboxCache.get(ME_ID));
+    }
+
+    @Test
+    public void testPurgeNotificationCache_shouldRemovePersistedStatus() throws Exception {
+        inboxCache.put(new InboxCacheEntry(ME_ID, createSuccessResponse().getBody(), TIMESTAMP));
+
+        inbox.purgeNotificationCache();
+        waitForCoreSdkHandler();
+
+        assertNull(inboxCache.get(ME_ID));
+    }
+
+    @Test
+    public void testFetchNotifications_shouldPersistValidator() throws Exception {
+        FakeConditionalRestClient client = new FakeConditionalRestClient(createSuccessResponse().getBody(), ETAG);
+        inbox = new InboxInternal_V2(manager, client, requestContext, inboxCache, coreSdkHandler);
+
+        inbox.fetchNotifications(new FakeInboxResultListener(latch));
+        latch.await();
+        waitForCoreSdkHandler();
+
+        assertEquals(new InboxCacheEntry(ME_ID, createSuccessResponse().getBody(), TIMESTAMP, ETAG, null), inboxCache.get(ME_ID));
+    }
+
+    @Test
+    public void testFetchNotifications_shouldSendConditionalRequest_afterCacheExpired() throws Exception {
+        FakeConditionalRestClient client = new FakeConditionalRestClient(createSuccessResponse().getBody(), ETAG);
+        inbox = new InboxInternal_V2(manager, client, requestContext, inboxCache, coreSdkHandler);
+
+        FakeInboxResultListener firstListener = new FakeInboxResultListener(latch);
+        inbox.fetchNotifications(firstListener);
+        latch.await();
+
+        when(timestampProvider.provideTimestamp()).thenReturn(TIMESTAMP + 61_000);
+        CountDownLatch secondLatch = new CountDownLatch(1);
+        FakeInboxResultListener secondListener = new FakeInboxResultListener(secondLatch);
+        inbox.fetchNotifications(secondListener);
+        secondLatch.await();
+
+        assertNull(client.requests.get(0).getHeaders().get("If-None-Match"));
+        assertEquals(ETAG, client.requests.get(1).getHeaders().get("If-None-Match"));
+        assertEquals(1, client.notModifiedCount);
+        assertEquals(firstListener.resultStatus, secondListener.resultStatus);
+        assertEquals(1, secondListener.successCount);
+    }
+
+    @Test
+    public void testFetchNotifications_shouldRevalidatePersistedStatus_withPersistedValidator() throws Exception {
+        String body = createSuccessResponse().getBody();
+        inboxCache.put(new InboxCacheEntry(ME_ID, body, TIMESTAMP, ETAG, null));
+        FakeConditionalRestClient client = new FakeConditionalRestClient(body, ETAG);
+        inbox = new InboxInternal_V2(manager, client, requestContext, inboxCache, coreSdkHandler);
+
+        FakeInboxResultListener listener = new FakeInboxResultListener(latch);
+        inbox.fetchNotifications(listener);
+        latch.await();
+
+        assertEquals(ETAG, client.requests.get(0).getHeaders().get("If-None-Match"));
+        assertEquals(1, client.notModifiedCount);
+        assertEquals(0, client.bytesTransferred);
+        assertEquals(1, listener.successCount);
+        assertEquals(InboxParseUtils.parseNotificationInboxStatus(body), listener.resultStatus);
+    }
+
+    @Test
+    public void testFetchNotifications_shouldNotDeliverPersistedStatusTwice_toStaleListener_onNotModified() throws Exception {
+        String body = createSuccessResponse().getBody();
+        inboxCache.put(new InboxCacheEntry(ME_ID, body, TIMESTAMP, ETAG, null));
+        final FakeConditionalRestClient client = new FakeConditionalRestClient(body, ETAG);
+        inbox = new InboxInternal_V2(manager, client, requestContext, inboxCache, coreSdkHandler);
+
+        final List<NotificationInboxStatus> staleResults = new ArrayList<>();
+        final List<NotificationInboxStatus> results = new ArrayList<>();
+        inbox.fetchNotifications(new StaleInboxResultListener<NotificationInboxStatus>() {
+            @Override
+            public void onStaleResult(NotificationInboxStatus result) {
+                staleResults.add(result);
+            }
+
+            @Override
+            public void onSuccess(NotificationInboxStatus result) {
+                results.add(result);
+            }
+
+            @Override
+            public void onError(Exception cause) {
+            }
+        });
+        CountDownLatch fetched = new CountDownLatch(1);
+        inbox.fetchNotifications(new FakeInboxResultListener(fetched));
+        fetched.await();
+
+        assertEquals(1, client.notModifiedCount);
+        assertEquals(Collections.singletonList(InboxParseUtils.parseNotificationInboxStatus(body)), staleResults);
+        assertEquals(0, results.size());
+    }
+
+    @Test
+    public void testFetchNotifications_shouldCallListenerWithError_onNotModified_withoutCachedStatus() throws Exception {
+        ResponseModel notModified = new ResponseModel.Builder()
+                .statusCode(304)
+                .message("Not Modified")
+                .requestModel(mock(RequestModel.class))
+                .build();
+        inbox = new InboxInternal_V2(
+                manager,
+                new FakeRestClient(notModified, FakeRestClient.Mode.ERROR_RESPONSE_MODEL),
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
+
+        FakeInboxResultListener listener = new FakeInboxResultListener(latch);
+        inbox.fetchNotifications(listener);
+        latch.await();
+
+        assertEquals(1, listener.errorCount);
+        assertEquals(MobileEngageException.class, listener.errorCause.getClass());
+    }
+
+    @Test
+    public void testFetchNotifications_conditionalRequestBenchmark() throws Exception {
+        List<String> notificationStrings = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            notificationStrings.add(NOTIFICATION_STRING_1);
+        }
+        String body = createNotificationStatusResponse(notificationStrings).getBody();
+        FakeConditionalRestClient client = new FakeConditionalRestClient(body, ETAG);
+        inbox = new InboxInternal_V2(manager, client, requestContext, inboxCache, coreSdkHandler);
+
+        int fetchCount = 10;
+        for (int i = 0; i < fetchCount; i++) {
+            when(timestampProvider.provideTimestamp()).thenReturn(TIMESTAMP + i * 61_000);
+            CountDownLatch fetched = new CountDownLatch(1);
+            inbox.fetchNotifications(new FakeInboxResultListener(fetched));
+            fetched.await();
+        }
+        waitForCoreSdkHandler();
+
+        long start = System.nanoTime();
+        InboxParseUtils.parseNotificationInboxStatus(body);
+        long parseNanos = System.nanoTime() - start;
+        long unconditionalBytes = (long) fetchCount * body.getBytes("UTF-8").length;
+
+        Log.i("InboxBenchmark", String.format("Bytes transferred for %d fetches: %d conditional, %d unconditional", fetchCount, client.bytesTransferred, unconditionalBytes));
+        Log.i("InboxBenchmark", String.format("Parse time saved by %d not modified responses: %.3f ms", client.notModifiedCount, client.notModifiedCount * parseNanos / 1_000_000.0));
+        assertEquals(fetchCount - 1, client.notModifiedCount);
+        Assert.assertTrue(client.bytesTransferred < unconditionalBytes);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFetchNotifications_paged_offsetShouldNotBeNegative() {
+        inbox.fetchNotifications(-1, 10, resultListener);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFetchNotifications_paged_limitShouldBePositive() {
+        inbox.fetchNotifications(0, 0, resultListener);
+    }
+
+    @Test
+    public void testFetchNotifications_paged_shouldReturnPagesOfOneFetch() throws Exception {
+        String body = createSuccessResponse().getBody();
+        FakeConditionalRestClient client = new FakeConditionalRestClient(body, ETAG);
+        inbox = new InboxInternal_V2(manager, client, requestContext, inboxCache, coreSdkHandler);
+
+        FakeInboxResultListener firstPage = new FakeInboxResultListener(latch);
+        inbox.fetchNotifications(0, 2, firstPage);
+        latch.await();
+
+        CountDownLatch secondLatch = new CountDownLatch(1);
+        FakeInboxResultListener secondPage = new FakeInboxResultListener(secondLatch);
+        inbox.fetchNotifications(2, 2, secondPage);
+        secondLatch.await();
+
+        List<Notification> notifications = InboxParseUtils.parseNotificationInboxStatus(body).getNotifications();
+        assertEquals(new NotificationInboxStatus(notifications.subList(0, 2), 300), firstPage.resultStatus);
+        assertEquals(new NotificationInboxStatus(notifications.subList(2, 3), 300), secondPage.resultStatus);
+        assertEquals(1, client.requests.size());
+    }
+
+    @Test
+    public void testFetchNotificationsSince_shouldReturnNotificationsReceivedLater() throws Exception {
+        ResponseModel response = createSuccessResponse();
+        inbox = new InboxInternal_V2(
+                manager,
+                new FakeRestClient(response, FakeRestClient.Mode.SUCCESS),
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
+
+        FakeInboxResultListener listener = new FakeInboxResultListener(latch);
+        inbox.fetchNotificationsSince(20000000, listener);
+        latch.await();
+
+        List<Notification> notifications = InboxParseUtils.parseNotificationInboxStatus(response.getBody()).getNotifications();
+        assertEquals(new NotificationInboxStatus(notifications.subList(1, 3), 300), listener.resultStatus);
+    }
+
+    @Test
+    public void testFetchNotifications_shouldServeRepeatedCalls_withinAMinute() throws Exception {
+        inbox = new InboxInternal_V2(
+                manager,
+                new FakeRestClient(createSuccessResponse(), FakeRestClient.Mode.SUCCESS),
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
+
+        List<FakeInboxResultListener> listeners = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CountDownLatch page = new CountDownLatch(1);
+            FakeInboxResultListener listener = new FakeInboxResultListener(page);
+            inbox.fetchNotifications(i, 1, listener);
+            page.await();
+            listeners.add(listener);
+        }
+
+        for (FakeInboxResultListener listener : listeners) {
+            assertEquals(1, listener.successCount);
+            assertEquals(1, listener.resultStatus.getNotifications().size());
+        }
+    }
+
+    @Test
+    public void testFetchNotifications_timeToFirstRender_withAndWithoutPersistedStatus() throws Exception {
+        long withoutCache = measureTimeToFirstRender();
+
+        clearNotificationCache();
+        long withCache = measureTimeToFirstRender();
+
+        Log.i("InboxBenchmark", String.format("Time to first inbox render without persisted cache: %.3f ms", withoutCache / 1_000_000.0));
+        Log.i("InboxBenchmark", String.format("Time to first inbox render with persisted cache: %.3f ms", withCache / 1_000_000.0));
+        Assert.assertTrue(withCache < withoutCache);
+    }
+
     @Test
     public void testFetchNotifications_listener_success_withCachedNotifications() throws Exception {
         List<Notification> cachedNotifications = createCacheList();
@@ -275,7 +644,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(createSuccessResponse(), FakeRestClient.Mode.SUCCESS),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         FakeInboxResultListener listener = new FakeInboxResultListener(latch, FakeInboxResultListener.Mode.MAIN_THREAD);
         inbox.fetchNotifications(listener);
@@ -296,7 +667,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(expectedException),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         FakeInboxResultListener listener = new FakeInboxResultListener(latch);
         inbox.fetchNotifications(listener);
@@ -313,7 +686,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(expectedException),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         FakeInboxResultListener listener = new FakeInboxResultListener(latch, FakeInboxResultListener.Mode.MAIN_THREAD);
         inbox.fetchNotifications(listener);
@@ -333,7 +708,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(responseModel, FakeRestClient.Mode.ERROR_RESPONSE_MODEL),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         FakeInboxResultListener listener = new FakeInboxResultListener(latch);
         inbox.fetchNotifications(listener);
@@ -362,7 +739,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(responseModel, FakeRestClient.Mode.ERROR_RESPONSE_MODEL),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         FakeInboxResultListener listener = new FakeInboxResultListener(latch, FakeInboxResultListener.Mode.MAIN_THREAD);
         inbox.fetchNotifications(listener);
@@ -394,7 +773,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(responses, FakeRestClient.Mode.SUCCESS),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         CountDownLatch latch1 = new CountDownLatch(1);
         FakeInboxResultListener listener1 = new FakeInboxResultListener(latch1);
@@ -420,7 +801,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(responses, FakeRestClient.Mode.SUCCESS),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         CountDownLatch latch1 = new CountDownLatch(1);
         FakeInboxResultListener listener1 = new FakeInboxResultListener(latch1);
@@ -449,7 +832,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(responses, FakeRestClient.Mode.ERROR_RESPONSE_MODEL),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         CountDownLatch latch1 = new CountDownLatch(1);
         FakeInboxResultListener listener1 = new FakeInboxResultListener(latch1);
@@ -479,7 +864,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(exceptions),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         CountDownLatch latch1 = new CountDownLatch(1);
         FakeInboxResultListener listener1 = new FakeInboxResultListener(latch1);
@@ -510,7 +897,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(responses, FakeRestClient.Mode.SUCCESS),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         CountDownLatch latch1 = new CountDownLatch(1);
         FakeInboxResultListener listener1 = new FakeInboxResultListener(latch1);
@@ -527,6 +916,72 @@ public class InboxInternal_V2Test {
         Assert.assertEquals(InboxParseUtils.parseNotificationInboxStatus(notificationStatusResponse2.getBody()), listener2.resultStatus);
     }
 
+    @Test
+    public void testFetchNotifications_shouldNotReturnLastNotificationStatus_ofOtherMeId() throws InterruptedException {
+        List<ResponseModel> responses = new ArrayList<>();
+        ResponseModel notificationStatusResponse1 = createNotificationStatusResponse(Collections.singletonList(NOTIFICATION_STRING_1));
+        ResponseModel notificationStatusResponse2 = createNotificationStatusResponse(Collections.singletonList(NOTIFICATION_STRING_2));
+        responses.add(notificationStatusResponse1);
+        responses.add(notificationStatusResponse2);
+
+        inbox = new InboxInternal_V2(
+                manager,
+                new FakeRestClient(responses, FakeRestClient.Mode.SUCCESS),
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
+
+        CountDownLatch latch1 = new CountDownLatch(1);
+        FakeInboxResultListener listener1 = new FakeInboxResultListener(latch1);
+        inbox.fetchNotifications(listener1);
+        latch1.await();
+
+        when(meIdStorage.get()).thenReturn("otherMeId");
+        requestContext.invalidateSession();
+
+        CountDownLatch latch2 = new CountDownLatch(1);
+        FakeInboxResultListener listener2 = new FakeInboxResultListener(latch2);
+        inbox.fetchNotifications(listener2);
+        latch2.await();
+
+        Assert.assertEquals(InboxParseUtils.parseNotificationInboxStatus(notificationStatusResponse1.getBody()), listener1.resultStatus);
+        Assert.assertEquals(InboxParseUtils.parseNotificationInboxStatus(notificationStatusResponse2.getBody()), listener2.resultStatus);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFetchNotifications_shouldServeCachedStatus_onNotModified_throughRestClient() throws Exception {
+        String body = createSuccessResponse().getBody();
+        final List<HttpsURLConnection> connections = new ArrayList<>(Arrays.asList(
+                createConnection(200, "OK", body, ETAG),
+                createConnection(304, "Not Modified", null, null)));
+        RestClient client = new RestClient(
+                mock(Repository.class),
+                new EmptyErrorStreamConnectionProvider(new ConnectionProvider() {
+                    @Override
+                    public HttpsURLConnection provideConnection(RequestModel requestModel) {
+                        return connections.remove(0);
+                    }
+                }),
+                timestampProvider);
+        inbox = new InboxInternal_V2(manager, client, requestContext, inboxCache, coreSdkHandler);
+
+        FakeInboxResultListener firstListener = new FakeInboxResultListener(latch);
+        inbox.fetchNotifications(firstListener);
+        latch.await();
+
+        when(timestampProvider.provideTimestamp()).thenReturn(TIMESTAMP + 61_000);
+        CountDownLatch secondLatch = new CountDownLatch(1);
+        FakeInboxResultListener secondListener = new FakeInboxResultListener(secondLatch);
+        inbox.fetchNotifications(secondListener);
+        secondLatch.await();
+
+        assertEquals(0, connections.size());
+        assertEquals(0, secondListener.errorCount);
+        assertEquals(1, secondListener.successCount);
+        assertEquals(InboxParseUtils.parseNotificationInboxStatus(body), secondListener.resultStatus);
+    }
+
     @Test
     public void testResetBadgeCount_shouldMakeRequest_viaRestClient() {
         RequestModel expected = createRequestModel(
@@ -551,7 +1006,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(mock(ResponseModel.class), FakeRestClient.Mode.SUCCESS),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         FakeResetBadgeCountResultListener listener = new FakeResetBadgeCountResultListener(latch);
         inbox.resetBadgeCount(listener);
@@ -566,7 +1023,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(mock(ResponseModel.class), FakeRestClient.Mode.SUCCESS),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         FakeResetBadgeCountResultListener listener = new FakeResetBadgeCountResultListener(latch, FakeResetBadgeCountResultListener.Mode.MAIN_THREAD);
         inbox.resetBadgeCount(listener);
@@ -582,7 +1041,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(expectedException),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         FakeResetBadgeCountResultListener listener = new FakeResetBadgeCountResultListener(latch);
         inbox.resetBadgeCount(listener);
@@ -599,7 +1060,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(expectedException),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         FakeResetBadgeCountResultListener listener = new FakeResetBadgeCountResultListener(latch, FakeResetBadgeCountResultListener.Mode.MAIN_THREAD);
         inbox.resetBadgeCount(listener);
@@ -619,7 +1082,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(responseModel, FakeRestClient.Mode.ERROR_RESPONSE_MODEL),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         FakeResetBadgeCountResultListener listener = new FakeResetBadgeCountResultListener(latch);
         inbox.resetBadgeCount(listener);
@@ -648,7 +1113,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(responseModel, FakeRestClient.Mode.ERROR_RESPONSE_MODEL),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         FakeResetBadgeCountResultListener listener = new FakeResetBadgeCountResultListener(latch, FakeResetBadgeCountResultListener.Mode.MAIN_THREAD);
         inbox.resetBadgeCount(listener);
@@ -681,7 +1148,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(responses, FakeRestClient.Mode.SUCCESS),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         CountDownLatch latch1 = new CountDownLatch(1);
         FakeInboxResultListener listener1 = new FakeInboxResultListener(latch1);
@@ -821,7 +1290,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(responses, FakeRestClient.Mode.SUCCESS),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         CountDownLatch latch1 = new CountDownLatch(1);
         FakeInboxResultListener listener1 = new FakeInboxResultListener(latch1);
@@ -852,7 +1323,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(responses, FakeRestClient.Mode.SUCCESS),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         CountDownLatch latch1 = new CountDownLatch(1);
         FakeInboxResultListener listener1 = new FakeInboxResultListener(latch1);
@@ -893,7 +1366,9 @@ public class InboxInternal_V2Test {
         inbox = new InboxInternal_V2(
                 manager,
                 new FakeRestClient(responses, FakeRestClient.Mode.SUCCESS),
-                requestContext);
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
 
         CountDownLatch latch1 = new CountDownLatch(1);
         FakeInboxResultListener listener1 = new FakeInboxResultListener(latch1);
@@ -931,6 +1406,69 @@ public class InboxInternal_V2Test {
                 .build();
     }
 
+    private long measureTimeToFirstRender() throws InterruptedException {
+        inbox = new InboxInternal_V2(
+                manager,
+                new FakeRestClient(createSuccessResponse(), FakeRestClient.Mode.SUCCESS),
+                requestContext,
+                inboxCache,
+                coreSdkHandler);
+        final CountDownLatch firstRender = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        inbox.fetchNotifications(new StaleInboxResultListener<NotificationInboxStatus>() {
+            @Override
+            public void onStaleResult(NotificationInboxStatus result) {
+                firstRender.countDown();
+            }
+
+            @Override
+            public void onSuccess(NotificationInboxStatus result) {
+                firstRender.countDown();
+                completed.countDown();
+            }
+
+            @Override
+            public void onError(Exception cause) {
+            }
+        });
+        firstRender.await();
+        long result = System.nanoTime() - start;
+
+        completed.await();
+        waitForCoreSdkHandler();
+        return result;
+    }
+
+    private HttpsURLConnection createConnection(int statusCode, String message, String body, String etag) throws IOException {
+        HttpsURLConnection connection = mock(HttpsURLConnection.class);
+        when(connection.getURL()).thenReturn(new URL(String.format(Endpoint.INBOX_FETCH_V2, ME_ID)));
+        when(connection.getResponseCode()).thenReturn(statusCode);
+        when(connection.getResponseMessage()).thenReturn(message);
+        Map<String, List<String>> headers = new HashMap<>();
+        if (etag != null) {
+            headers.put("ETag", Collections.singletonList(etag));
+        }
+        when(connection.getHeaderFields()).thenReturn(headers);
+        if (body != null) {
+            when(connection.getInputStream()).thenReturn(new ByteArrayInputStream(body.getBytes("UTF-8")));
+        }
+        when(connection.getOutputStream()).thenReturn(new ByteArrayOutputStream());
+        return connection;
+    }
+
+    private void waitForCoreSdkHandler() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        coreSdkHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        latch.await();
+    }
+
     private ResponseModel createSuccessResponse() {
 
         List<String> notificationStrings = new ArrayList<>();
@@ -1020,7 +1558,7 @@ public class InboxInternal_V2Test {
     private void clearNotificationCache() throws Exception {
         Field cacheField = NotificationCache.class.getDeclaredField("internalCache");
         cacheField.setAccessible(true);
-        ((List) cacheField.get(null)).clear();
+        ((Map) cacheField.get(null)).clear();
     }
 
 }
\ No newline at end of file
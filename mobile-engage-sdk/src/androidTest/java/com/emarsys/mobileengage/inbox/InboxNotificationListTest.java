@@ -0,0 +1,229 @@
+package com.emarsys.mobileengage.inbox;
+
+import android.util.Log;
+
+import com.emarsys.core.timestamp.TimestampProvider;
+import com.emarsys.mobileengage.inbox.model.Notification;
+import com.emarsys.mobileengage.inbox.model.NotificationCache;
+import com.emarsys.mobileengage.inbox.model.NotificationInboxStatus;
+import com.emarsys.mobileengage.testUtil.ReflectionTestUtils;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InboxNotificationListTest {
+
+    private static final String TAG = "InboxBenchmark";
+
+    private static final String NOTIFICATION_STRING_1 = createNotificationString("id1", 10_000_000);
+    private static final String NOTIFICATION_STRING_2 = createNotificationString("id2", 30_000_000);
+    private static final String NOTIFICATION_STRING_3 = createNotificationString("id3", 25_000_000);
+
+    private NotificationCache cache;
+    private String body;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() throws Exception {
+        clearNotificationCache();
+
+        TimestampProvider timestampProvider = mock(TimestampProvider.class);
+        when(timestampProvider.provideTimestamp()).thenReturn(1_000L);
+        cache = new NotificationCache(timestampProvider);
+
+        body = createBody(Arrays.asList(NOTIFICATION_STRING_1, NOTIFICATION_STRING_2, NOTIFICATION_STRING_3));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        clearNotificationCache();
+    }
+
+    @Test
+    public void testConstructor_shouldReadSizeAndBadgeCount() {
+        InboxNotificationList list = new InboxNotificationList(body);
+
+        assertEquals(3, list.size());
+        assertEquals(300, list.getBadgeCount());
+    }
+
+    @Test
+    public void testConstructor_withInvalidJson_shouldBeEmpty() {
+        InboxNotificationList list = new InboxNotificationList("not json");
+
+        assertEquals(0, list.size());
+        assertEquals(new NotificationInboxStatus(), list.toStatus(cache));
+    }
+
+    @Test
+    public void testToStatus_shouldEqualFullyParsedStatus() {
+        InboxNotificationList list = new InboxNotificationList(body);
+
+        assertEquals(InboxParseUtils.parseNotificationInboxStatus(body), list.toStatus(cache));
+    }
+
+    @Test
+    public void testToStatus_shouldPutCachedNotificationsFirst_withoutFetchedOnes() {
+        Notification cached = createNotification("cached", 40_000_000);
+        cache.cache(cached);
+        cache.cache(InboxParseUtils.parseNotification(NOTIFICATION_STRING_1));
+
+        List<Notification> expected = new ArrayList<>();
+        expected.add(cached);
+        expected.addAll(InboxParseUtils.parseNotificationInboxStatus(body).getNotifications());
+
+        assertEquals(expected, new InboxNotificationList(body).toStatus(cache).getNotifications());
+    }
+
+    @Test
+    public void testToPage_shouldReturnRequestedRange() {
+        InboxNotificationList list = new InboxNotificationList(body);
+
+        NotificationInboxStatus result = list.toPage(cache, 1, 1);
+
+        assertEquals(Collections.singletonList(InboxParseUtils.parseNotification(NOTIFICATION_STRING_2)), result.getNotifications());
+        assertEquals(300, result.getBadgeCount());
+    }
+
+    @Test
+    public void testToPage_shouldBeTruncated_atTheEndOfTheList() {
+        InboxNotificationList list = new InboxNotificationList(body);
+
+        assertEquals(Collections.singletonList(InboxParseUtils.parseNotification(NOTIFICATION_STRING_3)), list.toPage(cache, 2, 10).getNotifications());
+        assertEquals(Collections.<Notification>emptyList(), list.toPage(cache, 5, 10).getNotifications());
+    }
+
+    @Test
+    public void testToPage_shouldCountCachedNotifications_intoOffset() {
+        Notification cached = createNotification("cached", 40_000_000);
+        cache.cache(cached);
+        InboxNotificationList list = new InboxNotificationList(body);
+
+        assertEquals(Arrays.asList(cached, InboxParseUtils.parseNotification(NOTIFICATION_STRING_1)), list.toPage(cache, 0, 2).getNotifications());
+        assertEquals(Arrays.asList(InboxParseUtils.parseNotification(NOTIFICATION_STRING_2), InboxParseUtils.parseNotification(NOTIFICATION_STRING_3)), list.toPage(cache, 2, 2).getNotifications());
+    }
+
+    @Test
+    public void testToPage_shouldSkipInvalidNotifications() {
+        InboxNotificationList list = new InboxNotificationList(createBody(Arrays.asList(NOTIFICATION_STRING_1, "{\"id\":\"invalid\"}", NOTIFICATION_STRING_2)));
+
+        assertEquals(Arrays.asList(InboxParseUtils.parseNotification(NOTIFICATION_STRING_1), InboxParseUtils.parseNotification(NOTIFICATION_STRING_2)), list.toPage(cache, 0, 3).getNotifications());
+    }
+
+    @Test
+    public void testToStatusSince_shouldReturnNotificationsReceivedLater() {
+        Notification cachedOld = createNotification("cachedOld", 5_000_000);
+        Notification cachedNew = createNotification("cachedNew", 40_000_000);
+        cache.cache(cachedOld);
+        cache.cache(cachedNew);
+        InboxNotificationList list = new InboxNotificationList(body);
+
+        NotificationInboxStatus result = list.toStatusSince(cache, 20_000_000);
+
+        assertEquals(Arrays.asList(cachedNew, InboxParseUtils.parseNotification(NOTIFICATION_STRING_2), InboxParseUtils.parseNotification(NOTIFICATION_STRING_3)), result.getNotifications());
+        assertEquals(300, result.getBadgeCount());
+    }
+
+    @Test
+    public void testWithBadgeCount_shouldKeepNotifications() {
+        InboxNotificationList list = new InboxNotificationList(body);
+
+        InboxNotificationList result = list.withBadgeCount(0);
+
+        assertEquals(0, result.getBadgeCount());
+        assertEquals(list.toStatus(cache).getNotifications(), result.toStatus(cache).getNotifications());
+    }
+
+    @Test
+    public void testFirstPageBenchmark_2000Notifications() {
+        List<String> notifications = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            notifications.add(createNotificationString("id" + i, 10_000_000 + i));
+        }
+        String largeBody = createBody(notifications);
+
+        long memoryBefore = usedMemory();
+        long start = System.nanoTime();
+        NotificationInboxStatus fullStatus = InboxParseUtils.parseNotificationInboxStatus(largeBody);
+        long fullNanos = System.nanoTime() - start;
+        long fullMemory = usedMemory() - memoryBefore;
+
+        memoryBefore = usedMemory();
+        start = System.nanoTime();
+        InboxNotificationList list = new InboxNotificationList(largeBody);
+        NotificationInboxStatus firstPage = list.toPage(cache, 0, 20);
+        long pageNanos = System.nanoTime() - start;
+        long pageMemory = usedMemory() - memoryBefore;
+
+        Log.i(TAG, String.format("Full parse of 2000 notifications: %.3f ms, %d KB retained", fullNanos / 1_000_000.0, fullMemory / 1024));
+        Log.i(TAG, String.format("First page of 20 notifications: %.3f ms, %d KB retained", pageNanos / 1_000_000.0, pageMemory / 1024));
+
+        assertEquals(fullStatus.getNotifications().subList(0, 20), firstPage.getNotifications());
+        assertEquals(2000, list.size());
+        assertTrue(pageNanos < fullNanos);
+    }
+
+    private long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private void clearNotificationCache() throws Exception {
+        Map<String, Notification> internalCache = ReflectionTestUtils.getStaticField(NotificationCache.class, "internalCache");
+        internalCache.clear();
+    }
+
+    private static Notification createNotification(String id, long receivedAt) {
+        return new Notification(id, "sid", "title", null, new HashMap<String, String>(), new JSONObject(), Integer.MAX_VALUE, receivedAt);
+    }
+
+    private static String createNotificationString(String id, long receivedAt) {
+        return "{" +
+                "\"id\":\"" + id + "\", " +
+                "\"sid\":\"sid_" + id + "\", " +
+                "\"title\":\"title_" + id + "\", " +
+                "\"custom_data\": {" +
+                "\"data1\":\"dataValue1\"," +
+                "\"data2\":\"dataValue2\"" +
+                "}," +
+                "\"root_params\": {" +
+                "\"param1\":\"paramValue1\"," +
+                "\"param2\":\"paramValue2\"" +
+                "}," +
+                "\"expiration_time\": 300, " +
+                "\"received_at\":" + receivedAt +
+                "}";
+    }
+
+    private static String createBody(List<String> notifications) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < notifications.size(); i++) {
+            if (i > 0) {
+                builder.append(",");
+            }
+            builder.append(notifications.get(i));
+        }
+        return "{\"badge_count\": 300, \"notifications\": [" + builder.toString() + "]}";
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.emarsys.mobileengage.inbox.model;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+
+import com.emarsys.mobileengage.database.MobileEngageDbHelper;
+import com.emarsys.mobileengage.testUtil.DatabaseTestUtils;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class InboxCacheRepositoryTest {
+
+    private static final String ME_ID = "me_id";
+    private static final String BODY = "{\"notifications\":[],\"badge_count\":1}";
+
+    private InboxCacheRepository repository;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        DatabaseTestUtils.deleteMobileEngageDatabase();
+
+        Context context = InstrumentationRegistry.getContext();
+        repository = new InboxCacheRepository(new MobileEngageDbHelper(context));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_dbHelperMustNotBeNull() {
+        new InboxCacheRepository(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGet_meIdMustNotBeNull() {
+        repository.get(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPut_entryMustNotBeNull() {
+        repository.put(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRemove_meIdMustNotBeNull() {
+        repository.remove(null);
+    }
+
+    @Test
+    public void testGet_shouldReturnNull_whenNothingIsStored() {
+        assertNull(repository.get(ME_ID));
+    }
+
+    @Test
+    public void testGet_shouldReturnStoredEntry() {
+        InboxCacheEntry entry = new InboxCacheEntry(ME_ID, BODY, 100);
+
+        repository.put(entry);
+
+        assertEquals(entry, repository.get(ME_ID));
+    }
+
+    @Test
+    public void testGet_shouldReturnStoredEntry_withValidators() {
+        InboxCacheEntry entry = new InboxCacheEntry(ME_ID, BODY, 100, "\"etag\"", "Wed, 21 Oct 2015 07:28:00 GMT");
+
+        repository.put(entry);
+
+        assertEquals(entry, repository.get(ME_ID));
+    }
+
+    @Test
+    public void testGet_shouldOnlyReturnEntry_ofGivenMeId() {
+        repository.put(new InboxCacheEntry("other_me_id", BODY, 100));
+
+        assertNull(repository.get(ME_ID));
+    }
+
+    @Test
+    public void testPut_shouldReplaceEntry_ofSameMeId() {
+        InboxCacheEntry updated = new InboxCacheEntry(ME_ID, "{\"notifications\":[],\"badge_count\":2}", 200);
+
+        repository.put(new InboxCacheEntry(ME_ID, BODY, 100));
+        repository.put(updated);
+
+        assertEquals(updated, repository.get(ME_ID));
+    }
+
+    @Test
+    public void testRemove_shouldDeleteEntry() {
+        repository.put(new InboxCacheEntry(ME_ID, BODY, 100));
+
+        repository.remove(ME_ID);
+
+        assertNull(repository.get(ME_ID));
+    }
+
+}
@@ -2,6 +2,7 @@ package com.emarsys.mobileengage.inbox.model;
 
 import android.support.test.runner.AndroidJUnit4;
 
+import com.emarsys.core.timestamp.TimestampProvider;
 import com.emarsys.mobileengage.testUtil.TimeoutUtils;
 
 import junit.framework.Assert;
@@ -15,10 +16,13 @@ import org.junit.runner.RunWith;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @RunWith(AndroidJUnit4.class)
 public class NotificationCacheTest {
@@ -26,7 +30,10 @@ public class NotificationCacheTest {
     @Rule
     public TestRule timeout = TimeoutUtils.getTimeoutRule();
 
+    private static final long NOW = 10_000_000;
+
     private NotificationCache notificationCache;
+    private TimestampProvider timestampProvider;
 
     private Notification notification1;
     private Notification notification2;
@@ -36,7 +43,9 @@ public class NotificationCacheTest {
 
     @Before
     public void init() {
-        notificationCache = new NotificationCache();
+        timestampProvider = mock(TimestampProvider.class);
+        when(timestampProvider.provideTimestamp()).thenReturn(NOW);
+        notificationCache = new NotificationCache(timestampProvider);
         NotificationCache.internalCache.clear();
 
         notification1 = new Notification("id1", "sid1", "title1", null, new HashMap<String, String>(), new JSONObject(), 100, 10000000);
@@ -46,14 +55,20 @@ public class NotificationCacheTest {
         notification5 = new Notification("id5", "sid5", "title5", null, new HashMap<String, String>(), new JSONObject(), 500, 50000000);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_timestampProvider_mustNotBeNull() {
+        new NotificationCache(null);
+    }
+
     @Test
     public void testCache() {
         Notification notification = mock(Notification.class);
+        when(notification.getId()).thenReturn("id");
         notificationCache.cache(notification);
 
         Assert.assertFalse(NotificationCache.internalCache.isEmpty());
         Assert.assertEquals(1, NotificationCache.internalCache.size());
-        Assert.assertEquals(notification, NotificationCache.internalCache.get(0));
+        Assert.assertEquals(notification, notificationCache.getCachedNotifications().get(0));
     }
 
     @Test
@@ -63,8 +78,109 @@ public class NotificationCacheTest {
         notificationCache.cache(notification2);
 
         Assert.assertEquals(2, NotificationCache.internalCache.size());
-        Assert.assertEquals(notification2, NotificationCache.internalCache.get(0));
-        Assert.assertEquals(notification1, NotificationCache.internalCache.get(1));
+        Assert.assertEquals(notification2, notificationCache.getCachedNotifications().get(0));
+        Assert.assertEquals(notification1, notificationCache.getCachedNotifications().get(1));
+    }
+
+    @Test
+    public void testCache_shouldReplaceNotification_withSameId() {
+        Notification updated = new Notification("id1", "sid1", "updated", null, new HashMap<String, String>(), new JSONObject(), 100, 10000000);
+        notificationCache.cache(notification1);
+        notificationCache.cache(notification2);
+        notificationCache.cache(updated);
+
+        Assert.assertEquals(Arrays.asList(updated, notification2), notificationCache.getCachedNotifications());
+    }
+
+    @Test
+    public void testCache_shouldEvictOldest_whenCapacityIsExceeded() {
+        for (int i = 0; i <= NotificationCache.CAPACITY; i++) {
+            notificationCache.cache(new Notification("id" + i, "sid", "title", null, null, null, Integer.MAX_VALUE, NOW));
+        }
+
+        List<Notification> result = notificationCache.getCachedNotifications();
+        Assert.assertEquals(NotificationCache.CAPACITY, result.size());
+        Assert.assertEquals("id" + NotificationCache.CAPACITY, result.get(0).getId());
+        Assert.assertEquals("id1", result.get(result.size() - 1).getId());
+    }
+
+    @Test
+    public void testCache_shouldEvictExpiredFirst_whenCapacityIsExceeded() {
+        Notification expired = new Notification("expired", "sid", "title", null, null, null, 1, NOW - 2000);
+        notificationCache.cache(notification1);
+        notificationCache.cache(expired);
+        for (int i = 0; i < NotificationCache.CAPACITY - 1; i++) {
+            notificationCache.cache(new Notification("id" + i, "sid", "title", null, null, null, Integer.MAX_VALUE, NOW));
+        }
+
+        List<Notification> result = notificationCache.getCachedNotifications();
+        Assert.assertEquals(NotificationCache.CAPACITY, result.size());
+        Assert.assertFalse(result.contains(expired));
+        Assert.assertTrue(result.contains(notification1));
+    }
+
+    @Test
+    public void testMerge_shouldEvictExpiredNotifications() {
+        Notification expired = new Notification("expired", "sid", "title", null, null, null, 1, NOW - 1000);
+        notificationCache.cache(expired);
+        notificationCache.cache(notification1);
+
+        List<Notification> result = notificationCache.merge(new ArrayList<Notification>());
+
+        Assert.assertEquals(Collections.singletonList(notification1), result);
+        Assert.assertEquals(1, NotificationCache.internalCache.size());
+    }
+
+    @Test
+    public void testIsExpired() {
+        Assert.assertFalse(NotificationCache.isExpired(new Notification("id", "sid", "title", null, null, null, 10, NOW), NOW + 9999));
+        Assert.assertTrue(NotificationCache.isExpired(new Notification("id", "sid", "title", null, null, null, 10, NOW), NOW + 10000));
+    }
+
+    @Test
+    public void testIsExpired_withoutExpirationTime_shouldExpireAfterMaxAge() {
+        Notification notification = new Notification("id", "sid", "title", null, null, null, Integer.MAX_VALUE, NOW);
+
+        Assert.assertFalse(NotificationCache.isExpired(notification, NOW + NotificationCache.MAX_AGE_MILLIS - 1));
+        Assert.assertTrue(NotificationCache.isExpired(notification, NOW + NotificationCache.MAX_AGE_MILLIS));
+    }
+
+    @Test
+    public void testCache_shouldEvictExpiredPushNotificationsFirst_whenCapacityIsExceeded() {
+        Notification old = new Notification("old", "sid", "title", null, null, null, Integer.MAX_VALUE, NOW - NotificationCache.MAX_AGE_MILLIS);
+        notificationCache.cache(notification1);
+        notificationCache.cache(old);
+        for (int i = 0; i < NotificationCache.CAPACITY - 1; i++) {
+            notificationCache.cache(new Notification("id" + i, "sid", "title", null, null, null, Integer.MAX_VALUE, NOW));
+        }
+
+        List<Notification> result = notificationCache.getCachedNotifications();
+        Assert.assertEquals(NotificationCache.CAPACITY, result.size());
+        Assert.assertFalse(result.contains(old));
+        Assert.assertTrue(result.contains(notification1));
+    }
+
+    @Test
+    public void testCacheAndMerge_fromMultipleThreads() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t * 1000;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 500; i++) {
+                        notificationCache.cache(new Notification("id" + (offset + i), "sid", "title", null, null, null, Integer.MAX_VALUE, NOW));
+                        notificationCache.merge(Collections.singletonList(notification1));
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(NotificationCache.CAPACITY, notificationCache.getCachedNotifications().size());
     }
 
     @Test
@@ -137,7 +253,19 @@ public class NotificationCacheTest {
 
         notificationCache.merge(fetched);
 
-        Assert.assertEquals(expected, NotificationCache.internalCache);
+        Assert.assertEquals(expected, notificationCache.getCachedNotifications());
+    }
+
+    @Test
+    public void testRetainUnfetched_shouldRemoveFetchedIds_andReturnTheRest() {
+        notificationCache.cache(notification3);
+        notificationCache.cache(notification2);
+        notificationCache.cache(notification1);
+
+        List<Notification> result = notificationCache.retainUnfetched(new HashSet<>(Arrays.asList("id1", "id3")));
+
+        Assert.assertEquals(Collections.singletonList(notification2), result);
+        Assert.assertEquals(1, NotificationCache.internalCache.size());
     }
 
     @Test
@@ -152,7 +280,7 @@ public class NotificationCacheTest {
 
         List<Notification> expected = new ArrayList<>(Arrays.asList(notification1, notification2, notification3));
 
-        Assert.assertEquals(expected, NotificationCache.internalCache);
+        Assert.assertEquals(expected, notificationCache.getCachedNotifications());
     }
 
     @Test
@@ -171,7 +299,7 @@ public class NotificationCacheTest {
         Notification expected = notification2;
 
         Assert.assertEquals(1, NotificationCache.internalCache.size());
-        Assert.assertEquals(expected, NotificationCache.internalCache.get(0));
+        Assert.assertEquals(expected, notificationCache.getCachedNotifications().get(0));
     }
 
     @Test
@@ -186,6 +314,6 @@ public class NotificationCacheTest {
 
         List<Notification> expected = new ArrayList<>(Arrays.asList(notification1, notification2, notification3));
 
-        Assert.assertEquals(expected, NotificationCache.internalCache);
+        Assert.assertEquals(expected, notificationCache.getCachedNotifications());
     }
 }
\ No newline at end of file
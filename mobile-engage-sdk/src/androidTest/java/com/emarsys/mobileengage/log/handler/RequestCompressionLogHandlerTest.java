@@ -0,0 +1,61 @@
+package com.emarsys.mobileengage.log.handler;
+
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class RequestCompressionLogHandlerTest {
+
+    private RequestCompressionLogHandler handler;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        handler = new RequestCompressionLogHandler();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHandle_itemMustNotBeNull() {
+        handler.handle(null);
+    }
+
+    @Test
+    public void testHandle_shouldReturnCompressionMetric() {
+        Map<String, Object> metric = new HashMap<>();
+        metric.put("request_id", "id");
+        metric.put("url", "https://mobile-events.eservice.emarsys.net/v3/devices/12345/events");
+        metric.put("uncompressed_size", 5000);
+        metric.put("compressed_size", 700);
+
+        assertEquals(metric, handler.handle(metric));
+    }
+
+    @Test
+    public void testHandle_shouldIgnoreOtherMetrics() {
+        Map<String, Object> metric = new HashMap<>();
+        metric.put("request_id", "id");
+        metric.put("loading_time", 200);
+
+        assertNull(handler.handle(metric));
+    }
+
+    @Test
+    public void testHandle_shouldIgnoreIncompleteMetric() {
+        Map<String, Object> metric = new HashMap<>();
+        metric.put("request_id", "id");
+        metric.put("uncompressed_size", 5000);
+
+        assertNull(handler.handle(metric));
+    }
+}
@@ -2,8 +2,10 @@ package com.emarsys.mobileengage.responsehandler;
 
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.response.ResponseModel;
+import com.emarsys.mobileengage.RequestContext;
 import com.emarsys.mobileengage.storage.MeIdSignatureStorage;
 import com.emarsys.mobileengage.storage.MeIdStorage;
+import com.emarsys.mobileengage.storage.StorageEditor;
 import com.emarsys.mobileengage.testUtil.TimeoutUtils;
 
 import junit.framework.Assert;
@@ -12,9 +14,12 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestRule;
+import org.mockito.ArgumentCaptor;
 
 import static junit.framework.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class MeIdResponseHandlerTest {
@@ -24,6 +29,7 @@ public class MeIdResponseHandlerTest {
     private MeIdResponseHandler handler;
     private MeIdStorage meIdStorage;
     private MeIdSignatureStorage meIdSignatureStorage;
+    private RequestContext requestContext;
 
     @Rule
     public TestRule timeout = TimeoutUtils.getTimeoutRule();
@@ -35,7 +41,8 @@ public class MeIdResponseHandlerTest {
         meIdSignature = "d5be8583137bd5be8593137b";
         meIdStorage = mock(MeIdStorage.class);
         meIdSignatureStorage = mock(MeIdSignatureStorage.class);
-        handler = new MeIdResponseHandler(meIdStorage, meIdSignatureStorage);
+        requestContext = mock(RequestContext.class);
+        handler = new MeIdResponseHandler(meIdStorage, meIdSignatureStorage, requestContext);
 
         responseModelWithMeIdAndSignature = new ResponseModel.Builder()
                 .statusCode(200)
@@ -49,20 +56,26 @@ public class MeIdResponseHandlerTest {
     public void testConstructor_initializesFields() {
         meIdStorage = mock(MeIdStorage.class);
         meIdSignatureStorage = mock(MeIdSignatureStorage.class);
-        handler = new MeIdResponseHandler(meIdStorage, meIdSignatureStorage);
+        handler = new MeIdResponseHandler(meIdStorage, meIdSignatureStorage, requestContext);
 
         assertEquals(meIdStorage, handler.meIdStorage);
         assertEquals(meIdSignatureStorage, handler.meIdSignatureStorage);
+        assertEquals(requestContext, handler.requestContext);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_meIdStorage_mustNotBeNull() {
-        new MeIdResponseHandler(null, meIdSignatureStorage);
+        new MeIdResponseHandler(null, meIdSignatureStorage, requestContext);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_meIdSignatureStorage_mustNotBeNull() {
-        new MeIdResponseHandler(meIdStorage, null);
+        new MeIdResponseHandler(meIdStorage, null, requestContext);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_requestContext_mustNotBeNull() {
+        new MeIdResponseHandler(meIdStorage, meIdSignatureStorage, null);
     }
 
     @Test
@@ -104,6 +117,7 @@ public class MeIdResponseHandlerTest {
     public void testHandleResponse_shouldStoreMeId() {
         handler.handleResponse(responseModelWithMeIdAndSignature);
 
+        applySessionUpdate();
         verify(meIdStorage).set(meId);
     }
 
@@ -111,7 +125,21 @@ public class MeIdResponseHandlerTest {
     public void testHandleResponse_shouldStoreMeIdSignature() {
         handler.handleResponse(responseModelWithMeIdAndSignature);
 
+        applySessionUpdate();
         verify(meIdSignatureStorage).set(meIdSignature);
     }
 
+    @Test
+    public void testHandleResponse_shouldUpdateSession_once() {
+        handler.handleResponse(responseModelWithMeIdAndSignature);
+
+        verify(requestContext, times(1)).updateSession(any(StorageEditor.class));
+    }
+
+    private void applySessionUpdate() {
+        ArgumentCaptor<StorageEditor> captor = ArgumentCaptor.forClass(StorageEditor.class);
+        verify(requestContext).updateSession(captor.capture());
+        captor.getValue().apply();
+    }
+
 }
\ No newline at end of file
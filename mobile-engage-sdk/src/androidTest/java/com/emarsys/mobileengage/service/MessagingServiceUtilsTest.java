@@ -39,7 +39,6 @@ import org.junit.runner.RunWith;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import static android.os.Build.VERSION_CODES.KITKAT;
@@ -71,7 +70,7 @@ public class MessagingServiceUtilsTest {
     private static final String CHANNEL_ID = "channelId";
 
     private Context context;
-    private List<Notification> notificationCache;
+    private Map<String, Notification> notificationCache;
     private OreoConfig enabledOreoConfig;
     private OreoConfig disabledOreoConfig;
     private MetaDataReader metaDataReader;
@@ -86,7 +85,7 @@ public class MessagingServiceUtilsTest {
 
         Field cacheField = NotificationCache.class.getDeclaredField("internalCache");
         cacheField.setAccessible(true);
-        notificationCache = (List) cacheField.get(null);
+        notificationCache = (Map) cacheField.get(null);
         notificationCache.clear();
 
         metaDataReader = mock(MetaDataReader.class);
@@ -643,7 +642,7 @@ public class MessagingServiceUtilsTest {
 
         assertEquals(1, notificationCache.size());
 
-        Notification result = notificationCache.get(0);
+        Notification result = notificationCache.values().iterator().next();
 
         assertEquals("21022.150123121212.43223434c3b9", result.getId());
         assertEquals("sid_here", result.getSid());
@@ -0,0 +1,64 @@
+package com.emarsys.mobileengage.startup;
+
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class StartupReportTest {
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_spansMustNotBeNull() {
+        new StartupReport(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_spanElementsMustNotBeNull() {
+        new StartupReport(Arrays.asList(new StartupSpan("name", "main", 0, 1, 1), null));
+    }
+
+    @Test
+    public void testGetSpan_shouldReturnFirstSpan_withName() {
+        StartupSpan first = new StartupSpan("name", "main", 0, 1, 1);
+        StartupSpan second = new StartupSpan("name", "main", 10, 2, 2);
+
+        StartupReport report = new StartupReport(Arrays.asList(first, second));
+
+        assertEquals(first, report.getSpan("name"));
+    }
+
+    @Test
+    public void testGetSpan_shouldReturnNull_whenMissing() {
+        StartupReport report = new StartupReport(new ArrayList<StartupSpan>());
+
+        assertNull(report.getSpan("name"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetSpans_shouldBeUnmodifiable() {
+        StartupReport report = new StartupReport(new ArrayList<StartupSpan>());
+
+        report.getSpans().add(new StartupSpan("name", "main", 0, 1, 1));
+    }
+
+    @Test
+    public void testConstructor_shouldCopySpans() {
+        List<StartupSpan> spans = new ArrayList<>();
+        StartupReport report = new StartupReport(spans);
+
+        spans.add(new StartupSpan("name", "main", 0, 1, 1));
+
+        assertEquals(0, report.getSpans().size());
+    }
+}
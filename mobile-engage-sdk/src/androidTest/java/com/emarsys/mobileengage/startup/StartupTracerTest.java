@@ -0,0 +1,111 @@
+package com.emarsys.mobileengage.startup;
+
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class StartupTracerTest {
+
+    private StartupTracer tracer;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        tracer = new StartupTracer();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBeginSection_nameMustNotBeNull() {
+        tracer.beginSection(null);
+    }
+
+    @Test
+    public void testGetReport_shouldBeEmpty_withoutSections() {
+        assertEquals(Collections.emptyList(), tracer.getReport().getSpans());
+    }
+
+    @Test
+    public void testGetReport_shouldNotContainSection_beforeItEnds() {
+        tracer.beginSection("section");
+
+        assertEquals(Collections.emptyList(), tracer.getReport().getSpans());
+    }
+
+    @Test
+    public void testEnd_shouldRecordSpan() throws InterruptedException {
+        StartupTracer.Section section = tracer.beginSection("section");
+        Thread.sleep(5);
+        section.end();
+
+        StartupSpan span = tracer.getReport().getSpan("section");
+        assertNotNull(span);
+        assertEquals(Thread.currentThread().getName(), span.getThreadName());
+        assertTrue(span.getStartOffsetNanos() >= 0);
+        assertTrue(span.getWallTimeNanos() >= 5_000_000);
+        assertTrue(span.getThreadCpuTimeNanos() < span.getWallTimeNanos());
+    }
+
+    @Test
+    public void testEnd_shouldRecordSpans_inOrderOfCompletion() {
+        StartupTracer.Section outer = tracer.beginSection("outer");
+        StartupTracer.Section inner = tracer.beginSection("inner");
+        inner.end();
+        outer.end();
+
+        List<StartupSpan> spans = tracer.getReport().getSpans();
+        assertEquals(Arrays.asList("inner", "outer"), Arrays.asList(spans.get(0).getName(), spans.get(1).getName()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEnd_shouldThrowException_whenCalledTwice() {
+        StartupTracer.Section section = tracer.beginSection("section");
+        section.end();
+        section.end();
+    }
+
+    @Test
+    public void testEnd_shouldThrowException_onOtherThread() throws InterruptedException {
+        final StartupTracer.Section section = tracer.beginSection("section");
+        final Exception[] thrown = new Exception[1];
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    section.end();
+                } catch (IllegalStateException e) {
+                    thrown[0] = e;
+                }
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertNotNull(thrown[0]);
+        section.end();
+    }
+
+    @Test
+    public void testGetReport_shouldReturnSnapshot() {
+        tracer.beginSection("first").end();
+        StartupReport report = tracer.getReport();
+
+        tracer.beginSection("second").end();
+
+        assertEquals(1, report.getSpans().size());
+        assertEquals(2, tracer.getReport().getSpans().size());
+    }
+}
@@ -0,0 +1,57 @@
+package com.emarsys.mobileengage.storage;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LastMobileActivityStorageTest {
+    private LastMobileActivityStorage storage;
+    private Context context;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        context = InstrumentationRegistry.getTargetContext().getApplicationContext();
+        storage = new LastMobileActivityStorage(context);
+        storage.remove();
+    }
+
+    @Test
+    public void testGet_shouldReturnNull_ifTheStorageIsEmpty() {
+        assertNull(storage.get());
+    }
+
+    @Test
+    public void testSet() {
+        storage.set(1_500_000_000_000L);
+        assertEquals((Long) 1_500_000_000_000L, storage.get());
+    }
+
+    @Test
+    public void testRemove_shouldRemoveTimestamp() {
+        storage.set(42L);
+        storage.remove();
+
+        assertNull(storage.get());
+    }
+
+    @Test
+    public void testSet_shouldPreserveValues() {
+        storage.set(42L);
+        storage = new LastMobileActivityStorage(context);
+
+        assertEquals((Long) 42L, storage.get());
+    }
+
+}
@@ -54,4 +54,12 @@ public class MeIdStorageTest {
         assertEquals("12345", storage.get());
     }
 
+    @Test
+    public void flush_shouldPersistMeId() {
+        storage.set("12345");
+        storage.flush();
+
+        assertEquals("12345", context.getSharedPreferences(Storage.SHARED_PREFERENCES_NAMESPACE, Context.MODE_PRIVATE).getString(MeIdStorage.ME_ID_KEY, null));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,193 @@
+package com.emarsys.mobileengage.storage;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.support.test.InstrumentationRegistry;
+
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+public class SharedPreferencesMirrorTest {
+
+    private static final String PREFERENCES_NAME = "ems_me_sdk_mirror_test";
+
+    private SharedPreferences sharedPreferences;
+    private SharedPreferencesMirror mirror;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        sharedPreferences = InstrumentationRegistry.getTargetContext().getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+        sharedPreferences.edit().clear().commit();
+        mirror = new SharedPreferencesMirror(sharedPreferences);
+    }
+
+    @After
+    public void tearDown() {
+        sharedPreferences.edit().clear().commit();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOf_sharedPreferences_mustNotBeNull() {
+        SharedPreferencesMirror.of(null);
+    }
+
+    @Test
+    public void testOf_shouldReturnSameMirror_forSameSharedPreferences() {
+        assertSame(SharedPreferencesMirror.of(sharedPreferences), SharedPreferencesMirror.of(sharedPreferences));
+    }
+
+    @Test
+    public void testGet_shouldLoadPersistedValues() {
+        sharedPreferences.edit().putString("key", "value").commit();
+
+        assertEquals("value", new SharedPreferencesMirror(sharedPreferences).get("key"));
+    }
+
+    @Test
+    public void testApply_shouldBeVisibleImmediately() {
+        mirror.edit().put("string", "value").put("int", 1).put("long", 2L).put("boolean", true).put("float", 3f).apply();
+
+        assertEquals("value", mirror.get("string"));
+        assertEquals(1, mirror.get("int"));
+        assertEquals(2L, mirror.get("long"));
+        assertEquals(true, mirror.get("boolean"));
+        assertEquals(3f, mirror.get("float"));
+    }
+
+    @Test
+    public void testApply_shouldRemoveKeys() {
+        mirror.edit().put("key1", "value1").put("key2", "value2").apply();
+
+        mirror.edit().remove("key1").put("key2", null).apply();
+
+        assertNull(mirror.get("key1"));
+        assertNull(mirror.get("key2"));
+        assertFalse(sharedPreferences.contains("key1"));
+        assertFalse(sharedPreferences.contains("key2"));
+    }
+
+    @Test
+    public void testApply_clear_shouldKeepPutsOfSameEdit() {
+        mirror.edit().put("key1", "value1").apply();
+
+        mirror.edit().clear().put("key2", "value2").apply();
+
+        assertNull(mirror.get("key1"));
+        assertEquals("value2", mirror.get("key2"));
+    }
+
+    @Test
+    public void testApply_shouldReplaceSnapshot_atomically() {
+        mirror.edit().put("key1", "old").put("key2", "old").apply();
+        Map<String, ?> before = mirror.getAll();
+
+        mirror.edit().put("key1", "new").put("key2", "new").apply();
+        Map<String, ?> after = mirror.getAll();
+
+        assertEquals("old", before.get("key1"));
+        assertEquals("old", before.get("key2"));
+        assertEquals("new", after.get("key1"));
+        assertEquals("new", after.get("key2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPut_shouldThrowException_onUnsupportedType() {
+        mirror.edit().put("key", new ArrayList<String>());
+    }
+
+    @Test
+    public void testGetVersion_shouldChange_onEveryApply() {
+        long initial = mirror.getVersion();
+
+        mirror.edit().put("key", "value").apply();
+        long afterPut = mirror.getVersion();
+        mirror.edit().put("key", "value").apply();
+
+        assertFalse(initial == afterPut);
+        assertFalse(afterPut == mirror.getVersion());
+    }
+
+    @Test
+    public void testGetVersion_shouldNotChange_onFlush() {
+        mirror.edit().put("key", "value").apply();
+        long version = mirror.getVersion();
+
+        mirror.flush();
+
+        assertEquals(version, mirror.getVersion());
+    }
+
+    @Test
+    public void testFlush_shouldPersistAppliedValues() {
+        mirror.edit().put("key", "value").apply();
+
+        mirror.flush();
+
+        assertTrue(sharedPreferences.contains("key"));
+        assertEquals("value", sharedPreferences.getString("key", null));
+    }
+
+    @Test
+    public void testFlush_shouldWriteAppliedValues_toPreferencesFile() throws IOException {
+        mirror.edit().put("key", "value").put("removed", "value").apply();
+        mirror.edit().remove("removed").put("count", 2).apply();
+
+        mirror.flush();
+
+        String persisted = readPreferencesFile();
+        assertTrue(persisted.contains("<string name=\"key\">value</string>"));
+        assertTrue(persisted.contains("<int name=\"count\" value=\"2\" />"));
+        assertFalse(persisted.contains("removed"));
+    }
+
+    @Test
+    public void testFlush_shouldWriteClear_toPreferencesFile() throws IOException {
+        mirror.edit().put("key", "value").apply();
+        mirror.flush();
+
+        mirror.edit().clear().put("other", "value").apply();
+        mirror.flush();
+
+        String persisted = readPreferencesFile();
+        assertFalse(persisted.contains("\"key\""));
+        assertTrue(persisted.contains("<string name=\"other\">value</string>"));
+    }
+
+    private String readPreferencesFile() throws IOException {
+        Context context = InstrumentationRegistry.getTargetContext();
+        File file = new File(context.getApplicationInfo().dataDir, "shared_prefs/" + PREFERENCES_NAME + ".xml");
+        StringBuilder result = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                result.append(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return result.toString();
+    }
+
+}
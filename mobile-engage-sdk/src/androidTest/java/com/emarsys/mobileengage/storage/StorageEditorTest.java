@@ -0,0 +1,106 @@
+package com.emarsys.mobileengage.storage;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+
+import com.emarsys.mobileengage.testUtil.SharedPrefsUtils;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class StorageEditorTest {
+
+    private Context context;
+    private MeIdStorage meIdStorage;
+    private MeIdSignatureStorage meIdSignatureStorage;
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Before
+    public void init() {
+        SharedPrefsUtils.deleteMobileEngageSharedPrefs();
+        context = InstrumentationRegistry.getTargetContext().getApplicationContext();
+        meIdStorage = new MeIdStorage(context);
+        meIdSignatureStorage = new MeIdSignatureStorage(context);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSet_storage_mustNotBeNull() {
+        new StorageEditor().set(null, "value");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRemove_storage_mustNotBeNull() {
+        new StorageEditor().remove(null);
+    }
+
+    @Test
+    public void testApply_shouldNotChangeStorages_beforeApply() {
+        new StorageEditor()
+                .set(meIdStorage, "meId")
+                .set(meIdSignatureStorage, "signature");
+
+        assertNull(meIdStorage.get());
+        assertNull(meIdSignatureStorage.get());
+    }
+
+    @Test
+    public void testApply_shouldUpdateAllStorages() {
+        new StorageEditor()
+                .set(meIdStorage, "meId")
+                .set(meIdSignatureStorage, "signature")
+                .apply();
+
+        assertEquals("meId", new MeIdStorage(context).get());
+        assertEquals("signature", new MeIdSignatureStorage(context).get());
+    }
+
+    @Test
+    public void testApply_shouldUpdateStorages_inOneEdit() {
+        SharedPreferencesMirror mirror = meIdStorage.getMirror();
+        new StorageEditor()
+                .set(meIdStorage, "meId")
+                .set(meIdSignatureStorage, "signature")
+                .apply();
+
+        assertEquals("meId", mirror.getAll().get(MeIdStorage.ME_ID_KEY));
+        assertEquals("signature", mirror.getAll().get(MeIdSignatureStorage.ME_ID_SIGNATURE_KEY));
+    }
+
+    @Test
+    public void testApply_shouldRemoveStorages() {
+        AppLoginStorage appLoginStorage = new AppLoginStorage(context);
+        meIdStorage.set("meId");
+        appLoginStorage.set(42);
+
+        new StorageEditor()
+                .remove(meIdStorage)
+                .remove(appLoginStorage)
+                .apply();
+
+        assertNull(meIdStorage.get());
+        assertNull(appLoginStorage.get());
+    }
+
+    @Test
+    public void testApply_shouldDelegate_toStoragesWithoutMirror() {
+        MeIdStorage mockStorage = mock(MeIdStorage.class);
+        StorageEditor editor = new StorageEditor().set(mockStorage, "meId");
+
+        verifyZeroInteractions(mockStorage);
+        editor.apply();
+
+        verify(mockStorage).set("meId");
+    }
+
+}
@@ -3,6 +3,7 @@ package com.emarsys.mobileengage.testUtil;
 import android.content.Context;
 import android.support.test.InstrumentationRegistry;
 
+import com.emarsys.mobileengage.storage.SharedPreferencesMirror;
 import com.emarsys.mobileengage.storage.Storage;
 
 public class SharedPrefsUtils {
@@ -12,12 +13,11 @@ public class SharedPrefsUtils {
     }
 
     public static void deleteMobileEngageSharedPrefs() {
-        InstrumentationRegistry
+        SharedPreferencesMirror mirror = SharedPreferencesMirror.of(InstrumentationRegistry
                 .getTargetContext()
-                .getSharedPreferences(MOBILE_ENGAGE_SHARED_PREFS, Context.MODE_PRIVATE)
-                .edit()
-                .clear()
-                .commit();
+                .getSharedPreferences(MOBILE_ENGAGE_SHARED_PREFS, Context.MODE_PRIVATE));
+        mirror.edit().clear().apply();
+        mirror.flush();
     }
 
 }
@@ -70,7 +70,12 @@ public class RequestHeaderUtilsTest {
 
     @Test(expected = IllegalArgumentException.class)
     public void testCreateBaseHeaders_V2_configShouldNotBeNull() {
-        RequestHeaderUtils.createBaseHeaders_V2(null);
+        RequestHeaderUtils.createBaseHeaders_V2((MobileEngageConfig) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateBaseHeaders_V2_requestContextShouldNotBeNull() {
+        RequestHeaderUtils.createBaseHeaders_V2((RequestContext) null);
     }
 
     @Test
@@ -83,6 +88,24 @@ public class RequestHeaderUtilsTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    public void testCreateBaseHeaders_V2_withRequestContext_shouldReturnMutableCopyOfTemplate() {
+        RequestContext requestContext = new RequestContext(
+                realConfig,
+                mock(DeviceInfo.class),
+                mock(AppLoginStorage.class),
+                mock(MeIdStorage.class),
+                mock(MeIdSignatureStorage.class),
+                mock(TimestampProvider.class),
+                mock(RequestIdProvider.class));
+
+        Map<String, String> result = RequestHeaderUtils.createBaseHeaders_V2(requestContext);
+        result.put("key", "value");
+
+        assertEquals(RequestHeaderUtils.createBaseHeaders_V2(realConfig), requestContext.getBaseHeaders_V2());
+        assertEquals("value", result.get("key"));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testCreateBaseHeaders_V3_requestContextShouldNotBeNull() {
         RequestHeaderUtils.createBaseHeaders_V3(null);
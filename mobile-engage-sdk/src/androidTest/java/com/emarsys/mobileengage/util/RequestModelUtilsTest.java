@@ -261,4 +261,58 @@ public class RequestModelUtilsTest {
 
         assertEquals(expected, actual);
     }
-}
\ No newline at end of file
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateCustomEvent_V3_eventNameShouldNotBeNull() {
+        RequestModelUtils.createCustomEvent_V3(
+                null,
+                null,
+                0,
+                "requestId",
+                requestContext
+        );
+    }
+
+    @Test
+    public void testCreateCustomEvent_V3_usesGivenTimestampAndRequestId() {
+        long eventTimestamp = 80_000;
+        long timestamp = 90_000;
+        when(requestContext.getTimestampProvider().provideTimestamp()).thenReturn(timestamp);
+        String eventName = "name";
+        String meId = "12345";
+        when(requestContext.getMeIdStorage().get()).thenReturn(meId);
+        when(requestContext.getMeIdSignatureStorage().get()).thenReturn("12345");
+
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("key1", "value1");
+
+        Map<String, Object> event = new HashMap<>();
+        event.put("type", "custom");
+        event.put("name", eventName);
+        event.put("timestamp", TimestampUtils.formatTimestampWithUTC(eventTimestamp));
+        event.put("attributes", attributes);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("clicks", new ArrayList<>());
+        payload.put("viewed_messages", new ArrayList<>());
+        payload.put("events", Collections.singletonList(event));
+
+        RequestModel expected = new RequestModel(
+                RequestUrlUtils.createEventUrl_V3(meId),
+                RequestMethod.POST,
+                payload,
+                RequestHeaderUtils.createBaseHeaders_V3(requestContext),
+                timestamp,
+                Long.MAX_VALUE,
+                "requestId");
+
+        RequestModel actual = RequestModelUtils.createCustomEvent_V3(
+                eventName,
+                attributes,
+                eventTimestamp,
+                "requestId",
+                requestContext);
+
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,130 @@
+package com.emarsys.mobileengage.util;
+
+import android.util.Log;
+
+import com.emarsys.core.util.TimestampUtils;
+import com.emarsys.mobileengage.testUtil.TimeoutUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TimestampFormatUtilsTest {
+
+    private static final String TAG = "TimestampBenchmark";
+
+    @Rule
+    public TestRule timeout = TimeoutUtils.getTimeoutRule();
+
+    @Test
+    public void testFormatTimestampWithUTC_epoch() {
+        assertEquals("1970-01-01T00:00:00.000Z", TimestampFormatUtils.formatTimestampWithUTC(0));
+    }
+
+    @Test
+    public void testFormatTimestampWithUTC_matchesTimestampUtils_onBoundaries() {
+        long[] timestamps = {
+                1,
+                999,
+                1000,
+                86_399_999L,
+                86_400_000L,
+                946_684_799_999L,
+                946_684_800_000L,
+                951_782_400_000L,
+                1_456_704_000_000L,
+                1_483_228_799_999L,
+                4_102_444_800_000L,
+                253_402_300_799_999L
+        };
+
+        for (long timestamp : timestamps) {
+            assertEquals(TimestampUtils.formatTimestampWithUTC(timestamp), TimestampFormatUtils.formatTimestampWithUTC(timestamp));
+        }
+    }
+
+    @Test
+    public void testFormatTimestampWithUTC_matchesTimestampUtils_forRandomTimestamps() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long timestamp = (long) (random.nextDouble() * 4_102_444_800_000L);
+            assertEquals(TimestampUtils.formatTimestampWithUTC(timestamp), TimestampFormatUtils.formatTimestampWithUTC(timestamp));
+        }
+    }
+
+    @Test
+    public void testFormatTimestampWithUTC_fallsBackToTimestampUtils_outsideSupportedRange() {
+        assertEquals(TimestampUtils.formatTimestampWithUTC(-1), TimestampFormatUtils.formatTimestampWithUTC(-1));
+        assertEquals(TimestampUtils.formatTimestampWithUTC(253_402_300_800_000L), TimestampFormatUtils.formatTimestampWithUTC(253_402_300_800_000L));
+    }
+
+    @Test
+    public void testFormatTimestampWithUTC_isThreadSafe() throws InterruptedException {
+        final int threadCount = 8;
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        final AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < threadCount; t++) {
+            final long offset = t * 1_000_000_000L;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 2_000; i++) {
+                        long timestamp = 1_500_000_000_000L + offset + i * 777L;
+                        String expected = TimestampUtils.formatTimestampWithUTC(timestamp);
+                        String result = TimestampFormatUtils.formatTimestampWithUTC(timestamp);
+                        if (!expected.equals(result)) {
+                            failure.compareAndSet(null, expected + " != " + result);
+                        }
+                    }
+                    latch.countDown();
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        latch.await();
+
+        assertNull(failure.get());
+    }
+
+    @Test
+    public void testFormatTimestampWithUTC_benchmark() {
+        int iterations = 10_000;
+        long base = 1_500_000_000_000L;
+        for (int i = 0; i < iterations; i++) {
+            TimestampUtils.formatTimestampWithUTC(base + i);
+            TimestampFormatUtils.formatTimestampWithUTC(base + i);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            TimestampUtils.formatTimestampWithUTC(base + i);
+        }
+        long coreNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            TimestampFormatUtils.formatTimestampWithUTC(base + i);
+        }
+        long formatterNanos = System.nanoTime() - start;
+
+        Log.i(TAG, String.format("TimestampUtils.formatTimestampWithUTC: %.3f us per timestamp", coreNanos / 1000.0 / iterations));
+        Log.i(TAG, String.format("TimestampFormatUtils.formatTimestampWithUTC: %.3f us per timestamp", formatterNanos / 1000.0 / iterations));
+        assertTrue(formatterNanos < coreNanos);
+    }
+}
+
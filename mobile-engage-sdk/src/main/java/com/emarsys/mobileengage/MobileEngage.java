@@ -15,6 +15,7 @@ import com.emarsys.mobileengage.deeplink.DeepLinkInternal;
 import com.emarsys.mobileengage.di.DefaultDependencyContainer;
 import com.emarsys.mobileengage.di.DependencyContainer;
 import com.emarsys.mobileengage.di.DependencyInjection;
+import com.emarsys.mobileengage.event.Event;
 import com.emarsys.mobileengage.event.applogin.AppLoginParameters;
 import com.emarsys.mobileengage.experimental.FlipperFeature;
 import com.emarsys.mobileengage.experimental.MobileEngageExperimental;
@@ -23,26 +24,39 @@ import com.emarsys.mobileengage.inbox.InboxResultListener;
 import com.emarsys.mobileengage.inbox.ResetBadgeCountResultListener;
 import com.emarsys.mobileengage.inbox.model.Notification;
 import com.emarsys.mobileengage.inbox.model.NotificationInboxStatus;
+import com.emarsys.mobileengage.startup.StartupReport;
+import com.emarsys.mobileengage.startup.StartupTracer;
 import com.emarsys.mobileengage.util.log.MobileEngageTopic;
 
+import java.util.List;
 import java.util.Map;
 
 public class MobileEngage {
 
-    static MobileEngageInternal instance;
-    static InboxInternal inboxInstance;
-    static DeepLinkInternal deepLinkInstance;
+    static volatile MobileEngageInternal instance;
+    static volatile InboxInternal inboxInstance;
+    static volatile DeepLinkInternal deepLinkInstance;
     static MobileEngageCoreCompletionHandler completionHandler;
     static Handler coreSdkHandler;
     static MobileEngageConfig config;
-    static RequestContext requestContext;
+    static volatile RequestContext requestContext;
     private static DependencyContainer container;
 
     public static class Inbox {
 
         public static void fetchNotifications(@NonNull InboxResultListener<NotificationInboxStatus> resultListener) {
             Assert.notNull(resultListener, "ResultListener must not be null!");
-            inboxInstance.fetchNotifications(resultListener);
+            getInboxInstance().fetchNotifications(resultListener);
+        }
+
+        public static void fetchNotifications(int offset, int limit, @NonNull InboxResultListener<NotificationInboxStatus> resultListener) {
+            Assert.notNull(resultListener, "ResultListener must not be null!");
+            getInboxInstance().fetchNotifications(offset, limit, resultListener);
+        }
+
+        public static void fetchNotificationsSince(long receivedAt, @NonNull InboxResultListener<NotificationInboxStatus> resultListener) {
+            Assert.notNull(resultListener, "ResultListener must not be null!");
+            getInboxInstance().fetchNotificationsSince(receivedAt, resultListener);
         }
 
         public static void resetBadgeCount() {
@@ -50,15 +64,15 @@ public class MobileEngage {
         }
 
         public static void resetBadgeCount(@Nullable ResetBadgeCountResultListener resultListener) {
-            inboxInstance.resetBadgeCount(resultListener);
+            getInboxInstance().resetBadgeCount(resultListener);
         }
 
         public static String trackMessageOpen(Notification message) {
-            return inboxInstance.trackMessageOpen(message);
+            return getInboxInstance().trackMessageOpen(message);
         }
 
         public static void purgeNotificationCache() {
-            inboxInstance.purgeNotificationCache();
+            getInboxInstance().purgeNotificationCache();
         }
 
     }
@@ -88,16 +102,27 @@ public class MobileEngage {
         MobileEngage.config = config;
         Application application = config.getApplication();
 
-        DependencyInjection.setup(new DefaultDependencyContainer(config));
-        container = DependencyInjection.getContainer();
+        StartupTracer startupTracer = new StartupTracer();
+        StartupTracer.Section section = startupTracer.beginSection("setup");
+        try {
+            DependencyInjection.setup(new DefaultDependencyContainer(config, startupTracer));
+            container = DependencyInjection.getContainer();
+
+            initializeFields();
 
-        initializeFields();
+            initializeInApp();
 
-        initializeInApp();
+            registerWatchdogs(application, startupTracer);
 
-        registerWatchdogs(application);
+            MobileEngageUtils.setup(config);
+        } finally {
+            section.end();
+        }
+    }
 
-        MobileEngageUtils.setup(config);
+    @NonNull
+    public static StartupReport getStartupReport() {
+        return DependencyInjection.getContainer().getStartupTracer().getReport();
     }
 
     @NonNull
@@ -106,7 +131,7 @@ public class MobileEngage {
     }
 
     public static void setPushToken(@NonNull String pushToken) {
-        instance.setPushToken(pushToken);
+        getInstance().setPushToken(pushToken);
     }
 
     public static void setStatusListener(@NonNull MobileEngageStatusListener listener) {
@@ -115,45 +140,88 @@ public class MobileEngage {
 
     @NonNull
     public static String appLogin() {
-        return instance.appLogin();
+        return getInstance().appLogin();
     }
 
     @NonNull
     public static String appLogin(int contactFieldId, @NonNull String contactFieldValue) {
         Assert.notNull(contactFieldValue, "ContactFieldValue must not be null!");
-        return instance.appLogin(contactFieldId, contactFieldValue);
+        return getInstance().appLogin(contactFieldId, contactFieldValue);
     }
 
     @NonNull
     public static String appLogout() {
-        return instance.appLogout();
+        return getInstance().appLogout();
     }
 
     @NonNull
     public static String trackCustomEvent(@NonNull String eventName, @Nullable Map<String, String> eventAttributes) {
         Assert.notNull(eventName, "EventName must not be null!");
-        return instance.trackCustomEvent(eventName, eventAttributes);
+        return getInstance().trackCustomEvent(eventName, eventAttributes);
+    }
+
+    /**
+     * Returns one request id for the whole list. With in-app messaging enabled the events are
+     * sent in a single request; otherwise each event is sent in its own request and only the
+     * id of the last one is returned.
+     */
+    @NonNull
+    public static String trackCustomEvents(@NonNull List<Event> events) {
+        Assert.notNull(events, "Events must not be null!");
+        Assert.elementsNotNull(events, "Event elements must not be null!");
+        if (events.isEmpty()) {
+            throw new IllegalArgumentException("Events must not be empty!");
+        }
+        return getInstance().trackCustomEvents(events);
     }
 
     @NonNull
     public static String trackMessageOpen(@NonNull Intent intent) {
         Assert.notNull(intent, "Intent must not be null!");
-        return instance.trackMessageOpen(intent);
+        return getInstance().trackMessageOpen(intent);
     }
 
     public static void trackDeepLink(@NonNull Activity activity, @NonNull Intent intent) {
         Assert.notNull(activity, "Activity must not be null!");
         Assert.notNull(activity.getIntent(), "Intent from Activity must not be null!");
         Assert.notNull(intent, "Intent must not be null!");
-        deepLinkInstance.trackDeepLinkOpen(activity, intent);
+        getDeepLinkInstance().trackDeepLinkOpen(activity, intent);
+    }
+
+    static MobileEngageInternal getInstance() {
+        if (instance == null) {
+            instance = container.getMobileEngageInternal();
+        }
+        return instance;
+    }
+
+    static InboxInternal getInboxInstance() {
+        if (inboxInstance == null) {
+            inboxInstance = container.getInboxInternal();
+        }
+        return inboxInstance;
+    }
+
+    static DeepLinkInternal getDeepLinkInstance() {
+        if (deepLinkInstance == null) {
+            deepLinkInstance = container.getDeepLinkInternal();
+        }
+        return deepLinkInstance;
+    }
+
+    static RequestContext getRequestContext() {
+        if (requestContext == null) {
+            requestContext = container.getRequestContext();
+        }
+        return requestContext;
     }
 
     private static void initializeFields() {
-        instance = container.getMobileEngageInternal();
-        inboxInstance = container.getInboxInternal();
-        deepLinkInstance = container.getDeepLinkInternal();
+        instance = null;
+        inboxInstance = null;
+        deepLinkInstance = null;
+        requestContext = null;
         coreSdkHandler = container.getCoreSdkHandler();
-        requestContext = container.getRequestContext();
         completionHandler = container.getCoreCompletionHandler();
     }
 
@@ -161,9 +229,14 @@ public class MobileEngage {
         InApp.setPaused(false);
     }
 
-    private static void registerWatchdogs(Application application) {
-        CurrentActivityWatchdog.registerApplication(application);
-        application.registerActivityLifecycleCallbacks(container.getActivityLifecycleWatchdog());
+    private static void registerWatchdogs(Application application, StartupTracer startupTracer) {
+        StartupTracer.Section section = startupTracer.beginSection("registerWatchdogs");
+        try {
+            CurrentActivityWatchdog.registerApplication(application);
+            application.registerActivityLifecycleCallbacks(container.getActivityLifecycleWatchdog());
+        } finally {
+            section.end();
+        }
     }
 
 }
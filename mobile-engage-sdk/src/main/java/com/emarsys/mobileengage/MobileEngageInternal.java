@@ -9,13 +9,20 @@ import android.support.annotation.Nullable;
 import com.emarsys.core.request.RequestManager;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.util.Assert;
-import com.emarsys.core.util.TimestampUtils;
 import com.emarsys.core.util.log.EMSLogger;
 import com.emarsys.mobileengage.config.MobileEngageConfig;
+import com.emarsys.mobileengage.event.CustomEventQueue;
+import com.emarsys.mobileengage.event.Event;
+import com.emarsys.mobileengage.event.EventBuffer;
+import com.emarsys.mobileengage.event.EventDeduplicator;
+import com.emarsys.mobileengage.event.EventRecord;
+import com.emarsys.mobileengage.event.EventRateLimiter;
 import com.emarsys.mobileengage.event.applogin.AppLoginParameters;
+import com.emarsys.mobileengage.event.applogin.LastMobileActivityThrottler;
 import com.emarsys.mobileengage.experimental.MobileEngageExperimental;
 import com.emarsys.mobileengage.experimental.MobileEngageFeature;
-import com.emarsys.mobileengage.storage.MeIdStorage;
+import com.emarsys.mobileengage.storage.LastMobileActivityStorage;
+import com.emarsys.mobileengage.storage.StorageEditor;
 import com.emarsys.mobileengage.util.RequestHeaderUtils;
 import com.emarsys.mobileengage.util.RequestModelUtils;
 import com.emarsys.mobileengage.util.RequestPayloadUtils;
@@ -29,6 +36,7 @@ import org.json.JSONObject;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.emarsys.mobileengage.endpoint.Endpoint.ME_LOGOUT_V2;
@@ -42,18 +50,30 @@ public class MobileEngageInternal {
     final MobileEngageCoreCompletionHandler coreCompletionHandler;
     final Handler uiHandler;
     final RequestContext requestContext;
+    final EventBuffer eventBuffer;
+    final CustomEventQueue customEventQueue;
+    final EventRateLimiter eventRateLimiter;
+    final EventDeduplicator customEventDeduplicator;
+    final EventDeduplicator internalEventDeduplicator;
+    final LastMobileActivityThrottler lastMobileActivityThrottler;
 
     public MobileEngageInternal(
             MobileEngageConfig config,
             RequestManager manager,
             Handler uiHandler,
             MobileEngageCoreCompletionHandler coreCompletionHandler,
-            RequestContext requestContext
+            RequestContext requestContext,
+            EventBuffer eventBuffer,
+            CustomEventQueue customEventQueue,
+            LastMobileActivityStorage lastMobileActivityStorage
     ) {
         Assert.notNull(config, "Config must not be null!");
         Assert.notNull(manager, "Manager must not be null!");
         Assert.notNull(requestContext, "RequestContext must not be null!");
         Assert.notNull(coreCompletionHandler, "CoreCompletionHandler must not be null!");
+        Assert.notNull(eventBuffer, "EventBuffer must not be null!");
+        Assert.notNull(customEventQueue, "CustomEventQueue must not be null!");
+        Assert.notNull(lastMobileActivityStorage, "LastMobileActivityStorage must not be null!");
         EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Arguments: config %s, manager %s, coreCompletionHandler %s", config, manager, coreCompletionHandler);
 
         this.config = config;
@@ -61,6 +81,17 @@ public class MobileEngageInternal {
         this.requestContext = requestContext;
         this.uiHandler = uiHandler;
         this.coreCompletionHandler = coreCompletionHandler;
+        this.eventBuffer = eventBuffer;
+        this.customEventQueue = customEventQueue;
+        this.eventRateLimiter = new EventRateLimiter(config.getEventRateLimitRules(), requestContext.getTimestampProvider());
+        this.customEventDeduplicator = new EventDeduplicator(config.getEventDeduplicationWindowMillis(), requestContext.getTimestampProvider());
+        this.internalEventDeduplicator = new EventDeduplicator(config.getEventDeduplicationWindowMillis(), requestContext.getTimestampProvider());
+        this.lastMobileActivityThrottler = new LastMobileActivityThrottler(
+                uiHandler,
+                manager,
+                lastMobileActivityStorage,
+                requestContext.getTimestampProvider(),
+                config.getLastMobileActivityIntervalMillis());
         try {
             this.pushToken = FirebaseInstanceId.getInstance().getToken();
         } catch (Exception ignore) {
@@ -75,6 +106,14 @@ public class MobileEngageInternal {
         return requestContext;
     }
 
+    public EventRateLimiter getEventRateLimiter() {
+        return eventRateLimiter;
+    }
+
+    public LastMobileActivityThrottler getLastMobileActivityThrottler() {
+        return lastMobileActivityThrottler;
+    }
+
     @Nullable
     String getPushToken() {
         return pushToken;
@@ -108,14 +147,13 @@ public class MobileEngageInternal {
                 requestContext,
                 pushToken);
 
-        Integer storedHashCode = requestContext.getAppLoginStorage().get();
+        Session session = requestContext.getSession();
         int currentHashCode = model.getPayload().hashCode();
 
-        if (!shouldDoAppLogin(storedHashCode, currentHashCode, requestContext.getMeIdStorage())) {
-            model = RequestModelUtils.createLastMobileActivity(requestContext);
-        } else {
-            requestContext.getAppLoginStorage().set(currentHashCode);
+        if (!shouldDoAppLogin(session.getAppLoginHashCode(), currentHashCode, session.getMeId())) {
+            return lastMobileActivityThrottler.submit(RequestModelUtils.createLastMobileActivity(requestContext));
         }
+        requestContext.updateSession(new StorageEditor().set(requestContext.getAppLoginStorage(), currentHashCode));
 
         MobileEngageUtils.incrementIdlingResource();
         manager.submit(model);
@@ -124,6 +162,7 @@ public class MobileEngageInternal {
 
     @NonNull
     public String appLogout() {
+        lastMobileActivityThrottler.flush();
         requestContext.setAppLoginParameters(null);
 
         EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Called");
@@ -131,23 +170,40 @@ public class MobileEngageInternal {
         RequestModel model = new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getRequestIdProvider())
                 .url(ME_LOGOUT_V2)
                 .payload(RequestPayloadUtils.createBasePayload(requestContext))
-                .headers(RequestHeaderUtils.createBaseHeaders_V2(config))
+                .headers(RequestHeaderUtils.createBaseHeaders_V2(requestContext))
                 .build();
 
         MobileEngageUtils.incrementIdlingResource();
         manager.submit(model);
-        requestContext.getMeIdStorage().remove();
-        requestContext.getAppLoginStorage().remove();
+        requestContext.updateSession(new StorageEditor()
+                .remove(requestContext.getMeIdStorage())
+                .remove(requestContext.getAppLoginStorage()));
+        lastMobileActivityThrottler.reset();
         return model.getId();
     }
 
     @NonNull
-    public String trackCustomEvent(@NonNull String eventName, @Nullable Map<String, String> eventAttributes) {
-        if (MobileEngageExperimental.isFeatureEnabled(MobileEngageFeature.IN_APP_MESSAGING)) {
-            return trackCustomEvent_V3(eventName, eventAttributes);
-        } else {
-            return trackCustomEvent_V2(eventName, eventAttributes);
-        }
+    public String trackCustomEvent(@NonNull final String eventName, @Nullable final Map<String, String> eventAttributes) {
+        String requestId = customEventDeduplicator.findOrRegister(eventName, eventAttributes, new EventDeduplicator.Submission() {
+            @Override
+            public String submit() {
+                if (!eventRateLimiter.tryAcquire(eventName)) {
+                    EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Event dropped by rate limit rule: %s", eventName);
+                    return null;
+                }
+
+                if (MobileEngageExperimental.isFeatureEnabled(MobileEngageFeature.IN_APP_MESSAGING)) {
+                    if (customEventQueue.isEnabled() && !eventBuffer.isEnabled()) {
+                        return customEventQueue.offer(eventName, eventAttributes);
+                    } else {
+                        return trackCustomEvent_V3(eventName, eventAttributes);
+                    }
+                } else {
+                    return trackCustomEvent_V2(eventName, eventAttributes);
+                }
+            }
+        });
+        return requestId == null ? requestContext.getRequestIdProvider().provideId() : requestId;
     }
 
     @NonNull
@@ -161,7 +217,7 @@ public class MobileEngageInternal {
         RequestModel model = new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getRequestIdProvider())
                 .url(RequestUrlUtils.createEventUrl_V2(eventName))
                 .payload(payload)
-                .headers(RequestHeaderUtils.createBaseHeaders_V2(config))
+                .headers(RequestHeaderUtils.createBaseHeaders_V2(requestContext))
                 .build();
 
         MobileEngageUtils.incrementIdlingResource();
@@ -173,23 +229,26 @@ public class MobileEngageInternal {
     String trackCustomEvent_V3(@NonNull String eventName, @Nullable Map<String, String> eventAttributes) {
         EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Arguments: eventName %s, eventAttributes %s", eventName, eventAttributes);
 
-        Map<String, Object> event = new HashMap<>();
-        event.put("type", "custom");
-        event.put("name", eventName);
-        event.put("timestamp", TimestampUtils.formatTimestampWithUTC(requestContext.getTimestampProvider().provideTimestamp()));
-        if (eventAttributes != null && !eventAttributes.isEmpty()) {
-            event.put("attributes", eventAttributes);
+        Map<String, Object> event = new EventRecord(
+                EventRecord.TYPE_CUSTOM,
+                eventName,
+                requestContext.getTimestampProvider().provideTimestamp(),
+                eventAttributes);
+
+        if (eventBuffer.isEnabled()) {
+            return eventBuffer.add(event);
         }
 
         Map<String, Object> payload = new HashMap<>();
-        payload.put("clicks", new ArrayList<>());
-        payload.put("viewed_messages", new ArrayList<>());
+        payload.put("clicks", Collections.emptyList());
+        payload.put("viewed_messages", Collections.emptyList());
         payload.put("events", Collections.singletonList(event));
 
+        Session session = requestContext.getSession();
         RequestModel model = new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getRequestIdProvider())
-                .url(RequestUrlUtils.createEventUrl_V3(requestContext.getMeIdStorage().get()))
+                .url(RequestUrlUtils.createEventUrl_V3(session.getMeId()))
                 .payload(payload)
-                .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext))
+                .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext, session))
                 .build();
 
         MobileEngageUtils.incrementIdlingResource();
@@ -198,22 +257,80 @@ public class MobileEngageInternal {
     }
 
     @NonNull
-    public String trackInternalCustomEvent(@NonNull String eventName, @Nullable Map<String, String> eventAttributes) {
-        Assert.notNull(eventName, "EventName must not be null!");
-        EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Arguments: eventName %s, eventAttributes %s", eventName, eventAttributes);
-
-        if (requestContext.getMeIdStorage().get() != null && requestContext.getMeIdSignatureStorage().get() != null) {
-            RequestModel model = RequestModelUtils.createInternalCustomEvent(
-                    eventName,
-                    eventAttributes,
-                    requestContext);
+    public String trackCustomEvents(@NonNull List<Event> events) {
+        List<Event> acceptedEvents = new ArrayList<>(events.size());
+        for (Event event : events) {
+            if (eventRateLimiter.tryAcquire(event.getName())) {
+                acceptedEvents.add(event);
+            } else {
+                EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Event dropped by rate limit rule: %s", event.getName());
+            }
+        }
 
-            MobileEngageUtils.incrementIdlingResource();
-            manager.submit(model);
-            return model.getId();
+        if (MobileEngageExperimental.isFeatureEnabled(MobileEngageFeature.IN_APP_MESSAGING)) {
+            return trackCustomEvents_V3(acceptedEvents);
         } else {
+            return trackCustomEvents_V2(acceptedEvents);
+        }
+    }
+
+    @NonNull
+    String trackCustomEvents_V2(@NonNull List<Event> events) {
+        EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Arguments: events %s", events);
+
+        // V2 has no batch endpoint, see MobileEngage.trackCustomEvents for the returned id
+        String requestId = null;
+        for (Event event : events) {
+            requestId = trackCustomEvent_V2(event.getName(), event.getAttributes());
+        }
+        return requestId == null ? requestContext.getRequestIdProvider().provideId() : requestId;
+    }
+
+    @NonNull
+    String trackCustomEvents_V3(@NonNull List<Event> events) {
+        EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Arguments: events %s", events);
+
+        if (events.isEmpty()) {
             return requestContext.getRequestIdProvider().provideId();
         }
+
+        List<Map<String, Object>> eventPayloads = new ArrayList<>(events.size());
+        for (Event event : events) {
+            eventPayloads.add(new EventRecord(EventRecord.TYPE_CUSTOM, event.getName(), event.getTimestamp(), event.getAttributes()));
+        }
+
+        RequestModel model = RequestModelUtils.createCustomEventBatch_V3(
+                eventPayloads,
+                requestContext.getRequestIdProvider().provideId(),
+                requestContext);
+
+        MobileEngageUtils.incrementIdlingResource();
+        manager.submit(model);
+        return model.getId();
+    }
+
+    @NonNull
+    public String trackInternalCustomEvent(@NonNull final String eventName, @Nullable final Map<String, String> eventAttributes) {
+        Assert.notNull(eventName, "EventName must not be null!");
+        EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Arguments: eventName %s, eventAttributes %s", eventName, eventAttributes);
+
+        String requestId = null;
+        if (requestContext.getSession().hasMeIdAndSignature()) {
+            requestId = internalEventDeduplicator.findOrRegister(eventName, eventAttributes, new EventDeduplicator.Submission() {
+                @Override
+                public String submit() {
+                    RequestModel model = RequestModelUtils.createInternalCustomEvent(
+                            eventName,
+                            eventAttributes,
+                            requestContext);
+
+                    MobileEngageUtils.incrementIdlingResource();
+                    manager.submit(model);
+                    return model.getId();
+                }
+            });
+        }
+        return requestId == null ? requestContext.getRequestIdProvider().provideId() : requestId;
     }
 
     @NonNull
@@ -265,7 +382,7 @@ public class MobileEngageInternal {
         RequestModel model = new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getRequestIdProvider())
                 .url(RequestUrlUtils.createEventUrl_V2("message_open"))
                 .payload(payload)
-                .headers(RequestHeaderUtils.createBaseHeaders_V2(config))
+                .headers(RequestHeaderUtils.createBaseHeaders_V2(requestContext))
                 .build();
 
         MobileEngageUtils.incrementIdlingResource();
@@ -279,11 +396,11 @@ public class MobileEngageInternal {
         return trackInternalCustomEvent("message_open", attributes);
     }
 
-    private boolean shouldDoAppLogin(Integer storedHashCode, int currentHashCode, MeIdStorage meIdStorage) {
+    private boolean shouldDoAppLogin(Integer storedHashCode, int currentHashCode, String meId) {
         boolean result = storedHashCode == null || currentHashCode != storedHashCode;
 
         if (MobileEngageExperimental.isFeatureEnabled(MobileEngageFeature.IN_APP_MESSAGING)) {
-            result = result || meIdStorage.get() == null;
+            result = result || meId == null;
         }
 
         return result;
@@ -4,14 +4,20 @@ import com.emarsys.core.DeviceInfo;
 import com.emarsys.core.request.RequestIdProvider;
 import com.emarsys.core.timestamp.TimestampProvider;
 import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.HeaderUtils;
 import com.emarsys.core.util.log.EMSLogger;
 import com.emarsys.mobileengage.config.MobileEngageConfig;
 import com.emarsys.mobileengage.event.applogin.AppLoginParameters;
 import com.emarsys.mobileengage.storage.AppLoginStorage;
 import com.emarsys.mobileengage.storage.MeIdSignatureStorage;
 import com.emarsys.mobileengage.storage.MeIdStorage;
+import com.emarsys.mobileengage.storage.StorageEditor;
 import com.emarsys.mobileengage.util.log.MobileEngageTopic;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 public class RequestContext {
     private final MobileEngageConfig config;
     private final DeviceInfo deviceInfo;
@@ -21,6 +27,9 @@ public class RequestContext {
     private final TimestampProvider timestampProvider;
     private final RequestIdProvider requestIdProvider;
     private AppLoginParameters appLoginParameters;
+    private volatile Session session;
+    private volatile Map<String, Object> basePayload;
+    private volatile Map<String, String> baseHeaders_V2;
 
     public RequestContext(
             MobileEngageConfig config,
@@ -79,11 +88,95 @@ public class RequestContext {
     }
 
     public AppLoginParameters getAppLoginParameters() {
-        return appLoginParameters;
+        return getSession().getAppLoginParameters();
     }
 
     public void setAppLoginParameters(AppLoginParameters appLoginParameters) {
         EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Setting appLoginParameters: %s", appLoginParameters);
-        this.appLoginParameters = appLoginParameters;
+        synchronized (this) {
+            this.appLoginParameters = appLoginParameters;
+            this.basePayload = null;
+            this.session = null;
+        }
+    }
+
+    public Session getSession() {
+        Session result = session;
+        if (result == null || isStale(result)) {
+            synchronized (this) {
+                result = session;
+                if (result == null || isStale(result)) {
+                    long storageVersion = meIdStorage.getVersion();
+                    result = new Session(
+                            meIdStorage.get(),
+                            meIdSignatureStorage.get(),
+                            appLoginParameters,
+                            appLoginStorage.get(),
+                            getApplicationCode(),
+                            storageVersion);
+                    session = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public synchronized void updateSession(StorageEditor editor) {
+        Assert.notNull(editor, "Editor must not be null!");
+        editor.apply();
+        invalidateSession();
+    }
+
+    public synchronized void invalidateSession() {
+        EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Invalidating session");
+        session = null;
+    }
+
+    private boolean isStale(Session session) {
+        return meIdStorage.getVersion() != session.getStorageVersion();
+    }
+
+    public Map<String, Object> getBasePayload() {
+        Map<String, Object> result = basePayload;
+        if (result == null) {
+            synchronized (this) {
+                if (basePayload == null) {
+                    Map<String, Object> payload = new HashMap<>();
+                    payload.put("application_id", getApplicationCode());
+                    payload.put("hardware_id", deviceInfo.getHwid());
+                    if (appLoginParameters != null && appLoginParameters.hasCredentials()) {
+                        payload.put("contact_field_id", appLoginParameters.getContactFieldId());
+                        payload.put("contact_field_value", appLoginParameters.getContactFieldValue());
+                    }
+                    basePayload = Collections.unmodifiableMap(payload);
+                }
+                result = basePayload;
+            }
+        }
+        return result;
+    }
+
+    public Map<String, String> getBaseHeaders_V2() {
+        Map<String, String> result = baseHeaders_V2;
+        if (result == null) {
+            synchronized (this) {
+                if (baseHeaders_V2 == null) {
+                    baseHeaders_V2 = Collections.singletonMap(
+                            "Authorization",
+                            HeaderUtils.createBasicAuth(config.getApplicationCode(), config.getApplicationPassword()));
+                }
+                result = baseHeaders_V2;
+            }
+        }
+        return result;
+    }
+
+    public Map<String, String> getBaseHeaders_V3() {
+        return getBaseHeaders_V3(getSession());
+    }
+
+    public Map<String, String> getBaseHeaders_V3(Session session) {
+        Assert.notNull(session, "Session must not be null!");
+        return session.getBaseHeaders_V3();
     }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.emarsys.mobileengage;
+
+import com.emarsys.mobileengage.event.applogin.AppLoginParameters;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class Session {
+
+    private final String meId;
+    private final String meIdSignature;
+    private final AppLoginParameters appLoginParameters;
+    private final Integer appLoginHashCode;
+    private final long storageVersion;
+    private final Map<String, String> baseHeaders_V3;
+
+    public Session(String meId, String meIdSignature, AppLoginParameters appLoginParameters, Integer appLoginHashCode) {
+        this(meId, meIdSignature, appLoginParameters, appLoginHashCode, null, 0);
+    }
+
+    Session(String meId, String meIdSignature, AppLoginParameters appLoginParameters, Integer appLoginHashCode, String applicationCode, long storageVersion) {
+        this.meId = meId;
+        this.meIdSignature = meIdSignature;
+        this.appLoginParameters = appLoginParameters;
+        this.appLoginHashCode = appLoginHashCode;
+        this.storageVersion = storageVersion;
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-ME-ID", meId);
+        headers.put("X-ME-ID-SIGNATURE", meIdSignature);
+        headers.put("X-ME-APPLICATIONCODE", applicationCode);
+        this.baseHeaders_V3 = Collections.unmodifiableMap(headers);
+    }
+
+    public String getMeId() {
+        return meId;
+    }
+
+    public String getMeIdSignature() {
+        return meIdSignature;
+    }
+
+    public AppLoginParameters getAppLoginParameters() {
+        return appLoginParameters;
+    }
+
+    public Integer getAppLoginHashCode() {
+        return appLoginHashCode;
+    }
+
+    long getStorageVersion() {
+        return storageVersion;
+    }
+
+    Map<String, String> getBaseHeaders_V3() {
+        return baseHeaders_V3;
+    }
+
+    public boolean hasMeIdAndSignature() {
+        return meId != null && meIdSignature != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Session that = (Session) o;
+
+        if (meId != null ? !meId.equals(that.meId) : that.meId != null) return false;
+        if (meIdSignature != null ? !meIdSignature.equals(that.meIdSignature) : that.meIdSignature != null) return false;
+        if (appLoginParameters != null ? !appLoginParameters.equals(that.appLoginParameters) : that.appLoginParameters != null) return false;
+        return appLoginHashCode != null ? appLoginHashCode.equals(that.appLoginHashCode) : that.appLoginHashCode == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = meId != null ? meId.hashCode() : 0;
+        result = 31 * result + (meIdSignature != null ? meIdSignature.hashCode() : 0);
+        result = 31 * result + (appLoginParameters != null ? appLoginParameters.hashCode() : 0);
+        result = 31 * result + (appLoginHashCode != null ? appLoginHashCode.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Session{" +
+                "meId='" + meId + '\'' +
+                ", meIdSignature='" + meIdSignature + '\'' +
+                ", appLoginParameters=" + appLoginParameters +
+                ", appLoginHashCode=" + appLoginHashCode +
+                '}';
+    }
+}
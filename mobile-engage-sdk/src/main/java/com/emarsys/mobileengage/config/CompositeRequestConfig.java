@@ -0,0 +1,53 @@
+package com.emarsys.mobileengage.config;
+
+public class CompositeRequestConfig {
+
+    public static final int DEFAULT_MAX_EVENT_COUNT = 200;
+    public static final int DEFAULT_MAX_PAYLOAD_BYTES = 256 * 1024;
+
+    private final int maxEventCount;
+    private final int maxPayloadBytes;
+
+    public CompositeRequestConfig() {
+        this(DEFAULT_MAX_EVENT_COUNT, DEFAULT_MAX_PAYLOAD_BYTES);
+    }
+
+    public CompositeRequestConfig(int maxEventCount, int maxPayloadBytes) {
+        this.maxEventCount = maxEventCount;
+        this.maxPayloadBytes = maxPayloadBytes;
+    }
+
+    public int getMaxEventCount() {
+        return maxEventCount;
+    }
+
+    public int getMaxPayloadBytes() {
+        return maxPayloadBytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        CompositeRequestConfig that = (CompositeRequestConfig) o;
+
+        if (maxEventCount != that.maxEventCount) return false;
+        return maxPayloadBytes == that.maxPayloadBytes;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = maxEventCount;
+        result = 31 * result + maxPayloadBytes;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CompositeRequestConfig{" +
+                "maxEventCount=" + maxEventCount +
+                ", maxPayloadBytes=" + maxPayloadBytes +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+package com.emarsys.mobileengage.config;
+
+public class EventBatchConfig {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 20;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 10_000;
+
+    private final boolean isEnabled;
+    private final int maxBatchSize;
+    private final long maxDelayMillis;
+
+    public EventBatchConfig(boolean isEnabled) {
+        this(isEnabled, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    public EventBatchConfig(boolean isEnabled, int maxBatchSize, long maxDelayMillis) {
+        this.isEnabled = isEnabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        EventBatchConfig that = (EventBatchConfig) o;
+
+        if (isEnabled != that.isEnabled) return false;
+        if (maxBatchSize != that.maxBatchSize) return false;
+        return maxDelayMillis == that.maxDelayMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (isEnabled ? 1 : 0);
+        result = 31 * result + maxBatchSize;
+        result = 31 * result + (int) (maxDelayMillis ^ (maxDelayMillis >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "EventBatchConfig{" +
+                "isEnabled=" + isEnabled +
+                ", maxBatchSize=" + maxBatchSize +
+                ", maxDelayMillis=" + maxDelayMillis +
+                '}';
+    }
+}
@@ -0,0 +1,91 @@
+package com.emarsys.mobileengage.config;
+
+import com.emarsys.core.util.Assert;
+
+public class EventRateLimitRule {
+
+    private final String eventName;
+    private final double sampleRate;
+    private final int maxEvents;
+    private final long windowMillis;
+    private final int burstSize;
+
+    public EventRateLimitRule(String eventName, double sampleRate) {
+        this(eventName, sampleRate, 0, 0, 0);
+    }
+
+    public EventRateLimitRule(String eventName, double sampleRate, int maxEvents, long windowMillis, int burstSize) {
+        Assert.notNull(eventName, "EventName must not be null!");
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("SampleRate must be between 0 and 1");
+        }
+        if (maxEvents > 0 && (windowMillis <= 0 || burstSize <= 0)) {
+            throw new IllegalArgumentException("WindowMillis and BurstSize must be greater than 0 when MaxEvents is set");
+        }
+        this.eventName = eventName;
+        this.sampleRate = sampleRate;
+        this.maxEvents = maxEvents;
+        this.windowMillis = windowMillis;
+        this.burstSize = burstSize;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getMaxEvents() {
+        return maxEvents;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public int getBurstSize() {
+        return burstSize;
+    }
+
+    public boolean isRateLimited() {
+        return maxEvents > 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        EventRateLimitRule that = (EventRateLimitRule) o;
+
+        if (Double.compare(that.sampleRate, sampleRate) != 0) return false;
+        if (maxEvents != that.maxEvents) return false;
+        if (windowMillis != that.windowMillis) return false;
+        if (burstSize != that.burstSize) return false;
+        return eventName.equals(that.eventName);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = eventName.hashCode();
+        long temp = Double.doubleToLongBits(sampleRate);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        result = 31 * result + maxEvents;
+        result = 31 * result + (int) (windowMillis ^ (windowMillis >>> 32));
+        result = 31 * result + burstSize;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "EventRateLimitRule{" +
+                "eventName='" + eventName + '\'' +
+                ", sampleRate=" + sampleRate +
+                ", maxEvents=" + maxEvents +
+                ", windowMillis=" + windowMillis +
+                ", burstSize=" + burstSize +
+                '}';
+    }
+}
@@ -11,7 +11,9 @@ import com.emarsys.mobileengage.experimental.FlipperFeature;
 import com.emarsys.mobileengage.experimental.MobileEngageFeature;
 import com.emarsys.mobileengage.notification.NotificationEventHandler;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 public class MobileEngageConfig {
 
@@ -25,6 +27,14 @@ public class MobileEngageConfig {
     private final EventHandler defaultInAppEventHandler;
     private final NotificationEventHandler notificationEventHandler;
     private final FlipperFeature[] flipperFeatures;
+    private final EventBatchConfig eventBatchConfig;
+    private final List<EventRateLimitRule> eventRateLimitRules;
+    private final long eventDeduplicationWindowMillis;
+    private final boolean asyncEventTrackingEnabled;
+    private final long lastMobileActivityIntervalMillis;
+    private final int requestCompressionMinSizeBytes;
+    private final CompositeRequestConfig compositeRequestConfig;
+    private final boolean eventJournalEnabled;
 
     MobileEngageConfig(Application application,
                        String applicationCode,
@@ -35,13 +45,36 @@ public class MobileEngageConfig {
                        OreoConfig oreoConfig,
                        EventHandler defaultInAppEventHandler,
                        NotificationEventHandler notificationEventHandler,
-                       FlipperFeature[] enabledFeatures) {
+                       FlipperFeature[] enabledFeatures,
+                       EventBatchConfig eventBatchConfig,
+                       List<EventRateLimitRule> eventRateLimitRules,
+                       long eventDeduplicationWindowMillis,
+                       boolean asyncEventTrackingEnabled,
+                       long lastMobileActivityIntervalMillis,
+                       int requestCompressionMinSizeBytes,
+                       CompositeRequestConfig compositeRequestConfig,
+                       boolean eventJournalEnabled) {
         Assert.notNull(application, "Application must not be null");
         Assert.notNull(applicationCode, "ApplicationCode must not be null");
         Assert.notNull(applicationPassword, "ApplicationPassword must not be null");
         Assert.notNull(oreoConfig, "OreoConfig must not be null");
         validate(oreoConfig);
         Assert.notNull(enabledFeatures, "EnabledFeatures must not be null");
+        Assert.notNull(eventBatchConfig, "EventBatchConfig must not be null");
+        validate(eventBatchConfig);
+        Assert.notNull(eventRateLimitRules, "EventRateLimitRules must not be null");
+        Assert.elementsNotNull(eventRateLimitRules, "EventRateLimitRule elements must not be null");
+        if (eventDeduplicationWindowMillis < 0) {
+            throw new IllegalArgumentException("EventDeduplicationWindowMillis must not be negative");
+        }
+        if (lastMobileActivityIntervalMillis < 0) {
+            throw new IllegalArgumentException("LastMobileActivityIntervalMillis must not be negative");
+        }
+        if (requestCompressionMinSizeBytes < 0) {
+            throw new IllegalArgumentException("RequestCompressionMinSizeBytes must not be negative");
+        }
+        Assert.notNull(compositeRequestConfig, "CompositeRequestConfig must not be null");
+        validate(compositeRequestConfig);
 
         if(Arrays.asList(enabledFeatures).contains(MobileEngageFeature.IN_APP_MESSAGING)) {
             Assert.notNull(defaultInAppEventHandler, "DefaultInAppMessageHandler must not be null");
@@ -57,6 +90,14 @@ public class MobileEngageConfig {
         this.defaultInAppEventHandler = defaultInAppEventHandler;
         this.notificationEventHandler = notificationEventHandler;
         this.flipperFeatures = enabledFeatures;
+        this.eventBatchConfig = eventBatchConfig;
+        this.eventRateLimitRules = eventRateLimitRules;
+        this.eventDeduplicationWindowMillis = eventDeduplicationWindowMillis;
+        this.asyncEventTrackingEnabled = asyncEventTrackingEnabled;
+        this.lastMobileActivityIntervalMillis = lastMobileActivityIntervalMillis;
+        this.requestCompressionMinSizeBytes = requestCompressionMinSizeBytes;
+        this.compositeRequestConfig = compositeRequestConfig;
+        this.eventJournalEnabled = eventJournalEnabled;
     }
 
     public Application getApplication() {
@@ -99,6 +140,38 @@ public class MobileEngageConfig {
         return flipperFeatures;
     }
 
+    public EventBatchConfig getEventBatchConfig() {
+        return eventBatchConfig;
+    }
+
+    public List<EventRateLimitRule> getEventRateLimitRules() {
+        return eventRateLimitRules;
+    }
+
+    public long getEventDeduplicationWindowMillis() {
+        return eventDeduplicationWindowMillis;
+    }
+
+    public boolean isAsyncEventTrackingEnabled() {
+        return asyncEventTrackingEnabled;
+    }
+
+    public long getLastMobileActivityIntervalMillis() {
+        return lastMobileActivityIntervalMillis;
+    }
+
+    public int getRequestCompressionMinSizeBytes() {
+        return requestCompressionMinSizeBytes;
+    }
+
+    public CompositeRequestConfig getCompositeRequestConfig() {
+        return compositeRequestConfig;
+    }
+
+    public boolean isEventJournalEnabled() {
+        return eventJournalEnabled;
+    }
+
     private void validate(OreoConfig oreoConfig) {
         if (oreoConfig.isDefaultChannelEnabled()) {
             Assert.notNull(oreoConfig.getDefaultChannelName(), "DefaultChannelName must not be null");
@@ -106,6 +179,26 @@ public class MobileEngageConfig {
         }
     }
 
+    private void validate(EventBatchConfig eventBatchConfig) {
+        if (eventBatchConfig.isEnabled()) {
+            if (eventBatchConfig.getMaxBatchSize() <= 0) {
+                throw new IllegalArgumentException("MaxBatchSize must be greater than 0");
+            }
+            if (eventBatchConfig.getMaxDelayMillis() <= 0) {
+                throw new IllegalArgumentException("MaxDelayMillis must be greater than 0");
+            }
+        }
+    }
+
+    private void validate(CompositeRequestConfig compositeRequestConfig) {
+        if (compositeRequestConfig.getMaxEventCount() <= 0) {
+            throw new IllegalArgumentException("MaxEventCount must be greater than 0");
+        }
+        if (compositeRequestConfig.getMaxPayloadBytes() <= 0) {
+            throw new IllegalArgumentException("MaxPayloadBytes must be greater than 0");
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -115,6 +208,12 @@ public class MobileEngageConfig {
 
         if (isDebugMode != that.isDebugMode) return false;
         if (idlingResourceEnabled != that.idlingResourceEnabled) return false;
+        if (eventDeduplicationWindowMillis != that.eventDeduplicationWindowMillis) return false;
+        if (asyncEventTrackingEnabled != that.asyncEventTrackingEnabled) return false;
+        if (lastMobileActivityIntervalMillis != that.lastMobileActivityIntervalMillis) return false;
+        if (requestCompressionMinSizeBytes != that.requestCompressionMinSizeBytes) return false;
+        if (!compositeRequestConfig.equals(that.compositeRequestConfig)) return false;
+        if (eventJournalEnabled != that.eventJournalEnabled) return false;
         if (application != null ? !application.equals(that.application) : that.application != null)
             return false;
         if (applicationCode != null ? !applicationCode.equals(that.applicationCode) : that.applicationCode != null)
@@ -129,6 +228,10 @@ public class MobileEngageConfig {
             return false;
         if (notificationEventHandler != null ? !notificationEventHandler.equals(that.notificationEventHandler) : that.notificationEventHandler != null)
             return false;
+        if (eventBatchConfig != null ? !eventBatchConfig.equals(that.eventBatchConfig) : that.eventBatchConfig != null)
+            return false;
+        if (eventRateLimitRules != null ? !eventRateLimitRules.equals(that.eventRateLimitRules) : that.eventRateLimitRules != null)
+            return false;
 
         return flipperFeatures != null ? Arrays.equals(flipperFeatures, that.flipperFeatures) : that.flipperFeatures == null;
     }
@@ -143,6 +246,14 @@ public class MobileEngageConfig {
         result = 31 * result + (idlingResourceEnabled ? 1 : 0);
         result = 31 * result + (oreoConfig != null ? oreoConfig.hashCode() : 0);
         result = 31 * result + (flipperFeatures != null ? flipperFeatures.hashCode() : 0);
+        result = 31 * result + (eventBatchConfig != null ? eventBatchConfig.hashCode() : 0);
+        result = 31 * result + (eventRateLimitRules != null ? eventRateLimitRules.hashCode() : 0);
+        result = 31 * result + (int) (eventDeduplicationWindowMillis ^ (eventDeduplicationWindowMillis >>> 32));
+        result = 31 * result + (asyncEventTrackingEnabled ? 1 : 0);
+        result = 31 * result + (int) (lastMobileActivityIntervalMillis ^ (lastMobileActivityIntervalMillis >>> 32));
+        result = 31 * result + requestCompressionMinSizeBytes;
+        result = 31 * result + compositeRequestConfig.hashCode();
+        result = 31 * result + (eventJournalEnabled ? 1 : 0);
         return result;
     }
 
@@ -157,6 +268,14 @@ public class MobileEngageConfig {
                 ", idlingResourceEnabled=" + idlingResourceEnabled +
                 ", oreoConfig=" + oreoConfig +
                 ", flipperFeatures=" + flipperFeatures +
+                ", eventBatchConfig=" + eventBatchConfig +
+                ", eventRateLimitRules=" + eventRateLimitRules +
+                ", eventDeduplicationWindowMillis=" + eventDeduplicationWindowMillis +
+                ", asyncEventTrackingEnabled=" + asyncEventTrackingEnabled +
+                ", lastMobileActivityIntervalMillis=" + lastMobileActivityIntervalMillis +
+                ", requestCompressionMinSizeBytes=" + requestCompressionMinSizeBytes +
+                ", compositeRequestConfig=" + compositeRequestConfig +
+                ", eventJournalEnabled=" + eventJournalEnabled +
                 '}';
     }
 
@@ -170,6 +289,14 @@ public class MobileEngageConfig {
         private EventHandler defaultInAppEventHandler;
         private NotificationEventHandler notificationEventHandler;
         private FlipperFeature[] experimentalFeatures;
+        private EventBatchConfig eventBatchConfig;
+        private List<EventRateLimitRule> eventRateLimitRules;
+        private long eventDeduplicationWindowMillis;
+        private boolean asyncEventTrackingEnabled;
+        private long lastMobileActivityIntervalMillis;
+        private int requestCompressionMinSizeBytes;
+        private CompositeRequestConfig compositeRequestConfig;
+        private boolean eventJournalEnabled;
 
         public Builder from(MobileEngageConfig baseConfig) {
             Assert.notNull(baseConfig, "BaseConfig must not be null");
@@ -182,6 +309,14 @@ public class MobileEngageConfig {
             defaultInAppEventHandler = baseConfig.getDefaultInAppEventHandler();
             notificationEventHandler = baseConfig.getNotificationEventHandler();
             experimentalFeatures = baseConfig.getExperimentalFeatures();
+            eventBatchConfig = baseConfig.getEventBatchConfig();
+            eventRateLimitRules = new ArrayList<>(baseConfig.getEventRateLimitRules());
+            eventDeduplicationWindowMillis = baseConfig.getEventDeduplicationWindowMillis();
+            asyncEventTrackingEnabled = baseConfig.isAsyncEventTrackingEnabled();
+            lastMobileActivityIntervalMillis = baseConfig.getLastMobileActivityIntervalMillis();
+            requestCompressionMinSizeBytes = baseConfig.getRequestCompressionMinSizeBytes();
+            compositeRequestConfig = baseConfig.getCompositeRequestConfig();
+            eventJournalEnabled = baseConfig.isEventJournalEnabled();
             return this;
         }
 
@@ -222,6 +357,64 @@ public class MobileEngageConfig {
             return this;
         }
 
+        public Builder enableEventBatching(int maxBatchSize, long maxDelayMillis) {
+            this.eventBatchConfig = new EventBatchConfig(true, maxBatchSize, maxDelayMillis);
+            return this;
+        }
+
+        public Builder disableEventBatching() {
+            this.eventBatchConfig = new EventBatchConfig(false);
+            return this;
+        }
+
+        public Builder addEventRateLimitRule(@NonNull EventRateLimitRule rule) {
+            if (eventRateLimitRules == null) {
+                eventRateLimitRules = new ArrayList<>();
+            }
+            eventRateLimitRules.add(rule);
+            return this;
+        }
+
+        public Builder enableEventDeduplication(long windowMillis) {
+            this.eventDeduplicationWindowMillis = windowMillis;
+            return this;
+        }
+
+        public Builder disableEventDeduplication() {
+            this.eventDeduplicationWindowMillis = 0;
+            return this;
+        }
+
+        public Builder enableAsyncEventTracking(boolean enabled) {
+            asyncEventTrackingEnabled = enabled;
+            return this;
+        }
+
+        public Builder throttleLastMobileActivity(long intervalMillis) {
+            this.lastMobileActivityIntervalMillis = intervalMillis;
+            return this;
+        }
+
+        public Builder enableRequestCompression(int minSizeBytes) {
+            this.requestCompressionMinSizeBytes = minSizeBytes;
+            return this;
+        }
+
+        public Builder disableRequestCompression() {
+            this.requestCompressionMinSizeBytes = 0;
+            return this;
+        }
+
+        public Builder limitCompositeRequests(int maxEventCount, int maxPayloadBytes) {
+            this.compositeRequestConfig = new CompositeRequestConfig(maxEventCount, maxPayloadBytes);
+            return this;
+        }
+
+        public Builder enableEventJournal(boolean enabled) {
+            this.eventJournalEnabled = enabled;
+            return this;
+        }
+
         public Builder setDefaultInAppEventHandler(EventHandler inAppEventHandler) {
             this.defaultInAppEventHandler = inAppEventHandler;
             return this;
@@ -236,6 +429,9 @@ public class MobileEngageConfig {
             boolean isDebuggable = (0 != (application.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE));
 
             experimentalFeatures = experimentalFeatures == null ? new FlipperFeature[]{} : experimentalFeatures;
+            eventBatchConfig = eventBatchConfig == null ? new EventBatchConfig(false) : eventBatchConfig;
+            eventRateLimitRules = eventRateLimitRules == null ? new ArrayList<EventRateLimitRule>() : eventRateLimitRules;
+            compositeRequestConfig = compositeRequestConfig == null ? new CompositeRequestConfig() : compositeRequestConfig;
 
             return new MobileEngageConfig(
                     application,
@@ -247,7 +443,15 @@ public class MobileEngageConfig {
                     oreoConfig,
                     defaultInAppEventHandler,
                     notificationEventHandler,
-                    experimentalFeatures
+                    experimentalFeatures,
+                    eventBatchConfig,
+                    eventRateLimitRules,
+                    eventDeduplicationWindowMillis,
+                    asyncEventTrackingEnabled,
+                    lastMobileActivityIntervalMillis,
+                    requestCompressionMinSizeBytes,
+                    compositeRequestConfig,
+                    eventJournalEnabled
             );
         }
     }
@@ -0,0 +1,24 @@
+package com.emarsys.mobileengage.connection;
+
+import com.emarsys.core.connection.ConnectionProvider;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.util.Assert;
+
+import java.io.IOException;
+
+import javax.net.ssl.HttpsURLConnection;
+
+public class EmptyErrorStreamConnectionProvider extends ConnectionProvider {
+
+    private final ConnectionProvider connectionProvider;
+
+    public EmptyErrorStreamConnectionProvider(ConnectionProvider connectionProvider) {
+        Assert.notNull(connectionProvider, "ConnectionProvider must not be null!");
+        this.connectionProvider = connectionProvider;
+    }
+
+    @Override
+    public HttpsURLConnection provideConnection(RequestModel requestModel) throws IOException {
+        return new EmptyErrorStreamHttpsURLConnection(connectionProvider.provideConnection(requestModel));
+    }
+}
@@ -0,0 +1,22 @@
+package com.emarsys.mobileengage.connection;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import javax.net.ssl.HttpsURLConnection;
+
+class EmptyErrorStreamHttpsURLConnection extends DelegatingHttpsURLConnection {
+
+    EmptyErrorStreamHttpsURLConnection(HttpsURLConnection delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        InputStream result = delegate.getErrorStream();
+        if (result == null) {
+            result = new ByteArrayInputStream(new byte[0]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package com.emarsys.mobileengage.connection;
+
+import com.emarsys.core.connection.ConnectionProvider;
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.log.EMSLogger;
+import com.emarsys.mobileengage.util.RequestUrlUtils;
+import com.emarsys.mobileengage.util.log.MobileEngageTopic;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.net.ssl.HttpsURLConnection;
+
+public class GzipConnectionProvider extends ConnectionProvider {
+
+    static final String REQUEST_ID = "request_id";
+    static final String URL = "url";
+    static final String UNCOMPRESSED_SIZE = "uncompressed_size";
+    static final String COMPRESSED_SIZE = "compressed_size";
+
+    private final int minSizeBytes;
+    private final Repository<Map<String, Object>, SqlSpecification> logRepository;
+
+    public GzipConnectionProvider(int minSizeBytes, Repository<Map<String, Object>, SqlSpecification> logRepository) {
+        if (minSizeBytes <= 0) {
+            throw new IllegalArgumentException("MinSizeBytes must be positive!");
+        }
+        Assert.notNull(logRepository, "LogRepository must not be null!");
+        this.minSizeBytes = minSizeBytes;
+        this.logRepository = logRepository;
+    }
+
+    @Override
+    public HttpsURLConnection provideConnection(final RequestModel requestModel) throws IOException {
+        HttpsURLConnection connection = super.provideConnection(requestModel);
+
+        if (!RequestUrlUtils.isCustomEvent_V3(requestModel.getUrl().toString())) {
+            return connection;
+        }
+
+        return new GzipHttpsURLConnection(connection, minSizeBytes, new GzipHttpsURLConnection.CompressionListener() {
+            @Override
+            public void onBodySent(int uncompressedSize, int sentSize) {
+                if (sentSize < uncompressedSize) {
+                    logCompression(requestModel, uncompressedSize, sentSize);
+                }
+            }
+        });
+    }
+
+    void logCompression(RequestModel requestModel, int uncompressedSize, int compressedSize) {
+        EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Request body compressed from %s to %s bytes", uncompressedSize, compressedSize);
+
+        Map<String, Object> metric = new HashMap<>();
+        metric.put(REQUEST_ID, requestModel.getId());
+        metric.put(URL, requestModel.getUrl().toString());
+        metric.put(UNCOMPRESSED_SIZE, uncompressedSize);
+        metric.put(COMPRESSED_SIZE, compressedSize);
+        logRepository.add(metric);
+    }
+}
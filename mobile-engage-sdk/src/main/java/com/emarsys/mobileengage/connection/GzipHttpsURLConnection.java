@@ -0,0 +1,161 @@
+package com.emarsys.mobileengage.connection;
+
+import com.emarsys.core.util.Assert;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.net.ssl.HttpsURLConnection;
+
+class GzipHttpsURLConnection extends DelegatingHttpsURLConnection {
+
+    interface CompressionListener {
+        void onBodySent(int uncompressedSize, int sentSize);
+    }
+
+    static final String CONTENT_ENCODING = "Content-Encoding";
+    static final String GZIP = "gzip";
+
+    private final int minSizeBytes;
+    private final CompressionListener listener;
+
+    private BodyOutputStream bodyOutputStream;
+
+    GzipHttpsURLConnection(HttpsURLConnection delegate, int minSizeBytes, CompressionListener listener) {
+        super(delegate);
+        Assert.notNull(listener, "Listener must not be null!");
+        this.minSizeBytes = minSizeBytes;
+        this.listener = listener;
+    }
+
+    @Override
+    public void connect() throws IOException {
+        if (!getDoOutput()) {
+            delegate.connect();
+        }
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        if (bodyOutputStream == null) {
+            bodyOutputStream = new BodyOutputStream();
+        }
+        return bodyOutputStream;
+    }
+
+    private void ensureBodySent() throws IOException {
+        if (bodyOutputStream != null) {
+            bodyOutputStream.close();
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        ensureBodySent();
+        return delegate.getInputStream();
+    }
+
+    @Override
+    public int getResponseCode() throws IOException {
+        ensureBodySent();
+        return delegate.getResponseCode();
+    }
+
+    @Override
+    public String getResponseMessage() throws IOException {
+        ensureBodySent();
+        return delegate.getResponseMessage();
+    }
+
+    @Override
+    public void setFixedLengthStreamingMode(int contentLength) {
+        // the length of the sent body is only known after compression
+    }
+
+    @Override
+    public void setFixedLengthStreamingMode(long contentLength) {
+        // the length of the sent body is only known after compression
+    }
+
+    private class BodyOutputStream extends OutputStream {
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private CountingOutputStream sentOutputStream;
+        private OutputStream gzipOutputStream;
+        private int uncompressedSize;
+        private boolean closed;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            uncompressedSize += len;
+            if (gzipOutputStream != null) {
+                gzipOutputStream.write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+                if (buffer.size() >= minSizeBytes) {
+                    startCompression();
+                }
+            }
+        }
+
+        private void startCompression() throws IOException {
+            delegate.setRequestProperty(CONTENT_ENCODING, GZIP);
+            sentOutputStream = new CountingOutputStream(delegate.getOutputStream());
+            gzipOutputStream = new GZIPOutputStream(sentOutputStream);
+            buffer.writeTo(gzipOutputStream);
+            buffer = null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            if (gzipOutputStream != null) {
+                gzipOutputStream.close();
+                listener.onBodySent(uncompressedSize, sentOutputStream.count);
+            } else {
+                OutputStream outputStream = delegate.getOutputStream();
+                try {
+                    buffer.writeTo(outputStream);
+                } finally {
+                    outputStream.close();
+                }
+                listener.onBodySent(uncompressedSize, uncompressedSize);
+            }
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private int count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -4,28 +4,57 @@ import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 
 import com.emarsys.core.database.helper.AbstractDbHelper;
+import com.emarsys.mobileengage.event.model.EventContract;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClickedContract;
 import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIamContract;
+import com.emarsys.mobileengage.inbox.model.InboxCacheContract;
+import com.emarsys.mobileengage.util.AndroidVersionUtils;
 
 
 public class MobileEngageDbHelper extends AbstractDbHelper {
 
-    public static final int DATABASE_VERSION = 1;
+    public static final int DATABASE_VERSION = 4;
     public static final String DATABASE_NAME = "EmarsysMobileEngage.db";
 
     public MobileEngageDbHelper(Context context) {
         super(context, DATABASE_NAME, DATABASE_VERSION);
+        if (AndroidVersionUtils.isJellyBeanOrAbove()) {
+            setWriteAheadLoggingEnabled(true);
+        }
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        if (!AndroidVersionUtils.isJellyBeanOrAbove() && !db.isReadOnly()) {
+            db.enableWriteAheadLogging();
+        }
     }
 
     @Override
     public void onCreate(SQLiteDatabase db) {
         db.execSQL(DisplayedIamContract.SQL_CREATE_TABLE);
         db.execSQL(ButtonClickedContract.SQL_CREATE_TABLE);
+        createEventTable(db);
+        db.execSQL(InboxCacheContract.SQL_CREATE_TABLE);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            createEventTable(db);
+        }
+        if (oldVersion < 3) {
+            db.execSQL(InboxCacheContract.SQL_CREATE_TABLE);
+        } else if (oldVersion < 4) {
+            db.execSQL(InboxCacheContract.SQL_ADD_ETAG_COLUMN);
+            db.execSQL(InboxCacheContract.SQL_ADD_LAST_MODIFIED_COLUMN);
+        }
+    }
 
+    private void createEventTable(SQLiteDatabase db) {
+        db.execSQL(EventContract.SQL_CREATE_TABLE);
+        db.execSQL(EventContract.SQL_CREATE_REQUEST_ID_INDEX);
     }
 
 }
@@ -4,12 +4,18 @@ import android.app.Activity;
 
 import com.emarsys.core.activity.ActivityLifecycleAction;
 import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.di.Lazy;
 
 public class DeepLinkAction implements ActivityLifecycleAction {
 
-    private DeepLinkInternal deepLinkInternal;
+    private Lazy<DeepLinkInternal> deepLinkInternal;
 
     public DeepLinkAction(DeepLinkInternal deepLinkInternal) {
+        Assert.notNull(deepLinkInternal, "DeepLinkInternal must not be null!");
+        this.deepLinkInternal = Lazy.of(deepLinkInternal);
+    }
+
+    public DeepLinkAction(Lazy<DeepLinkInternal> deepLinkInternal) {
         Assert.notNull(deepLinkInternal, "DeepLinkInternal must not be null!");
         this.deepLinkInternal = deepLinkInternal;
     }
@@ -17,7 +23,7 @@ public class DeepLinkAction implements ActivityLifecycleAction {
     @Override
     public void execute(Activity activity) {
         if (activity != null && activity.getIntent() != null) {
-            deepLinkInternal.trackDeepLinkOpen(activity, activity.getIntent());
+            deepLinkInternal.get().trackDeepLinkOpen(activity, activity.getIntent());
         }
     }
 
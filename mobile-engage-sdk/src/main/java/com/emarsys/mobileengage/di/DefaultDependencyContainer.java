@@ -4,7 +4,6 @@ import android.app.Application;
 import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
-import android.support.annotation.NonNull;
 
 import com.emarsys.core.DeviceInfo;
 import com.emarsys.core.activity.ActivityLifecycleAction;
@@ -21,14 +20,23 @@ import com.emarsys.core.request.RestClient;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.request.model.RequestModelRepository;
 import com.emarsys.core.timestamp.TimestampProvider;
+import com.emarsys.core.util.Assert;
 import com.emarsys.core.worker.DefaultWorker;
 import com.emarsys.core.worker.Worker;
 import com.emarsys.mobileengage.MobileEngageCoreCompletionHandler;
 import com.emarsys.mobileengage.MobileEngageInternal;
 import com.emarsys.mobileengage.RequestContext;
 import com.emarsys.mobileengage.config.MobileEngageConfig;
+import com.emarsys.mobileengage.connection.EmptyErrorStreamConnectionProvider;
+import com.emarsys.mobileengage.connection.GzipConnectionProvider;
+import com.emarsys.mobileengage.database.MobileEngageDbHelper;
 import com.emarsys.mobileengage.deeplink.DeepLinkAction;
 import com.emarsys.mobileengage.deeplink.DeepLinkInternal;
+import com.emarsys.mobileengage.event.CustomEventQueue;
+import com.emarsys.mobileengage.event.EventBuffer;
+import com.emarsys.mobileengage.event.journal.EventJournal;
+import com.emarsys.mobileengage.event.model.EventRepository;
+import com.emarsys.mobileengage.event.model.EventStore;
 import com.emarsys.mobileengage.experimental.MobileEngageExperimental;
 import com.emarsys.mobileengage.experimental.MobileEngageFeature;
 import com.emarsys.mobileengage.iam.DoNotDisturbProvider;
@@ -37,76 +45,327 @@ import com.emarsys.mobileengage.iam.InAppStartAction;
 import com.emarsys.mobileengage.iam.dialog.IamDialogProvider;
 import com.emarsys.mobileengage.iam.jsbridge.InAppMessageHandlerProvider;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClickedRepository;
+import com.emarsys.mobileengage.iam.model.buttonclicked.CachedButtonClickedRepository;
+import com.emarsys.mobileengage.iam.model.displayediam.CachedDisplayedIamRepository;
 import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIamRepository;
 import com.emarsys.mobileengage.iam.model.requestRepositoryProxy.RequestRepositoryProxy;
 import com.emarsys.mobileengage.iam.webview.IamWebViewProvider;
 import com.emarsys.mobileengage.inbox.InboxInternal;
 import com.emarsys.mobileengage.inbox.InboxInternalProvider;
+import com.emarsys.mobileengage.inbox.model.InboxCacheRepository;
 import com.emarsys.mobileengage.log.LogRepositoryProxy;
 import com.emarsys.mobileengage.log.handler.IamMetricsLogHandler;
+import com.emarsys.mobileengage.log.handler.RequestCompressionLogHandler;
 import com.emarsys.mobileengage.responsehandler.AbstractResponseHandler;
 import com.emarsys.mobileengage.responsehandler.InAppCleanUpResponseHandler;
 import com.emarsys.mobileengage.responsehandler.InAppMessageResponseHandler;
 import com.emarsys.mobileengage.responsehandler.MeIdResponseHandler;
+import com.emarsys.mobileengage.startup.StartupTracer;
 import com.emarsys.mobileengage.storage.AppLoginStorage;
+import com.emarsys.mobileengage.storage.LastMobileActivityStorage;
 import com.emarsys.mobileengage.storage.MeIdSignatureStorage;
 import com.emarsys.mobileengage.storage.MeIdStorage;
 import com.emarsys.mobileengage.util.RequestHeaderUtils;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class DefaultDependencyContainer implements DependencyContainer {
 
-    private MobileEngageInternal mobileEngageInternal;
-    private InboxInternal inboxInternal;
-    private DeepLinkInternal deepLinkInternal;
-    private Handler coreSdkHandler;
-    private RequestContext requestContext;
-    private MobileEngageCoreCompletionHandler completionHandler;
+    private static final String EVENT_JOURNAL_DIRECTORY = "mobile_engage_event_journal";
 
+    private final List<Lazy<?>> providers = new ArrayList<>();
+
+    private StartupTracer startupTracer;
+    private MobileEngageConfig config;
+    private Application application;
     private Handler uiHandler;
+    private Handler coreSdkHandler;
     private TimestampProvider timestampProvider;
+    private RequestIdProvider requestIdProvider;
     private DoNotDisturbProvider doNotDisturbProvider;
-    private AppLoginStorage appLoginStorage;
-    private MeIdStorage meIdStorage;
-    private MeIdSignatureStorage meIdSignatureStorage;
-    private DeviceInfo deviceInfo;
-    private RequestManager requestManager;
-    private ButtonClickedRepository buttonClickedRepository;
-    private DisplayedIamRepository displayedIamRepository;
-    private Repository<RequestModel, SqlSpecification> requestModelRepository;
-    private RestClient restClient;
-    private Repository<Map<String, Object>, SqlSpecification> logRepositoryProxy;
-    private Application application;
+    private MobileEngageCoreCompletionHandler completionHandler;
     private ActivityLifecycleWatchdog activityLifecycleWatchdog;
-    private InAppPresenter inAppPresenter;
-    private RequestIdProvider requestIdProvider;
+
+    private final Lazy<AppLoginStorage> appLoginStorage = register(new Lazy<AppLoginStorage>("AppLoginStorage") {
+        @Override
+        protected AppLoginStorage create() {
+            return new AppLoginStorage(application);
+        }
+    });
+
+    private final Lazy<MeIdStorage> meIdStorage = register(new Lazy<MeIdStorage>("MeIdStorage") {
+        @Override
+        protected MeIdStorage create() {
+            return new MeIdStorage(application);
+        }
+    });
+
+    private final Lazy<MeIdSignatureStorage> meIdSignatureStorage = register(new Lazy<MeIdSignatureStorage>("MeIdSignatureStorage") {
+        @Override
+        protected MeIdSignatureStorage create() {
+            return new MeIdSignatureStorage(application);
+        }
+    });
+
+    private final Lazy<LastMobileActivityStorage> lastMobileActivityStorage = register(new Lazy<LastMobileActivityStorage>("LastMobileActivityStorage") {
+        @Override
+        protected LastMobileActivityStorage create() {
+            return new LastMobileActivityStorage(application);
+        }
+    });
+
+    private final Lazy<DeviceInfo> deviceInfo = register(new Lazy<DeviceInfo>("DeviceInfo") {
+        @Override
+        protected DeviceInfo create() {
+            return new DeviceInfo(application);
+        }
+    });
+
+    private final Lazy<MobileEngageDbHelper> dbHelper = register(new Lazy<MobileEngageDbHelper>("MobileEngageDbHelper") {
+        @Override
+        protected MobileEngageDbHelper create() {
+            return new MobileEngageDbHelper(application);
+        }
+    });
+
+    private final Lazy<CachedButtonClickedRepository> buttonClickedRepository = register(new Lazy<CachedButtonClickedRepository>("ButtonClickedRepository") {
+        @Override
+        protected CachedButtonClickedRepository create() {
+            return new CachedButtonClickedRepository(new ButtonClickedRepository(dbHelper.get()));
+        }
+    });
+
+    private final Lazy<CachedDisplayedIamRepository> displayedIamRepository = register(new Lazy<CachedDisplayedIamRepository>("DisplayedIamRepository") {
+        @Override
+        protected CachedDisplayedIamRepository create() {
+            return new CachedDisplayedIamRepository(new DisplayedIamRepository(dbHelper.get()));
+        }
+    });
+
+    private final Lazy<InboxCacheRepository> inboxCacheRepository = register(new Lazy<InboxCacheRepository>("InboxCacheRepository") {
+        @Override
+        protected InboxCacheRepository create() {
+            return new InboxCacheRepository(dbHelper.get());
+        }
+    });
+
+    private final Lazy<Repository<RequestModel, SqlSpecification>> requestModelRepository = register(new Lazy<Repository<RequestModel, SqlSpecification>>("RequestModelRepository") {
+        @Override
+        protected Repository<RequestModel, SqlSpecification> create() {
+            return createRequestModelRepository(application, config);
+        }
+    });
+
+    private final Lazy<Repository<Map<String, Object>, SqlSpecification>> logRepository = register(new Lazy<Repository<Map<String, Object>, SqlSpecification>>("LogRepository") {
+        @Override
+        protected Repository<Map<String, Object>, SqlSpecification> create() {
+            return new LogRepository(application);
+        }
+    });
+
+    private final Lazy<Repository<Map<String, Object>, SqlSpecification>> logRepositoryProxy = register(new Lazy<Repository<Map<String, Object>, SqlSpecification>>("LogRepositoryProxy") {
+        @Override
+        protected Repository<Map<String, Object>, SqlSpecification> create() {
+            List<com.emarsys.core.handler.Handler<Map<String, Object>, Map<String, Object>>> logHandlers = Arrays.<com.emarsys.core.handler.Handler<Map<String, Object>, Map<String, Object>>>asList(
+                    new IamMetricsLogHandler(new HashMap<String, Map<String, Object>>()),
+                    new RequestCompressionLogHandler()
+            );
+            return new LogRepositoryProxy(logRepository.get(), logHandlers);
+        }
+    });
+
+    private final Lazy<RestClient> restClient = register(new Lazy<RestClient>("RestClient") {
+        @Override
+        protected RestClient create() {
+            return new RestClient(logRepositoryProxy.get(), createConnectionProvider(config), timestampProvider);
+        }
+    });
+
+    private final Lazy<RestClient> inboxRestClient = register(new Lazy<RestClient>("InboxRestClient") {
+        @Override
+        protected RestClient create() {
+            return new RestClient(logRepositoryProxy.get(), createInboxConnectionProvider(config), timestampProvider);
+        }
+    });
+
+    private final Lazy<Worker> worker = register(new Lazy<Worker>("Worker") {
+        @Override
+        protected Worker create() {
+            ConnectionWatchDog connectionWatchDog = new ConnectionWatchDog(application, coreSdkHandler);
+            return new DefaultWorker(
+                    requestModelRepository.get(),
+                    connectionWatchDog,
+                    coreSdkHandler,
+                    completionHandler,
+                    restClient.get());
+        }
+    });
+
+    private final Lazy<RequestManager> requestManager = register(new Lazy<RequestManager>("RequestManager") {
+        @Override
+        protected RequestManager create() {
+            RequestManager result = new RequestManager(
+                    coreSdkHandler,
+                    requestModelRepository.get(),
+                    worker.get());
+            result.setDefaultHeaders(RequestHeaderUtils.createDefaultHeaders(config));
+            return result;
+        }
+
+        @Override
+        protected void onCreated(RequestManager value) {
+            coreSdkHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    initializeResponseHandlers();
+                }
+            });
+        }
+    });
+
+    private final Lazy<RequestContext> requestContext = register(new Lazy<RequestContext>("RequestContext") {
+        @Override
+        protected RequestContext create() {
+            return new RequestContext(
+                    config,
+                    deviceInfo.get(),
+                    appLoginStorage.get(),
+                    meIdStorage.get(),
+                    meIdSignatureStorage.get(),
+                    timestampProvider,
+                    requestIdProvider);
+        }
+    });
+
+    private final Lazy<EventBuffer> eventBuffer = register(new Lazy<EventBuffer>("EventBuffer") {
+        @Override
+        protected EventBuffer create() {
+            return new EventBuffer(coreSdkHandler, requestManager.get(), requestContext.get());
+        }
+
+        @Override
+        protected void onCreated(EventBuffer value) {
+            application.registerComponentCallbacks(value);
+        }
+    });
+
+    private final Lazy<CustomEventQueue> customEventQueue = register(new Lazy<CustomEventQueue>("CustomEventQueue") {
+        @Override
+        protected CustomEventQueue create() {
+            return new CustomEventQueue(coreSdkHandler, requestManager.get(), requestContext.get());
+        }
+    });
+
+    private final Lazy<MobileEngageInternal> mobileEngageInternal = register(new Lazy<MobileEngageInternal>("MobileEngageInternal") {
+        @Override
+        protected MobileEngageInternal create() {
+            return new MobileEngageInternal(
+                    config,
+                    requestManager.get(),
+                    uiHandler,
+                    completionHandler,
+                    requestContext.get(),
+                    eventBuffer.get(),
+                    customEventQueue.get(),
+                    lastMobileActivityStorage.get()
+            );
+        }
+
+        @Override
+        protected void onCreated(MobileEngageInternal value) {
+            application.registerComponentCallbacks(value.getLastMobileActivityThrottler());
+        }
+    });
+
+    private final Lazy<InboxInternal> inboxInternal = register(new Lazy<InboxInternal>("InboxInternal") {
+        @Override
+        protected InboxInternal create() {
+            return new InboxInternalProvider().provideInboxInternal(
+                    MobileEngageExperimental.isFeatureEnabled(MobileEngageFeature.USER_CENTRIC_INBOX),
+                    requestManager.get(),
+                    inboxRestClient.get(),
+                    requestContext.get(),
+                    inboxCacheRepository.get(),
+                    coreSdkHandler
+            );
+        }
+    });
+
+    private final Lazy<DeepLinkInternal> deepLinkInternal = register(new Lazy<DeepLinkInternal>("DeepLinkInternal") {
+        @Override
+        protected DeepLinkInternal create() {
+            return new DeepLinkInternal(requestManager.get(), requestContext.get());
+        }
+    });
+
+    private final Lazy<InAppPresenter> inAppPresenter = register(new Lazy<InAppPresenter>("InAppPresenter") {
+        @Override
+        protected InAppPresenter create() {
+            return new InAppPresenter(
+                    coreSdkHandler,
+                    new IamWebViewProvider(),
+                    new InAppMessageHandlerProvider(),
+                    new IamDialogProvider(logRepository.get()),
+                    buttonClickedRepository.get(),
+                    displayedIamRepository.get(),
+                    timestampProvider,
+                    mobileEngageInternal.get());
+        }
+    });
 
     public DefaultDependencyContainer(MobileEngageConfig mobileEngageConfig) {
-        initializeDependencies(mobileEngageConfig);
-        initializeInstances(mobileEngageConfig);
-        initializeInAppPresenter();
-        initializeResponseHandlers();
+        this(mobileEngageConfig, new StartupTracer());
+    }
+
+    public DefaultDependencyContainer(MobileEngageConfig mobileEngageConfig, StartupTracer startupTracer) {
+        Assert.notNull(mobileEngageConfig, "MobileEngageConfig must not be null!");
+        Assert.notNull(startupTracer, "StartupTracer must not be null!");
+        this.startupTracer = startupTracer;
+        for (Lazy<?> provider : providers) {
+            provider.setStartupTracer(startupTracer);
+        }
+
+        config = mobileEngageConfig;
+        application = mobileEngageConfig.getApplication();
+
+        uiHandler = new Handler(Looper.getMainLooper());
+        coreSdkHandler = new CoreSdkHandlerProvider().provideHandler();
+        timestampProvider = new TimestampProvider();
+        requestIdProvider = new RequestIdProvider();
+        doNotDisturbProvider = new DoNotDisturbProvider();
+        completionHandler = new MobileEngageCoreCompletionHandler(config.getStatusListener());
+
         initializeActivityLifecycleWatchdog();
+
+        coreSdkHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                initializeDependencies();
+                initializeInstances();
+                initializeInAppPresenter();
+            }
+        });
     }
 
     @Override
     public MobileEngageInternal getMobileEngageInternal() {
-        return mobileEngageInternal;
+        return mobileEngageInternal.get();
     }
 
     @Override
     public InboxInternal getInboxInternal() {
-        return inboxInternal;
+        return inboxInternal.get();
     }
 
     @Override
     public DeepLinkInternal getDeepLinkInternal() {
-        return deepLinkInternal;
+        return deepLinkInternal.get();
     }
 
     @Override
@@ -116,7 +375,7 @@ public class DefaultDependencyContainer implements DependencyContainer {
 
     @Override
     public RequestContext getRequestContext() {
-        return requestContext;
+        return requestContext.get();
     }
 
     @Override
@@ -131,88 +390,92 @@ public class DefaultDependencyContainer implements DependencyContainer {
 
     @Override
     public InAppPresenter getInAppPresenter() {
-        return inAppPresenter;
+        return inAppPresenter.get();
     }
 
-    private void initializeDependencies(MobileEngageConfig config) {
-        application = config.getApplication();
+    @Override
+    public EventBuffer getEventBuffer() {
+        return eventBuffer.get();
+    }
 
-        uiHandler = new Handler(Looper.getMainLooper());
-        coreSdkHandler = new CoreSdkHandlerProvider().provideHandler();
-        timestampProvider = new TimestampProvider();
-        requestIdProvider = new RequestIdProvider();
-        doNotDisturbProvider = new DoNotDisturbProvider();
-        appLoginStorage = new AppLoginStorage(application);
-        meIdStorage = new MeIdStorage(application);
-        meIdSignatureStorage = new MeIdSignatureStorage(application);
-        deviceInfo = new DeviceInfo(application);
-        buttonClickedRepository = new ButtonClickedRepository(application);
-        displayedIamRepository = new DisplayedIamRepository(application);
-        completionHandler = new MobileEngageCoreCompletionHandler(config.getStatusListener());
+    @Override
+    public StartupTracer getStartupTracer() {
+        return startupTracer;
+    }
+
+    Map<String, Long> getConstructionTimes() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Lazy<?> provider : providers) {
+            result.put(provider.getName(), provider.getConstructionTimeNanos());
+        }
+        return result;
+    }
+
+    private <T> Lazy<T> register(Lazy<T> provider) {
+        providers.add(provider);
+        return provider;
+    }
+
+    private void initializeDependencies() {
+        StartupTracer.Section section = startupTracer.beginSection("initializeDependencies");
+        try {
+            requestContext.get();
+            requestManager.get();
+            eventBuffer.get();
+            customEventQueue.get();
+        } finally {
+            section.end();
+        }
+    }
 
-        requestModelRepository = createRequestModelRepository(application);
-
-        Repository<Map<String, Object>, SqlSpecification> logRepository = new LogRepository(application);
-        List<com.emarsys.core.handler.Handler<Map<String, Object>, Map<String, Object>>> logHandlers = Arrays.<com.emarsys.core.handler.Handler<Map<String, Object>, Map<String, Object>>>asList(
-                new IamMetricsLogHandler(new HashMap<String, Map<String, Object>>())
-        );
-        logRepositoryProxy = new LogRepositoryProxy(logRepository, logHandlers);
-        restClient = new RestClient(logRepositoryProxy, new ConnectionProvider(), timestampProvider);
-
-        ConnectionWatchDog connectionWatchDog = new ConnectionWatchDog(application, coreSdkHandler);
-        Worker worker = new DefaultWorker(
-                requestModelRepository,
-                connectionWatchDog,
-                coreSdkHandler,
-                completionHandler,
-                restClient);
-
-        requestManager = new RequestManager(
-                coreSdkHandler,
-                requestModelRepository,
-                worker);
-        requestManager.setDefaultHeaders(RequestHeaderUtils.createDefaultHeaders(config));
-
-        requestContext = new RequestContext(
-                config,
-                deviceInfo,
-                appLoginStorage,
-                meIdStorage,
-                meIdSignatureStorage,
-                timestampProvider,
-                requestIdProvider);
+    ConnectionProvider createConnectionProvider(MobileEngageConfig config) {
+        ConnectionProvider result = new ConnectionProvider();
+        if (config.getRequestCompressionMinSizeBytes() > 0) {
+            result = new GzipConnectionProvider(config.getRequestCompressionMinSizeBytes(), logRepositoryProxy.get());
+        }
+        return result;
+    }
+
+    ConnectionProvider createInboxConnectionProvider(MobileEngageConfig config) {
+        return new EmptyErrorStreamConnectionProvider(createConnectionProvider(config));
     }
 
-    private Repository<RequestModel, SqlSpecification> createRequestModelRepository(Context application) {
+    private Repository<RequestModel, SqlSpecification> createRequestModelRepository(Context application, MobileEngageConfig config) {
         RequestModelRepository requestModelRepository = new RequestModelRepository(application);
         if (MobileEngageExperimental.isV3Enabled()) {
             return new RequestRepositoryProxy(
-                    deviceInfo,
+                    deviceInfo.get(),
                     requestModelRepository,
-                    displayedIamRepository,
-                    buttonClickedRepository,
+                    displayedIamRepository.get(),
+                    buttonClickedRepository.get(),
+                    createEventStore(application, config),
                     timestampProvider,
-                    doNotDisturbProvider);
+                    doNotDisturbProvider,
+                    config.getCompositeRequestConfig());
         } else {
             return requestModelRepository;
         }
     }
 
-    private void initializeInstances(@NonNull MobileEngageConfig config) {
-        mobileEngageInternal = new MobileEngageInternal(
-                config,
-                requestManager,
-                uiHandler,
-                completionHandler,
-                requestContext
-        );
-        inboxInternal = new InboxInternalProvider().provideInboxInternal(
-                MobileEngageExperimental.isFeatureEnabled(MobileEngageFeature.USER_CENTRIC_INBOX),
-                requestManager,
-                restClient,
-                requestContext
-        );
-        deepLinkInternal = new DeepLinkInternal(requestManager, requestContext);
+    private EventStore createEventStore(Context application, MobileEngageConfig config) {
+        EventStore result;
+        if (config.isEventJournalEnabled()) {
+            result = new EventJournal(new File(application.getFilesDir(), EVENT_JOURNAL_DIRECTORY));
+        } else {
+            result = new EventRepository(dbHelper.get());
+        }
+        return result;
+    }
+
+    private void initializeInstances() {
+        StartupTracer.Section section = startupTracer.beginSection("initializeInstances");
+        try {
+            mobileEngageInternal.get();
+            inboxInternal.get();
+            deepLinkInternal.get();
+        } finally {
+            section.end();
+        }
     }
 
     private void initializeActivityLifecycleWatchdog() {
@@ -233,38 +496,47 @@ public class DefaultDependencyContainer implements DependencyContainer {
     }
 
     private void initializeInAppPresenter() {
-        inAppPresenter = new InAppPresenter(
-                coreSdkHandler,
-                new IamWebViewProvider(),
-                new InAppMessageHandlerProvider(),
-                new IamDialogProvider(),
-                buttonClickedRepository,
-                displayedIamRepository,
-                timestampProvider,
-                mobileEngageInternal);
+        StartupTracer.Section section = startupTracer.beginSection("initializeInAppPresenter");
+        try {
+            if (MobileEngageExperimental.isFeatureEnabled(MobileEngageFeature.IN_APP_MESSAGING)) {
+                inAppPresenter.get();
+            }
+        } finally {
+            section.end();
+        }
     }
 
     private void initializeResponseHandlers() {
+        StartupTracer.Section section = startupTracer.beginSection("initializeResponseHandlers");
+        try {
+            completionHandler.addResponseHandlers(createResponseHandlers());
+        } finally {
+            section.end();
+        }
+    }
+
+    private List<AbstractResponseHandler> createResponseHandlers() {
         List<AbstractResponseHandler> responseHandlers = new ArrayList<>();
 
         if (MobileEngageExperimental.isV3Enabled()) {
             responseHandlers.add(new MeIdResponseHandler(
-                    meIdStorage,
-                    meIdSignatureStorage));
+                    meIdStorage.get(),
+                    meIdSignatureStorage.get(),
+                    requestContext.get()));
         }
 
         if (MobileEngageExperimental.isFeatureEnabled(MobileEngageFeature.IN_APP_MESSAGING)) {
             responseHandlers.add(new InAppMessageResponseHandler(
-                    inAppPresenter,
-                    logRepositoryProxy,
+                    inAppPresenter.get(),
+                    logRepositoryProxy.get(),
                     timestampProvider));
 
             responseHandlers.add(new InAppCleanUpResponseHandler(
-                    displayedIamRepository,
-                    buttonClickedRepository
+                    displayedIamRepository.get(),
+                    buttonClickedRepository.get()
             ));
         }
 
-        completionHandler.addResponseHandlers(responseHandlers);
+        return responseHandlers;
     }
 }
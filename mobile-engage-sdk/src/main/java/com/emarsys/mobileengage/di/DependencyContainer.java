@@ -7,8 +7,10 @@ import com.emarsys.mobileengage.MobileEngageCoreCompletionHandler;
 import com.emarsys.mobileengage.MobileEngageInternal;
 import com.emarsys.mobileengage.RequestContext;
 import com.emarsys.mobileengage.deeplink.DeepLinkInternal;
+import com.emarsys.mobileengage.event.EventBuffer;
 import com.emarsys.mobileengage.iam.InAppPresenter;
 import com.emarsys.mobileengage.inbox.InboxInternal;
+import com.emarsys.mobileengage.startup.StartupTracer;
 
 public interface DependencyContainer {
 
@@ -27,4 +29,8 @@ public interface DependencyContainer {
     ActivityLifecycleWatchdog getActivityLifecycleWatchdog();
 
     InAppPresenter getInAppPresenter();
+
+    EventBuffer getEventBuffer();
+
+    StartupTracer getStartupTracer();
 }
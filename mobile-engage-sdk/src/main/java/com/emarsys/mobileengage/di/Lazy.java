@@ -0,0 +1,98 @@
+package com.emarsys.mobileengage.di;
+
+import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.startup.StartupTracer;
+
+public abstract class Lazy<T> {
+
+    public static final long NOT_CREATED = -1;
+
+    private final String name;
+    private final Object lock = new Object();
+
+    private volatile T value;
+    private T created;
+    private boolean creating;
+    private long constructionTimeNanos = NOT_CREATED;
+    private StartupTracer startupTracer;
+
+    public static <T> Lazy<T> of(final T value) {
+        Assert.notNull(value, "Value must not be null!");
+        Lazy<T> result = new Lazy<T>(value.getClass().getSimpleName()) {
+            @Override
+            protected T create() {
+                return value;
+            }
+        };
+        result.value = value;
+        result.constructionTimeNanos = 0;
+        return result;
+    }
+
+    public Lazy(String name) {
+        Assert.notNull(name, "Name must not be null!");
+        this.name = name;
+    }
+
+    public T get() {
+        T result = value;
+        if (result == null) {
+            synchronized (lock) {
+                result = value;
+                if (result == null) {
+                    result = created != null ? created : createValue();
+                }
+            }
+        }
+        return result;
+    }
+
+    public boolean isCreated() {
+        return value != null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getConstructionTimeNanos() {
+        synchronized (lock) {
+            return constructionTimeNanos;
+        }
+    }
+
+    void setStartupTracer(StartupTracer startupTracer) {
+        synchronized (lock) {
+            this.startupTracer = startupTracer;
+        }
+    }
+
+    protected abstract T create();
+
+    protected void onCreated(T value) {
+    }
+
+    private T createValue() {
+        if (creating) {
+            throw new IllegalStateException("Circular dependency while creating " + name + "!");
+        }
+        creating = true;
+        StartupTracer.Section section = startupTracer == null ? null : startupTracer.beginSection(name);
+        try {
+            long start = System.nanoTime();
+            created = create();
+            constructionTimeNanos = System.nanoTime() - start;
+        } finally {
+            creating = false;
+            if (section != null) {
+                section.end();
+            }
+        }
+        Assert.notNull(created, name + " must not be null!");
+
+        onCreated(created);
+        value = created;
+        created = null;
+        return value;
+    }
+}
@@ -0,0 +1,109 @@
+package com.emarsys.mobileengage.event;
+
+import android.os.Handler;
+
+import com.emarsys.core.request.RequestManager;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.log.EMSLogger;
+import com.emarsys.mobileengage.MobileEngageUtils;
+import com.emarsys.mobileengage.RequestContext;
+import com.emarsys.mobileengage.util.RequestModelUtils;
+import com.emarsys.mobileengage.util.log.MobileEngageTopic;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class CustomEventQueue {
+
+    static final long MISSING_ME_ID_RETRY_DELAY_MILLIS = 5000;
+
+    private final Handler coreSdkHandler;
+    private final RequestManager manager;
+    private final RequestContext requestContext;
+    private final Queue<PendingEvent> pendingEvents;
+    private final AtomicBoolean drainScheduled;
+    private final Runnable drainRunnable;
+
+    public CustomEventQueue(Handler coreSdkHandler, RequestManager manager, RequestContext requestContext) {
+        Assert.notNull(coreSdkHandler, "CoreSdkHandler must not be null!");
+        Assert.notNull(manager, "Manager must not be null!");
+        Assert.notNull(requestContext, "RequestContext must not be null!");
+        this.coreSdkHandler = coreSdkHandler;
+        this.manager = manager;
+        this.requestContext = requestContext;
+        this.pendingEvents = new ConcurrentLinkedQueue<>();
+        this.drainScheduled = new AtomicBoolean(false);
+        this.drainRunnable = new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return requestContext.getConfig().isAsyncEventTrackingEnabled();
+    }
+
+    public String offer(String eventName, Map<String, String> eventAttributes) {
+        Assert.notNull(eventName, "EventName must not be null!");
+
+        String requestId = requestContext.getRequestIdProvider().provideId();
+        long timestamp = requestContext.getTimestampProvider().provideTimestamp();
+        Map<String, String> attributes = eventAttributes == null || eventAttributes.isEmpty() ? null : new HashMap<>(eventAttributes);
+
+        MobileEngageUtils.incrementIdlingResource();
+        pendingEvents.offer(new PendingEvent(eventName, attributes, timestamp, requestId));
+
+        if (drainScheduled.compareAndSet(false, true)) {
+            coreSdkHandler.post(drainRunnable);
+        }
+        return requestId;
+    }
+
+    public int size() {
+        return pendingEvents.size();
+    }
+
+    void drain() {
+        drainScheduled.set(false);
+
+        if (requestContext.getSession().getMeId() == null) {
+            EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Missing MeId, keeping %s queued events", size());
+            if (!pendingEvents.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+                coreSdkHandler.postDelayed(drainRunnable, MISSING_ME_ID_RETRY_DELAY_MILLIS);
+            }
+            return;
+        }
+
+        PendingEvent event;
+        while ((event = pendingEvents.poll()) != null) {
+            RequestModel model = RequestModelUtils.createCustomEvent_V3(
+                    event.eventName,
+                    event.attributes,
+                    event.timestamp,
+                    event.requestId,
+                    requestContext);
+
+            manager.submit(model);
+        }
+    }
+
+    private static class PendingEvent {
+        private final String eventName;
+        private final Map<String, String> attributes;
+        private final long timestamp;
+        private final String requestId;
+
+        PendingEvent(String eventName, Map<String, String> attributes, long timestamp, String requestId) {
+            this.eventName = eventName;
+            this.attributes = attributes;
+            this.timestamp = timestamp;
+            this.requestId = requestId;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.emarsys.mobileengage.event;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.emarsys.core.util.Assert;
+
+import java.util.Map;
+
+public class Event {
+    private final String name;
+    private final Map<String, String> attributes;
+    private final long timestamp;
+
+    public Event(@NonNull String name, @Nullable Map<String, String> attributes, long timestamp) {
+        Assert.notNull(name, "Name must not be null!");
+        this.name = name;
+        this.attributes = attributes;
+        this.timestamp = timestamp;
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @Nullable
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Event that = (Event) o;
+
+        if (timestamp != that.timestamp) return false;
+        if (name != null ? !name.equals(that.name) : that.name != null) return false;
+        return attributes != null ? attributes.equals(that.attributes) : that.attributes == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name != null ? name.hashCode() : 0;
+        result = 31 * result + (attributes != null ? attributes.hashCode() : 0);
+        result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Event{" +
+                "name='" + name + '\'' +
+                ", attributes=" + attributes +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
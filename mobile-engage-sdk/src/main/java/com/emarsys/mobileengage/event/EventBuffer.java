@@ -0,0 +1,123 @@
+package com.emarsys.mobileengage.event;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.os.Handler;
+
+import com.emarsys.core.request.RequestManager;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.log.EMSLogger;
+import com.emarsys.mobileengage.MobileEngageUtils;
+import com.emarsys.mobileengage.RequestContext;
+import com.emarsys.mobileengage.config.EventBatchConfig;
+import com.emarsys.mobileengage.util.RequestModelUtils;
+import com.emarsys.mobileengage.util.log.MobileEngageTopic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class EventBuffer implements ComponentCallbacks2 {
+
+    private final Handler coreSdkHandler;
+    private final RequestManager manager;
+    private final RequestContext requestContext;
+    private final EventBatchConfig batchConfig;
+    private final Runnable flushRunnable;
+
+    private List<Map<String, Object>> events;
+    private String batchId;
+
+    public EventBuffer(Handler coreSdkHandler, RequestManager manager, RequestContext requestContext) {
+        Assert.notNull(coreSdkHandler, "CoreSdkHandler must not be null!");
+        Assert.notNull(manager, "Manager must not be null!");
+        Assert.notNull(requestContext, "RequestContext must not be null!");
+        this.coreSdkHandler = coreSdkHandler;
+        this.manager = manager;
+        this.requestContext = requestContext;
+        this.batchConfig = requestContext.getConfig().getEventBatchConfig();
+        this.events = new ArrayList<>();
+        this.flushRunnable = new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return batchConfig.isEnabled();
+    }
+
+    public synchronized String add(Map<String, Object> event) {
+        Assert.notNull(event, "Event must not be null!");
+
+        if (events.isEmpty()) {
+            batchId = requestContext.getRequestIdProvider().provideId();
+            coreSdkHandler.postDelayed(flushRunnable, batchConfig.getMaxDelayMillis());
+        }
+
+        events.add(event);
+
+        if (events.size() >= batchConfig.getMaxBatchSize()) {
+            coreSdkHandler.removeCallbacks(flushRunnable);
+            coreSdkHandler.post(flushRunnable);
+        }
+        return batchId;
+    }
+
+    public synchronized int size() {
+        return events.size();
+    }
+
+    public void flush() {
+        String meId = requestContext.getSession().getMeId();
+        if (meId == null) {
+            synchronized (this) {
+                EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Missing MeId, keeping %s buffered events", events.size());
+                coreSdkHandler.removeCallbacks(flushRunnable);
+                if (!events.isEmpty()) {
+                    coreSdkHandler.postDelayed(flushRunnable, batchConfig.getMaxDelayMillis());
+                }
+            }
+            return;
+        }
+
+        List<Map<String, Object>> batch;
+        String id;
+        synchronized (this) {
+            coreSdkHandler.removeCallbacks(flushRunnable);
+            if (events.isEmpty()) {
+                return;
+            }
+            batch = events;
+            id = batchId;
+            events = new ArrayList<>();
+            batchId = null;
+        }
+
+        EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Flushing %s buffered events", batch.size());
+
+        RequestModel model = RequestModelUtils.createCustomEventBatch_V3(batch, id, requestContext);
+
+        MobileEngageUtils.incrementIdlingResource();
+        manager.submit(model);
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            coreSdkHandler.post(flushRunnable);
+        }
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    @Override
+    public void onLowMemory() {
+        coreSdkHandler.post(flushRunnable);
+    }
+}
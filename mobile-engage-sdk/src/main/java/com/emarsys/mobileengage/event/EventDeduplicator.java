@@ -0,0 +1,128 @@
+package com.emarsys.mobileengage.event;
+
+import com.emarsys.core.timestamp.TimestampProvider;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.log.EMSLogger;
+import com.emarsys.mobileengage.util.log.MobileEngageTopic;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class EventDeduplicator {
+
+    public static final int DEFAULT_MAX_FINGERPRINTS = 64;
+
+    private final long windowMillis;
+    private final TimestampProvider timestampProvider;
+    private final Map<Fingerprint, Entry> recentEvents;
+
+    public EventDeduplicator(long windowMillis, TimestampProvider timestampProvider) {
+        this(windowMillis, DEFAULT_MAX_FINGERPRINTS, timestampProvider);
+    }
+
+    EventDeduplicator(long windowMillis, final int maxFingerprints, TimestampProvider timestampProvider) {
+        Assert.notNull(timestampProvider, "TimestampProvider must not be null!");
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException("WindowMillis must not be negative!");
+        }
+        if (maxFingerprints <= 0) {
+            throw new IllegalArgumentException("MaxFingerprints must be greater than 0!");
+        }
+        this.windowMillis = windowMillis;
+        this.timestampProvider = timestampProvider;
+        this.recentEvents = new LinkedHashMap<Fingerprint, Entry>(maxFingerprints, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Fingerprint, Entry> eldest) {
+                return size() > maxFingerprints;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return windowMillis > 0;
+    }
+
+    public String findOrRegister(String eventName, Map<String, String> eventAttributes, Submission submission) {
+        Assert.notNull(submission, "Submission must not be null!");
+
+        if (!isEnabled()) {
+            return submission.submit();
+        }
+
+        Fingerprint fingerprint = new Fingerprint(eventName, eventAttributes);
+        long timestamp = timestampProvider.provideTimestamp();
+        Entry reservation = new Entry(null, timestamp);
+        synchronized (this) {
+            Entry entry = recentEvents.get(fingerprint);
+            if (entry != null && timestamp - entry.timestamp < windowMillis) {
+                EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Duplicate event suppressed: %s", eventName);
+                return entry.requestId;
+            }
+            recentEvents.remove(fingerprint);
+            recentEvents.put(fingerprint, reservation);
+        }
+
+        String requestId = submission.submit();
+
+        synchronized (this) {
+            if (recentEvents.get(fingerprint) == reservation) {
+                if (requestId != null) {
+                    recentEvents.put(fingerprint, new Entry(requestId, timestamp));
+                } else {
+                    recentEvents.remove(fingerprint);
+                }
+            }
+        }
+        return requestId;
+    }
+
+    synchronized int size() {
+        return recentEvents.size();
+    }
+
+    public interface Submission {
+        String submit();
+    }
+
+    private static class Fingerprint {
+        private final String eventName;
+        private final Map<String, String> attributes;
+
+        Fingerprint(String eventName, Map<String, String> eventAttributes) {
+            this.eventName = eventName;
+            this.attributes = eventAttributes == null || eventAttributes.isEmpty()
+                    ? Collections.<String, String>emptyMap()
+                    : new HashMap<>(eventAttributes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Fingerprint that = (Fingerprint) o;
+
+            if (!attributes.equals(that.attributes)) return false;
+            return eventName != null ? eventName.equals(that.eventName) : that.eventName == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = eventName != null ? eventName.hashCode() : 0;
+            result = 31 * result + attributes.hashCode();
+            return result;
+        }
+    }
+
+    private static class Entry {
+        private final String requestId;
+        private final long timestamp;
+
+        Entry(String requestId, long timestamp) {
+            this.requestId = requestId;
+            this.timestamp = timestamp;
+        }
+    }
+}
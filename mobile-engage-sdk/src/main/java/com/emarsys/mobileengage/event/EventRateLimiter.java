@@ -0,0 +1,114 @@
+package com.emarsys.mobileengage.event;
+
+import com.emarsys.core.timestamp.TimestampProvider;
+import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.config.EventRateLimitRule;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class EventRateLimiter {
+
+    private final Map<String, Limit> limits;
+    private final TimestampProvider timestampProvider;
+    private final Random random;
+
+    public EventRateLimiter(List<EventRateLimitRule> rules, TimestampProvider timestampProvider) {
+        this(rules, timestampProvider, new Random());
+    }
+
+    EventRateLimiter(List<EventRateLimitRule> rules, TimestampProvider timestampProvider, Random random) {
+        Assert.notNull(rules, "Rules must not be null!");
+        Assert.elementsNotNull(rules, "Rule elements must not be null!");
+        Assert.notNull(timestampProvider, "TimestampProvider must not be null!");
+        Assert.notNull(random, "Random must not be null!");
+
+        Map<String, Limit> limits = new HashMap<>();
+        for (EventRateLimitRule rule : rules) {
+            limits.put(rule.getEventName(), new Limit(rule));
+        }
+        this.limits = Collections.unmodifiableMap(limits);
+        this.timestampProvider = timestampProvider;
+        this.random = random;
+    }
+
+    public boolean tryAcquire(String eventName) {
+        Limit limit = limits.get(eventName);
+        if (limit == null) {
+            return true;
+        }
+
+        if (!limit.sample(random)) {
+            limit.sampledOut.incrementAndGet();
+            return false;
+        }
+
+        if (!limit.acquire(timestampProvider.provideTimestamp())) {
+            limit.rateLimited.incrementAndGet();
+            return false;
+        }
+
+        return true;
+    }
+
+    public long getSampledOutCount(String eventName) {
+        Limit limit = limits.get(eventName);
+        return limit == null ? 0 : limit.sampledOut.get();
+    }
+
+    public long getRateLimitedCount(String eventName) {
+        Limit limit = limits.get(eventName);
+        return limit == null ? 0 : limit.rateLimited.get();
+    }
+
+    public Map<String, Long> getDroppedCounts() {
+        Map<String, Long> result = new HashMap<>();
+        for (Map.Entry<String, Limit> entry : limits.entrySet()) {
+            Limit limit = entry.getValue();
+            result.put(entry.getKey(), limit.sampledOut.get() + limit.rateLimited.get());
+        }
+        return result;
+    }
+
+    private static class Limit {
+        private final double sampleRate;
+        private final boolean hasRateLimit;
+        private final long intervalMicros;
+        private final long burstMicros;
+        private final AtomicLong theoreticalArrivalTime = new AtomicLong();
+        private final AtomicLong sampledOut = new AtomicLong();
+        private final AtomicLong rateLimited = new AtomicLong();
+
+        Limit(EventRateLimitRule rule) {
+            this.sampleRate = rule.getSampleRate();
+            this.hasRateLimit = rule.isRateLimited();
+            this.intervalMicros = hasRateLimit ? rule.getWindowMillis() * 1000 / rule.getMaxEvents() : 0;
+            this.burstMicros = intervalMicros * rule.getBurstSize();
+        }
+
+        boolean sample(Random random) {
+            return sampleRate >= 1 || (sampleRate > 0 && random.nextDouble() < sampleRate);
+        }
+
+        boolean acquire(long nowMillis) {
+            if (!hasRateLimit) {
+                return true;
+            }
+            long now = nowMillis * 1000;
+            while (true) {
+                long tat = theoreticalArrivalTime.get();
+                long newTat = Math.max(tat, now) + intervalMicros;
+                if (newTat - now > burstMicros) {
+                    return false;
+                }
+                if (theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.emarsys.mobileengage.event;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.util.TimestampFormatUtils;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+public final class EventRecord extends AbstractMap<String, Object> implements Serializable {
+
+    public static final String TYPE_CUSTOM = "custom";
+    public static final String TYPE_INTERNAL = "internal";
+
+    static final String TYPE = "type";
+    static final String NAME = "name";
+    static final String TIMESTAMP = "timestamp";
+    static final String ATTRIBUTES = "attributes";
+
+    private final String type;
+    private final String name;
+    private final long timestamp;
+    private final Map<String, String> attributes;
+
+    private Set<Entry<String, Object>> entrySet;
+
+    public EventRecord(@NonNull String type, @NonNull String name, long timestamp, @Nullable Map<String, String> attributes) {
+        Assert.notNull(type, "Type must not be null!");
+        Assert.notNull(name, "Name must not be null!");
+        this.type = type.intern();
+        this.name = name;
+        this.timestamp = timestamp;
+        this.attributes = attributes == null || attributes.isEmpty() ? null : Collections.unmodifiableMap(attributes);
+    }
+
+    @NonNull
+    public String getType() {
+        return type;
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Nullable
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public int size() {
+        return attributes == null ? 3 : 4;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return TYPE.equals(key) || NAME.equals(key) || TIMESTAMP.equals(key) || (attributes != null && ATTRIBUTES.equals(key));
+    }
+
+    @Override
+    public Object get(Object key) {
+        Object result = null;
+        if (TYPE.equals(key)) {
+            result = type;
+        } else if (NAME.equals(key)) {
+            result = name;
+        } else if (TIMESTAMP.equals(key)) {
+            result = TimestampFormatUtils.formatTimestampWithUTC(timestamp);
+        } else if (ATTRIBUTES.equals(key)) {
+            result = attributes;
+        }
+        return result;
+    }
+
+    @NonNull
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private Object writeReplace() {
+        Map<String, Object> result = new HashMap<>(this);
+        if (attributes != null) {
+            result.put(ATTRIBUTES, new HashMap<>(attributes));
+        }
+        return result;
+    }
+
+    private String keyAt(int index) {
+        switch (index) {
+            case 0:
+                return TYPE;
+            case 1:
+                return NAME;
+            case 2:
+                return TIMESTAMP;
+            default:
+                return ATTRIBUTES;
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<String, Object>> {
+        @NonNull
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new Iterator<Entry<String, Object>>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size();
+                }
+
+                @Override
+                public Entry<String, Object> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    String key = keyAt(index++);
+                    return new SimpleImmutableEntry<>(key, get(key));
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return EventRecord.this.size();
+        }
+    }
+}
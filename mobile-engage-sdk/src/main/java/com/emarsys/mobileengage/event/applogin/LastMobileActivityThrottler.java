@@ -0,0 +1,134 @@
+package com.emarsys.mobileengage.event.applogin;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.os.Handler;
+
+import com.emarsys.core.request.RequestManager;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.timestamp.TimestampProvider;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.log.EMSLogger;
+import com.emarsys.mobileengage.MobileEngageUtils;
+import com.emarsys.mobileengage.storage.LastMobileActivityStorage;
+import com.emarsys.mobileengage.util.log.MobileEngageTopic;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LastMobileActivityThrottler implements ComponentCallbacks2 {
+
+    private final Handler handler;
+    private final RequestManager manager;
+    private final LastMobileActivityStorage storage;
+    private final TimestampProvider timestampProvider;
+    private final long intervalMillis;
+    private final AtomicLong suppressedCount;
+    private final Runnable submitPendingRunnable;
+
+    private RequestModel pendingModel;
+
+    public LastMobileActivityThrottler(
+            Handler handler,
+            RequestManager manager,
+            LastMobileActivityStorage storage,
+            TimestampProvider timestampProvider,
+            long intervalMillis) {
+        Assert.notNull(handler, "Handler must not be null!");
+        Assert.notNull(manager, "Manager must not be null!");
+        Assert.notNull(storage, "Storage must not be null!");
+        Assert.notNull(timestampProvider, "TimestampProvider must not be null!");
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("IntervalMillis must not be negative!");
+        }
+        this.handler = handler;
+        this.manager = manager;
+        this.storage = storage;
+        this.timestampProvider = timestampProvider;
+        this.intervalMillis = intervalMillis;
+        this.suppressedCount = new AtomicLong();
+        this.submitPendingRunnable = new Runnable() {
+            @Override
+            public void run() {
+                submitPending();
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return intervalMillis > 0;
+    }
+
+    public synchronized String submit(RequestModel model) {
+        Assert.notNull(model, "Model must not be null!");
+
+        if (!isEnabled()) {
+            send(model);
+            return model.getId();
+        }
+
+        if (pendingModel != null) {
+            suppressedCount.incrementAndGet();
+            EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Last mobile activity collapsed into pending request %s", pendingModel.getId());
+            return pendingModel.getId();
+        }
+
+        long now = timestampProvider.provideTimestamp();
+        Long lastTimestamp = storage.get();
+        if (lastTimestamp == null || now < lastTimestamp || now - lastTimestamp >= intervalMillis) {
+            storage.set(now);
+            send(model);
+        } else {
+            pendingModel = model;
+            handler.postDelayed(submitPendingRunnable, lastTimestamp + intervalMillis - now);
+        }
+        return model.getId();
+    }
+
+    public synchronized void flush() {
+        handler.removeCallbacks(submitPendingRunnable);
+        submitPending();
+    }
+
+    public synchronized void reset() {
+        handler.removeCallbacks(submitPendingRunnable);
+        pendingModel = null;
+        storage.remove();
+    }
+
+    public long getSuppressedCount() {
+        return suppressedCount.get();
+    }
+
+    synchronized RequestModel getPendingModel() {
+        return pendingModel;
+    }
+
+    synchronized void submitPending() {
+        if (pendingModel != null) {
+            storage.set(timestampProvider.provideTimestamp());
+            send(pendingModel);
+            pendingModel = null;
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            flush();
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        flush();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    private void send(RequestModel model) {
+        MobileEngageUtils.incrementIdlingResource();
+        manager.submit(model);
+    }
+}
@@ -0,0 +1,512 @@
+package com.emarsys.mobileengage.event.journal;
+
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.log.EMSLogger;
+import com.emarsys.mobileengage.event.EventRecord;
+import com.emarsys.mobileengage.event.model.EventStore;
+import com.emarsys.mobileengage.event.model.StoredEvent;
+import com.emarsys.mobileengage.util.log.MobileEngageTopic;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+public class EventJournal implements EventStore {
+
+    static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+    static final String CHECKPOINT_FILE_NAME = "checkpoint";
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final String COMPACTION_PREFIX = "compaction-";
+
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final byte KIND_EVENT = 0;
+    private static final byte KIND_REMOVAL = 1;
+    private static final int CHECKPOINT_SLOT_SIZE = 20;
+    private static final int CHECKPOINT_SIZE = 2 * CHECKPOINT_SLOT_SIZE;
+    private static final int MIN_SEGMENTS_TO_COMPACT = 4;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File directory;
+    private final int segmentSize;
+    private final TreeMap<Integer, MappedByteBuffer> segments;
+    private final LinkedHashMap<String, List<Long>> positionsByRequestId;
+
+    private MappedByteBuffer checkpoint;
+    private long checkpointSequence;
+    private int writeSegmentId;
+    private int writeOffset;
+    private long liveBytes;
+    private boolean opened;
+    private boolean failed;
+
+    public EventJournal(File directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    EventJournal(File directory, int segmentSize) {
+        Assert.notNull(directory, "Directory must not be null!");
+        if (segmentSize <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("SegmentSize must be greater than " + RECORD_HEADER_SIZE);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.segments = new TreeMap<>();
+        this.positionsByRequestId = new LinkedHashMap<>();
+    }
+
+    @Override
+    public synchronized boolean addAll(List<StoredEvent> events) {
+        Assert.notNull(events, "Events must not be null!");
+        if (ensureOpen()) {
+            try {
+                for (StoredEvent event : events) {
+                    append(event.getRequestId(), encode(event), true);
+                }
+                compactIfNeeded();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        return opened && !failed;
+    }
+
+    @Override
+    public synchronized List<StoredEvent> queryByRequestIds(String... requestIds) {
+        Assert.notNull(requestIds, "RequestIds must not be null!");
+        List<StoredEvent> result = new ArrayList<>();
+        if (ensureOpen()) {
+            for (String requestId : requestIds) {
+                List<Long> positions = positionsByRequestId.get(requestId);
+                if (positions != null) {
+                    for (long position : positions) {
+                        result.add(decode(readPayload(position)));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Set<String> queryRequestIds() {
+        Set<String> result = new LinkedHashSet<>();
+        if (ensureOpen()) {
+            result.addAll(positionsByRequestId.keySet());
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void removeByRequestIds(String... requestIds) {
+        Assert.notNull(requestIds, "RequestIds must not be null!");
+        if (ensureOpen()) {
+            try {
+                boolean removed = false;
+                for (String requestId : requestIds) {
+                    if (removePositions(requestId)) {
+                        append(requestId, encodeRemoval(requestId), false);
+                        removed = true;
+                    }
+                }
+                if (removed) {
+                    checkpoint();
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    synchronized int segmentCount() {
+        ensureOpen();
+        return segments.size();
+    }
+
+    private boolean ensureOpen() {
+        if (!opened && !failed) {
+            try {
+                open();
+                opened = true;
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        return opened && !failed;
+    }
+
+    private void fail(IOException e) {
+        EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Event journal disabled: %s", e);
+        failed = true;
+        segments.clear();
+        positionsByRequestId.clear();
+    }
+
+    private void open() throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+        checkpoint = map(new File(directory, CHECKPOINT_FILE_NAME), CHECKPOINT_SIZE);
+
+        long cursor = readCheckpoint();
+        if (cursor >= 0) {
+            File compaction = compactionFile(segmentId(cursor));
+            if (compaction.exists() && !compaction.renameTo(segmentFile(segmentId(cursor)))) {
+                throw new IOException("Cannot finish compaction " + compaction);
+            }
+        }
+
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Integer segmentId = parseSegmentId(file.getName());
+                if (segmentId != null) {
+                    segments.put(segmentId, map(file, Math.max(segmentSize, (int) file.length())));
+                } else if (file.getName().startsWith(COMPACTION_PREFIX) && !file.delete()) {
+                    throw new IOException("Cannot delete unfinished compaction " + file);
+                }
+            }
+        }
+
+        int cursorSegmentId = cursor < 0 ? -1 : segmentId(cursor);
+        int cursorOffset = cursor < 0 ? 0 : offset(cursor);
+        if (segments.isEmpty() || !segments.containsKey(cursorSegmentId)) {
+            cursorSegmentId = segments.isEmpty() ? Math.max(cursorSegmentId, 0) : segments.firstKey();
+            cursorOffset = 0;
+        }
+        deleteSegmentsBefore(cursorSegmentId);
+        if (segments.isEmpty()) {
+            createSegment(cursorSegmentId, segmentSize);
+        }
+
+        for (Map.Entry<Integer, MappedByteBuffer> entry : segments.entrySet()) {
+            int segmentId = entry.getKey();
+            writeSegmentId = segmentId;
+            writeOffset = recover(segmentId, entry.getValue(), segmentId == cursorSegmentId ? cursorOffset : 0);
+        }
+    }
+
+    private int recover(int segmentId, MappedByteBuffer buffer, int offset) {
+        while (offset + RECORD_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+                break;
+            }
+            long position = position(segmentId, offset);
+            byte[] payload = readPayload(position);
+            if (buffer.getInt(offset + 4) != checksum(payload)) {
+                break;
+            }
+            String requestId = decodeRequestId(payload);
+            if (payload[0] == KIND_REMOVAL) {
+                removePositions(requestId);
+            } else {
+                addPosition(requestId, position);
+                liveBytes += RECORD_HEADER_SIZE + length;
+            }
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        return offset;
+    }
+
+    private void append(String requestId, byte[] payload, boolean live) throws IOException {
+        int recordSize = RECORD_HEADER_SIZE + payload.length;
+        if (writeOffset + recordSize > segments.get(writeSegmentId).capacity()) {
+            createSegment(writeSegmentId + 1, Math.max(segmentSize, recordSize));
+        }
+        write(segments.get(writeSegmentId), writeOffset, payload);
+
+        if (live) {
+            addPosition(requestId, position(writeSegmentId, writeOffset));
+            liveBytes += recordSize;
+        }
+        writeOffset += recordSize;
+    }
+
+    private static void write(MappedByteBuffer buffer, int offset, byte[] payload) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + RECORD_HEADER_SIZE);
+        view.put(payload);
+        buffer.putInt(offset + 4, checksum(payload));
+        buffer.putInt(offset, payload.length);
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (segments.size() >= MIN_SEGMENTS_TO_COMPACT && liveBytes * 2 < (long) (segments.size() - 1) * segmentSize) {
+            int segmentId = writeSegmentId + 1;
+            File compaction = compactionFile(segmentId);
+            MappedByteBuffer buffer = map(compaction, (int) Math.max(segmentSize, liveBytes));
+
+            LinkedHashMap<String, List<Long>> compactedPositions = new LinkedHashMap<>();
+            int offset = 0;
+            for (Map.Entry<String, List<Long>> entry : positionsByRequestId.entrySet()) {
+                List<Long> positions = new ArrayList<>(entry.getValue().size());
+                for (long position : entry.getValue()) {
+                    byte[] payload = readPayload(position);
+                    write(buffer, offset, payload);
+                    positions.add(position(segmentId, offset));
+                    offset += RECORD_HEADER_SIZE + payload.length;
+                }
+                compactedPositions.put(entry.getKey(), positions);
+            }
+            buffer.force();
+
+            writeCheckpoint(position(segmentId, 0));
+            if (!compaction.renameTo(segmentFile(segmentId))) {
+                throw new IOException("Cannot finish compaction " + compaction);
+            }
+
+            segments.put(segmentId, buffer);
+            writeSegmentId = segmentId;
+            writeOffset = offset;
+            positionsByRequestId.clear();
+            positionsByRequestId.putAll(compactedPositions);
+            liveBytes = offset;
+            deleteSegmentsBefore(segmentId);
+        }
+    }
+
+    private void checkpoint() {
+        long cursor;
+        Iterator<List<Long>> iterator = positionsByRequestId.values().iterator();
+        if (iterator.hasNext()) {
+            cursor = iterator.next().get(0);
+        } else {
+            cursor = position(writeSegmentId, writeOffset);
+        }
+
+        segments.get(writeSegmentId).force();
+        writeCheckpoint(cursor);
+        deleteSegmentsBefore(segmentId(cursor));
+    }
+
+    private void writeCheckpoint(long cursor) {
+        checkpointSequence++;
+        int slot = (int) ((checkpointSequence - 1) % 2) * CHECKPOINT_SLOT_SIZE;
+        checkpoint.putLong(slot, checkpointSequence);
+        checkpoint.putLong(slot + 8, cursor);
+        checkpoint.putInt(slot + 16, checkpointChecksum(checkpointSequence, cursor));
+        checkpoint.force();
+    }
+
+    private long readCheckpoint() {
+        long result = -1;
+        checkpointSequence = 0;
+        for (int slot = 0; slot < CHECKPOINT_SIZE; slot += CHECKPOINT_SLOT_SIZE) {
+            long sequence = checkpoint.getLong(slot);
+            long cursor = checkpoint.getLong(slot + 8);
+            if (sequence > checkpointSequence && checkpoint.getInt(slot + 16) == checkpointChecksum(sequence, cursor)) {
+                checkpointSequence = sequence;
+                result = cursor;
+            }
+        }
+        return result;
+    }
+
+    private void createSegment(int segmentId, int capacity) throws IOException {
+        segments.put(segmentId, map(segmentFile(segmentId), capacity));
+        writeSegmentId = segmentId;
+        writeOffset = 0;
+    }
+
+    private void deleteSegmentsBefore(int segmentId) {
+        Iterator<Map.Entry<Integer, MappedByteBuffer>> iterator = segments.entrySet().iterator();
+        while (iterator.hasNext()) {
+            int id = iterator.next().getKey();
+            if (id >= segmentId) {
+                break;
+            }
+            iterator.remove();
+            if (!segmentFile(id).delete()) {
+                EMSLogger.log(MobileEngageTopic.MOBILE_ENGAGE, "Cannot delete event journal segment %s", id);
+            }
+        }
+    }
+
+    private void addPosition(String requestId, long position) {
+        List<Long> positions = positionsByRequestId.get(requestId);
+        if (positions == null) {
+            positions = new ArrayList<>(1);
+            positionsByRequestId.put(requestId, positions);
+        }
+        positions.add(position);
+    }
+
+    private boolean removePositions(String requestId) {
+        List<Long> positions = positionsByRequestId.remove(requestId);
+        if (positions != null) {
+            for (long position : positions) {
+                liveBytes -= recordSize(position);
+            }
+        }
+        return positions != null;
+    }
+
+    private int recordSize(long position) {
+        return RECORD_HEADER_SIZE + segments.get(segmentId(position)).getInt(offset(position));
+    }
+
+    private byte[] readPayload(long position) {
+        MappedByteBuffer buffer = segments.get(segmentId(position));
+        int offset = offset(position);
+        byte[] payload = new byte[buffer.getInt(offset)];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + RECORD_HEADER_SIZE);
+        view.get(payload);
+        return payload;
+    }
+
+    private File segmentFile(int segmentId) {
+        return new File(directory, SEGMENT_PREFIX + segmentId + SEGMENT_SUFFIX);
+    }
+
+    private File compactionFile(int segmentId) {
+        return new File(directory, COMPACTION_PREFIX + segmentId + SEGMENT_SUFFIX);
+    }
+
+    private static Integer parseSegmentId(String fileName) {
+        Integer result = null;
+        if (fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX)) {
+            try {
+                result = Integer.parseInt(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return result;
+    }
+
+    private static MappedByteBuffer map(File file, int size) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private static long position(int segmentId, int offset) {
+        return ((long) segmentId << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int segmentId(long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static int offset(long position) {
+        return (int) position;
+    }
+
+    private static int checkpointChecksum(long sequence, long cursor) {
+        return checksum(ByteBuffer.allocate(16).putLong(0, sequence).putLong(8, cursor).array());
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(StoredEvent event) {
+        EventRecord record = event.getRecord();
+        Map<String, String> attributes = record.getAttributes();
+
+        List<byte[]> strings = new ArrayList<>();
+        strings.add(bytes(event.getRequestId()));
+        strings.add(bytes(record.getType()));
+        strings.add(bytes(record.getName()));
+        if (attributes != null) {
+            for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                strings.add(bytes(attribute.getKey()));
+                strings.add(bytes(attribute.getValue()));
+            }
+        }
+
+        int size = 1 + 8 + 4;
+        for (byte[] string : strings) {
+            size += 4 + (string == null ? 0 : string.length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(KIND_EVENT);
+        putString(buffer, strings.get(0));
+        putString(buffer, strings.get(1));
+        putString(buffer, strings.get(2));
+        buffer.putLong(record.getTimestamp());
+        buffer.putInt(attributes == null ? -1 : attributes.size());
+        for (int i = 3; i < strings.size(); i++) {
+            putString(buffer, strings.get(i));
+        }
+        return buffer.array();
+    }
+
+    private static byte[] encodeRemoval(String requestId) {
+        byte[] bytes = bytes(requestId);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + bytes.length);
+        buffer.put(KIND_REMOVAL);
+        putString(buffer, bytes);
+        return buffer.array();
+    }
+
+    private static StoredEvent decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        buffer.get();
+        String requestId = getString(buffer);
+        String type = getString(buffer);
+        String name = getString(buffer);
+        long timestamp = buffer.getLong();
+        int attributeCount = buffer.getInt();
+        Map<String, String> attributes = null;
+        if (attributeCount >= 0) {
+            attributes = new HashMap<>(attributeCount * 2);
+            for (int i = 0; i < attributeCount; i++) {
+                attributes.put(getString(buffer), getString(buffer));
+            }
+        }
+        return new StoredEvent(requestId, new EventRecord(type, name, timestamp, attributes == null ? null : Collections.unmodifiableMap(attributes)));
+    }
+
+    private static String decodeRequestId(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        buffer.get();
+        return getString(buffer);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(UTF_8);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        String result = null;
+        int length = buffer.getInt();
+        if (length >= 0) {
+            result = new String(buffer.array(), buffer.position(), length, UTF_8);
+            buffer.position(buffer.position() + length);
+        }
+        return result;
+    }
+
+}
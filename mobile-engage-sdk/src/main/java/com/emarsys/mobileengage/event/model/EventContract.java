@@ -0,0 +1,46 @@
+package com.emarsys.mobileengage.event.model;
+
+public final class EventContract {
+
+    private EventContract() {
+    }
+
+    public static final String TABLE_NAME = "event";
+    public static final String COLUMN_NAME_ID = "id";
+    public static final String COLUMN_NAME_REQUEST_ID = "request_id";
+    public static final String COLUMN_NAME_TYPE = "type";
+    public static final String COLUMN_NAME_NAME = "name";
+    public static final String COLUMN_NAME_TIMESTAMP = "timestamp";
+    public static final String COLUMN_NAME_ATTRIBUTES = "attributes";
+
+    public static final String SQL_CREATE_TABLE = String.format(
+            "CREATE TABLE IF NOT EXISTS %s (" +
+                    "%s INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "%s TEXT NOT NULL," +
+                    "%s TEXT NOT NULL," +
+                    "%s TEXT NOT NULL," +
+                    "%s INTEGER," +
+                    "%s TEXT" +
+                    ");",
+            TABLE_NAME,
+            COLUMN_NAME_ID,
+            COLUMN_NAME_REQUEST_ID,
+            COLUMN_NAME_TYPE,
+            COLUMN_NAME_NAME,
+            COLUMN_NAME_TIMESTAMP,
+            COLUMN_NAME_ATTRIBUTES
+    );
+
+    public static final String SQL_CREATE_REQUEST_ID_INDEX = String.format(
+            "CREATE INDEX IF NOT EXISTS %s_%s_index ON %s (%s);",
+            TABLE_NAME,
+            COLUMN_NAME_REQUEST_ID,
+            TABLE_NAME,
+            COLUMN_NAME_REQUEST_ID
+    );
+
+    public static final String SQL_CLEAR = String.format(
+            "DELETE FROM %s;", TABLE_NAME
+    );
+
+}
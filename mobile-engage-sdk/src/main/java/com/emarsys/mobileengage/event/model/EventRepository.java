@@ -0,0 +1,123 @@
+package com.emarsys.mobileengage.event.model;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.emarsys.core.database.repository.AbstractSqliteRepository;
+import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.database.MobileEngageDbHelper;
+import com.emarsys.mobileengage.event.EventRecord;
+import com.emarsys.mobileengage.iam.model.specification.FilterByRequestId;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.emarsys.mobileengage.event.model.EventContract.COLUMN_NAME_ATTRIBUTES;
+import static com.emarsys.mobileengage.event.model.EventContract.COLUMN_NAME_NAME;
+import static com.emarsys.mobileengage.event.model.EventContract.COLUMN_NAME_REQUEST_ID;
+import static com.emarsys.mobileengage.event.model.EventContract.COLUMN_NAME_TIMESTAMP;
+import static com.emarsys.mobileengage.event.model.EventContract.COLUMN_NAME_TYPE;
+import static com.emarsys.mobileengage.event.model.EventContract.TABLE_NAME;
+
+public class EventRepository extends AbstractSqliteRepository<StoredEvent> implements EventStore {
+
+    private final MobileEngageDbHelper dbHelper;
+
+    public EventRepository(MobileEngageDbHelper dbHelper) {
+        super(TABLE_NAME, dbHelper);
+        this.dbHelper = dbHelper;
+    }
+
+    @Override
+    public boolean addAll(List<StoredEvent> items) {
+        Assert.notNull(items, "Items must not be null!");
+
+        SQLiteDatabase database = dbHelper.getWritableCoreDatabase().getBackingDatabase();
+        database.beginTransaction();
+        try {
+            for (StoredEvent item : items) {
+                database.insert(TABLE_NAME, null, contentValuesFromItem(item));
+            }
+            database.setTransactionSuccessful();
+        } finally {
+            database.endTransaction();
+        }
+        return true;
+    }
+
+    @Override
+    public List<StoredEvent> queryByRequestIds(String... requestIds) {
+        return query(new FilterByRequestId(requestIds));
+    }
+
+    @Override
+    public Set<String> queryRequestIds() {
+        Set<String> result = new LinkedHashSet<>();
+        SQLiteDatabase database = dbHelper.getReadableCoreDatabase().getBackingDatabase();
+        Cursor cursor = database.query(true, TABLE_NAME, new String[]{COLUMN_NAME_REQUEST_ID}, null, null, null, null, null, null);
+        try {
+            while (cursor.moveToNext()) {
+                result.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return result;
+    }
+
+    @Override
+    public void removeByRequestIds(String... requestIds) {
+        remove(new FilterByRequestId(requestIds));
+    }
+
+    @Override
+    protected ContentValues contentValuesFromItem(StoredEvent item) {
+        EventRecord record = item.getRecord();
+        ContentValues contentValues = new ContentValues();
+        contentValues.put(COLUMN_NAME_REQUEST_ID, item.getRequestId());
+        contentValues.put(COLUMN_NAME_TYPE, record.getType());
+        contentValues.put(COLUMN_NAME_NAME, record.getName());
+        contentValues.put(COLUMN_NAME_TIMESTAMP, record.getTimestamp());
+        if (record.getAttributes() != null) {
+            contentValues.put(COLUMN_NAME_ATTRIBUTES, new JSONObject(record.getAttributes()).toString());
+        }
+        return contentValues;
+    }
+
+    @Override
+    protected StoredEvent itemFromCursor(Cursor cursor) {
+        String requestId = cursor.getString(cursor.getColumnIndex(COLUMN_NAME_REQUEST_ID));
+        String type = cursor.getString(cursor.getColumnIndex(COLUMN_NAME_TYPE));
+        String name = cursor.getString(cursor.getColumnIndex(COLUMN_NAME_NAME));
+        long timestamp = cursor.getLong(cursor.getColumnIndex(COLUMN_NAME_TIMESTAMP));
+        String attributes = cursor.getString(cursor.getColumnIndex(COLUMN_NAME_ATTRIBUTES));
+        return new StoredEvent(requestId, new EventRecord(type, name, timestamp, parseAttributes(attributes)));
+    }
+
+    private Map<String, String> parseAttributes(String attributes) {
+        Map<String, String> result = null;
+        if (attributes != null) {
+            try {
+                JSONObject json = new JSONObject(attributes);
+                result = new HashMap<>(json.length() * 2);
+                Iterator<String> keys = json.keys();
+                while (keys.hasNext()) {
+                    String key = keys.next();
+                    result.put(key, json.getString(key));
+                }
+            } catch (JSONException ignored) {
+                result = null;
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.emarsys.mobileengage.event.model;
+
+import java.util.List;
+import java.util.Set;
+
+public interface EventStore {
+
+    boolean addAll(List<StoredEvent> events);
+
+    List<StoredEvent> queryByRequestIds(String... requestIds);
+
+    Set<String> queryRequestIds();
+
+    void removeByRequestIds(String... requestIds);
+
+}
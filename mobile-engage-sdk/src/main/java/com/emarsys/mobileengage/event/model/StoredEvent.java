@@ -0,0 +1,51 @@
+package com.emarsys.mobileengage.event.model;
+
+import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.event.EventRecord;
+
+public class StoredEvent {
+
+    private final String requestId;
+    private final EventRecord record;
+
+    public StoredEvent(String requestId, EventRecord record) {
+        Assert.notNull(requestId, "RequestId must not be null!");
+        Assert.notNull(record, "Record must not be null!");
+        this.requestId = requestId;
+        this.record = record;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public EventRecord getRecord() {
+        return record;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StoredEvent that = (StoredEvent) o;
+
+        if (!requestId.equals(that.requestId)) return false;
+        return record.equals(that.record);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = requestId.hashCode();
+        result = 31 * result + record.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "StoredEvent{" +
+                "requestId='" + requestId + '\'' +
+                ", record=" + record +
+                '}';
+    }
+}
@@ -5,18 +5,24 @@ import android.app.Activity;
 import com.emarsys.core.activity.ActivityLifecycleAction;
 import com.emarsys.core.util.Assert;
 import com.emarsys.mobileengage.MobileEngageInternal;
+import com.emarsys.mobileengage.di.Lazy;
 
 public class InAppStartAction implements ActivityLifecycleAction {
 
-    private MobileEngageInternal mobileEngageInternal;
+    private Lazy<MobileEngageInternal> mobileEngageInternal;
 
     public InAppStartAction(MobileEngageInternal mobileEngageInternal) {
+        Assert.notNull(mobileEngageInternal, "MobileEngageInternal must not be null!");
+        this.mobileEngageInternal = Lazy.of(mobileEngageInternal);
+    }
+
+    public InAppStartAction(Lazy<MobileEngageInternal> mobileEngageInternal) {
         Assert.notNull(mobileEngageInternal, "MobileEngageInternal must not be null!");
         this.mobileEngageInternal = mobileEngageInternal;
     }
 
     @Override
     public void execute(Activity activity) {
-        mobileEngageInternal.trackInternalCustomEvent("app:start", null);
+        mobileEngageInternal.get().trackInternalCustomEvent("app:start", null);
     }
 }
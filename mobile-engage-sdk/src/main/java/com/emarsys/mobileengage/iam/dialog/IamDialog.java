@@ -67,7 +67,9 @@ public class IamDialog extends DialogFragment {
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setStyle(DialogFragment.STYLE_NO_FRAME, android.R.style.Theme_Dialog);
-        logRepository = new LogRepository(getActivity());
+        if (logRepository == null) {
+            logRepository = new LogRepository(getActivity());
+        }
     }
 
     @Override
@@ -3,11 +3,26 @@ package com.emarsys.mobileengage.iam.dialog;
 import android.os.Build;
 import android.support.annotation.RequiresApi;
 
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.util.Assert;
+
+import java.util.Map;
+
 public class IamDialogProvider {
 
+    private final Repository<Map<String, Object>, SqlSpecification> logRepository;
+
+    public IamDialogProvider(Repository<Map<String, Object>, SqlSpecification> logRepository) {
+        Assert.notNull(logRepository, "LogRepository must not be null!");
+        this.logRepository = logRepository;
+    }
+
     @RequiresApi(api = Build.VERSION_CODES.KITKAT)
     public IamDialog provideDialog(String campaignId) {
-        return IamDialog.create(campaignId);
+        IamDialog dialog = IamDialog.create(campaignId);
+        dialog.logRepository = logRepository;
+        return dialog;
     }
 
 }
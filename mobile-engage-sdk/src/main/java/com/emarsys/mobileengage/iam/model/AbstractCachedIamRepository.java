@@ -0,0 +1,68 @@
+package com.emarsys.mobileengage.iam.model;
+
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.database.repository.specification.QueryAll;
+import com.emarsys.core.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public abstract class AbstractCachedIamRepository<T> implements Repository<T, SqlSpecification> {
+
+    private final Repository<T, SqlSpecification> repository;
+    private final String tableName;
+
+    private List<Map<String, Object>> convertedItems;
+
+    public AbstractCachedIamRepository(Repository<T, SqlSpecification> repository, String tableName) {
+        Assert.notNull(repository, "Repository must not be null!");
+        Assert.notNull(tableName, "TableName must not be null!");
+        this.repository = repository;
+        this.tableName = tableName;
+    }
+
+    @Override
+    public synchronized void add(T item) {
+        repository.add(item);
+        if (convertedItems != null) {
+            List<Map<String, Object>> updated = new ArrayList<>(convertedItems.size() + 1);
+            updated.addAll(convertedItems);
+            updated.add(convert(item));
+            convertedItems = Collections.unmodifiableList(updated);
+        }
+    }
+
+    @Override
+    public synchronized void remove(SqlSpecification specification) {
+        repository.remove(specification);
+        convertedItems = null;
+    }
+
+    @Override
+    public List<T> query(SqlSpecification specification) {
+        return repository.query(specification);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return repository.isEmpty();
+    }
+
+    public synchronized List<Map<String, Object>> queryAllConverted() {
+        if (convertedItems == null) {
+            List<T> items = repository.query(new QueryAll(tableName));
+            List<Map<String, Object>> converted = new ArrayList<>(items.size());
+            for (T item : items) {
+                converted.add(convert(item));
+            }
+            convertedItems = Collections.unmodifiableList(converted);
+        }
+        return convertedItems;
+    }
+
+    protected abstract Map<String, Object> convert(T item);
+
+}
@@ -1,8 +1,8 @@
 package com.emarsys.mobileengage.iam.model;
 
-import com.emarsys.core.util.TimestampUtils;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClicked;
 import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIam;
+import com.emarsys.mobileengage.util.TimestampFormatUtils;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -12,7 +12,7 @@ import java.util.Map;
 public class IamConversionUtils {
 
     public static List<Map<String, Object>> buttonClicksToArray(List<ButtonClicked> buttonClicks) {
-        List<Map<String, Object>> result = new ArrayList<>();
+        List<Map<String, Object>> result = new ArrayList<>(buttonClicks.size());
         for (ButtonClicked buttonClick : buttonClicks) {
             result.add(buttonClickToJson(buttonClick));
         }
@@ -20,15 +20,15 @@ public class IamConversionUtils {
     }
 
     public static Map<String, Object> buttonClickToJson(ButtonClicked buttonClicked) {
-        Map<String, Object> result = new HashMap<>();
+        Map<String, Object> result = new HashMap<>(4);
             result.put("message_id", buttonClicked.getCampaignId());
             result.put("button_id", buttonClicked.getButtonId());
-            result.put("timestamp", TimestampUtils.formatTimestampWithUTC(buttonClicked.getTimestamp()));
+            result.put("timestamp", TimestampFormatUtils.formatTimestampWithUTC(buttonClicked.getTimestamp()));
         return result;
     }
 
     public static List<Map<String, Object>> displayedIamsToArray(List<DisplayedIam> displayedIams) {
-        List<Map<String, Object>> result = new ArrayList<>();
+        List<Map<String, Object>> result = new ArrayList<>(displayedIams.size());
         for (DisplayedIam displayedIam : displayedIams) {
             result.add(displayedIamToJson(displayedIam));
         }
@@ -36,9 +36,9 @@ public class IamConversionUtils {
     }
 
     public static Map<String, Object> displayedIamToJson(DisplayedIam displayedIam) {
-        Map<String, Object> result = new HashMap<>();
+        Map<String, Object> result = new HashMap<>(4);
             result.put("message_id", displayedIam.getCampaignId());
-            result.put("timestamp", TimestampUtils.formatTimestampWithUTC(displayedIam.getTimestamp()));
+            result.put("timestamp", TimestampFormatUtils.formatTimestampWithUTC(displayedIam.getTimestamp()));
         return result;
     }
 
@@ -1,7 +1,6 @@
 package com.emarsys.mobileengage.iam.model.buttonclicked;
 
 import android.content.ContentValues;
-import android.content.Context;
 import android.database.Cursor;
 
 import com.emarsys.core.database.repository.AbstractSqliteRepository;
@@ -14,8 +13,8 @@ import static com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClickedCont
 
 public class ButtonClickedRepository extends AbstractSqliteRepository<ButtonClicked> {
 
-    public ButtonClickedRepository(Context context) {
-        super(TABLE_NAME, new MobileEngageDbHelper(context));
+    public ButtonClickedRepository(MobileEngageDbHelper dbHelper) {
+        super(TABLE_NAME, dbHelper);
     }
 
     @Override
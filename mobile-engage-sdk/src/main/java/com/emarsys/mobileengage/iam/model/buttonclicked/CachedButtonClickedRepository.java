@@ -0,0 +1,21 @@
+package com.emarsys.mobileengage.iam.model.buttonclicked;
+
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.mobileengage.iam.model.AbstractCachedIamRepository;
+import com.emarsys.mobileengage.iam.model.IamConversionUtils;
+
+import java.util.Map;
+
+public class CachedButtonClickedRepository extends AbstractCachedIamRepository<ButtonClicked> {
+
+    public CachedButtonClickedRepository(Repository<ButtonClicked, SqlSpecification> repository) {
+        super(repository, ButtonClickedContract.TABLE_NAME);
+    }
+
+    @Override
+    protected Map<String, Object> convert(ButtonClicked item) {
+        return IamConversionUtils.buttonClickToJson(item);
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.emarsys.mobileengage.iam.model.displayediam;
+
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.mobileengage.iam.model.AbstractCachedIamRepository;
+import com.emarsys.mobileengage.iam.model.IamConversionUtils;
+
+import java.util.Map;
+
+public class CachedDisplayedIamRepository extends AbstractCachedIamRepository<DisplayedIam> {
+
+    public CachedDisplayedIamRepository(Repository<DisplayedIam, SqlSpecification> repository) {
+        super(repository, DisplayedIamContract.TABLE_NAME);
+    }
+
+    @Override
+    protected Map<String, Object> convert(DisplayedIam item) {
+        return IamConversionUtils.displayedIamToJson(item);
+    }
+
+}
@@ -1,7 +1,6 @@
 package com.emarsys.mobileengage.iam.model.displayediam;
 
 import android.content.ContentValues;
-import android.content.Context;
 import android.database.Cursor;
 
 import com.emarsys.core.database.repository.AbstractSqliteRepository;
@@ -9,8 +8,8 @@ import com.emarsys.mobileengage.database.MobileEngageDbHelper;
 
 public class DisplayedIamRepository extends AbstractSqliteRepository<DisplayedIam> {
 
-    public DisplayedIamRepository(Context context) {
-        super(DisplayedIamContract.TABLE_NAME, new MobileEngageDbHelper(context));
+    public DisplayedIamRepository(MobileEngageDbHelper dbHelper) {
+        super(DisplayedIamContract.TABLE_NAME, dbHelper);
     }
 
     @Override
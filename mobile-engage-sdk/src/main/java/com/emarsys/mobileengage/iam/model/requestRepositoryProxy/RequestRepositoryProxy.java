@@ -3,68 +3,138 @@ package com.emarsys.mobileengage.iam.model.requestRepositoryProxy;
 import com.emarsys.core.DeviceInfo;
 import com.emarsys.core.database.repository.Repository;
 import com.emarsys.core.database.repository.SqlSpecification;
-import com.emarsys.core.database.repository.specification.QueryAll;
 import com.emarsys.core.request.model.CompositeRequestModel;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.request.model.specification.FilterByUrlPattern;
 import com.emarsys.core.timestamp.TimestampProvider;
 import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.config.CompositeRequestConfig;
 import com.emarsys.mobileengage.endpoint.Endpoint;
+import com.emarsys.mobileengage.event.EventRecord;
+import com.emarsys.mobileengage.event.model.EventStore;
+import com.emarsys.mobileengage.event.model.StoredEvent;
 import com.emarsys.mobileengage.iam.DoNotDisturbProvider;
-import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClicked;
-import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClickedContract;
-import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIam;
-import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIamContract;
+import com.emarsys.mobileengage.iam.model.buttonclicked.CachedButtonClickedRepository;
+import com.emarsys.mobileengage.iam.model.displayediam.CachedDisplayedIamRepository;
+import com.emarsys.mobileengage.iam.model.specification.FilterByRequestId;
 import com.emarsys.mobileengage.util.RequestModelUtils;
 import com.emarsys.mobileengage.util.RequestPayloadUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 
 public class RequestRepositoryProxy implements Repository<RequestModel, SqlSpecification> {
 
     private static final String CUSTOM_EVENT_URL_PATTERN = Endpoint.ME_BASE_V3 + "_%/events";
+    private static final int MAX_IDS_PER_QUERY = 500;
+    private static final String EVENTS_KEY = "events";
+    private static final Pattern REQUEST_ID_FILTER_SQL = Pattern.compile(
+            "\\s*request_id\\s*(=\\s*\\?|IN\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\))\\s*",
+            Pattern.CASE_INSENSITIVE);
 
     private final DeviceInfo deviceInfo;
     private final Repository<RequestModel, SqlSpecification> requestRepository;
-    private final Repository<DisplayedIam, SqlSpecification> iamRepository;
-    private final Repository<ButtonClicked, SqlSpecification> buttonClickedRepository;
+    private final CachedDisplayedIamRepository iamRepository;
+    private final CachedButtonClickedRepository buttonClickedRepository;
+    private final EventStore eventStore;
     private final TimestampProvider timestampProvider;
     private final DoNotDisturbProvider doNotDisturbProvider;
+    private final CompositeRequestConfig compositeRequestConfig;
+    private final Set<String> pendingCustomEventIds;
+
+    private boolean pendingCustomEventIdsLoaded;
+    private String anchorId;
+    private RequestModel anchorTemplate;
 
     public RequestRepositoryProxy(
             DeviceInfo deviceInfo,
             Repository<RequestModel, SqlSpecification> requestRepository,
-            Repository<DisplayedIam, SqlSpecification> iamRepository,
-            Repository<ButtonClicked, SqlSpecification> buttonClickedRepository,
+            CachedDisplayedIamRepository iamRepository,
+            CachedButtonClickedRepository buttonClickedRepository,
+            EventStore eventStore,
             TimestampProvider timestampProvider,
-            DoNotDisturbProvider doNotDisturbProvider) {
+            DoNotDisturbProvider doNotDisturbProvider,
+            CompositeRequestConfig compositeRequestConfig) {
         Assert.notNull(deviceInfo, "DeviceInfo must not be null!");
         Assert.notNull(requestRepository, "RequestRepository must not be null!");
         Assert.notNull(iamRepository, "IamRepository must not be null!");
         Assert.notNull(buttonClickedRepository, "ButtonClickedRepository must not be null!");
+        Assert.notNull(eventStore, "EventStore must not be null!");
         Assert.notNull(timestampProvider, "TimestampProvider must not be null!");
         Assert.notNull(doNotDisturbProvider, "DoNotDisturbProvider must not be null!");
+        Assert.notNull(compositeRequestConfig, "CompositeRequestConfig must not be null!");
         this.deviceInfo = deviceInfo;
         this.requestRepository = requestRepository;
         this.iamRepository = iamRepository;
         this.buttonClickedRepository = buttonClickedRepository;
+        this.eventStore = eventStore;
         this.timestampProvider = timestampProvider;
         this.doNotDisturbProvider = doNotDisturbProvider;
+        this.compositeRequestConfig = compositeRequestConfig;
+        this.pendingCustomEventIds = new LinkedHashSet<>();
     }
 
     @Override
     public void add(RequestModel item) {
         if (!(item instanceof CompositeRequestModel)) {
-            requestRepository.add(item);
+            if (item.getUrl() != null && RequestModelUtils.isCustomEvent_V3(item)) {
+                synchronized (pendingCustomEventIds) {
+                    loadPendingCustomEventIds();
+                    if (!storeEvents(item)) {
+                        requestRepository.add(item);
+                        setAnchor(item);
+                    } else if (anchorId == null) {
+                        RequestModel anchor = withoutEvents(item);
+                        requestRepository.add(anchor);
+                        setAnchor(anchor);
+                    }
+                    pendingCustomEventIds.add(item.getId());
+                }
+            } else {
+                requestRepository.add(item);
+            }
         }
     }
 
     @Override
     public void remove(SqlSpecification specification) {
-        requestRepository.remove(specification);
+        boolean requestIdFilter = isRequestIdFilter(specification);
+        String[] removedIds;
+        if (requestIdFilter) {
+            removedIds = specification.getArgs();
+        } else {
+            removedIds = collectRequestIds(collectCustomEvents(requestRepository.query(specification)));
+        }
+
+        if (removedIds == null || removedIds.length == 0) {
+            requestRepository.remove(specification);
+        } else {
+            List<String> removedIdList = Arrays.asList(removedIds);
+            synchronized (pendingCustomEventIds) {
+                loadPendingCustomEventIds();
+                pendingCustomEventIds.removeAll(removedIdList);
+                if (anchorId != null && removedIdList.contains(anchorId)) {
+                    anchorId = null;
+                }
+                if (requestIdFilter) {
+                    ensureAnchor();
+                    requestRepository.remove(specification);
+                } else {
+                    requestRepository.remove(specification);
+                    ensureAnchor();
+                }
+            }
+            eventStore.removeByRequestIds(removedIds);
+        }
     }
 
     @Override
@@ -78,10 +148,10 @@ public class RequestRepositoryProxy implements Repository<RequestModel, SqlSpeci
         List<RequestModel> customEventsInResult = collectCustomEvents(result);
 
         if (!customEventsInResult.isEmpty()) {
-            List<RequestModel> customEvents = requestRepository.query(new FilterByUrlPattern(CUSTOM_EVENT_URL_PATTERN));
-            RequestModel composite = createCompositeCustomEvent(customEvents);
-
+            List<PendingRequest> pendingRequests = selectFirstChunk(queryPendingRequests(customEventsInResult));
             RequestModel firstCustomEvent = customEventsInResult.get(0);
+            RequestModel composite = createCompositeCustomEvent(firstCustomEvent, pendingRequests);
+
             int firstCustomEventIndex = result.indexOf(firstCustomEvent);
             result.add(firstCustomEventIndex, composite);
 
@@ -90,6 +160,223 @@ public class RequestRepositoryProxy implements Repository<RequestModel, SqlSpeci
         return result;
     }
 
+    private boolean storeEvents(RequestModel model) {
+        List<?> events = getEvents(model);
+        List<StoredEvent> storedEvents = new ArrayList<>(events.size());
+        for (Object event : events) {
+            if (!(event instanceof EventRecord)) {
+                return false;
+            }
+            storedEvents.add(new StoredEvent(model.getId(), (EventRecord) event));
+        }
+        return !storedEvents.isEmpty() && eventStore.addAll(storedEvents);
+    }
+
+    private RequestModel withoutEvents(RequestModel model) {
+        Map<String, Object> payload = new HashMap<>(model.getPayload());
+        payload.remove(EVENTS_KEY);
+        return new RequestModel(
+                model.getUrl().toString(),
+                model.getMethod(),
+                payload,
+                model.getHeaders(),
+                model.getTimestamp(),
+                model.getTtl(),
+                model.getId());
+    }
+
+    private static boolean isRequestIdFilter(SqlSpecification specification) {
+        String sql = specification.getSql();
+        String[] args = specification.getArgs();
+        return sql != null
+                && args != null
+                && REQUEST_ID_FILTER_SQL.matcher(sql).matches()
+                && countPlaceholders(sql) == args.length;
+    }
+
+    private static int countPlaceholders(String sql) {
+        int result = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private List<PendingRequest> queryPendingRequests(List<RequestModel> customEventsInResult) {
+        List<String> ids;
+        synchronized (pendingCustomEventIds) {
+            loadPendingCustomEventIds();
+            for (RequestModel model : customEventsInResult) {
+                pendingCustomEventIds.add(model.getId());
+            }
+            ids = new ArrayList<>(pendingCustomEventIds);
+        }
+
+        List<PendingRequest> result = new ArrayList<>();
+        int eventCount = 0;
+        int fetched = 0;
+        while (fetched < ids.size() && eventCount < compositeRequestConfig.getMaxEventCount()) {
+            List<String> chunk = ids.subList(fetched, Math.min(fetched + MAX_IDS_PER_QUERY, ids.size()));
+            for (PendingRequest request : queryPendingRequestChunk(chunk)) {
+                result.add(request);
+                eventCount += request.events.size();
+            }
+            fetched += chunk.size();
+        }
+        return result;
+    }
+
+    private void loadPendingCustomEventIds() {
+        if (!pendingCustomEventIdsLoaded) {
+            List<RequestModel> models = requestRepository.query(new FilterByUrlPattern(CUSTOM_EVENT_URL_PATTERN));
+            for (RequestModel model : models) {
+                pendingCustomEventIds.add(model.getId());
+            }
+            if (models.isEmpty()) {
+                removeOrphanedEvents();
+            } else {
+                setAnchor(models.get(0));
+                pendingCustomEventIds.addAll(eventStore.queryRequestIds());
+            }
+            pendingCustomEventIdsLoaded = true;
+        }
+    }
+
+    private void setAnchor(RequestModel model) {
+        if (anchorId == null) {
+            anchorId = model.getId();
+            anchorTemplate = model;
+        }
+    }
+
+    private void ensureAnchor() {
+        if (anchorId == null && anchorTemplate != null && !pendingCustomEventIds.isEmpty()) {
+            String id = pendingCustomEventIds.iterator().next();
+            if (requestRepository.query(new FilterByRequestId(id)).isEmpty()) {
+                requestRepository.add(new RequestModel(
+                        anchorTemplate.getUrl().toString(),
+                        anchorTemplate.getMethod(),
+                        withoutEvents(anchorTemplate).getPayload(),
+                        anchorTemplate.getHeaders(),
+                        timestampProvider.provideTimestamp(),
+                        anchorTemplate.getTtl(),
+                        id));
+            }
+            anchorId = id;
+        }
+    }
+
+    private void removeOrphanedEvents() {
+        Set<String> orphanedIds = eventStore.queryRequestIds();
+        if (!orphanedIds.isEmpty()) {
+            List<String> ids = new ArrayList<>(orphanedIds);
+            for (int i = 0; i < ids.size(); i += MAX_IDS_PER_QUERY) {
+                List<String> chunk = ids.subList(i, Math.min(i + MAX_IDS_PER_QUERY, ids.size()));
+                eventStore.removeByRequestIds(chunk.toArray(new String[chunk.size()]));
+            }
+        }
+    }
+
+    private List<PendingRequest> queryPendingRequestChunk(List<String> ids) {
+        Map<String, List<Object>> eventsByRequestId = new HashMap<>(ids.size() * 2);
+        for (StoredEvent storedEvent : eventStore.queryByRequestIds(ids.toArray(new String[ids.size()]))) {
+            List<Object> events = eventsByRequestId.get(storedEvent.getRequestId());
+            if (events == null) {
+                events = new ArrayList<>();
+                eventsByRequestId.put(storedEvent.getRequestId(), events);
+            }
+            events.add(storedEvent.getRecord());
+        }
+
+        List<String> legacyIds = new ArrayList<>();
+        for (String id : ids) {
+            if (!eventsByRequestId.containsKey(id)) {
+                legacyIds.add(id);
+            }
+        }
+        Map<String, List<?>> legacyEventsByRequestId = queryLegacyEvents(legacyIds);
+
+        List<PendingRequest> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            List<?> events = eventsByRequestId.get(id);
+            if (events == null) {
+                events = legacyEventsByRequestId.get(id);
+            }
+            if (events != null) {
+                result.add(new PendingRequest(id, events));
+            }
+        }
+        return result;
+    }
+
+    private Map<String, List<?>> queryLegacyEvents(List<String> ids) {
+        Map<String, List<?>> result = new HashMap<>();
+        if (!ids.isEmpty()) {
+            List<RequestModel> models = requestRepository.query(new FilterByRequestId(ids.toArray(new String[ids.size()])));
+            for (RequestModel model : collectCustomEvents(models)) {
+                result.put(model.getId(), getEvents(model));
+            }
+            pruneMissingIds(result.keySet(), ids);
+        }
+        return result;
+    }
+
+    private List<PendingRequest> selectFirstChunk(List<PendingRequest> requests) {
+        List<PendingRequest> result = new ArrayList<>();
+        int eventCount = 0;
+        int payloadBytes = 0;
+        for (PendingRequest request : requests) {
+            List<?> events = request.events;
+            int requestPayloadBytes = estimateJsonSize(events);
+            if (!result.isEmpty()
+                    && (eventCount + events.size() > compositeRequestConfig.getMaxEventCount()
+                    || payloadBytes + requestPayloadBytes > compositeRequestConfig.getMaxPayloadBytes())) {
+                break;
+            }
+            result.add(request);
+            eventCount += events.size();
+            payloadBytes += requestPayloadBytes;
+        }
+        return result;
+    }
+
+    private List<?> getEvents(RequestModel model) {
+        Object events = model.getPayload().get(EVENTS_KEY);
+        return events instanceof List ? (List<?>) events : Collections.emptyList();
+    }
+
+    private static int estimateJsonSize(Object value) {
+        int result;
+        if (value instanceof Map) {
+            result = 2;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                result += String.valueOf(entry.getKey()).length() + 4 + estimateJsonSize(entry.getValue());
+            }
+        } else if (value instanceof List) {
+            result = 2;
+            for (Object item : (List<?>) value) {
+                result += estimateJsonSize(item) + 1;
+            }
+        } else if (value instanceof String) {
+            result = ((String) value).length() + 2;
+        } else {
+            result = String.valueOf(value).length();
+        }
+        return result;
+    }
+
+    private void pruneMissingIds(Set<String> foundIds, List<String> ids) {
+        Set<String> missingIds = new HashSet<>(ids);
+        missingIds.removeAll(foundIds);
+        if (!missingIds.isEmpty()) {
+            synchronized (pendingCustomEventIds) {
+                pendingCustomEventIds.removeAll(missingIds);
+            }
+        }
+    }
+
     private List<RequestModel> collectCustomEvents(List<RequestModel> models) {
         List<RequestModel> result = new ArrayList<>();
         for (RequestModel requestModel : models) {
@@ -100,50 +387,64 @@ public class RequestRepositoryProxy implements Repository<RequestModel, SqlSpeci
         return result;
     }
 
-    private CompositeRequestModel createCompositeCustomEvent(List<RequestModel> models) {
-        RequestModel first = models.get(0);
-        Map<String, Object> payload = createCompositePayload(models);
-        String[] requestIds = collectRequestIds(models);
+    private String[] collectRequestIds(List<RequestModel> models) {
+        String[] result = new String[models.size()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = models.get(i).getId();
+        }
+        return result;
+    }
+
+    private CompositeRequestModel createCompositeCustomEvent(RequestModel template, List<PendingRequest> requests) {
+        Map<String, Object> payload = createCompositePayload(requests);
+        String[] requestIds = collectRequestIds(requests);
 
         return new CompositeRequestModel(
-                first.getUrl().toString(),
-                first.getMethod(),
+                template.getUrl().toString(),
+                template.getMethod(),
                 payload,
-                first.getHeaders(),
+                template.getHeaders(),
                 timestampProvider.provideTimestamp(),
                 Long.MAX_VALUE,
                 requestIds
         );
     }
 
-    private Map<String, Object> createCompositePayload(List<RequestModel> models) {
+    private Map<String, Object> createCompositePayload(List<PendingRequest> requests) {
         List<Object> events = new ArrayList<>();
 
-        for (RequestModel model : models) {
-            Object individualEvents = model.getPayload().get("events");
-            if (individualEvents != null && individualEvents instanceof List) {
-                events.addAll((List) individualEvents);
-            }
+        for (PendingRequest request : requests) {
+            events.addAll(request.events);
         }
 
-        return RequestPayloadUtils.createCompositeRequestModelPayload(
+        return RequestPayloadUtils.createConvertedCompositeRequestModelPayload(
                 events,
-                iamRepository.query(new QueryAll(DisplayedIamContract.TABLE_NAME)),
-                buttonClickedRepository.query(new QueryAll(ButtonClickedContract.TABLE_NAME)),
+                iamRepository.queryAllConverted(),
+                buttonClickedRepository.queryAllConverted(),
                 deviceInfo,
                 doNotDisturbProvider.isPaused()
         );
     }
 
-    private String[] collectRequestIds(List<RequestModel> models) {
-        int size = models.size();
+    private String[] collectRequestIds(List<PendingRequest> requests) {
+        int size = requests.size();
         String[] result = new String[size];
 
         for (int i = 0; i < size; ++i) {
-            result[i] = models.get(i).getId();
+            result[i] = requests.get(i).requestId;
         }
 
         return result;
     }
 
+    private static class PendingRequest {
+        private final String requestId;
+        private final List<?> events;
+
+        PendingRequest(String requestId, List<?> events) {
+            this.requestId = requestId;
+            this.events = events;
+        }
+    }
+
 }
@@ -0,0 +1,50 @@
+package com.emarsys.mobileengage.iam.model.specification;
+
+import com.emarsys.core.database.repository.SqlSpecification;
+
+import java.util.Arrays;
+
+public class FilterByRequestId implements SqlSpecification {
+
+    private final String[] requestIds;
+    private final String sql;
+
+    public FilterByRequestId(String... requestIds) {
+        this.requestIds = requestIds;
+        this.sql = createSql(requestIds);
+    }
+
+    @Override
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public String[] getArgs() {
+        return requestIds;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FilterByRequestId that = (FilterByRequestId) o;
+
+        return Arrays.equals(requestIds, that.requestIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(requestIds);
+    }
+
+    private String createSql(String[] args) {
+        StringBuilder sb = new StringBuilder("request_id IN (?");
+        for (int i = 1; i < args.length; i++) {
+            sb.append(", ?");
+        }
+        sb.append(")");
+        return sb.toString();
+    }
+}
@@ -6,6 +6,10 @@ import com.emarsys.mobileengage.inbox.model.NotificationInboxStatus;
 public interface InboxInternal {
     void fetchNotifications(InboxResultListener<NotificationInboxStatus> resultListener);
 
+    void fetchNotifications(int offset, int limit, InboxResultListener<NotificationInboxStatus> resultListener);
+
+    void fetchNotificationsSince(long receivedAt, InboxResultListener<NotificationInboxStatus> resultListener);
+
     void resetBadgeCount(ResetBadgeCountResultListener listener);
 
     String trackMessageOpen(Notification message);
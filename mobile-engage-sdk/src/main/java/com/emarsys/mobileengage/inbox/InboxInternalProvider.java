@@ -1,18 +1,23 @@
 package com.emarsys.mobileengage.inbox;
 
+import android.os.Handler;
+
 import com.emarsys.core.request.RequestManager;
 import com.emarsys.core.request.RestClient;
 import com.emarsys.mobileengage.RequestContext;
+import com.emarsys.mobileengage.inbox.model.InboxCacheRepository;
 
 public class InboxInternalProvider {
 
     public InboxInternal provideInboxInternal(boolean experimental,
                                               RequestManager requestManager,
                                               RestClient restClient,
-                                              RequestContext requestContext) {
+                                              RequestContext requestContext,
+                                              InboxCacheRepository inboxCache,
+                                              Handler coreSdkHandler) {
         InboxInternal result;
         if (experimental) {
-            result = new InboxInternal_V2(requestManager, restClient, requestContext);
+            result = new InboxInternal_V2(requestManager, restClient, requestContext, inboxCache, coreSdkHandler);
         } else {
             result = new InboxInternal_V1(requestManager, restClient, requestContext);
         }
@@ -15,6 +15,7 @@ import com.emarsys.core.util.log.EMSLogger;
 import com.emarsys.mobileengage.MobileEngageException;
 import com.emarsys.mobileengage.RequestContext;
 import com.emarsys.mobileengage.config.MobileEngageConfig;
+import com.emarsys.mobileengage.event.applogin.AppLoginParameters;
 import com.emarsys.mobileengage.inbox.model.Notification;
 import com.emarsys.mobileengage.inbox.model.NotificationCache;
 import com.emarsys.mobileengage.inbox.model.NotificationInboxStatus;
@@ -48,7 +49,7 @@ public class InboxInternal_V1 implements InboxInternal {
 
         this.client = restClient;
         this.handler = new Handler(Looper.getMainLooper());
-        this.cache = new NotificationCache();
+        this.cache = new NotificationCache(requestContext.getTimestampProvider());
         this.manager = requestManager;
         this.requestContext = requestContext;
     }
@@ -58,7 +59,64 @@ public class InboxInternal_V1 implements InboxInternal {
         Assert.notNull(resultListener, "ResultListener should not be null!");
         EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: resultListener %s", resultListener);
 
-        if (requestContext.getAppLoginParameters() != null && requestContext.getAppLoginParameters().hasCredentials()) {
+        fetch(new InboxResultListener<InboxNotificationList>() {
+            @Override
+            public void onSuccess(InboxNotificationList result) {
+                resultListener.onSuccess(result.toStatus(cache));
+            }
+
+            @Override
+            public void onError(Exception cause) {
+                resultListener.onError(cause);
+            }
+        });
+    }
+
+    @Override
+    public void fetchNotifications(final int offset, final int limit, final InboxResultListener<NotificationInboxStatus> resultListener) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative!");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0!");
+        }
+        Assert.notNull(resultListener, "ResultListener should not be null!");
+        EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: offset %s, limit %s, resultListener %s", offset, limit, resultListener);
+
+        fetch(new InboxResultListener<InboxNotificationList>() {
+            @Override
+            public void onSuccess(InboxNotificationList result) {
+                resultListener.onSuccess(result.toPage(cache, offset, limit));
+            }
+
+            @Override
+            public void onError(Exception cause) {
+                resultListener.onError(cause);
+            }
+        });
+    }
+
+    @Override
+    public void fetchNotificationsSince(final long receivedAt, final InboxResultListener<NotificationInboxStatus> resultListener) {
+        Assert.notNull(resultListener, "ResultListener should not be null!");
+        EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: receivedAt %s, resultListener %s", receivedAt, resultListener);
+
+        fetch(new InboxResultListener<InboxNotificationList>() {
+            @Override
+            public void onSuccess(InboxNotificationList result) {
+                resultListener.onSuccess(result.toStatusSince(cache, receivedAt));
+            }
+
+            @Override
+            public void onError(Exception cause) {
+                resultListener.onError(cause);
+            }
+        });
+    }
+
+    private void fetch(final InboxResultListener<InboxNotificationList> resultListener) {
+        AppLoginParameters appLoginParameters = requestContext.getAppLoginParameters();
+        if (appLoginParameters != null && appLoginParameters.hasCredentials()) {
             handleFetchRequest(resultListener);
         } else {
             handler.post(new Runnable() {
@@ -70,7 +128,7 @@ public class InboxInternal_V1 implements InboxInternal {
         }
     }
 
-    private void handleFetchRequest(final InboxResultListener<NotificationInboxStatus> resultListener) {
+    private void handleFetchRequest(final InboxResultListener<InboxNotificationList> resultListener) {
         RequestModel model = new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getRequestIdProvider())
                 .url(INBOX_FETCH_V1)
                 .headers(createBaseHeaders(requestContext.getConfig()))
@@ -81,9 +139,7 @@ public class InboxInternal_V1 implements InboxInternal {
             @Override
             public void onSuccess(String id, ResponseModel responseModel) {
                 EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: id %s, responseModel %s", id, responseModel);
-                NotificationInboxStatus status = InboxParseUtils.parseNotificationInboxStatus(responseModel.getBody());
-                NotificationInboxStatus resultStatus = new NotificationInboxStatus(cache.merge(status.getNotifications()), status.getBadgeCount());
-                resultListener.onSuccess(resultStatus);
+                resultListener.onSuccess(new InboxNotificationList(responseModel.getBody()));
             }
 
             @Override
@@ -103,7 +159,8 @@ public class InboxInternal_V1 implements InboxInternal {
     @Override
     public void resetBadgeCount(final ResetBadgeCountResultListener listener) {
         EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: resultListener %s", listener);
-        if (requestContext.getAppLoginParameters() != null && requestContext.getAppLoginParameters().hasCredentials()) {
+        AppLoginParameters appLoginParameters = requestContext.getAppLoginParameters();
+        if (appLoginParameters != null && appLoginParameters.hasCredentials()) {
             handleResetRequest(listener);
         } else {
             if (listener != null) {
@@ -127,7 +184,7 @@ public class InboxInternal_V1 implements InboxInternal {
         RequestModel model = new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getRequestIdProvider())
                 .url(RequestUrlUtils.createEventUrl_V2("message_open"))
                 .payload(payload)
-                .headers(RequestHeaderUtils.createBaseHeaders_V2(requestContext.getConfig()))
+                .headers(RequestHeaderUtils.createBaseHeaders_V2(requestContext))
                 .build();
 
         manager.submit(model);
@@ -178,11 +235,12 @@ public class InboxInternal_V1 implements InboxInternal {
 
         result.put("x-ems-me-hardware-id", new DeviceInfo(config.getApplication()).getHwid());
         result.put("x-ems-me-application-code", config.getApplicationCode());
-        result.put("x-ems-me-contact-field-id", String.valueOf(requestContext.getAppLoginParameters().getContactFieldId()));
-        result.put("x-ems-me-contact-field-value", requestContext.getAppLoginParameters().getContactFieldValue());
+        AppLoginParameters appLoginParameters = requestContext.getAppLoginParameters();
+        result.put("x-ems-me-contact-field-id", String.valueOf(appLoginParameters.getContactFieldId()));
+        result.put("x-ems-me-contact-field-value", appLoginParameters.getContactFieldValue());
 
         result.putAll(RequestHeaderUtils.createDefaultHeaders(config));
-        result.putAll(RequestHeaderUtils.createBaseHeaders_V2(config));
+        result.putAll(requestContext.getBaseHeaders_V2());
 
         return result;
     }
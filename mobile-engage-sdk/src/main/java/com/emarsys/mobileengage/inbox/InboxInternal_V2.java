@@ -17,6 +17,8 @@ import com.emarsys.mobileengage.MobileEngageStatusListener;
 import com.emarsys.mobileengage.RequestContext;
 import com.emarsys.mobileengage.config.MobileEngageConfig;
 import com.emarsys.mobileengage.endpoint.Endpoint;
+import com.emarsys.mobileengage.inbox.model.InboxCacheEntry;
+import com.emarsys.mobileengage.inbox.model.InboxCacheRepository;
 import com.emarsys.mobileengage.inbox.model.Notification;
 import com.emarsys.mobileengage.inbox.model.NotificationCache;
 import com.emarsys.mobileengage.inbox.model.NotificationInboxStatus;
@@ -34,32 +36,43 @@ import static com.emarsys.mobileengage.endpoint.Endpoint.INBOX_RESET_BADGE_COUNT
 
 public class InboxInternal_V2 implements InboxInternal {
 
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+
     private Handler mainHandler;
+    private Handler coreSdkHandler;
     private RestClient client;
     private NotificationCache cache;
+    private InboxCacheRepository inboxCache;
     private RequestContext requestContext;
     private RequestManager manager;
-    private NotificationInboxStatus lastNotificationInboxStatus;
-    private long responseTime;
+    private Map<String, InboxState> states;
     private long purgeTime;
-    private boolean requestInProgress;
-    private List<InboxResultListener> queuedResultListeners;
 
     public InboxInternal_V2(
             RequestManager requestManager,
             RestClient restClient,
-            RequestContext requestContext) {
+            RequestContext requestContext,
+            InboxCacheRepository inboxCache,
+            Handler coreSdkHandler) {
         Assert.notNull(requestManager, "RequestManager must not be null!");
         Assert.notNull(restClient, "RestClient must not be null!");
         Assert.notNull(requestContext, "RequestContext must not be null!");
+        Assert.notNull(inboxCache, "InboxCache must not be null!");
+        Assert.notNull(coreSdkHandler, "CoreSdkHandler must not be null!");
         EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: config %s, requestManager %s", requestContext.getConfig(), requestManager);
 
         this.client = restClient;
         this.mainHandler = new Handler(Looper.getMainLooper());
-        this.cache = new NotificationCache();
+        this.coreSdkHandler = coreSdkHandler;
+        this.cache = new NotificationCache(requestContext.getTimestampProvider());
+        this.inboxCache = inboxCache;
         this.manager = requestManager;
         this.requestContext = requestContext;
-        this.queuedResultListeners = new ArrayList<>();
+        this.states = new HashMap<>();
     }
 
     public RequestContext getRequestContext() {
@@ -71,80 +84,50 @@ public class InboxInternal_V2 implements InboxInternal {
         Assert.notNull(resultListener, "ResultListener should not be null!");
         EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: resultListener %s", resultListener);
 
-        if (requestInProgress) {
-            queuedResultListeners.add(resultListener);
-        } else {
-            requestInProgress = true;
-
-            if (lastNotificationInboxStatus != null && !oneMinutePassedSince(responseTime)) {
-                resultListener.onSuccess(lastNotificationInboxStatus);
-                return;
+        fetch(new StatusListener(resultListener) {
+            @Override
+            NotificationInboxStatus toStatus(InboxNotificationList list) {
+                return list.toStatus(cache);
             }
+        });
+    }
 
-            final String meId = requestContext.getMeIdStorage().get();
-
-            if (meId == null) {
-                mainHandler.post(new Runnable() {
-                    @Override
-                    public void run() {
-                        resultListener.onError(new NotificationInboxException("Missing MeId, appLogin must be called before calling fetchNotifications!"));
-                    }
-                });
-            } else {
-                RequestModel model = new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getRequestIdProvider())
-                        .url(String.format(Endpoint.INBOX_FETCH_V2, meId))
-                        .headers(createBaseHeaders(requestContext.getConfig()))
-                        .method(RequestMethod.GET)
-                        .build();
-
-                client.execute(model, new CoreCompletionHandler() {
-                    @Override
-                    public void onSuccess(String id, ResponseModel responseModel) {
-                        EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: id %s, responseModel %s", id, responseModel);
-                        NotificationInboxStatus status = InboxParseUtils.parseNotificationInboxStatus(responseModel.getBody());
-                        NotificationInboxStatus resultStatus = new NotificationInboxStatus(cache.merge(status.getNotifications()), status.getBadgeCount());
-
-                        lastNotificationInboxStatus = status;
-                        responseTime = requestContext.getTimestampProvider().provideTimestamp();
-                        requestInProgress = false;
-
-                        resultListener.onSuccess(resultStatus);
-
-                        for (InboxResultListener<NotificationInboxStatus> queuedResultListener : queuedResultListeners) {
-                            queuedResultListener.onSuccess(resultStatus);
-                        }
-                        queuedResultListeners.clear();
-                    }
-
-                    @Override
-                    public void onError(String id, ResponseModel responseModel) {
-                        EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: id %s, responseModel %s", id, responseModel);
-
-                        this.onError(id, new MobileEngageException(responseModel));
-                    }
-
-                    @Override
-                    public void onError(String id, Exception cause) {
-                        EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: id %s, cause %s", id, cause);
+    @Override
+    public void fetchNotifications(final int offset, final int limit, final InboxResultListener<NotificationInboxStatus> resultListener) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative!");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0!");
+        }
+        Assert.notNull(resultListener, "ResultListener should not be null!");
+        EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: offset %s, limit %s, resultListener %s", offset, limit, resultListener);
 
-                        requestInProgress = false;
+        fetch(new StatusListener(resultListener) {
+            @Override
+            NotificationInboxStatus toStatus(InboxNotificationList list) {
+                return list.toPage(cache, offset, limit);
+            }
+        });
+    }
 
-                        resultListener.onError(cause);
+    @Override
+    public void fetchNotificationsSince(final long receivedAt, final InboxResultListener<NotificationInboxStatus> resultListener) {
+        Assert.notNull(resultListener, "ResultListener should not be null!");
+        EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: receivedAt %s, resultListener %s", receivedAt, resultListener);
 
-                        for (InboxResultListener<NotificationInboxStatus> queuedResultListener : queuedResultListeners) {
-                            queuedResultListener.onError(cause);
-                        }
-                        queuedResultListeners.clear();
-                    }
-                });
+        fetch(new StatusListener(resultListener) {
+            @Override
+            NotificationInboxStatus toStatus(InboxNotificationList list) {
+                return list.toStatusSince(cache, receivedAt);
             }
-        }
+        });
     }
 
     @Override
     public void resetBadgeCount(final ResetBadgeCountResultListener listener) {
         EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: resultListener %s", listener);
-        String meId = requestContext.getMeIdStorage().get();
+        final String meId = requestContext.getSession().getMeId();
         if (meId != null) {
             RequestModel model = new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getRequestIdProvider())
                     .url(String.format(INBOX_RESET_BADGE_COUNT_V2, meId))
@@ -156,8 +139,9 @@ public class InboxInternal_V2 implements InboxInternal {
                 @Override
                 public void onSuccess(String id, ResponseModel responseModel) {
                     EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: id %s, responseModel %s", id, responseModel);
-                    if (lastNotificationInboxStatus != null) {
-                        lastNotificationInboxStatus = new NotificationInboxStatus(lastNotificationInboxStatus.getNotifications(), 0);
+                    InboxState state = states.get(meId);
+                    if (state != null && state.list != null) {
+                        state.list = state.list.withBadgeCount(0);
                     }
                     if (listener != null) {
                         listener.onSuccess();
@@ -226,9 +210,174 @@ public class InboxInternal_V2 implements InboxInternal {
     @Override
     public void purgeNotificationCache() {
         if (oneMinutePassedSince(purgeTime)) {
-            lastNotificationInboxStatus = null;
+            states.clear();
             purgeTime = requestContext.getTimestampProvider().provideTimestamp();
+            final String meId = requestContext.getSession().getMeId();
+            if (meId != null) {
+                coreSdkHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        inboxCache.remove(meId);
+                    }
+                });
+            }
+        }
+    }
+
+    private void fetch(final StatusListener resultListener) {
+        final String meId = requestContext.getSession().getMeId();
+
+        if (meId == null) {
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    resultListener.onError(new NotificationInboxException("Missing MeId, appLogin must be called before calling fetchNotifications!"));
+                }
+            });
+        } else {
+            InboxState state = states.get(meId);
+            if (state == null) {
+                state = new InboxState();
+                states.put(meId, state);
+            }
+
+            if (state.requestInProgress) {
+                state.queuedResultListeners.add(resultListener);
+            } else if (state.list != null && !oneMinutePassedSince(state.responseTime)) {
+                resultListener.onSuccess(state.list);
+            } else {
+                state.requestInProgress = true;
+                if (state.list != null) {
+                    sendFetchRequest(state, meId, resultListener, state.list, state.etag, state.lastModified, false);
+                } else {
+                    revalidatePersistedList(state, meId, resultListener);
+                }
+            }
+        }
+    }
+
+    private void revalidatePersistedList(final InboxState state, final String meId, final StatusListener resultListener) {
+        coreSdkHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                final InboxCacheEntry entry = inboxCache.get(meId);
+                final InboxNotificationList persistedList = entry == null ? null : new InboxNotificationList(entry.getBody());
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (persistedList == null) {
+                            sendFetchRequest(state, meId, resultListener, null, null, null, false);
+                        } else {
+                            boolean staleResultDelivered = resultListener.acceptsStaleResult();
+                            if (staleResultDelivered) {
+                                EMSLogger.log(MobileEngageTopic.INBOX, "Delivering persisted inbox status while refreshing");
+                                resultListener.onStaleResult(persistedList);
+                            }
+                            sendFetchRequest(state, meId, resultListener, persistedList, entry.getEtag(), entry.getLastModified(), staleResultDelivered);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void sendFetchRequest(
+            final InboxState state,
+            final String meId,
+            final StatusListener resultListener,
+            final InboxNotificationList cachedList,
+            String cachedEtag,
+            String cachedLastModified,
+            final boolean staleResultDelivered) {
+        Map<String, String> headers = createBaseHeaders(requestContext.getConfig());
+        if (cachedList != null && cachedEtag != null) {
+            headers.put(HEADER_IF_NONE_MATCH, cachedEtag);
+        }
+        if (cachedList != null && cachedLastModified != null) {
+            headers.put(HEADER_IF_MODIFIED_SINCE, cachedLastModified);
         }
+
+        RequestModel model = new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getRequestIdProvider())
+                .url(String.format(Endpoint.INBOX_FETCH_V2, meId))
+                .headers(headers)
+                .method(RequestMethod.GET)
+                .build();
+
+        client.execute(model, new CoreCompletionHandler() {
+            @Override
+            public void onSuccess(String id, ResponseModel responseModel) {
+                EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: id %s, responseModel %s", id, responseModel);
+
+                state.etag = getHeader(responseModel, HEADER_ETAG);
+                state.lastModified = getHeader(responseModel, HEADER_LAST_MODIFIED);
+                onListFetched(state, new InboxNotificationList(responseModel.getBody()), resultListener, true);
+                persistStatus(meId, responseModel.getBody(), state.responseTime, state.etag, state.lastModified);
+            }
+
+            @Override
+            public void onError(String id, ResponseModel responseModel) {
+                EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: id %s, responseModel %s", id, responseModel);
+
+                if (responseModel.getStatusCode() == HTTP_NOT_MODIFIED && cachedList != null) {
+                    onListFetched(state, cachedList, resultListener, !staleResultDelivered);
+                } else {
+                    this.onError(id, new MobileEngageException(responseModel));
+                }
+            }
+
+            @Override
+            public void onError(String id, Exception cause) {
+                EMSLogger.log(MobileEngageTopic.INBOX, "Arguments: id %s, cause %s", id, cause);
+
+                state.requestInProgress = false;
+
+                resultListener.onError(cause);
+
+                for (StatusListener queuedResultListener : state.queuedResultListeners) {
+                    queuedResultListener.onError(cause);
+                }
+                state.queuedResultListeners.clear();
+            }
+        });
+    }
+
+    private void onListFetched(InboxState state, InboxNotificationList list, StatusListener resultListener, boolean notifyResultListener) {
+        state.list = list;
+        state.responseTime = requestContext.getTimestampProvider().provideTimestamp();
+        state.requestInProgress = false;
+
+        if (notifyResultListener) {
+            resultListener.onSuccess(list);
+        }
+
+        for (StatusListener queuedResultListener : state.queuedResultListeners) {
+            queuedResultListener.onSuccess(list);
+        }
+        state.queuedResultListeners.clear();
+    }
+
+    private void persistStatus(final String meId, final String body, final long timestamp, final String etag, final String lastModified) {
+        if (body != null) {
+            coreSdkHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    inboxCache.put(new InboxCacheEntry(meId, body, timestamp, etag, lastModified));
+                }
+            });
+        }
+    }
+
+    private String getHeader(ResponseModel responseModel, String name) {
+        String result = null;
+        Map<String, String> headers = responseModel.getHeaders();
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                if (name.equalsIgnoreCase(header.getKey())) {
+                    result = header.getValue();
+                }
+            }
+        }
+        return result;
     }
 
     private boolean oneMinutePassedSince(long since) {
@@ -256,8 +405,50 @@ public class InboxInternal_V2 implements InboxInternal {
 
         result.put("x-ems-me-application-code", config.getApplicationCode());
         result.putAll(RequestHeaderUtils.createDefaultHeaders(config));
-        result.putAll(RequestHeaderUtils.createBaseHeaders_V2(config));
+        result.putAll(requestContext.getBaseHeaders_V2());
 
         return result;
     }
+
+    private static class InboxState {
+        private InboxNotificationList list;
+        private String etag;
+        private String lastModified;
+        private long responseTime;
+        private boolean requestInProgress;
+        private final List<StatusListener> queuedResultListeners = new ArrayList<>();
+    }
+
+    private abstract static class StatusListener implements StaleInboxResultListener<InboxNotificationList> {
+
+        private final InboxResultListener<NotificationInboxStatus> resultListener;
+
+        StatusListener(InboxResultListener<NotificationInboxStatus> resultListener) {
+            this.resultListener = resultListener;
+        }
+
+        abstract NotificationInboxStatus toStatus(InboxNotificationList list);
+
+        boolean acceptsStaleResult() {
+            return resultListener instanceof StaleInboxResultListener;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onStaleResult(InboxNotificationList result) {
+            if (acceptsStaleResult()) {
+                ((StaleInboxResultListener<NotificationInboxStatus>) resultListener).onStaleResult(toStatus(result));
+            }
+        }
+
+        @Override
+        public void onSuccess(InboxNotificationList result) {
+            resultListener.onSuccess(toStatus(result));
+        }
+
+        @Override
+        public void onError(Exception cause) {
+            resultListener.onError(cause);
+        }
+    }
 }
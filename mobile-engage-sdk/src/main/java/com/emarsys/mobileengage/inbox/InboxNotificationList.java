@@ -0,0 +1,142 @@
+package com.emarsys.mobileengage.inbox;
+
+import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.inbox.model.Notification;
+import com.emarsys.mobileengage.inbox.model.NotificationCache;
+import com.emarsys.mobileengage.inbox.model.NotificationInboxStatus;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+class InboxNotificationList {
+
+    private final JSONArray array;
+    private final Notification[] parsed;
+    private final int badgeCount;
+    private Set<String> ids;
+
+    InboxNotificationList(String jsonString) {
+        JSONArray notifications = new JSONArray();
+        int badge = 0;
+        if (jsonString != null) {
+            try {
+                JSONObject json = new JSONObject(jsonString);
+                JSONArray array = json.optJSONArray("notifications");
+                if (array != null) {
+                    notifications = array;
+                } else if (json.has("notifications")) {
+                    notifications = new JSONArray(json.getString("notifications"));
+                }
+                badge = json.optInt("badge_count");
+            } catch (JSONException e) {
+            }
+        }
+        this.array = notifications;
+        this.parsed = new Notification[notifications.length()];
+        this.badgeCount = badge;
+    }
+
+    private InboxNotificationList(InboxNotificationList source, int badgeCount) {
+        this.array = source.array;
+        this.parsed = source.parsed;
+        this.ids = source.ids;
+        this.badgeCount = badgeCount;
+    }
+
+    int size() {
+        return parsed.length;
+    }
+
+    int getBadgeCount() {
+        return badgeCount;
+    }
+
+    InboxNotificationList withBadgeCount(int badgeCount) {
+        return new InboxNotificationList(this, badgeCount);
+    }
+
+    Notification get(int index) {
+        synchronized (parsed) {
+            Notification result = parsed[index];
+            if (result == null) {
+                result = InboxParseUtils.parseNotification(getJson(index));
+                parsed[index] = result;
+            }
+            return result;
+        }
+    }
+
+    NotificationInboxStatus toStatus(NotificationCache cache) {
+        return toPage(cache, 0, Integer.MAX_VALUE);
+    }
+
+    NotificationInboxStatus toPage(NotificationCache cache, int offset, int limit) {
+        Assert.notNull(cache, "Cache must not be null!");
+
+        List<Notification> cached = cache.retainUnfetched(getIds());
+        long end = Math.min((long) offset + limit, (long) cached.size() + size());
+        List<Notification> result = new ArrayList<>();
+        for (int i = offset; i < end; i++) {
+            Notification notification = i < cached.size() ? cached.get(i) : get(i - cached.size());
+            if (notification != null) {
+                result.add(notification);
+            }
+        }
+        return new NotificationInboxStatus(result, badgeCount);
+    }
+
+    NotificationInboxStatus toStatusSince(NotificationCache cache, long receivedAt) {
+        Assert.notNull(cache, "Cache must not be null!");
+
+        List<Notification> result = new ArrayList<>();
+        for (Notification notification : cache.retainUnfetched(getIds())) {
+            if (notification.getReceivedAt() > receivedAt) {
+                result.add(notification);
+            }
+        }
+        for (int i = 0; i < size(); i++) {
+            JSONObject json = getJson(i);
+            if (json != null && json.optLong("received_at") > receivedAt) {
+                Notification notification = get(i);
+                if (notification != null) {
+                    result.add(notification);
+                }
+            }
+        }
+        return new NotificationInboxStatus(result, badgeCount);
+    }
+
+    private Set<String> getIds() {
+        synchronized (parsed) {
+            if (ids == null) {
+                Set<String> result = new HashSet<>();
+                for (int i = 0; i < array.length(); i++) {
+                    JSONObject json = getJson(i);
+                    if (json != null && json.has("id")) {
+                        result.add(json.optString("id"));
+                    }
+                }
+                ids = result;
+            }
+            return ids;
+        }
+    }
+
+    private JSONObject getJson(int index) {
+        JSONObject result = array.optJSONObject(index);
+        if (result == null) {
+            try {
+                result = new JSONObject(array.getString(index));
+            } catch (JSONException e) {
+            }
+        }
+        return result;
+    }
+
+}
@@ -71,7 +71,17 @@ public class InboxParseUtils {
         Notification result = null;
         if (jsonString != null) {
             try {
-                JSONObject json = new JSONObject(jsonString);
+                result = parseNotification(new JSONObject(jsonString));
+            } catch (JSONException e) {
+            }
+        }
+        return result;
+    }
+
+    public static Notification parseNotification(JSONObject json) {
+        Notification result = null;
+        if (json != null) {
+            try {
                 String id = json.getString("id");
                 String sid = json.getString("sid");
                 String title = json.getString("title");
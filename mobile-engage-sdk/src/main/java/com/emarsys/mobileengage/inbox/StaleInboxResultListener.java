@@ -0,0 +1,5 @@
+package com.emarsys.mobileengage.inbox;
+
+public interface StaleInboxResultListener<T> extends InboxResultListener<T> {
+    void onStaleResult(T result);
+}
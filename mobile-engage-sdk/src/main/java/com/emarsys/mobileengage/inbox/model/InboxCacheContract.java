@@ -0,0 +1,43 @@
+package com.emarsys.mobileengage.inbox.model;
+
+public final class InboxCacheContract {
+
+    private InboxCacheContract() {
+    }
+
+    public static final String TABLE_NAME = "inbox_cache";
+    public static final String COLUMN_NAME_ME_ID = "me_id";
+    public static final String COLUMN_NAME_BODY = "body";
+    public static final String COLUMN_NAME_TIMESTAMP = "timestamp";
+    public static final String COLUMN_NAME_ETAG = "etag";
+    public static final String COLUMN_NAME_LAST_MODIFIED = "last_modified";
+
+    public static final String SQL_CREATE_TABLE = String.format(
+            "CREATE TABLE IF NOT EXISTS %s (" +
+                    "%s TEXT PRIMARY KEY," +
+                    "%s TEXT NOT NULL," +
+                    "%s INTEGER," +
+                    "%s TEXT," +
+                    "%s TEXT" +
+                    ");",
+            TABLE_NAME,
+            COLUMN_NAME_ME_ID,
+            COLUMN_NAME_BODY,
+            COLUMN_NAME_TIMESTAMP,
+            COLUMN_NAME_ETAG,
+            COLUMN_NAME_LAST_MODIFIED
+    );
+
+    public static final String SQL_ADD_ETAG_COLUMN = String.format(
+            "ALTER TABLE %s ADD COLUMN %s TEXT;",
+            TABLE_NAME,
+            COLUMN_NAME_ETAG
+    );
+
+    public static final String SQL_ADD_LAST_MODIFIED_COLUMN = String.format(
+            "ALTER TABLE %s ADD COLUMN %s TEXT;",
+            TABLE_NAME,
+            COLUMN_NAME_LAST_MODIFIED
+    );
+
+}
@@ -0,0 +1,81 @@
+package com.emarsys.mobileengage.inbox.model;
+
+import com.emarsys.core.util.Assert;
+
+public class InboxCacheEntry {
+
+    private final String meId;
+    private final String body;
+    private final long timestamp;
+    private final String etag;
+    private final String lastModified;
+
+    public InboxCacheEntry(String meId, String body, long timestamp) {
+        this(meId, body, timestamp, null, null);
+    }
+
+    public InboxCacheEntry(String meId, String body, long timestamp, String etag, String lastModified) {
+        Assert.notNull(meId, "MeId must not be null!");
+        Assert.notNull(body, "Body must not be null!");
+        this.meId = meId;
+        this.body = body;
+        this.timestamp = timestamp;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public String getMeId() {
+        return meId;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        InboxCacheEntry that = (InboxCacheEntry) o;
+
+        if (timestamp != that.timestamp) return false;
+        if (!meId.equals(that.meId)) return false;
+        if (!body.equals(that.body)) return false;
+        if (etag != null ? !etag.equals(that.etag) : that.etag != null) return false;
+        return lastModified != null ? lastModified.equals(that.lastModified) : that.lastModified == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = meId.hashCode();
+        result = 31 * result + body.hashCode();
+        result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
+        result = 31 * result + (etag != null ? etag.hashCode() : 0);
+        result = 31 * result + (lastModified != null ? lastModified.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "InboxCacheEntry{" +
+                "meId='" + meId + '\'' +
+                ", body='" + body + '\'' +
+                ", timestamp=" + timestamp +
+                ", etag='" + etag + '\'' +
+                ", lastModified='" + lastModified + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,70 @@
+package com.emarsys.mobileengage.inbox.model;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.database.MobileEngageDbHelper;
+
+import static com.emarsys.mobileengage.inbox.model.InboxCacheContract.COLUMN_NAME_BODY;
+import static com.emarsys.mobileengage.inbox.model.InboxCacheContract.COLUMN_NAME_ETAG;
+import static com.emarsys.mobileengage.inbox.model.InboxCacheContract.COLUMN_NAME_LAST_MODIFIED;
+import static com.emarsys.mobileengage.inbox.model.InboxCacheContract.COLUMN_NAME_ME_ID;
+import static com.emarsys.mobileengage.inbox.model.InboxCacheContract.COLUMN_NAME_TIMESTAMP;
+import static com.emarsys.mobileengage.inbox.model.InboxCacheContract.TABLE_NAME;
+
+public class InboxCacheRepository {
+
+    private static final String SELECTION_BY_ME_ID = COLUMN_NAME_ME_ID + "=?";
+
+    private final MobileEngageDbHelper dbHelper;
+
+    public InboxCacheRepository(MobileEngageDbHelper dbHelper) {
+        Assert.notNull(dbHelper, "DbHelper must not be null!");
+        this.dbHelper = dbHelper;
+    }
+
+    public InboxCacheEntry get(String meId) {
+        Assert.notNull(meId, "MeId must not be null!");
+
+        SQLiteDatabase database = dbHelper.getReadableCoreDatabase().getBackingDatabase();
+        Cursor cursor = database.query(TABLE_NAME, null, SELECTION_BY_ME_ID, new String[]{meId}, null, null, null);
+        try {
+            InboxCacheEntry result = null;
+            if (cursor.moveToFirst()) {
+                result = new InboxCacheEntry(
+                        cursor.getString(cursor.getColumnIndex(COLUMN_NAME_ME_ID)),
+                        cursor.getString(cursor.getColumnIndex(COLUMN_NAME_BODY)),
+                        cursor.getLong(cursor.getColumnIndex(COLUMN_NAME_TIMESTAMP)),
+                        cursor.getString(cursor.getColumnIndex(COLUMN_NAME_ETAG)),
+                        cursor.getString(cursor.getColumnIndex(COLUMN_NAME_LAST_MODIFIED)));
+            }
+            return result;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    public void put(InboxCacheEntry entry) {
+        Assert.notNull(entry, "Entry must not be null!");
+
+        ContentValues contentValues = new ContentValues();
+        contentValues.put(COLUMN_NAME_ME_ID, entry.getMeId());
+        contentValues.put(COLUMN_NAME_BODY, entry.getBody());
+        contentValues.put(COLUMN_NAME_TIMESTAMP, entry.getTimestamp());
+        contentValues.put(COLUMN_NAME_ETAG, entry.getEtag());
+        contentValues.put(COLUMN_NAME_LAST_MODIFIED, entry.getLastModified());
+
+        SQLiteDatabase database = dbHelper.getWritableCoreDatabase().getBackingDatabase();
+        database.insertWithOnConflict(TABLE_NAME, null, contentValues, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    public void remove(String meId) {
+        Assert.notNull(meId, "MeId must not be null!");
+
+        SQLiteDatabase database = dbHelper.getWritableCoreDatabase().getBackingDatabase();
+        database.delete(TABLE_NAME, SELECTION_BY_ME_ID, new String[]{meId});
+    }
+
+}
@@ -1,40 +1,107 @@
 package com.emarsys.mobileengage.inbox.model;
 
+import com.emarsys.core.timestamp.TimestampProvider;
+import com.emarsys.core.util.Assert;
 import com.emarsys.core.util.log.EMSLogger;
 import com.emarsys.mobileengage.util.log.MobileEngageTopic;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class NotificationCache {
 
-    static List<Notification> internalCache = new ArrayList<>();
+    public static final int CAPACITY = 100;
+    public static final long MAX_AGE_MILLIS = 7 * 24 * 60 * 60 * 1000L;
+
+    static final Map<String, Notification> internalCache = new LinkedHashMap<>();
+
+    private final TimestampProvider timestampProvider;
+
+    public NotificationCache() {
+        this(new TimestampProvider());
+    }
+
+    public NotificationCache(TimestampProvider timestampProvider) {
+        Assert.notNull(timestampProvider, "TimestampProvider must not be null!");
+        this.timestampProvider = timestampProvider;
+    }
 
     public void cache(Notification notification) {
         EMSLogger.log(MobileEngageTopic.INBOX, "Argument: %s", notification);
 
         if (notification != null) {
-            internalCache.add(0, notification);
+            synchronized (internalCache) {
+                internalCache.remove(notification.getId());
+                internalCache.put(notification.getId(), notification);
+                if (internalCache.size() > CAPACITY) {
+                    evictExpired(timestampProvider.provideTimestamp());
+                    evictOldest(internalCache.size() - CAPACITY);
+                }
+            }
         }
     }
 
     public List<Notification> merge(List<Notification> fetchedList) {
-        invalidate(fetchedList);
-
-        ArrayList<Notification> result = new ArrayList<>(internalCache);
+        List<Notification> result = new ArrayList<>(fetchedList.size() + CAPACITY);
+        synchronized (internalCache) {
+            invalidate(fetchedList);
+            evictExpired(timestampProvider.provideTimestamp());
+            result.addAll(getCachedNotifications());
+        }
         result.addAll(fetchedList);
         return result;
     }
 
+    public List<Notification> retainUnfetched(Collection<String> fetchedIds) {
+        synchronized (internalCache) {
+            internalCache.keySet().removeAll(fetchedIds);
+            evictExpired(timestampProvider.provideTimestamp());
+            return getCachedNotifications();
+        }
+    }
+
     public void invalidate(List<Notification> fetchedNotifications) {
-        for (int i = internalCache.size() - 1; i >= 0; --i) {
-            Notification cached = internalCache.get(i);
-            for (Notification fetched: fetchedNotifications) {
-                if (fetched.getId().equals(cached.getId())) {
-                    internalCache.remove(i);
-                    break;
-                }
+        synchronized (internalCache) {
+            for (Notification fetched : fetchedNotifications) {
+                internalCache.remove(fetched.getId());
             }
         }
     }
+
+    List<Notification> getCachedNotifications() {
+        synchronized (internalCache) {
+            List<Notification> result = new ArrayList<>(internalCache.values());
+            Collections.reverse(result);
+            return result;
+        }
+    }
+
+    // expirationTime is in seconds and receivedAt is in milliseconds; push notifications carry
+    // Integer.MAX_VALUE as expirationTime, so MAX_AGE_MILLIS bounds how long any notification is kept
+    static boolean isExpired(Notification notification, long now) {
+        long timeToLiveMillis = Math.min(notification.getExpirationTime() * 1000L, MAX_AGE_MILLIS);
+        return notification.getReceivedAt() + timeToLiveMillis <= now;
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Notification> iterator = internalCache.values().iterator();
+        while (iterator.hasNext()) {
+            if (isExpired(iterator.next(), now)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void evictOldest(int count) {
+        Iterator<Notification> iterator = internalCache.values().iterator();
+        for (int i = 0; i < count && iterator.hasNext(); i++) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package com.emarsys.mobileengage.log.handler;
+
+import com.emarsys.core.handler.Handler;
+import com.emarsys.core.util.Assert;
+
+import java.util.Map;
+
+public class RequestCompressionLogHandler implements Handler<Map<String, Object>, Map<String, Object>> {
+    private static final String REQUEST_ID = "request_id";
+    private static final String UNCOMPRESSED_SIZE = "uncompressed_size";
+    private static final String COMPRESSED_SIZE = "compressed_size";
+
+    @Override
+    public Map<String, Object> handle(Map<String, Object> item) {
+        Assert.notNull(item, "Item must not be null!");
+        Map<String, Object> result = null;
+        if (item.get(REQUEST_ID) instanceof String
+                && item.get(UNCOMPRESSED_SIZE) instanceof Integer
+                && item.get(COMPRESSED_SIZE) instanceof Integer) {
+            result = item;
+        }
+        return result;
+    }
+}
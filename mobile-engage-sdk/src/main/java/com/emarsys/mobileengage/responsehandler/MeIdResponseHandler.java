@@ -2,8 +2,10 @@ package com.emarsys.mobileengage.responsehandler;
 
 import com.emarsys.core.response.ResponseModel;
 import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.RequestContext;
 import com.emarsys.mobileengage.storage.MeIdSignatureStorage;
 import com.emarsys.mobileengage.storage.MeIdStorage;
+import com.emarsys.mobileengage.storage.StorageEditor;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -16,12 +18,15 @@ public class MeIdResponseHandler extends AbstractResponseHandler {
 
     MeIdStorage meIdStorage;
     MeIdSignatureStorage meIdSignatureStorage;
+    RequestContext requestContext;
 
-    public MeIdResponseHandler(MeIdStorage meIdStorage, MeIdSignatureStorage meIdSignatureStorage) {
+    public MeIdResponseHandler(MeIdStorage meIdStorage, MeIdSignatureStorage meIdSignatureStorage, RequestContext requestContext) {
         Assert.notNull(meIdStorage, "MeIdStorage must not be null!");
         Assert.notNull(meIdSignatureStorage, "MeIdSignatureStorage must not be null!");
+        Assert.notNull(requestContext, "RequestContext must not be null!");
         this.meIdStorage = meIdStorage;
         this.meIdSignatureStorage = meIdSignatureStorage;
+        this.requestContext = requestContext;
     }
 
     @Override
@@ -34,8 +39,9 @@ public class MeIdResponseHandler extends AbstractResponseHandler {
     protected void handleResponse(ResponseModel responseModel) {
         JSONObject body = responseModel.getParsedBody();
         try {
-            meIdStorage.set(body.getString(ME_ID_KEY));
-            meIdSignatureStorage.set(body.getString(ME_ID_SIGNATURE_KEY));
+            requestContext.updateSession(new StorageEditor()
+                    .set(meIdStorage, body.getString(ME_ID_KEY))
+                    .set(meIdSignatureStorage, body.getString(ME_ID_SIGNATURE_KEY)));
         } catch (JSONException ignore) {
         }
     }
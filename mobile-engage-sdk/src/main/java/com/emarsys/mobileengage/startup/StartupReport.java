@@ -0,0 +1,56 @@
+package com.emarsys.mobileengage.startup;
+
+import com.emarsys.core.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class StartupReport {
+
+    private final List<StartupSpan> spans;
+
+    public StartupReport(List<StartupSpan> spans) {
+        Assert.notNull(spans, "Spans must not be null!");
+        Assert.elementsNotNull(spans, "Span elements must not be null!");
+        this.spans = Collections.unmodifiableList(new ArrayList<>(spans));
+    }
+
+    public List<StartupSpan> getSpans() {
+        return spans;
+    }
+
+    public StartupSpan getSpan(String name) {
+        Assert.notNull(name, "Name must not be null!");
+        StartupSpan result = null;
+        for (StartupSpan span : spans) {
+            if (span.getName().equals(name)) {
+                result = span;
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StartupReport that = (StartupReport) o;
+
+        return spans.equals(that.spans);
+    }
+
+    @Override
+    public int hashCode() {
+        return spans.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "StartupReport{" +
+                "spans=" + spans +
+                '}';
+    }
+}
@@ -0,0 +1,77 @@
+package com.emarsys.mobileengage.startup;
+
+import com.emarsys.core.util.Assert;
+
+public class StartupSpan {
+
+    private final String name;
+    private final String threadName;
+    private final long startOffsetNanos;
+    private final long wallTimeNanos;
+    private final long threadCpuTimeNanos;
+
+    public StartupSpan(String name, String threadName, long startOffsetNanos, long wallTimeNanos, long threadCpuTimeNanos) {
+        Assert.notNull(name, "Name must not be null!");
+        Assert.notNull(threadName, "ThreadName must not be null!");
+        this.name = name;
+        this.threadName = threadName;
+        this.startOffsetNanos = startOffsetNanos;
+        this.wallTimeNanos = wallTimeNanos;
+        this.threadCpuTimeNanos = threadCpuTimeNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getStartOffsetNanos() {
+        return startOffsetNanos;
+    }
+
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    public long getThreadCpuTimeNanos() {
+        return threadCpuTimeNanos;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StartupSpan that = (StartupSpan) o;
+
+        if (startOffsetNanos != that.startOffsetNanos) return false;
+        if (wallTimeNanos != that.wallTimeNanos) return false;
+        if (threadCpuTimeNanos != that.threadCpuTimeNanos) return false;
+        if (!name.equals(that.name)) return false;
+        return threadName.equals(that.threadName);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name.hashCode();
+        result = 31 * result + threadName.hashCode();
+        result = 31 * result + (int) (startOffsetNanos ^ (startOffsetNanos >>> 32));
+        result = 31 * result + (int) (wallTimeNanos ^ (wallTimeNanos >>> 32));
+        result = 31 * result + (int) (threadCpuTimeNanos ^ (threadCpuTimeNanos >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "StartupSpan{" +
+                "name='" + name + '\'' +
+                ", threadName='" + threadName + '\'' +
+                ", startOffsetNanos=" + startOffsetNanos +
+                ", wallTimeNanos=" + wallTimeNanos +
+                ", threadCpuTimeNanos=" + threadCpuTimeNanos +
+                '}';
+    }
+}
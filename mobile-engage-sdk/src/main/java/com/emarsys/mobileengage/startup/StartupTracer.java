@@ -0,0 +1,85 @@
+package com.emarsys.mobileengage.startup;
+
+import android.os.Debug;
+import android.os.Trace;
+
+import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.util.AndroidVersionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StartupTracer {
+
+    private static final String TRACE_PREFIX = "MobileEngage:";
+    private static final int MAX_TRACE_SECTION_LENGTH = 127;
+
+    private final long originNanos;
+    private final List<StartupSpan> spans;
+
+    public StartupTracer() {
+        this.originNanos = System.nanoTime();
+        this.spans = new ArrayList<>();
+    }
+
+    public Section beginSection(String name) {
+        Assert.notNull(name, "Name must not be null!");
+        return new Section(name);
+    }
+
+    public synchronized StartupReport getReport() {
+        return new StartupReport(spans);
+    }
+
+    private synchronized void addSpan(StartupSpan span) {
+        spans.add(span);
+    }
+
+    private static String traceSectionName(String name) {
+        String result = TRACE_PREFIX + name;
+        if (result.length() > MAX_TRACE_SECTION_LENGTH) {
+            result = result.substring(0, MAX_TRACE_SECTION_LENGTH);
+        }
+        return result;
+    }
+
+    public class Section {
+
+        private final String name;
+        private final Thread thread;
+        private final long startNanos;
+        private final long startThreadCpuNanos;
+        private boolean ended;
+
+        private Section(String name) {
+            this.name = name;
+            this.thread = Thread.currentThread();
+            if (AndroidVersionUtils.isJellyBeanMr2OrAbove()) {
+                Trace.beginSection(traceSectionName(name));
+            }
+            this.startThreadCpuNanos = Debug.threadCpuTimeNanos();
+            this.startNanos = System.nanoTime();
+        }
+
+        public void end() {
+            long wallTimeNanos = System.nanoTime() - startNanos;
+            long threadCpuTimeNanos = Debug.threadCpuTimeNanos() - startThreadCpuNanos;
+
+            if (ended) {
+                throw new IllegalStateException("Section " + name + " has already ended!");
+            }
+            if (thread != Thread.currentThread()) {
+                throw new IllegalStateException("Section " + name + " must end on the thread it began on!");
+            }
+            ended = true;
+
+            if (AndroidVersionUtils.isJellyBeanMr2OrAbove()) {
+                Trace.endSection();
+            }
+            if (startThreadCpuNanos < 0) {
+                threadCpuTimeNanos = -1;
+            }
+            addSpan(new StartupSpan(name, thread.getName(), startNanos - originNanos, wallTimeNanos, threadCpuTimeNanos));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.emarsys.mobileengage.storage;
+
+import android.content.Context;
+
+public class LastMobileActivityStorage extends MirroredStorage<Long> {
+    public static final String LAST_MOBILE_ACTIVITY_TIMESTAMP_KEY = "lastMobileActivityTimestamp";
+
+    public LastMobileActivityStorage(Context context) {
+        super(context, LAST_MOBILE_ACTIVITY_TIMESTAMP_KEY, Long.class);
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.emarsys.mobileengage.storage;
+
+import android.content.Context;
+
+import com.emarsys.core.util.Assert;
+
+public abstract class MirroredStorage<T> implements Storage<T> {
+
+    private final SharedPreferencesMirror mirror;
+    private final String key;
+    private final Class<T> type;
+
+    protected MirroredStorage(Context context, String key, Class<T> type) {
+        Assert.notNull(context, "Context must not be null!");
+        Assert.notNull(key, "Key must not be null!");
+        Assert.notNull(type, "Type must not be null!");
+        this.mirror = SharedPreferencesMirror.of(context.getSharedPreferences(SHARED_PREFERENCES_NAMESPACE, Context.MODE_PRIVATE));
+        this.key = key;
+        this.type = type;
+    }
+
+    @Override
+    public T get() {
+        return type.cast(mirror.get(key));
+    }
+
+    @Override
+    public void set(T item) {
+        mirror.edit().put(key, item).apply();
+    }
+
+    @Override
+    public void remove() {
+        mirror.edit().remove(key).apply();
+    }
+
+    @Override
+    public void flush() {
+        mirror.flush();
+    }
+
+    public long getVersion() {
+        return mirror.getVersion();
+    }
+
+    SharedPreferencesMirror getMirror() {
+        return mirror;
+    }
+
+    String getKey() {
+        return key;
+    }
+}
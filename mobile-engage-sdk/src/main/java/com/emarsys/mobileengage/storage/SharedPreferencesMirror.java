@@ -0,0 +1,160 @@
+package com.emarsys.mobileengage.storage;
+
+import android.content.SharedPreferences;
+
+import com.emarsys.core.util.Assert;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class SharedPreferencesMirror {
+
+    private static final Map<SharedPreferences, SharedPreferencesMirror> MIRRORS = new HashMap<>();
+
+    private final SharedPreferences sharedPreferences;
+    private final Map<String, Object> pendingPuts = new HashMap<>();
+    private final Set<String> pendingRemovals = new HashSet<>();
+    private boolean pendingClear;
+    private volatile Map<String, ?> values;
+    private volatile long version;
+
+    public static synchronized SharedPreferencesMirror of(SharedPreferences sharedPreferences) {
+        Assert.notNull(sharedPreferences, "SharedPreferences must not be null!");
+        SharedPreferencesMirror result = MIRRORS.get(sharedPreferences);
+        if (result == null) {
+            result = new SharedPreferencesMirror(sharedPreferences);
+            MIRRORS.put(sharedPreferences, result);
+        }
+        return result;
+    }
+
+    SharedPreferencesMirror(SharedPreferences sharedPreferences) {
+        this.sharedPreferences = sharedPreferences;
+    }
+
+    public Object get(String key) {
+        Assert.notNull(key, "Key must not be null!");
+        return getAll().get(key);
+    }
+
+    public Map<String, ?> getAll() {
+        Map<String, ?> result = values;
+        if (result == null) {
+            synchronized (this) {
+                result = values;
+                if (result == null) {
+                    result = Collections.unmodifiableMap(new HashMap<>(sharedPreferences.getAll()));
+                    values = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public Editor edit() {
+        return new Editor();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public synchronized void flush() {
+        if (pendingClear || !pendingPuts.isEmpty() || !pendingRemovals.isEmpty()) {
+            SharedPreferences.Editor editor = sharedPreferences.edit();
+            write(editor, pendingClear, pendingRemovals, pendingPuts);
+            editor.commit();
+
+            pendingClear = false;
+            pendingRemovals.clear();
+            pendingPuts.clear();
+        }
+    }
+
+    private static void write(SharedPreferences.Editor editor, boolean clear, Set<String> removals, Map<String, Object> puts) {
+        if (clear) {
+            editor.clear();
+        }
+        for (String key : removals) {
+            editor.remove(key);
+        }
+        for (Map.Entry<String, Object> entry : puts.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                editor.putString(key, (String) value);
+            } else if (value instanceof Integer) {
+                editor.putInt(key, (Integer) value);
+            } else if (value instanceof Long) {
+                editor.putLong(key, (Long) value);
+            } else if (value instanceof Boolean) {
+                editor.putBoolean(key, (Boolean) value);
+            } else {
+                editor.putFloat(key, (Float) value);
+            }
+        }
+    }
+
+    public class Editor {
+
+        private final Map<String, Object> puts = new HashMap<>();
+        private final Set<String> removals = new HashSet<>();
+        private boolean clear;
+
+        private Editor() {
+        }
+
+        public Editor put(String key, Object value) {
+            Assert.notNull(key, "Key must not be null!");
+            if (value == null) {
+                return remove(key);
+            }
+            if (!(value instanceof String || value instanceof Integer || value instanceof Long || value instanceof Boolean || value instanceof Float)) {
+                throw new IllegalArgumentException("Unsupported value type: " + value.getClass().getName());
+            }
+            removals.remove(key);
+            puts.put(key, value);
+            return this;
+        }
+
+        public Editor remove(String key) {
+            Assert.notNull(key, "Key must not be null!");
+            puts.remove(key);
+            removals.add(key);
+            return this;
+        }
+
+        public Editor clear() {
+            clear = true;
+            return this;
+        }
+
+        public void apply() {
+            synchronized (SharedPreferencesMirror.this) {
+                Map<String, Object> next = clear ? new HashMap<String, Object>() : new HashMap<String, Object>(getAll());
+                next.keySet().removeAll(removals);
+                next.putAll(puts);
+
+                SharedPreferences.Editor editor = sharedPreferences.edit();
+                write(editor, clear, removals, puts);
+                editor.apply();
+
+                if (clear) {
+                    pendingClear = true;
+                    pendingRemovals.clear();
+                    pendingPuts.clear();
+                }
+                pendingPuts.keySet().removeAll(removals);
+                pendingRemovals.addAll(removals);
+                pendingRemovals.removeAll(puts.keySet());
+                pendingPuts.putAll(puts);
+
+                values = Collections.unmodifiableMap(next);
+                version++;
+            }
+        }
+    }
+}
@@ -10,4 +10,6 @@ public interface Storage<T> {
 
     void remove();
 
+    void flush();
+
 }
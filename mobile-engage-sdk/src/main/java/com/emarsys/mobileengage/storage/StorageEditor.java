@@ -0,0 +1,73 @@
+package com.emarsys.mobileengage.storage;
+
+import com.emarsys.core.util.Assert;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class StorageEditor {
+
+    private final Map<SharedPreferencesMirror, SharedPreferencesMirror.Editor> editors = new LinkedHashMap<>();
+    private final List<Runnable> unmirroredEdits = new ArrayList<>();
+
+    public <T> StorageEditor set(final Storage<T> storage, final T item) {
+        Assert.notNull(storage, "Storage must not be null!");
+        SharedPreferencesMirror.Editor editor = editorOf(storage);
+        if (editor != null) {
+            editor.put(((MirroredStorage<T>) storage).getKey(), item);
+        } else {
+            unmirroredEdits.add(new Runnable() {
+                @Override
+                public void run() {
+                    storage.set(item);
+                }
+            });
+        }
+        return this;
+    }
+
+    public StorageEditor remove(final Storage<?> storage) {
+        Assert.notNull(storage, "Storage must not be null!");
+        SharedPreferencesMirror.Editor editor = editorOf(storage);
+        if (editor != null) {
+            editor.remove(((MirroredStorage<?>) storage).getKey());
+        } else {
+            unmirroredEdits.add(new Runnable() {
+                @Override
+                public void run() {
+                    storage.remove();
+                }
+            });
+        }
+        return this;
+    }
+
+    public void apply() {
+        for (SharedPreferencesMirror.Editor editor : editors.values()) {
+            editor.apply();
+        }
+        for (Runnable edit : unmirroredEdits) {
+            edit.run();
+        }
+        editors.clear();
+        unmirroredEdits.clear();
+    }
+
+    private SharedPreferencesMirror.Editor editorOf(Storage<?> storage) {
+        if (!(storage instanceof MirroredStorage)) {
+            return null;
+        }
+        SharedPreferencesMirror mirror = ((MirroredStorage<?>) storage).getMirror();
+        if (mirror == null) {
+            return null;
+        }
+        SharedPreferencesMirror.Editor result = editors.get(mirror);
+        if (result == null) {
+            result = mirror.edit();
+            editors.put(mirror, result);
+        }
+        return result;
+    }
+}
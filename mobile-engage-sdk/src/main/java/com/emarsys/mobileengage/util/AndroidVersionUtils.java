@@ -4,6 +4,14 @@ import android.os.Build;
 
 public class AndroidVersionUtils {
 
+    public static boolean isJellyBeanOrAbove() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+    }
+
+    public static boolean isJellyBeanMr2OrAbove() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+    }
+
     public static boolean isKitKatOrAbove() {
         return Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT;
     }
@@ -4,6 +4,7 @@ import com.emarsys.core.util.Assert;
 import com.emarsys.core.util.HeaderUtils;
 import com.emarsys.mobileengage.BuildConfig;
 import com.emarsys.mobileengage.RequestContext;
+import com.emarsys.mobileengage.Session;
 import com.emarsys.mobileengage.config.MobileEngageConfig;
 
 import java.util.HashMap;
@@ -18,15 +19,20 @@ public class RequestHeaderUtils {
         return baseHeaders;
     }
 
-    public static Map<String, String> createBaseHeaders_V3(RequestContext requestContext) {
+    public static Map<String, String> createBaseHeaders_V2(RequestContext requestContext) {
         Assert.notNull(requestContext, "RequestContext must not be null!");
+        return new HashMap<>(requestContext.getBaseHeaders_V2());
+    }
 
-        Map<String, String> baseHeaders = new HashMap<>();
-        baseHeaders.put("X-ME-ID", requestContext.getMeIdStorage().get());
-        baseHeaders.put("X-ME-ID-SIGNATURE", requestContext.getMeIdSignatureStorage().get());
-        baseHeaders.put("X-ME-APPLICATIONCODE", requestContext.getApplicationCode());
+    public static Map<String, String> createBaseHeaders_V3(RequestContext requestContext) {
+        Assert.notNull(requestContext, "RequestContext must not be null!");
+        return new HashMap<>(requestContext.getBaseHeaders_V3());
+    }
 
-        return baseHeaders;
+    public static Map<String, String> createBaseHeaders_V3(RequestContext requestContext, Session session) {
+        Assert.notNull(requestContext, "RequestContext must not be null!");
+        Assert.notNull(session, "Session must not be null!");
+        return new HashMap<>(requestContext.getBaseHeaders_V3(session));
     }
 
     public static Map<String, String> createDefaultHeaders(MobileEngageConfig config) {
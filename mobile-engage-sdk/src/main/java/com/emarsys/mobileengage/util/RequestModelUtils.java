@@ -3,13 +3,15 @@ package com.emarsys.mobileengage.util;
 import com.emarsys.core.request.model.RequestMethod;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.util.Assert;
-import com.emarsys.core.util.TimestampUtils;
 import com.emarsys.mobileengage.RequestContext;
+import com.emarsys.mobileengage.Session;
+import com.emarsys.mobileengage.event.EventRecord;
 import com.emarsys.mobileengage.experimental.MobileEngageExperimental;
 import com.emarsys.mobileengage.experimental.MobileEngageFeature;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.emarsys.mobileengage.endpoint.Endpoint.ME_LAST_MOBILE_ACTIVITY_V2;
@@ -32,7 +34,7 @@ public class RequestModelUtils {
         return new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getRequestIdProvider())
                 .url(ME_LOGIN_V2)
                 .payload(payload)
-                .headers(RequestHeaderUtils.createBaseHeaders_V2(requestContext.getConfig()))
+                .headers(RequestHeaderUtils.createBaseHeaders_V2(requestContext))
                 .build();
     }
 
@@ -48,7 +50,7 @@ public class RequestModelUtils {
             result = new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getRequestIdProvider())
                     .url(ME_LAST_MOBILE_ACTIVITY_V2)
                     .payload(RequestPayloadUtils.createBasePayload(requestContext))
-                    .headers(RequestHeaderUtils.createBaseHeaders_V2(requestContext.getConfig()))
+                    .headers(RequestHeaderUtils.createBaseHeaders_V2(requestContext))
                     .build();
         }
         return result;
@@ -61,27 +63,63 @@ public class RequestModelUtils {
         Assert.notNull(eventName, "EventName must not be null!");
         Assert.notNull(requestContext, "RequestContext must not be null!");
 
-        Map<String, Object> event = new HashMap<>();
-        event.put("type", "internal");
-        event.put("name", eventName);
-        event.put("timestamp", TimestampUtils.formatTimestampWithUTC(requestContext.getTimestampProvider().provideTimestamp()));
-        if (attributes != null && !attributes.isEmpty()) {
-            event.put("attributes", attributes);
-        }
+        Map<String, Object> event = new EventRecord(
+                EventRecord.TYPE_INTERNAL,
+                eventName,
+                requestContext.getTimestampProvider().provideTimestamp(),
+                attributes);
 
         Map<String, Object> payload = new HashMap<>();
         payload.put("clicks", Collections.emptyList());
         payload.put("viewed_messages", Collections.emptyList());
         payload.put("events", Collections.singletonList(event));
 
+        Session session = requestContext.getSession();
         return new RequestModel(
-                RequestUrlUtils.createEventUrl_V3(requestContext.getMeIdStorage().get()),
+                RequestUrlUtils.createEventUrl_V3(session.getMeId()),
                 RequestMethod.POST,
                 payload,
-                RequestHeaderUtils.createBaseHeaders_V3(requestContext),
+                RequestHeaderUtils.createBaseHeaders_V3(requestContext, session),
                 requestContext.getTimestampProvider().provideTimestamp(),
                 Long.MAX_VALUE,
                 requestContext.getRequestIdProvider().provideId());
     }
 
+    public static RequestModel createCustomEvent_V3(
+            String eventName,
+            Map<String, String> attributes,
+            long timestamp,
+            String requestId,
+            RequestContext requestContext) {
+        Assert.notNull(eventName, "EventName must not be null!");
+
+        Map<String, Object> event = new EventRecord(EventRecord.TYPE_CUSTOM, eventName, timestamp, attributes);
+
+        return createCustomEventBatch_V3(Collections.singletonList(event), requestId, requestContext);
+    }
+
+    public static RequestModel createCustomEventBatch_V3(
+            List<Map<String, Object>> events,
+            String requestId,
+            RequestContext requestContext) {
+        Assert.notNull(events, "Events must not be null!");
+        Assert.notNull(requestId, "RequestId must not be null!");
+        Assert.notNull(requestContext, "RequestContext must not be null!");
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("clicks", Collections.emptyList());
+        payload.put("viewed_messages", Collections.emptyList());
+        payload.put("events", events);
+
+        Session session = requestContext.getSession();
+        return new RequestModel(
+                RequestUrlUtils.createEventUrl_V3(session.getMeId()),
+                RequestMethod.POST,
+                payload,
+                RequestHeaderUtils.createBaseHeaders_V3(requestContext, session),
+                requestContext.getTimestampProvider().provideTimestamp(),
+                Long.MAX_VALUE,
+                requestId);
+    }
+
 }
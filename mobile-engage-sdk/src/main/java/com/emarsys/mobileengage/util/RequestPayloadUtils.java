@@ -4,7 +4,6 @@ import com.emarsys.core.DeviceInfo;
 import com.emarsys.core.util.Assert;
 import com.emarsys.mobileengage.MobileEngageInternal;
 import com.emarsys.mobileengage.RequestContext;
-import com.emarsys.mobileengage.event.applogin.AppLoginParameters;
 import com.emarsys.mobileengage.iam.model.IamConversionUtils;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClicked;
 import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIam;
@@ -25,19 +24,8 @@ public class RequestPayloadUtils {
         Assert.notNull(additionalPayload, "AdditionalPayload must not be null!");
         Assert.notNull(requestContext, "RequestContext must not be null!");
 
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("application_id", requestContext.getApplicationCode());
-        payload.put("hardware_id", requestContext.getDeviceInfo().getHwid());
-
-        AppLoginParameters parameters = requestContext.getAppLoginParameters();
-        if (parameters != null && parameters.hasCredentials()) {
-            payload.put("contact_field_id", parameters.getContactFieldId());
-            payload.put("contact_field_value", parameters.getContactFieldValue());
-        }
-
-        for (Map.Entry<String, Object> entry : additionalPayload.entrySet()) {
-            payload.put(entry.getKey(), entry.getValue());
-        }
+        Map<String, Object> payload = new HashMap<>(requestContext.getBasePayload());
+        payload.putAll(additionalPayload);
         return payload;
     }
 
@@ -70,14 +58,31 @@ public class RequestPayloadUtils {
             List<ButtonClicked> buttonClicks,
             DeviceInfo deviceInfo,
             boolean doNotDisturb) {
-        Assert.notNull(events, "Events must not be null!");
         Assert.notNull(displayedIams, "DisplayedIams must not be null!");
         Assert.notNull(buttonClicks, "ButtonClicks must not be null!");
+
+        return createConvertedCompositeRequestModelPayload(
+                events,
+                IamConversionUtils.displayedIamsToArray(displayedIams),
+                IamConversionUtils.buttonClicksToArray(buttonClicks),
+                deviceInfo,
+                doNotDisturb);
+    }
+
+    public static Map<String, Object> createConvertedCompositeRequestModelPayload(
+            List<?> events,
+            List<Map<String, Object>> viewedMessages,
+            List<Map<String, Object>> clicks,
+            DeviceInfo deviceInfo,
+            boolean doNotDisturb) {
+        Assert.notNull(events, "Events must not be null!");
+        Assert.notNull(viewedMessages, "ViewedMessages must not be null!");
+        Assert.notNull(clicks, "Clicks must not be null!");
         Assert.notNull(deviceInfo, "DeviceInfo must not be null!");
 
         Map<String, Object> compositePayload = new HashMap<>();
-        compositePayload.put("viewed_messages", IamConversionUtils.displayedIamsToArray(displayedIams));
-        compositePayload.put("clicks", IamConversionUtils.buttonClicksToArray(buttonClicks));
+        compositePayload.put("viewed_messages", viewedMessages);
+        compositePayload.put("clicks", clicks);
         if (doNotDisturb) {
             compositePayload.put("dnd", true);
         }
@@ -0,0 +1,92 @@
+package com.emarsys.mobileengage.util;
+
+import com.emarsys.core.util.TimestampUtils;
+
+public class TimestampFormatUtils {
+
+    private static final int LENGTH = 24;
+    private static final int PREFIX_LENGTH = 20;
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long MAX_TIMESTAMP = 253_402_300_799_999L;
+
+    private static final ThreadLocal<char[]> BUFFER = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[LENGTH];
+        }
+    };
+
+    private static volatile SecondPrefix cachedPrefix = new SecondPrefix(-1, new char[PREFIX_LENGTH]);
+
+    public static String formatTimestampWithUTC(long timestamp) {
+        if (timestamp < 0 || timestamp > MAX_TIMESTAMP) {
+            return TimestampUtils.formatTimestampWithUTC(timestamp);
+        }
+
+        long epochSecond = timestamp / MILLIS_PER_SECOND;
+        int millis = (int) (timestamp - epochSecond * MILLIS_PER_SECOND);
+
+        SecondPrefix prefix = cachedPrefix;
+        if (prefix.epochSecond != epochSecond) {
+            prefix = new SecondPrefix(epochSecond, createPrefix(epochSecond));
+            cachedPrefix = prefix;
+        }
+
+        char[] buffer = BUFFER.get();
+        System.arraycopy(prefix.chars, 0, buffer, 0, PREFIX_LENGTH);
+        buffer[20] = (char) ('0' + millis / 100);
+        buffer[21] = (char) ('0' + millis / 10 % 10);
+        buffer[22] = (char) ('0' + millis % 10);
+        buffer[23] = 'Z';
+        return new String(buffer, 0, LENGTH);
+    }
+
+    private static char[] createPrefix(long epochSecond) {
+        long epochDay = epochSecond / SECONDS_PER_DAY;
+        int secondOfDay = (int) (epochSecond - epochDay * SECONDS_PER_DAY);
+
+        // civil date from days since 1970-01-01 in the proleptic Gregorian calendar
+        long z = epochDay + 719_468;
+        long era = z / 146_097;
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        char[] chars = new char[PREFIX_LENGTH];
+        writeDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        writeDigits(chars, 5, month, 2);
+        chars[7] = '-';
+        writeDigits(chars, 8, day, 2);
+        chars[10] = 'T';
+        writeDigits(chars, 11, secondOfDay / 3600, 2);
+        chars[13] = ':';
+        writeDigits(chars, 14, secondOfDay / 60 % 60, 2);
+        chars[16] = ':';
+        writeDigits(chars, 17, secondOfDay % 60, 2);
+        chars[19] = '.';
+        return chars;
+    }
+
+    private static void writeDigits(char[] chars, int offset, int value, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static class SecondPrefix {
+        private final long epochSecond;
+        private final char[] chars;
+
+        SecondPrefix(long epochSecond, char[] chars) {
+            this.epochSecond = epochSecond;
+            this.chars = chars;
+        }
+    }
+}